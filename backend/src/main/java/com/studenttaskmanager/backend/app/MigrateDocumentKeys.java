@@ -0,0 +1,41 @@
+package com.studenttaskmanager.backend.app;
+
+import com.studenttaskmanager.backend.db.FirebaseConfig;
+import com.studenttaskmanager.backend.repository.DocumentKeys;
+import com.studenttaskmanager.backend.repository.FirebaseStudentRepository;
+
+/**
+ * Command-line tool that moves the Firestore task documents to another
+ * document key scheme (see {@link DocumentKeys}).
+ *
+ * Steps to switch a project to hashed keys:
+ *  1. stop the app on every machine,
+ *  2. run this tool with "hashed",
+ *  3. start the app again with -Dstm.firestore.keys=hashed.
+ * If the tool reports a failure, simply run it again.
+ *
+ * Example:
+ * <pre>
+ *   java -cp backend.jar com.studenttaskmanager.backend.app.MigrateDocumentKeys hashed
+ * </pre>
+ */
+public class MigrateDocumentKeys {
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Usage: MigrateDocumentKeys plain|hashed");
+            System.exit(2);
+        }
+        DocumentKeys.Scheme target = DocumentKeys.Scheme.valueOf(args[0].toUpperCase());
+
+        FirebaseConfig.init();
+        int moved = new FirebaseStudentRepository(target).migrateDocumentKeys(target);
+
+        if (moved < 0) {
+            System.out.println("Migration failed; run it again to continue.");
+            System.exit(1);
+        }
+        System.out.println("Done: " + moved + " document(s) moved. Start the app with -Dstm.firestore.keys="
+                + target.name().toLowerCase());
+    }
+}
@@ -0,0 +1,266 @@
+package com.studenttaskmanager.backend.dataset;
+
+import com.studenttaskmanager.backend.models.Student;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of synthetic task data.
+ *
+ * Used to fill the in-memory backend, tests and benchmarks with realistic
+ * amounts of data without a Firebase project. The same settings always
+ * produce exactly the same records (on every machine), so results can be
+ * compared between runs.
+ *
+ * Settings (all optional):
+ *  - size:       number of records (default 1000)
+ *  - courses:    number of different course names (default 40)
+ *  - dueDates:   how due dates are spread around an anchor date
+ *                (see {@link DueDateDistribution}, default UNIFORM over
+ *                180 days before and after the anchor)
+ *  - seed:       random seed (default 42)
+ *  - firstId:    id of the first record (default 1)
+ *
+ * Example:
+ * <pre>
+ *   List&lt;DatasetGenerator.Record&gt; rows = new DatasetGenerator()
+ *           .size(100_000)
+ *           .courses(25)
+ *           .dueDates(DueDateDistribution.NEAR_TERM, LocalDate.of(2025, 3, 15), 60)
+ *           .records();
+ * </pre>
+ */
+public class DatasetGenerator {
+
+    /**
+     * How due dates are spread around the anchor date.
+     */
+    public enum DueDateDistribution {
+        /** Every day in [anchor - spread, anchor + spread] is equally likely. */
+        UNIFORM,
+        /** Bell curve centered on the anchor, most tasks within +/- spread/2 days. */
+        NORMAL,
+        /** Like a real semester: most tasks due soon after the anchor, about 15% overdue. */
+        NEAR_TERM
+    }
+
+    public static final String[] STATUSES = {"Not started", "In progress", "Completed"};
+    public static final String[] PRIORITIES = {"Low", "Medium", "High"};
+
+    // Rough real-world mix: most tasks are open, a third are done.
+    private static final int[] STATUS_WEIGHTS = {40, 27, 33};
+
+    private static final String[] TASK_KINDS = {
+            "Homework", "Essay", "Lab report", "Quiz prep", "Reading",
+            "Project", "Problem set", "Presentation", "Midterm review", "Discussion post"
+    };
+
+    private static final String[] NOTE_WORDS = {
+            "check", "rubric", "submit", "online", "group", "draft", "chapter",
+            "slides", "office", "hours", "sources", "outline", "final", "review"
+    };
+
+    private int size = 1000;
+    private int courses = 40;
+    private DueDateDistribution distribution = DueDateDistribution.UNIFORM;
+    private LocalDate anchor = LocalDate.of(2025, 3, 15);
+    private int spreadDays = 180;
+    private long seed = 42L;
+    private int firstId = 1;
+
+    public DatasetGenerator size(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        this.size = size;
+        return this;
+    }
+
+    public DatasetGenerator courses(int courses) {
+        if (courses <= 0) {
+            throw new IllegalArgumentException("courses must be positive");
+        }
+        this.courses = courses;
+        return this;
+    }
+
+    /**
+     * @param distribution how dates are spread
+     * @param anchor       center of the dates ("today" for NEAR_TERM)
+     * @param spreadDays   how far dates reach from the anchor, in days
+     */
+    public DatasetGenerator dueDates(DueDateDistribution distribution, LocalDate anchor, int spreadDays) {
+        if (spreadDays <= 0) {
+            throw new IllegalArgumentException("spreadDays must be positive");
+        }
+        this.distribution = distribution;
+        this.anchor = anchor;
+        this.spreadDays = spreadDays;
+        return this;
+    }
+
+    public DatasetGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public DatasetGenerator firstId(int firstId) {
+        this.firstId = firstId;
+        return this;
+    }
+
+    /**
+     * Generates all records.
+     */
+    public List<Record> records() {
+        Random random = new Random(seed);
+        List<Record> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add(next(random, firstId + i));
+        }
+        return records;
+    }
+
+    /**
+     * Generates the records as backend Student objects
+     * (fields Student does not have yet, like the due date, are dropped).
+     */
+    public List<Student> students() {
+        List<Record> records = records();
+        List<Student> students = new ArrayList<>(records.size());
+        for (Record r : records) {
+            students.add(r.toStudent());
+        }
+        return students;
+    }
+
+    /**
+     * Course name for a course number, for example "COURSE 107".
+     */
+    public static String courseName(int course) {
+        return "COURSE " + (100 + course);
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private Record next(Random random, int id) {
+        String kind = TASK_KINDS[random.nextInt(TASK_KINDS.length)];
+        String course = courseName(random.nextInt(courses));
+        LocalDate due = nextDueDate(random);
+        String priority = PRIORITIES[random.nextInt(PRIORITIES.length)];
+        String status = STATUSES[weighted(random, STATUS_WEIGHTS)];
+        String notes = NOTE_WORDS[random.nextInt(NOTE_WORDS.length)] + " "
+                + NOTE_WORDS[random.nextInt(NOTE_WORDS.length)];
+
+        return new Record(id, kind + " " + id, course, due, priority, status, notes);
+    }
+
+    private LocalDate nextDueDate(Random random) {
+        switch (distribution) {
+            case NORMAL: {
+                // About 95% of values fall within +/- spread/2.
+                long offset = Math.round(random.nextGaussian() * spreadDays / 4.0);
+                offset = Math.max(-spreadDays, Math.min(spreadDays, offset));
+                return anchor.plusDays(offset);
+            }
+            case NEAR_TERM: {
+                if (random.nextInt(100) < 15) {
+                    // Overdue: up to spread/4 days in the past.
+                    return anchor.minusDays(1 + random.nextInt(Math.max(1, spreadDays / 4)));
+                }
+                // Exponential: many due in the next days, a few far away.
+                double mean = Math.max(1.0, spreadDays / 4.0);
+                long offset = Math.round(-Math.log(1.0 - random.nextDouble()) * mean);
+                return anchor.plusDays(Math.min(spreadDays, offset));
+            }
+            default:
+                return anchor.plusDays(random.nextInt(2 * spreadDays + 1) - spreadDays);
+        }
+    }
+
+    private static int weighted(Random random, int[] weights) {
+        int total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * One generated task, with every field the UI knows about.
+     */
+    public static class Record {
+
+        private final int id;
+        private final String title;
+        private final String course;
+        private final LocalDate dueDate;
+        private final String priority;
+        private final String status;
+        private final String notes;
+
+        public Record(int id, String title, String course, LocalDate dueDate,
+                      String priority, String status, String notes) {
+            this.id = id;
+            this.title = title;
+            this.course = course;
+            this.dueDate = dueDate;
+            this.priority = priority;
+            this.status = status;
+            this.notes = notes;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getCourse() {
+            return course;
+        }
+
+        public LocalDate getDueDate() {
+            return dueDate;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getNotes() {
+            return notes;
+        }
+
+        /**
+         * Backend record with the same fields.
+         */
+        public Student toStudent() {
+            Student s = new Student(id, "Student", "Task", course, title, status);
+            s.setDueDate(dueDate != null ? dueDate.toString() : null);
+            s.setPriority(priority);
+            s.setNotes(notes);
+            s.setCreatedAt("2025-01-01T00:00:00.000Z");
+            s.setUpdatedAt("2025-01-01T00:00:00.000Z");
+            return s;
+        }
+    }
+}
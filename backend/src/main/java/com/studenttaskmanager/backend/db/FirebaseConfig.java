@@ -1,78 +1,276 @@
 package com.studenttaskmanager.backend.db;
 
+import com.google.api.gax.grpc.ChannelPoolSettings;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.api.gax.retrying.RetrySettings;
+import com.google.auth.oauth2.AccessToken;
 import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import com.google.cloud.ServiceOptions;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.cloud.FirestoreClient;
+import com.studenttaskmanager.backend.repository.DocumentKeys;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class is responsible for initializing the Firebase Admin SDK
  * and providing access to the Firestore database.
  *
  * It loads the serviceAccountKey.json file from the resources folder
- * and creates the Firebase application instance only once.
+ * and creates the Firebase application and the Firestore client only once.
  *
  * The repository classes call getFirestore() whenever they need to
- * communicate with the Firestore database.
+ * communicate with the Firestore database. The client is created by the
+ * first caller, under a lock, and kept in a volatile field: any number
+ * of threads can ask for it at the same time, Firebase is initialized
+ * exactly once, and later calls are a single field read.
+ *
+ * Reading the key file and parsing the credentials is the slow part, and
+ * it does not depend on anything else. The startup screen calls
+ * {@link #loadCredentials()} and then {@link #initAsync()} on background
+ * threads, so this runs while other startup work is going on.
+ *
+ * The Firestore client can be tuned with these settings (system property
+ * first, then environment variable, like {@link RepositoryConfig}):
+ *
+ *   stm.firestore.channels    / STM_FIRESTORE_CHANNELS    gRPC channels to open (default: library default).
+ *                                                         Each channel carries about 100 calls at once.
+ *   stm.firestore.keepalive.s / STM_FIRESTORE_KEEPALIVE_S seconds between keepalive pings, so idle
+ *                                                         connections (live sync) are not dropped (default: off)
+ *   stm.firestore.deadline.s  / STM_FIRESTORE_DEADLINE_S  longest time for one call, retries included
+ *                                                         (default: library default)
+ *   stm.firestore.emulator    / STM_FIRESTORE_EMULATOR    host:port of a local Firestore emulator
+ *   stm.firestore.project     / STM_FIRESTORE_PROJECT     project id (default: from the key file,
+ *                                                         "demo-student-task-manager" for the emulator)
+ *   stm.firestore.keys        / STM_FIRESTORE_KEYS        document ids of tasks: "plain" (default, "20001")
+ *                                                         or "hashed" ("9f3c-20001", spreads bulk imports;
+ *                                                         migrate existing data first, see DocumentKeys)
+ *
+ * Example: java -Dstm.firestore.channels=4 -Dstm.firestore.keepalive.s=60 -jar frontend.jar
  */
 public class FirebaseConfig {
 
-    // Ensures Firebase is only initialized once for the entire backend.
-    private static boolean initialized = false;
+    // Project id used with the emulator when there is no key file
+    private static final String EMULATOR_PROJECT = "demo-student-task-manager";
+
+    // How long to wait for a keepalive ping answer before dropping the connection
+    private static final long KEEPALIVE_TIMEOUT_SECONDS = 20;
+
+    // Guards creation of the client and the credentials
+    private static final Object LOCK = new Object();
+
+    // The Firestore client; null until the first getFirestore()
+    private static volatile Firestore firestore;
+
+    // Background creation started by initAsync() (guarded by LOCK)
+    private static CompletableFuture<Firestore> starting;
+
+    // Credentials read by loadCredentials() (guarded by LOCK)
+    private static GoogleCredentials credentials;
 
     /**
      * Initializes Firebase using the service account key stored in:
      *    backend/src/main/resources/serviceAccountKey.json
      *
      * If Firebase is already initialized, this method simply returns.
+     * Errors are printed, not thrown (getFirestore() tries again later).
      */
     public static void init() {
-        if (initialized) {
-            return; // Already initialized, nothing to do.
+        try {
+            getFirestore();
+        } catch (IllegalStateException e) {
+            System.out.println("Failed to initialize Firebase.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Starts creating the Firestore client on the shared I/O threads.
+     * Calling it again returns the same future.
+     *
+     * @return completes with the client, or exceptionally if Firebase
+     *         could not be initialized
+     */
+    public static CompletableFuture<Firestore> initAsync() {
+        synchronized (LOCK) {
+            if (firestore != null) {
+                return CompletableFuture.completedFuture(firestore);
+            }
+            if (starting == null || starting.isCompletedExceptionally()) {
+                starting = CompletableFuture.supplyAsync(FirebaseConfig::getFirestore, IoExecutor.get());
+            }
+            return starting;
         }
+    }
 
-        try (InputStream serviceAccount =
-                     FirebaseConfig.class.getClassLoader()
-                             .getResourceAsStream("serviceAccountKey.json")) {
+    /**
+     * Returns a Firestore instance.
+     * If Firebase was not initialized before this method is called,
+     * it will initialize automatically. Safe to call from any thread.
+     *
+     * @return Firestore database instance
+     * @throws IllegalStateException if Firebase cannot be initialized
+     */
+    public static Firestore getFirestore() {
+        Firestore db = firestore;
+        if (db != null) {
+            return db;
+        }
+        synchronized (LOCK) {
+            if (firestore == null) {
+                firestore = create();
+            }
+            return firestore;
+        }
+    }
 
-            if (serviceAccount == null) {
-                throw new IllegalStateException(
-                        "ERROR: serviceAccountKey.json not found in resources folder."
-                );
+    /**
+     * Reads the service account key and parses the credentials.
+     * Only the first call does the work; initialization uses the result.
+     *
+     * @return the service account credentials
+     * @throws IOException if the key file cannot be read or parsed
+     * @throws IllegalStateException if the key file is missing
+     */
+    public static GoogleCredentials loadCredentials() throws IOException {
+        synchronized (LOCK) {
+            if (credentials != null) {
+                return credentials;
             }
 
-            FirebaseOptions options = FirebaseOptions.builder()
-                    .setCredentials(GoogleCredentials.fromStream(serviceAccount))
+            try (InputStream serviceAccount =
+                         FirebaseConfig.class.getClassLoader()
+                                 .getResourceAsStream("serviceAccountKey.json")) {
+
+                if (serviceAccount == null) {
+                    throw new IllegalStateException(
+                            "ERROR: serviceAccountKey.json not found in resources folder."
+                    );
+                }
+                credentials = GoogleCredentials.fromStream(serviceAccount);
+                return credentials;
+            }
+        }
+    }
+
+    /**
+     * Builds the Firestore client options from the settings listed above.
+     *
+     * @param projectId Firebase project id
+     * @return options for FirebaseOptions.setFirestoreOptions
+     */
+    public static FirestoreOptions firestoreOptions(String projectId) {
+        FirestoreOptions.Builder builder = FirestoreOptions.newBuilder();
+        builder.setProjectId(projectId);
+
+        String emulator = emulatorHost();
+        int channels = Integer.parseInt(RepositoryConfig.setting(
+                "stm.firestore.channels", "STM_FIRESTORE_CHANNELS", "0"));
+        long keepAliveSeconds = Long.parseLong(RepositoryConfig.setting(
+                "stm.firestore.keepalive.s", "STM_FIRESTORE_KEEPALIVE_S", "0"));
+        long deadlineSeconds = Long.parseLong(RepositoryConfig.setting(
+                "stm.firestore.deadline.s", "STM_FIRESTORE_DEADLINE_S", "0"));
+
+        if (emulator != null) {
+            // The emulator needs its own plain-text channel, so no channel tuning
+            builder.setEmulatorHost(emulator);
+        } else if (channels > 0 || keepAliveSeconds > 0) {
+            InstantiatingGrpcChannelProvider.Builder channel =
+                    FirestoreOptions.getDefaultTransportChannelProviderBuilder();
+            if (channels > 0) {
+                channel.setChannelPoolSettings(ChannelPoolSettings.staticallySized(channels));
+            }
+            if (keepAliveSeconds > 0) {
+                channel.setKeepAliveTime(org.threeten.bp.Duration.ofSeconds(keepAliveSeconds))
+                        .setKeepAliveTimeout(org.threeten.bp.Duration.ofSeconds(KEEPALIVE_TIMEOUT_SECONDS))
+                        .setKeepAliveWithoutCalls(true);
+            }
+            builder.setChannelProvider(channel.build());
+        }
+
+        if (deadlineSeconds > 0) {
+            org.threeten.bp.Duration deadline = org.threeten.bp.Duration.ofSeconds(deadlineSeconds);
+            RetrySettings retry = ServiceOptions.getDefaultRetrySettings().toBuilder()
+                    .setInitialRpcTimeout(deadline)
+                    .setMaxRpcTimeout(deadline)
+                    .setTotalTimeout(deadline)
                     .build();
+            builder.setRetrySettings(retry);
+        }
+        return builder.build();
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
 
-            FirebaseApp.initializeApp(options);
-            initialized = true;
+    /**
+     * Initializes Firebase and creates the client. Called once, under LOCK.
+     */
+    private static Firestore create() {
+        try {
+            if (FirebaseApp.getApps().isEmpty()) {
+                GoogleCredentials appCredentials = appCredentials();
+                String projectId = projectId(appCredentials);
+
+                FirebaseOptions options = FirebaseOptions.builder()
+                        .setCredentials(appCredentials)
+                        .setProjectId(projectId)
+                        .setFirestoreOptions(firestoreOptions(projectId))
+                        .build();
+                FirebaseApp.initializeApp(options);
+            }
+
+            Firestore db = FirestoreClient.getFirestore();
             System.out.println("Firebase initialized successfully.");
+            return db;
 
         } catch (IOException e) {
-            System.out.println("Failed to initialize Firebase (I/O error).");
-            e.printStackTrace();
-        } catch (Exception e) {
-            System.out.println("Unexpected error while initializing Firebase.");
-            e.printStackTrace();
+            throw new IllegalStateException("Failed to initialize Firebase (I/O error).", e);
         }
     }
 
     /**
-     * Returns a Firestore instance.
-     * If Firebase was not initialized before this method is called,
-     * it will initialize automatically.
+     * The service account credentials, or a fixed token when only the
+     * emulator is used and there is no key file.
+     */
+    private static GoogleCredentials appCredentials() throws IOException {
+        boolean hasKey = FirebaseConfig.class.getClassLoader()
+                .getResource("serviceAccountKey.json") != null;
+        if (!hasKey && emulatorHost() != null) {
+            return GoogleCredentials.create(new AccessToken("owner", null));
+        }
+        return loadCredentials();
+    }
+
+    /**
+     * Returns the configured document key scheme for tasks.
      *
-     * @return Firestore database instance
+     * @throws IllegalArgumentException if the setting is not "plain" or "hashed"
      */
-    public static Firestore getFirestore() {
-        if (!initialized) {
-            init();
+    public static DocumentKeys.Scheme documentKeys() {
+        String value = RepositoryConfig.setting("stm.firestore.keys", "STM_FIRESTORE_KEYS", "plain");
+        return DocumentKeys.Scheme.valueOf(value.toUpperCase());
+    }
+
+    private static String projectId(GoogleCredentials appCredentials) {
+        String configured = RepositoryConfig.setting("stm.firestore.project", "STM_FIRESTORE_PROJECT", null);
+        if (configured != null) {
+            return configured;
+        }
+        if (appCredentials instanceof ServiceAccountCredentials) {
+            return ((ServiceAccountCredentials) appCredentials).getProjectId();
         }
-        return FirestoreClient.getFirestore();
+        return EMULATOR_PROJECT;
+    }
+
+    private static String emulatorHost() {
+        return RepositoryConfig.setting("stm.firestore.emulator", "STM_FIRESTORE_EMULATOR", null);
     }
-}
\ No newline at end of file
+}
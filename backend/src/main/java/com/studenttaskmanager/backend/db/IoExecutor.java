@@ -0,0 +1,61 @@
+package com.studenttaskmanager.backend.db;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared thread pool for database I/O.
+ *
+ * The async repository methods complete their futures on these threads,
+ * so callers (for example the JavaFX UI) never wait for a Firestore
+ * round trip on their own thread.
+ *
+ * Threads are daemon threads, so they never keep the application alive
+ * after the UI has closed.
+ */
+public class IoExecutor {
+
+    // Enough threads to overlap several round trips without flooding Firestore.
+    private static final int POOL_SIZE =
+            Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newFixedThreadPool(POOL_SIZE, new IoThreadFactory());
+
+    private IoExecutor() {
+    }
+
+    /**
+     * Returns the shared I/O executor.
+     *
+     * @return executor used for all repository callbacks
+     */
+    public static ExecutorService get() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Stops accepting new work. Already submitted work still runs.
+     * Call this once when the application shuts down.
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdown();
+    }
+
+    /**
+     * Names the threads "db-io-N" so they are easy to spot in a thread dump.
+     */
+    private static class IoThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "db-io-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
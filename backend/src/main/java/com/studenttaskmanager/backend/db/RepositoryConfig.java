@@ -0,0 +1,180 @@
+package com.studenttaskmanager.backend.db;
+
+import com.studenttaskmanager.backend.dataset.DatasetGenerator;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.FaultInjectingStudentRepository;
+import com.studenttaskmanager.backend.repository.FirebaseStudentRepository;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.MutationJournal;
+import com.studenttaskmanager.backend.repository.SqliteStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses which {@link StudentRepository} implementation the application uses.
+ *
+ * Settings are read from a JVM system property first, then from an
+ * environment variable, then a default is used:
+ *
+ *   stm.backend      / STM_BACKEND      "firebase" (default), "sqlite" or "memory"
+ *   stm.sqlite.path  / STM_SQLITE_PATH  SQLite file, default "TaskManager.db"
+ *   stm.journal.path / STM_JOURNAL_PATH offline write journal, default
+ *                                       ~/.student-task-manager/mutations.journal
+ *                                       ("off" disables the journal)
+ *
+ * The "memory" backend needs no network or files. It is meant for load
+ * tests and demos on a disconnected machine:
+ *
+ *   stm.memory.size         / STM_MEMORY_SIZE         generated tasks to start with (default 0)
+ *   stm.memory.courses      / STM_MEMORY_COURSES      different courses in the data (default 40)
+ *   stm.memory.seed         / STM_MEMORY_SEED         data and fault seed (default 42)
+ *   stm.memory.latency.ms   / STM_MEMORY_LATENCY_MS   delay per call (default 0)
+ *   stm.memory.jitter.ms    / STM_MEMORY_JITTER_MS    random extra delay (default 0)
+ *   stm.memory.failure.rate / STM_MEMORY_FAILURE_RATE fraction of failing calls (default 0)
+ *
+ * The Firestore client itself (channels, keepalive, deadlines, emulator)
+ * is tuned with the stm.firestore.* settings described in {@link FirebaseConfig}.
+ *
+ * Example: java -Dstm.backend=sqlite -jar frontend.jar
+ * Example: java -Dstm.backend=memory -Dstm.memory.size=100000 -Dstm.memory.latency.ms=80 ...
+ */
+public class RepositoryConfig {
+
+    public static final String BACKEND_FIREBASE = "firebase";
+    public static final String BACKEND_SQLITE = "sqlite";
+    public static final String BACKEND_MEMORY = "memory";
+
+    private static final String DEFAULT_SQLITE_PATH = "TaskManager.db";
+
+    private static final String JOURNAL_OFF = "off";
+
+    private RepositoryConfig() {
+    }
+
+    /**
+     * Returns the configured backend name in lower case.
+     */
+    public static String backend() {
+        return setting("stm.backend", "STM_BACKEND", BACKEND_FIREBASE).toLowerCase();
+    }
+
+    /**
+     * Returns the configured SQLite database path.
+     */
+    public static String sqlitePath() {
+        return setting("stm.sqlite.path", "STM_SQLITE_PATH", DEFAULT_SQLITE_PATH);
+    }
+
+    /**
+     * Returns the configured journal path, or null if the journal is off.
+     */
+    public static String journalPath() {
+        String defaultPath = Paths.get(System.getProperty("user.home"),
+                ".student-task-manager", "mutations.journal").toString();
+        String value = setting("stm.journal.path", "STM_JOURNAL_PATH", defaultPath);
+        return JOURNAL_OFF.equalsIgnoreCase(value) ? null : value;
+    }
+
+    /**
+     * Returns where leased task ids are kept between sessions (next to the
+     * journal), or null if the journal is off.
+     */
+    public static Path idLeasePath() {
+        String path = journalPath();
+        return path == null ? null : Paths.get(path + ".ids");
+    }
+
+    /**
+     * Opens the offline mutation journal.
+     *
+     * @return the journal, or null if it is turned off or cannot be opened
+     *         (the app then still works, just without offline protection)
+     */
+    public static MutationJournal openJournal() {
+        String path = journalPath();
+        if (path == null) {
+            return null;
+        }
+        try {
+            return new MutationJournal(Paths.get(path));
+        } catch (IOException e) {
+            System.out.println("Could not open mutation journal " + path
+                    + ", continuing without it.");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Creates the repository selected by configuration.
+     * Firebase is only initialized when the Firebase backend is selected.
+     *
+     * @return a ready-to-use repository
+     * @throws IllegalStateException if the configured backend is unknown
+     */
+    public static StudentRepository createRepository() {
+        String backend = backend();
+        System.out.println("Using storage backend: " + backend);
+
+        switch (backend) {
+            case BACKEND_FIREBASE:
+                FirebaseConfig.init();
+                return new FirebaseStudentRepository();
+            case BACKEND_SQLITE:
+                return new SqliteStudentRepository(sqlitePath());
+            case BACKEND_MEMORY:
+                return createMemoryRepository();
+            default:
+                throw new IllegalStateException("Unknown storage backend: " + backend
+                        + " (expected " + BACKEND_FIREBASE + ", " + BACKEND_SQLITE
+                        + " or " + BACKEND_MEMORY + ")");
+        }
+    }
+
+    /**
+     * Builds the in-memory backend: generated data, optionally behind
+     * injected latency and failures.
+     */
+    static StudentRepository createMemoryRepository() {
+        int size = Integer.parseInt(setting("stm.memory.size", "STM_MEMORY_SIZE", "0"));
+        int courses = Integer.parseInt(setting("stm.memory.courses", "STM_MEMORY_COURSES", "40"));
+        long seed = Long.parseLong(setting("stm.memory.seed", "STM_MEMORY_SEED", "42"));
+        long latencyMs = Long.parseLong(setting("stm.memory.latency.ms", "STM_MEMORY_LATENCY_MS", "0"));
+        long jitterMs = Long.parseLong(setting("stm.memory.jitter.ms", "STM_MEMORY_JITTER_MS", "0"));
+        double failureRate = Double.parseDouble(
+                setting("stm.memory.failure.rate", "STM_MEMORY_FAILURE_RATE", "0"));
+
+        InMemoryStudentRepository memory = new InMemoryStudentRepository();
+        if (size > 0) {
+            List<StudentMutation> load = new ArrayList<>(size);
+            for (Student s : new DatasetGenerator().size(size).courses(courses).seed(seed).students()) {
+                load.add(StudentMutation.upsert(s));
+            }
+            memory.applyBatchAsync(load).join();
+        }
+        System.out.println("In-memory backend: " + size + " tasks, latency " + latencyMs
+                + "+" + jitterMs + " ms, failure rate " + failureRate);
+
+        if (latencyMs == 0 && jitterMs == 0 && failureRate == 0.0) {
+            return memory;
+        }
+        return new FaultInjectingStudentRepository(memory, latencyMs, jitterMs, failureRate, seed);
+    }
+
+    /**
+     * Reads one setting: system property, then environment variable, then default.
+     */
+    static String setting(String property, String envVariable, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(envVariable);
+        }
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+}
@@ -0,0 +1,243 @@
+package com.studenttaskmanager.backend.models;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Totals for one course (className): number of tasks per status, the
+ * earliest due date per status, and when a task of the course last changed.
+ *
+ * The repositories keep one summary per course and update it together
+ * with every task write (in the same transaction), so a course overview
+ * is a single read however many tasks the course has. See
+ * {@link com.studenttaskmanager.backend.repository.StudentRepository#getCourseSummaryAsync(String)}.
+ *
+ * {@link #add(Student)} and {@link #remove(Student)} apply one task.
+ * Counts and "earliest due date" can both be updated from the task
+ * alone, except when the task with the earliest due date goes away:
+ * then remove() returns true and the caller looks up the next one
+ * (an indexed query for a single task) and passes it to
+ * {@link #offerDueDate(String, String)}.
+ */
+public class CourseSummary {
+
+    /**
+     * Status of finished tasks; they do not count for {@link #getOpenCount()}
+     * and {@link #getNextDueDate()}. Matched ignoring case, like the
+     * Analytics screen does (counts are still kept per stored value).
+     */
+    public static final String COMPLETED = "Completed";
+
+    /**
+     * Key used for tasks without a status.
+     */
+    public static final String NO_STATUS = "(none)";
+
+    private final String className;
+
+    // Status -> number of tasks (only statuses with at least one task)
+    private final Map<String, Long> counts = new TreeMap<>();
+
+    // Status -> earliest due date (ISO text) of its tasks that have one
+    private final Map<String, String> nextDueDates = new TreeMap<>();
+
+    private String updatedAt;
+
+    public CourseSummary(String className) {
+        this.className = className;
+    }
+
+    /**
+     * Copy constructor (repositories hand out copies).
+     */
+    public CourseSummary(CourseSummary other) {
+        this.className = other.className;
+        this.counts.putAll(other.counts);
+        this.nextDueDates.putAll(other.nextDueDates);
+        this.updatedAt = other.updatedAt;
+    }
+
+    // --------------------
+    // Getters
+    // --------------------
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Number of tasks in the course.
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Number of tasks with the given status (null means no status).
+     */
+    public long getCount(String status) {
+        return counts.getOrDefault(statusKey(status), 0L);
+    }
+
+    /**
+     * Number of tasks that are not completed.
+     */
+    public long getOpenCount() {
+        long open = 0;
+        for (Map.Entry<String, Long> e : counts.entrySet()) {
+            if (!isCompleted(e.getKey())) {
+                open += e.getValue();
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Status -> number of tasks, sorted by status.
+     */
+    public Map<String, Long> getCounts() {
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Earliest due date of the tasks with the given status, or null.
+     */
+    public String getNextDueDate(String status) {
+        return nextDueDates.get(statusKey(status));
+    }
+
+    /**
+     * Earliest due date of the tasks that are not completed, or null.
+     */
+    public String getNextDueDate() {
+        String next = null;
+        for (Map.Entry<String, String> e : nextDueDates.entrySet()) {
+            if (!isCompleted(e.getKey())) {
+                next = earlier(next, e.getValue());
+            }
+        }
+        return next;
+    }
+
+    /**
+     * When a task of this course was last written (a Timestamps value).
+     */
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * True when the course has no tasks left (the summary can be deleted).
+     */
+    public boolean isEmpty() {
+        return counts.isEmpty();
+    }
+
+    // --------------------
+    // Maintenance
+    // --------------------
+
+    /**
+     * Sets the totals of one status, as read back from storage.
+     *
+     * @param status      status (null means no status)
+     * @param count       number of tasks; 0 removes the status
+     * @param nextDueDate earliest due date of those tasks, or null
+     */
+    public void setStatus(String status, long count, String nextDueDate) {
+        String key = statusKey(status);
+        if (count <= 0) {
+            counts.remove(key);
+            nextDueDates.remove(key);
+            return;
+        }
+        counts.put(key, count);
+        if (nextDueDate != null) {
+            nextDueDates.put(key, nextDueDate);
+        } else {
+            nextDueDates.remove(key);
+        }
+    }
+
+    /**
+     * Counts one task of this course.
+     */
+    public void add(Student s) {
+        String key = statusKey(s.getStatus());
+        counts.merge(key, 1L, Long::sum);
+        offerDueDate(key, s.getDueDate());
+    }
+
+    /**
+     * Uncounts one task of this course.
+     *
+     * @return true if it had the earliest due date of its status and
+     *         other tasks with that status are left: the caller has to
+     *         look up the next due date and pass it to offerDueDate()
+     */
+    public boolean remove(Student s) {
+        String key = statusKey(s.getStatus());
+        long left = counts.getOrDefault(key, 0L) - 1;
+        if (left <= 0) {
+            counts.remove(key);
+            nextDueDates.remove(key);
+            return false;
+        }
+        counts.put(key, left);
+
+        String due = s.getDueDate();
+        if (due != null && due.equals(nextDueDates.get(key))) {
+            nextDueDates.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the due date if it is earlier than the one stored for the status.
+     *
+     * @param status  status (null means no status)
+     * @param dueDate ISO date, or null (ignored)
+     */
+    public void offerDueDate(String status, String dueDate) {
+        if (dueDate == null || dueDate.isEmpty()) {
+            return;
+        }
+        nextDueDates.merge(statusKey(status), dueDate, CourseSummary::earlier);
+    }
+
+    /**
+     * True for the completed status, in any letter case.
+     */
+    public static boolean isCompleted(String status) {
+        return COMPLETED.equalsIgnoreCase(status);
+    }
+
+    /**
+     * Key a status is counted under (tasks without a status share one).
+     */
+    public static String statusKey(String status) {
+        return status == null || status.isEmpty() ? NO_STATUS : status;
+    }
+
+    @Override
+    public String toString() {
+        return "CourseSummary{" + className + ", counts=" + counts
+                + ", nextDue=" + nextDueDates + ", updatedAt=" + updatedAt + '}';
+    }
+
+    private static String earlier(String a, String b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
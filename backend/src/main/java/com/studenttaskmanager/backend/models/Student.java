@@ -21,12 +21,26 @@ public class Student {
     // Current status of the task. Example values: "Incomplete", "Complete".
     private String status;
 
+    // Due date as an ISO date ("2025-03-15"), so it sorts and compares as text.
+    // Null when the task has no due date.
+    private String dueDate;
+
+    // Priority of the task: "Low", "Medium" or "High".
+    private String priority;
+
+    // Free-text notes.
+    private String notes;
+
     // When this task record was created (ISO date-time, stored as String).
     private String createdAt;
 
     // Last time this task record was updated.
     private String updatedAt;
 
+    // Idempotency key of the journaled write that produced this version
+    // (null for writes that did not go through the offline journal).
+    private String lastMutationId;
+
     /**
      * Required by Firebase/Firestore for automatic mapping.
      * Do not remove this empty constructor.
@@ -115,6 +129,33 @@ public class Student {
         this.status = status;
     }
 
+    /**
+     * Due date as an ISO date (yyyy-MM-dd), or null.
+     */
+    public String getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(String dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
     /**
      * When this record was first created.
      */
@@ -137,6 +178,17 @@ public class Student {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Idempotency key of the last journaled write to this record.
+     */
+    public String getLastMutationId() {
+        return lastMutationId;
+    }
+
+    public void setLastMutationId(String lastMutationId) {
+        this.lastMutationId = lastMutationId;
+    }
+
     // --------------------
     // Debug/Logging helper
     // --------------------
@@ -150,8 +202,12 @@ public class Student {
                 ", className='" + className + '\'' +
                 ", task='" + task + '\'' +
                 ", status='" + status + '\'' +
+                ", dueDate='" + dueDate + '\'' +
+                ", priority='" + priority + '\'' +
+                ", notes='" + notes + '\'' +
                 ", createdAt='" + createdAt + '\'' +
                 ", updatedAt='" + updatedAt + '\'' +
+                ", lastMutationId='" + lastMutationId + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.studenttaskmanager.backend.models;
+
+/**
+ * One document change pushed by the database to a live listener.
+ * Mirrors Firestore's ADDED / MODIFIED / REMOVED document change types.
+ */
+public class StudentChange {
+
+    /**
+     * What happened to the document.
+     */
+    public enum Type {
+        ADDED,
+        MODIFIED,
+        REMOVED
+    }
+
+    private final Type type;
+    private final int id;
+
+    // New version of the record for ADDED and MODIFIED,
+    // last known version (or null if unknown) for REMOVED.
+    private final Student student;
+
+    public StudentChange(Type type, int id, Student student) {
+        this.type = type;
+        this.id = id;
+        this.student = student;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentChange{" +
+                "type=" + type +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.studenttaskmanager.backend.models;
+
+import java.util.List;
+
+/**
+ * The changes to the "students" collection since a given point in time.
+ *
+ * Returned by the delta-sync query of the repository:
+ *  - changed: students created or updated after that time,
+ *  - deletedIds: ids whose documents were deleted after that time
+ *    (found through their tombstone documents),
+ *  - highWaterMark: timestamp to pass to the next delta query.
+ */
+public class StudentDelta {
+
+    private final List<Student> changed;
+    private final List<Integer> deletedIds;
+    private final String highWaterMark;
+
+    public StudentDelta(List<Student> changed, List<Integer> deletedIds, String highWaterMark) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.highWaterMark = highWaterMark;
+    }
+
+    public List<Student> getChanged() {
+        return changed;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public String getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * True when nothing changed since the last sync.
+     */
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "StudentDelta{" +
+                "changed=" + changed.size() +
+                ", deleted=" + deletedIds.size() +
+                ", highWaterMark='" + highWaterMark + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,242 @@
+package com.studenttaskmanager.backend.models;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A pending change to one student document.
+ *
+ * Mutations are queued by the write-behind pipeline and later sent to
+ * the database together in one batch. Only the newest mutation for each
+ * student id is kept, so the id is the natural key of a mutation
+ * (see {@link #coalesce(StudentMutation, StudentMutation)}).
+ *
+ * An UPDATE only writes the listed fields (plus updatedAt), so changing
+ * the status of a task sends the status and not the whole record.
+ *
+ * When the offline journal is enabled, each mutation is also given a
+ * journal sequence number and an idempotency key ("clientId:sequence")
+ * that travels with the write, so a replayed write can be recognized
+ * (see {@link #isSupersededBy(Student)}).
+ */
+public class StudentMutation {
+
+    /**
+     * What kind of write this mutation performs.
+     */
+    public enum Type {
+        UPSERT,
+        UPDATE,
+        DELETE
+    }
+
+    private final Type type;
+    private final int id;
+
+    // Full record to write for UPSERT, current values for UPDATE, null for DELETE.
+    private final Student student;
+
+    // Firestore field names written by an UPDATE (empty for the other types).
+    private final Set<String> fields;
+
+    // Position in the offline journal (0 = not journaled).
+    private final long sequence;
+
+    // Unique key of this write, null when not journaled.
+    private final String idempotencyKey;
+
+    // When the change was journaled (a Timestamps value), null when not journaled.
+    private final String recordedAt;
+
+    // True for a journal entry left over from an earlier session.
+    private final boolean replay;
+
+    private StudentMutation(Type type, int id, Student student, Set<String> fields,
+                            long sequence, String idempotencyKey, String recordedAt, boolean replay) {
+        this.type = type;
+        this.id = id;
+        this.student = student;
+        this.fields = fields;
+        this.sequence = sequence;
+        this.idempotencyKey = idempotencyKey;
+        this.recordedAt = recordedAt;
+        this.replay = replay;
+    }
+
+    /**
+     * Creates a mutation that adds or overwrites the given student.
+     *
+     * @param s student to write
+     * @return upsert mutation keyed by the student's id
+     */
+    public static StudentMutation upsert(Student s) {
+        return new StudentMutation(Type.UPSERT, s.getId(), s, Collections.emptySet(), 0, null, null, false);
+    }
+
+    /**
+     * Creates a mutation that only writes some fields of an existing student.
+     *
+     * @param s      student with the current values (other fields are ignored)
+     * @param fields Firestore field names to write, see StudentCodec.FIELD_*
+     * @return update mutation keyed by the student's id
+     */
+    public static StudentMutation update(Student s, Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("An update needs at least one field");
+        }
+        Set<String> copy = Collections.unmodifiableSet(new LinkedHashSet<>(fields));
+        return new StudentMutation(Type.UPDATE, s.getId(), s, copy, 0, null, null, false);
+    }
+
+    /**
+     * Creates a mutation that deletes the student with the given id.
+     *
+     * @param id id of the student to delete
+     * @return delete mutation
+     */
+    public static StudentMutation delete(int id) {
+        return new StudentMutation(Type.DELETE, id, null, Collections.emptySet(), 0, null, null, false);
+    }
+
+    /**
+     * Combines a pending mutation with a newer one for the same id, so one
+     * write has the effect of both:
+     *  - a newer UPSERT or DELETE simply replaces the older mutation,
+     *  - a newer UPDATE after an UPSERT becomes an UPSERT with the newer
+     *    values (the record has to be written in full),
+     *  - a newer UPDATE after a DELETE is dropped and the DELETE stays (an
+     *    edit of a task that is already deleted must not bring it back),
+     *  - two UPDATEs become one UPDATE of both field sets with the newer values.
+     * The result keeps the newer mutation's journal position.
+     *
+     * @param older mutation that is still waiting (may be null)
+     * @param newer mutation that came after it
+     * @return the mutation to keep
+     */
+    public static StudentMutation coalesce(StudentMutation older, StudentMutation newer) {
+        if (older == null || newer.type != Type.UPDATE) {
+            return newer;
+        }
+        if (older.type == Type.DELETE) {
+            return new StudentMutation(Type.DELETE, newer.id, null, Collections.emptySet(),
+                    newer.sequence, newer.idempotencyKey, newer.recordedAt, newer.replay);
+        }
+        if (older.type == Type.UPSERT) {
+            return new StudentMutation(Type.UPSERT, newer.id, newer.student, Collections.emptySet(),
+                    newer.sequence, newer.idempotencyKey, newer.recordedAt, newer.replay);
+        }
+        Set<String> union = new LinkedHashSet<>(older.fields);
+        union.addAll(newer.fields);
+        return new StudentMutation(Type.UPDATE, newer.id, newer.student,
+                Collections.unmodifiableSet(union), newer.sequence, newer.idempotencyKey,
+                newer.recordedAt, newer.replay);
+    }
+
+    /**
+     * Returns a copy of this mutation stamped with its journal position.
+     *
+     * @param sequence       journal sequence number (positive)
+     * @param idempotencyKey unique key of the write
+     * @param recordedAt     when the change was journaled (may be null for
+     *                       entries written by older versions)
+     * @return journaled copy
+     */
+    public StudentMutation withJournalPosition(long sequence, String idempotencyKey, String recordedAt) {
+        return new StudentMutation(type, id, student, fields, sequence, idempotencyKey, recordedAt, replay);
+    }
+
+    /**
+     * Returns a copy of this mutation marked as replayed from an earlier
+     * session's journal.
+     */
+    public StudentMutation asReplay() {
+        return new StudentMutation(type, id, student, fields, sequence, idempotencyKey, recordedAt, true);
+    }
+
+    /**
+     * True if the stored record shows this write must not be applied (again).
+     * Only used for replays: when the app stops between a successful flush
+     * and recording the confirmation, the journal sends the same writes
+     * again on the next start, and by then the record may have newer edits.
+     *
+     * A replay is stale when the stored record
+     *  - carries this write's idempotency key (it was applied already),
+     *  - carries a later key of the same client (a newer write of ours is there),
+     *  - or was updated after this change was journaled (someone else edited
+     *    it since; their edit is newer and wins).
+     * The last rule compares clocks of different machines, so an edit made a
+     * few seconds apart on two machines may be decided either way.
+     *
+     * @param stored the record as stored now (null if there is none)
+     * @return true if the write should be skipped
+     */
+    public boolean isSupersededBy(Student stored) {
+        if (idempotencyKey == null || stored == null) {
+            return false;
+        }
+        String storedKey = stored.getLastMutationId();
+        if (idempotencyKey.equals(storedKey)) {
+            return true;
+        }
+        if (storedKey != null) {
+            int split = storedKey.lastIndexOf(':');
+            if (split > 0 && idempotencyKey.startsWith(storedKey.substring(0, split + 1))) {
+                try {
+                    return Long.parseLong(storedKey.substring(split + 1)) > sequence;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return recordedAt != null && stored.getUpdatedAt() != null
+                && stored.getUpdatedAt().compareTo(recordedAt) > 0;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    /**
+     * Firestore field names written by an UPDATE (empty for UPSERT and DELETE).
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public String getRecordedAt() {
+        return recordedAt;
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentMutation{" +
+                "type=" + type +
+                ", id=" + id +
+                (type == Type.UPDATE ? ", fields=" + fields : "") +
+                ", sequence=" + sequence +
+                (replay ? ", replay" : "") +
+                '}';
+    }
+}
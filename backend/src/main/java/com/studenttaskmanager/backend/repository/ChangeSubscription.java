@@ -0,0 +1,14 @@
+package com.studenttaskmanager.backend.repository;
+
+/**
+ * Handle for a live change listener registered with
+ * {@link StudentRepository#listenForChanges(StudentChangeListener)}.
+ */
+@FunctionalInterface
+public interface ChangeSubscription {
+
+    /**
+     * Stops delivering changes to the listener.
+     */
+    void remove();
+}
@@ -0,0 +1,211 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.studenttaskmanager.backend.models.CourseSummary;
+import com.studenttaskmanager.backend.models.Student;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps {@link CourseSummary} objects in step with task writes. Used by
+ * the Firebase and in-memory repositories (SQLite does the same with
+ * triggers).
+ *
+ * A write is described by the task before it (null for a new task) and
+ * after it (null for a delete). All "before" versions are removed first
+ * and then all "after" versions are added, so a task that moves from one
+ * course or status to another is counted exactly once.
+ *
+ * Firestore layout of a summary, one document per course in
+ * "courseSummaries" (the id is the URL-encoded course name):
+ * <pre>
+ *   { className, total, openCount, nextDueDate, updatedAt,
+ *     statuses: { "Completed": { count, nextDueDate }, ... } }
+ * </pre>
+ */
+final class CourseSummaries {
+
+    // Firestore collection of the summaries
+    static final String COLLECTION = "courseSummaries";
+
+    static final String FIELD_CLASS_NAME = "className";
+    static final String FIELD_TOTAL = "total";
+    static final String FIELD_OPEN_COUNT = "openCount";
+    static final String FIELD_NEXT_DUE_DATE = "nextDueDate";
+    static final String FIELD_UPDATED_AT = "updatedAt";
+    static final String FIELD_STATUSES = "statuses";
+    static final String FIELD_COUNT = "count";
+
+    private CourseSummaries() {
+    }
+
+    /**
+     * Course a task is counted under, or null if it has none.
+     */
+    static String courseOf(Student s) {
+        if (s == null || s.getClassName() == null || s.getClassName().isEmpty()) {
+            return null;
+        }
+        return s.getClassName();
+    }
+
+    /**
+     * Courses touched by a group of writes (before and after versions).
+     */
+    static Set<String> affectedCourses(List<Student> before, List<Student> after) {
+        Set<String> courses = new LinkedHashSet<>();
+        for (Student s : before) {
+            addIfNotNull(courses, courseOf(s));
+        }
+        for (Student s : after) {
+            addIfNotNull(courses, courseOf(s));
+        }
+        return courses;
+    }
+
+    /**
+     * Applies a group of writes to the summaries.
+     *
+     * @param summaries course -> summary; must hold every affected course
+     *                  (a new, empty summary for courses without one)
+     * @param before    task versions before the writes (null entries for new tasks)
+     * @param after     task versions after the writes (null entries for deletes)
+     * @param now       updatedAt of the touched summaries
+     * @return course -> statuses whose earliest due date went away and has
+     *         to be looked up again (see {@link CourseSummary#remove})
+     */
+    static Map<String, Set<String>> apply(Map<String, CourseSummary> summaries,
+                                          List<Student> before, List<Student> after, String now) {
+        Map<String, Set<String>> stale = new TreeMap<>();
+
+        for (Student s : before) {
+            String course = courseOf(s);
+            if (course == null) continue;
+            CourseSummary summary = summaries.get(course);
+            if (summary.remove(s)) {
+                stale.computeIfAbsent(course, c -> new TreeSet<>()).add(CourseSummary.statusKey(s.getStatus()));
+            }
+            summary.setUpdatedAt(now);
+        }
+        for (Student s : after) {
+            String course = courseOf(s);
+            if (course == null) continue;
+            CourseSummary summary = summaries.get(course);
+            summary.add(s);
+            summary.setUpdatedAt(now);
+        }
+
+        // A status that lost all its tasks needs no lookup
+        for (Map.Entry<String, Set<String>> e : stale.entrySet()) {
+            CourseSummary summary = summaries.get(e.getKey());
+            e.getValue().removeIf(status -> summary.getCount(status) == 0);
+        }
+        stale.values().removeIf(Set::isEmpty);
+        return stale;
+    }
+
+    /**
+     * Builds every summary from scratch.
+     *
+     * @param students all stored tasks
+     * @param now      updatedAt of the summaries
+     * @return one summary per course
+     */
+    static List<CourseSummary> rebuild(Collection<Student> students, String now) {
+        Map<String, CourseSummary> summaries = new TreeMap<>();
+        for (Student s : students) {
+            String course = courseOf(s);
+            if (course == null) continue;
+            summaries.computeIfAbsent(course, CourseSummary::new).add(s);
+        }
+        for (CourseSummary summary : summaries.values()) {
+            summary.setUpdatedAt(now);
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * The status value stored on tasks for a status key (NO_STATUS means null).
+     */
+    static String statusValue(String statusKey) {
+        return CourseSummary.NO_STATUS.equals(statusKey) ? null : statusKey;
+    }
+
+    // --------------------
+    // Firestore encoding
+    // --------------------
+
+    /**
+     * Firestore document id of a course. Course names may contain "/",
+     * which Firestore ids cannot, so the name is URL-encoded.
+     */
+    static String documentId(String className) {
+        return URLEncoder.encode(className, StandardCharsets.UTF_8);
+    }
+
+    static Map<String, Object> toMap(CourseSummary summary) {
+        Map<String, Object> statuses = new HashMap<>();
+        for (Map.Entry<String, Long> e : summary.getCounts().entrySet()) {
+            Map<String, Object> status = new HashMap<>();
+            status.put(FIELD_COUNT, e.getValue());
+            status.put(FIELD_NEXT_DUE_DATE, summary.getNextDueDate(e.getKey()));
+            statuses.put(e.getKey(), status);
+        }
+
+        Map<String, Object> map = new HashMap<>();
+        map.put(FIELD_CLASS_NAME, summary.getClassName());
+        map.put(FIELD_TOTAL, summary.getTotal());
+        map.put(FIELD_OPEN_COUNT, summary.getOpenCount());
+        map.put(FIELD_NEXT_DUE_DATE, summary.getNextDueDate());
+        map.put(FIELD_UPDATED_AT, summary.getUpdatedAt());
+        map.put(FIELD_STATUSES, statuses);
+        return map;
+    }
+
+    /**
+     * Reads a summary document.
+     *
+     * @param doc       the document (may not exist)
+     * @param className course, used when the document does not exist
+     * @return the stored summary, or an empty one if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static CourseSummary fromSnapshot(DocumentSnapshot doc, String className) {
+        if (doc == null || !doc.exists()) {
+            return new CourseSummary(className);
+        }
+        String name = doc.getString(FIELD_CLASS_NAME);
+        CourseSummary summary = new CourseSummary(name != null ? name : className);
+        summary.setUpdatedAt(doc.getString(FIELD_UPDATED_AT));
+
+        Object statuses = doc.get(FIELD_STATUSES);
+        if (statuses instanceof Map) {
+            for (Map.Entry<String, Object> e : ((Map<String, Object>) statuses).entrySet()) {
+                if (!(e.getValue() instanceof Map)) continue;
+                Map<String, Object> status = (Map<String, Object>) e.getValue();
+                Object count = status.get(FIELD_COUNT);
+                Object next = status.get(FIELD_NEXT_DUE_DATE);
+                summary.setStatus(e.getKey(),
+                        count instanceof Number ? ((Number) count).longValue() : 0,
+                        next != null ? next.toString() : null);
+            }
+        }
+        return summary;
+    }
+
+    private static void addIfNotNull(Set<String> set, String value) {
+        if (value != null) {
+            set.add(value);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.studenttaskmanager.backend.repository;
+
+/**
+ * Firestore document ids for task ids.
+ *
+ * Task ids count up from 20000, so plain ids ("20001", "20002", ...)
+ * are written in key order: Firestore keeps documents sorted by id and
+ * splits the collection into key ranges, and a bulk import sends every
+ * new document to the same range (the last one). That range becomes a
+ * hotspot and writes slow down however many clients send them.
+ *
+ * The {@link Scheme#HASHED} scheme puts a short hash of the id in front,
+ * for example "9f3c-20001". Consecutive ids get unrelated prefixes, so
+ * their writes are spread over the whole key space. The hash only depends
+ * on the id, so the document of a task can still be found without a query,
+ * and the numeric id stays in the "id" field of the document (which is
+ * what every read uses).
+ *
+ * Existing documents keep their plain ids until they are moved with
+ * {@link FirebaseStudentRepository#migrateDocumentKeysAsync(Scheme)}.
+ */
+public final class DocumentKeys {
+
+    /**
+     * How task ids become document ids.
+     */
+    public enum Scheme {
+        /** The id as text, "20001" (the original layout). */
+        PLAIN,
+        /** Four hex digits of a hash of the id, then the id: "9f3c-20001". */
+        HASHED
+    }
+
+    // Number of hex digits in front of the id (65536 different prefixes)
+    static final int PREFIX_LENGTH = 4;
+
+    private static final char SEPARATOR = '-';
+
+    private DocumentKeys() {
+    }
+
+    /**
+     * Document id of a task.
+     *
+     * @param id     task id
+     * @param scheme key scheme
+     * @return the document id
+     */
+    public static String key(int id, Scheme scheme) {
+        if (scheme == Scheme.PLAIN) {
+            return String.valueOf(id);
+        }
+        return prefix(id) + SEPARATOR + id;
+    }
+
+    /**
+     * Task id of a document id in either scheme.
+     *
+     * @throws NumberFormatException if the id was not made by {@link #key}
+     */
+    public static int idOf(String documentId) {
+        return Integer.parseInt(documentId.substring(documentId.indexOf(SEPARATOR) + 1));
+    }
+
+    /**
+     * The hash prefix of an id: four lower-case hex digits.
+     */
+    static String prefix(int id) {
+        String hex = Integer.toHexString(mix(id) >>> (32 - 4 * PREFIX_LENGTH));
+        return "0".repeat(PREFIX_LENGTH - hex.length()) + hex;
+    }
+
+    /**
+     * Scrambles the bits of an int (the MurmurHash3 finalizer): ids that
+     * differ by one end up with unrelated high bits. Fixed forever, since
+     * stored document ids depend on it.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,334 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.studenttaskmanager.backend.db.IoExecutor;
+import com.studenttaskmanager.backend.models.CourseSummary;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps another {@link StudentRepository} and makes it behave like a slow,
+ * unreliable network service.
+ *
+ * Put in front of {@link InMemoryStudentRepository}, this is a stand-in
+ * for Firestore on a machine without network access:
+ *  - every call waits latencyMs (plus up to jitterMs extra) before it runs,
+ *    without blocking a thread while it waits,
+ *  - a fraction failureRate of calls fail the same way the Firebase
+ *    repository fails: writes report false, reads return an empty list,
+ *    delta sync and paged loads complete exceptionally.
+ *
+ * Page loads pay the latency once per page, like a real paged query.
+ * Live listeners are passed through unchanged.
+ *
+ * The random numbers come from a seeded generator, so a single-threaded
+ * run sees the same sequence of failures every time.
+ */
+public class FaultInjectingStudentRepository implements StudentRepository {
+
+    private final StudentRepository delegate;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+    private final Random random;
+
+    /**
+     * @param delegate    repository that does the real work
+     * @param latencyMs   fixed delay added to every call, in milliseconds
+     * @param jitterMs    maximum random extra delay, in milliseconds
+     * @param failureRate fraction of calls that fail, from 0.0 to 1.0
+     * @param seed        seed for the latency and failure decisions
+     */
+    public FaultInjectingStudentRepository(StudentRepository delegate,
+                                           long latencyMs,
+                                           long jitterMs,
+                                           double failureRate,
+                                           long seed) {
+        if (latencyMs < 0 || jitterMs < 0) {
+            throw new IllegalArgumentException("latency must not be negative");
+        }
+        if (failureRate < 0.0 || failureRate > 1.0) {
+            throw new IllegalArgumentException("failureRate must be between 0 and 1");
+        }
+        this.delegate = delegate;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+        this.random = new Random(seed);
+    }
+
+    // --------------------
+    // CRUD
+    // --------------------
+
+    @Override
+    public boolean addStudent(Student s) {
+        return addStudentAsync(s).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addStudentAsync(Student s) {
+        return write("add student", () -> delegate.addStudentAsync(s));
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        return getAllStudentsAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getAllStudentsAsync() {
+        return read("fetch students", delegate::getAllStudentsAsync);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAllStudentsPagedAsync(int pageSize,
+                                                             Consumer<List<Student>> pageConsumer) {
+        // Load everything from the delegate, then hand it out page by page
+        // with the network delay (and a chance of failure) per page.
+        return delegate.getAllStudentsAsync().thenCompose(all -> deliverPages(all, 0, pageSize, pageConsumer));
+    }
+
+    @Override
+    public boolean updateStatus(int id, String newStatus) {
+        return updateStatusAsync(id, newStatus).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateStatusAsync(int id, String newStatus) {
+        return write("update status", () -> delegate.updateStatusAsync(id, newStatus));
+    }
+
+    @Override
+    public boolean deleteStudent(int id) {
+        return deleteStudentAsync(id).join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteStudentAsync(int id) {
+        return write("delete student", () -> delegate.deleteStudentAsync(id));
+    }
+
+    @Override
+    public List<Student> getStudentsByClassName(String className) {
+        return getStudentsByClassNameAsync(className).join();
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByClassNameAsync(String className) {
+        return read("fetch students by class", () -> delegate.getStudentsByClassNameAsync(className));
+    }
+
+    @Override
+    public List<Student> getStudentsByStatus(String status) {
+        return getStudentsByStatusAsync(status).join();
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByStatusAsync(String status) {
+        return read("fetch students by status", () -> delegate.getStudentsByStatusAsync(status));
+    }
+
+    @Override
+    public List<Student> findStudents(StudentQuery query) {
+        return findStudentsAsync(query).join();
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> findStudentsAsync(StudentQuery query) {
+        return read("query students", () -> delegate.findStudentsAsync(query));
+    }
+
+    @Override
+    public long countStudents(StudentQuery query) {
+        try {
+            return countStudentsAsync(query).join();
+        } catch (CompletionException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> countStudentsAsync(StudentQuery query) {
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                System.out.println("Injected failure: count students.");
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Injected failure while counting students"));
+            }
+            return delegate.countStudentsAsync(query);
+        });
+    }
+
+    // --------------------
+    // Sync support
+    // --------------------
+
+    @Override
+    public CompletableFuture<StudentDelta> getChangesSinceAsync(String since) {
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                System.out.println("Injected failure: fetch changes.");
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Injected failure while fetching changes"));
+            }
+            return delegate.getChangesSinceAsync(since);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> applyBatchAsync(List<StudentMutation> mutations) {
+        return write("commit batch", () -> delegate.applyBatchAsync(mutations));
+    }
+
+    @Override
+    public CourseSummary getCourseSummary(String className) {
+        try {
+            return getCourseSummaryAsync(className).join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<CourseSummary> getCourseSummaryAsync(String className) {
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                System.out.println("Injected failure: read course summary.");
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Injected failure while reading a course summary"));
+            }
+            return delegate.getCourseSummaryAsync(className);
+        });
+    }
+
+    @Override
+    public List<CourseSummary> getCourseSummaries() {
+        return getCourseSummariesAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<List<CourseSummary>> getCourseSummariesAsync() {
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                System.out.println("Injected failure: read course summaries.");
+                return CompletableFuture.completedFuture(new ArrayList<>());
+            }
+            return delegate.getCourseSummariesAsync();
+        });
+    }
+
+    @Override
+    public boolean rebuildCourseSummaries() {
+        return rebuildCourseSummariesAsync().join();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> rebuildCourseSummariesAsync() {
+        return write("rebuild course summaries", delegate::rebuildCourseSummariesAsync);
+    }
+
+    @Override
+    public int reserveIds(int count) {
+        return reserveIdsAsync(count).join();
+    }
+
+    @Override
+    public CompletableFuture<Integer> reserveIdsAsync(int count) {
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                System.out.println("Injected failure: reserve ids.");
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Injected failure while reserving ids"));
+            }
+            return delegate.reserveIdsAsync(count);
+        });
+    }
+
+    @Override
+    public ChangeSubscription listenForChanges(StudentChangeListener listener) {
+        return delegate.listenForChanges(listener);
+    }
+
+    @Override
+    public ChangeSubscription listenForChanges(String since, StudentChangeListener listener) {
+        return delegate.listenForChanges(since, listener);
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private CompletableFuture<Boolean> write(String what, Supplier<CompletableFuture<Boolean>> call) {
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                System.out.println("Injected failure: " + what + ".");
+                return CompletableFuture.completedFuture(false);
+            }
+            return call.get();
+        });
+    }
+
+    private CompletableFuture<List<Student>> read(String what, Supplier<CompletableFuture<List<Student>>> call) {
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                System.out.println("Injected failure: " + what + ".");
+                return CompletableFuture.completedFuture(new ArrayList<>());
+            }
+            return call.get();
+        });
+    }
+
+    private CompletableFuture<Integer> deliverPages(List<Student> all, int from, int pageSize,
+                                                    Consumer<List<Student>> pageConsumer) {
+        if (from >= all.size()) {
+            return CompletableFuture.completedFuture(from);
+        }
+        return afterLatency().thenCompose(ignored -> {
+            if (shouldFail()) {
+                // Same as Firebase: a failed page ends the load with an error.
+                System.out.println("Injected failure: fetch a page of students.");
+                return CompletableFuture.failedFuture(new PageLoadException(from,
+                        new IllegalStateException("Injected failure while fetching a page")));
+            }
+            int to = Math.min(all.size(), from + pageSize);
+            pageConsumer.accept(new ArrayList<>(all.subList(from, to)));
+            return deliverPages(all, to, pageSize, pageConsumer);
+        });
+    }
+
+    /**
+     * Completes on an I/O thread after the configured delay.
+     */
+    private CompletableFuture<Void> afterLatency() {
+        long delay = latencyMs;
+        if (jitterMs > 0) {
+            synchronized (random) {
+                delay += (long) (random.nextDouble() * jitterMs);
+            }
+        }
+        Executor executor = delay > 0
+                ? CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, IoExecutor.get())
+                : IoExecutor.get();
+        return CompletableFuture.runAsync(() -> { }, executor);
+    }
+
+    private boolean shouldFail() {
+        if (failureRate <= 0.0) {
+            return false;
+        }
+        synchronized (random) {
+            return random.nextDouble() < failureRate;
+        }
+    }
+}
@@ -1,33 +1,95 @@
 package com.studenttaskmanager.backend.repository;
 
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
 import com.google.cloud.firestore.*;
 import com.studenttaskmanager.backend.db.FirebaseConfig;
+import com.studenttaskmanager.backend.db.IoExecutor;
+import com.studenttaskmanager.backend.models.CourseSummary;
 import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentChange;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
 
-import java.time.Instant;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * Repository class that handles all CRUD operations for Student objects
  * using Firebase Cloud Firestore as the backend database.
  *
- * This is the main way the rest of the application talks to the database.
+ * This is the default {@link StudentRepository} implementation.
+ *
+ * Every operation comes in two forms:
+ *  - an async version (for example addStudentAsync) that returns a
+ *    CompletableFuture completed on the shared {@link IoExecutor},
+ *  - a blocking version (for example addStudent) that simply waits for
+ *    the async one. Only use the blocking versions off the UI thread.
+ *
+ * Documents are read and written with {@link StudentCodec} instead of
+ * Firestore's reflection-based toObject()/set(bean) mapping.
+ *
+ * Document ids come from {@link DocumentKeys}: plain task ids, or ids
+ * with a hash prefix so bulk imports do not all write to one key range
+ * (stm.firestore.keys, see {@link FirebaseConfig}). Reads never look at
+ * the document id, only at the "id" field, so both layouts read the same.
  */
-public class FirebaseStudentRepository {
+public class FirebaseStudentRepository implements StudentRepository {
 
     // Firestore database reference.
     private final Firestore db;
 
+    // How task ids become document ids (tasks and tombstones).
+    private final DocumentKeys.Scheme keys;
+
     // Name of the collection that stores all student task records.
     private static final String COLLECTION = "students";
 
+    // Tombstones left behind by deletes, so delta sync can see them.
+    private static final String TOMBSTONES = "deletedStudents";
+
+    // Counter document that hands out blocks of new ids (see reserveIdsAsync).
+    private static final String COUNTERS = "counters";
+    private static final String ID_COUNTER = "studentIds";
+
+    // Firestore accepts at most 500 writes in a single batch or transaction.
+    private static final int MAX_BATCH_WRITES = 500;
+
+    // Documents moved per batch by migrateDocumentKeys (a set and a delete each).
+    private static final int MIGRATION_PAGE_SIZE = MAX_BATCH_WRITES / 2;
+
+    // Mutations per write transaction: each one is at most two task writes
+    // (delete + tombstone) and two course summaries, so this stays under 500.
+    private static final int MAX_TRANSACTION_MUTATIONS = 100;
+
+    // Delta queries re-read this much history to cover clock skew between
+    // clients and writes that were still in flight during the last sync.
+    private static final Duration SYNC_OVERLAP = Duration.ofSeconds(30);
+
     /**
-     * Constructor gets a Firestore instance from FirebaseConfig.
+     * Constructor gets a Firestore instance from FirebaseConfig and
+     * uses the configured document key scheme.
      */
     public FirebaseStudentRepository() {
+        this(FirebaseConfig.documentKeys());
+    }
+
+    /**
+     * @param keys how task ids become document ids; must match the
+     *             layout of the stored documents (see migrateDocumentKeys)
+     */
+    public FirebaseStudentRepository(DocumentKeys.Scheme keys) {
         this.db = FirebaseConfig.getFirestore();
+        this.keys = keys;
     }
 
     /**
@@ -37,31 +99,28 @@ public class FirebaseStudentRepository {
      * @param s student object to be saved
      * @return true if write succeeded, false otherwise
      */
+    @Override
     public boolean addStudent(Student s) {
-        try {
-            // Set timestamps using ISO-8601 format for readability.
-            String now = Instant.now().toString();
+        return addStudentAsync(s).join();
+    }
 
-            if (s.getCreatedAt() == null || s.getCreatedAt().isEmpty()) {
-                s.setCreatedAt(now);
+    /**
+     * Async version of {@link #addStudent(Student)}.
+     *
+     * @param s student object to be saved
+     * @return future completed with true if the write succeeded, false otherwise
+     */
+    @Override
+    public CompletableFuture<Boolean> addStudentAsync(Student s) {
+        return commitWithSummaries(List.of(StudentMutation.upsert(s)), false).handle((result, error) -> {
+            if (error != null) {
+                System.out.println("Failed to add student to Firebase.");
+                error.printStackTrace();
+                return false;
             }
-            s.setUpdatedAt(now);
-
-            ApiFuture<WriteResult> future = db.collection(COLLECTION)
-                    .document(String.valueOf(s.getId()))
-                    .set(s);
-
-            // Block until the write completes (simple approach for this project).
-            future.get();
-
             System.out.println("Student added to Firebase with ID: " + s.getId());
             return true;
-
-        } catch (Exception e) {
-            System.out.println("Failed to add student to Firebase.");
-            e.printStackTrace();
-            return false;
-        }
+        });
     }
 
     /**
@@ -69,24 +128,50 @@ public class FirebaseStudentRepository {
      *
      * @return list of Student objects (may be empty, but never null)
      */
+    @Override
     public List<Student> getAllStudents() {
-        List<Student> list = new ArrayList<>();
-
-        try {
-            ApiFuture<QuerySnapshot> future = db.collection(COLLECTION).get();
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+        return getAllStudentsAsync().join();
+    }
 
-            for (QueryDocumentSnapshot doc : documents) {
-                Student s = doc.toObject(Student.class);
-                list.add(s);
-            }
+    /**
+     * Async version of {@link #getAllStudents()}.
+     *
+     * @return future completed with the list of students (never null)
+     */
+    @Override
+    public CompletableFuture<List<Student>> getAllStudentsAsync() {
+        return queryAsync(db.collection(COLLECTION),
+                "Failed to fetch students from Firebase.");
+    }
 
-        } catch (Exception e) {
-            System.out.println("Failed to fetch students from Firebase.");
-            e.printStackTrace();
+    /**
+     * Streams the whole "students" collection page by page.
+     *
+     * Documents are read in document-id order using orderBy/startAfter/limit
+     * cursors, so only one page is held in memory at a time. Each page is
+     * handed to pageConsumer (on an I/O thread) as soon as it arrives,
+     * and the next page is requested right after.
+     *
+     * If a page fails to load, the error is logged and the stream stops;
+     * pages already delivered stay delivered.
+     *
+     * @param pageSize     number of documents per page (must be positive)
+     * @param pageConsumer receives each non-empty page in order
+     * @return future completed with the total number of students delivered,
+     *         or exceptionally with a {@link PageLoadException} if a page failed
+     */
+    @Override
+    public CompletableFuture<Integer> getAllStudentsPagedAsync(int pageSize,
+                                                             Consumer<List<Student>> pageConsumer) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
         }
 
-        return list;
+        Query firstPage = db.collection(COLLECTION)
+                .orderBy(FieldPath.documentId())
+                .limit(pageSize);
+
+        return fetchPages(firstPage, pageSize, pageConsumer, 0);
     }
 
     /**
@@ -96,46 +181,125 @@ public class FirebaseStudentRepository {
      * @param newStatus new status value (for example, "Complete" or "Incomplete")
      * @return true if update succeeded, false otherwise
      */
+    @Override
     public boolean updateStatus(int id, String newStatus) {
-        try {
-            String now = Instant.now().toString();
-
-            ApiFuture<WriteResult> future = db.collection(COLLECTION)
-                    .document(String.valueOf(id))
-                    .update("status", newStatus,
-                            "updatedAt", now);
+        return updateStatusAsync(id, newStatus).join();
+    }
 
-            future.get();
-            System.out.println("Status updated for student id: " + id);
-            return true;
+    /**
+     * Async version of {@link #updateStatus(int, String)}.
+     *
+     * @param id        student id
+     * @param newStatus new status value
+     * @return future completed with true if the update succeeded, false otherwise
+     */
+    @Override
+    public CompletableFuture<Boolean> updateStatusAsync(int id, String newStatus) {
+        Student s = new Student();
+        s.setId(id);
+        s.setStatus(newStatus);
 
-        } catch (Exception e) {
-            System.out.println("Failed to update status in Firebase.");
-            e.printStackTrace();
-            return false;
-        }
+        // Like a plain update(), this fails if the document does not exist
+        return commitWithSummaries(List.of(StudentMutation.update(s, List.of(StudentCodec.FIELD_STATUS))), true)
+                .handle((result, error) -> {
+                    if (error != null) {
+                        System.out.println("Failed to update status in Firebase.");
+                        error.printStackTrace();
+                        return false;
+                    }
+                    System.out.println("Status updated for student id: " + id);
+                    return true;
+                });
     }
 
     /**
      * Deletes a student document from Firestore.
+     * A tombstone is written to "deletedStudents" in the same transaction,
+     * so other clients learn about the delete through delta sync.
      *
      * @param id id of the student to delete
      * @return true if delete succeeded, false otherwise
      */
+    @Override
     public boolean deleteStudent(int id) {
-        try {
-            ApiFuture<WriteResult> future = db.collection(COLLECTION)
-                    .document(String.valueOf(id))
-                    .delete();
+        return deleteStudentAsync(id).join();
+    }
 
-            future.get();
+    /**
+     * Async version of {@link #deleteStudent(int)}.
+     *
+     * @param id id of the student to delete
+     * @return future completed with true if the delete succeeded, false otherwise
+     */
+    @Override
+    public CompletableFuture<Boolean> deleteStudentAsync(int id) {
+        // Delete and tombstone (and the course summary) in one transaction.
+        return commitWithSummaries(List.of(StudentMutation.delete(id)), false).handle((result, error) -> {
+            if (error != null) {
+                System.out.println("Failed to delete student from Firebase.");
+                error.printStackTrace();
+                return false;
+            }
             System.out.println("Student deleted from Firebase id: " + id);
             return true;
+        });
+    }
+
+    /**
+     * Returns everything that changed since the given timestamp:
+     * students whose updatedAt is newer, and ids deleted since then
+     * (read from the "deletedStudents" tombstone collection).
+     *
+     * The query starts a little before "since" (see SYNC_OVERLAP), so a
+     * few recent changes can be returned twice. Callers must apply the
+     * delta idempotently, which a merge by id naturally is.
+     *
+     * @param since high-water mark from the previous sync (a {@link Timestamps} value)
+     * @return future completed with the delta; on failure the error is logged
+     *         and the future completes exceptionally so the caller keeps its old mark
+     */
+    @Override
+    public CompletableFuture<StudentDelta> getChangesSinceAsync(String since) {
+        try {
+            String from = Timestamps.minus(since, SYNC_OVERLAP);
+
+            CompletableFuture<QuerySnapshot> changedQuery = toCompletable(
+                    db.collection(COLLECTION).whereGreaterThan("updatedAt", from).get());
+            CompletableFuture<QuerySnapshot> deletedQuery = toCompletable(
+                    db.collection(TOMBSTONES).whereGreaterThan("deletedAt", from).get());
+
+            return changedQuery.thenCombine(deletedQuery, (changedDocs, deletedDocs) -> {
+                String highWaterMark = since;
+
+                List<Student> changed = new ArrayList<>();
+                for (QueryDocumentSnapshot doc : changedDocs.getDocuments()) {
+                    Student s = StudentCodec.fromSnapshot(doc);
+                    changed.add(s);
+                    highWaterMark = later(highWaterMark, s.getUpdatedAt());
+                }
+
+                List<Integer> deletedIds = new ArrayList<>();
+                for (QueryDocumentSnapshot doc : deletedDocs.getDocuments()) {
+                    Long id = doc.getLong("id");
+                    if (id != null) {
+                        deletedIds.add(id.intValue());
+                    }
+                    highWaterMark = later(highWaterMark, doc.getString("deletedAt"));
+                }
+
+                return new StudentDelta(changed, deletedIds, highWaterMark);
+
+            }).whenComplete((delta, error) -> {
+                if (error != null) {
+                    System.out.println("Failed to fetch changes from Firebase.");
+                    error.printStackTrace();
+                }
+            });
 
         } catch (Exception e) {
-            System.out.println("Failed to delete student from Firebase.");
+            System.out.println("Failed to fetch changes from Firebase.");
             e.printStackTrace();
-            return false;
+            return CompletableFuture.failedFuture(e);
         }
     }
 
@@ -146,52 +310,975 @@ public class FirebaseStudentRepository {
      * @param className class name to filter by (e.g. "Math 101")
      * @return list of matching Student objects
      */
+    @Override
     public List<Student> getStudentsByClassName(String className) {
-        List<Student> list = new ArrayList<>();
+        return getStudentsByClassNameAsync(className).join();
+    }
+
+    /**
+     * Async version of {@link #getStudentsByClassName(String)}.
+     *
+     * @param className class name to filter by
+     * @return future completed with the matching students (never null)
+     */
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByClassNameAsync(String className) {
+        return queryAsync(db.collection(COLLECTION).whereEqualTo("className", className),
+                "Failed to fetch students by className from Firebase.");
+    }
+
+    /**
+     * Returns all students with a given status.
+     * Example: "Incomplete" or "Complete".
+     *
+     * @param status status value to filter by
+     * @return list of matching Student objects
+     */
+    @Override
+    public List<Student> getStudentsByStatus(String status) {
+        return getStudentsByStatusAsync(status).join();
+    }
+
+    /**
+     * Async version of {@link #getStudentsByStatus(String)}.
+     *
+     * @param status status value to filter by
+     * @return future completed with the matching students (never null)
+     */
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByStatusAsync(String status) {
+        return queryAsync(db.collection(COLLECTION).whereEqualTo("status", status),
+                "Failed to fetch students by status from Firebase.");
+    }
 
+    /**
+     * Returns the students that match a query, using one Firestore query.
+     *
+     * @param query filters, order and limit
+     * @return list of matching Student objects
+     */
+    @Override
+    public List<Student> findStudents(StudentQuery query) {
+        return findStudentsAsync(query).join();
+    }
+
+    /**
+     * Async version of {@link #findStudents(StudentQuery)}
+     * (see toFirestoreQuery for the translation).
+     *
+     * @param query filters, order and limit
+     * @return future completed with the matching students (never null)
+     */
+    @Override
+    public CompletableFuture<List<Student>> findStudentsAsync(StudentQuery query) {
+        return queryAsync(toFirestoreQuery(query), "Failed to run query " + query + " on Firebase.");
+    }
+
+    /**
+     * Counts with a Firestore aggregation query. Firestore counts in its
+     * indexes and bills one document read per 1000 matching entries, so a
+     * count costs about one read instead of one per document.
+     *
+     * @return the count, or -1 if it failed (the error is logged)
+     */
+    @Override
+    public long countStudents(StudentQuery query) {
         try {
-            ApiFuture<QuerySnapshot> future = db.collection(COLLECTION)
-                    .whereEqualTo("className", className)
-                    .get();
+            return countStudentsAsync(query).join();
+        } catch (CompletionException e) {
+            return -1;
+        }
+    }
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
-            for (QueryDocumentSnapshot doc : documents) {
-                list.add(doc.toObject(Student.class));
+    /**
+     * Async version of {@link #countStudents(StudentQuery)}. Runs the same
+     * query as {@link #findStudentsAsync(StudentQuery)} (so it needs the
+     * same composite indexes), as a count() aggregation.
+     *
+     * @param query filters; an order skips documents without the field, a limit caps the count
+     * @return future with the count; completes exceptionally on failure
+     */
+    @Override
+    public CompletableFuture<Long> countStudentsAsync(StudentQuery query) {
+        CompletableFuture<AggregateQuerySnapshot> counted;
+        try {
+            counted = toCompletable(toFirestoreQuery(query).count().get());
+        } catch (Exception e) {
+            counted = CompletableFuture.failedFuture(e);
+        }
+        return counted.handle((snapshot, error) -> {
+            if (error != null) {
+                System.out.println("Failed to count " + query + " on Firebase.");
+                error.printStackTrace();
+                throw new CompletionException(error);
+            }
+            return snapshot.getCount();
+        });
+    }
+
+    /**
+     * Starts listening to the "students" collection with a Firestore snapshot listener.
+     *
+     * The listener first receives every document as ADDED, then only the
+     * documents that change, so each change costs one document read.
+     * Callbacks run on the shared I/O executor, one snapshot at a time.
+     *
+     * @param listener receives the document changes of each snapshot
+     * @return subscription; call remove() to stop listening
+     */
+    @Override
+    public ChangeSubscription listenForChanges(StudentChangeListener listener) {
+        ListenerRegistration registration = db.collection(COLLECTION).addSnapshotListener(IoExecutor.get(), (snapshot, error) -> {
+            if (error != null) {
+                listener.onError(error);
+                return;
+            }
+            if (snapshot == null || snapshot.getDocumentChanges().isEmpty()) {
+                return;
             }
 
+            List<StudentChange> changes = new ArrayList<>();
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                Student s = StudentCodec.fromSnapshot(change.getDocument());
+                changes.add(new StudentChange(toChangeType(change.getType()), s.getId(), s));
+            }
+            listener.onChanges(changes);
+        });
+        return registration::remove;
+    }
+
+    /**
+     * Resumes live sync from an earlier load or sync. Instead of the whole
+     * collection, two listeners read only what changed since then:
+     *  - students with updatedAt after the mark (minus SYNC_OVERLAP), as
+     *    ADDED/MODIFIED, and REMOVED when such a document is deleted,
+     *  - tombstones with deletedAt after the mark, as REMOVED, for tasks
+     *    that were deleted without changing first.
+     * The first snapshot of each costs one read per changed document, not
+     * one per task.
+     *
+     * A tombstone stays behind when a deleted id is used again, so a
+     * tombstone older than a version of the task already seen is skipped.
+     *
+     * @param since    high-water mark of the last load or sync, or null
+     *                 for the full collection
+     * @param listener receives the changes, one snapshot at a time
+     * @return subscription; remove() stops both listeners
+     */
+    @Override
+    public ChangeSubscription listenForChanges(String since, StudentChangeListener listener) {
+        if (since == null) {
+            return listenForChanges(listener);
+        }
+        String from = Timestamps.minus(since, SYNC_OVERLAP);
+
+        // Id -> updatedAt of the newest version seen. Also the lock that
+        // keeps the two listeners from calling the listener at the same time.
+        Map<Integer, String> seen = new HashMap<>();
+
+        ListenerRegistration changed = db.collection(COLLECTION)
+                .whereGreaterThan(StudentCodec.FIELD_UPDATED_AT, from)
+                .addSnapshotListener(IoExecutor.get(), (snapshot, error) -> {
+                    if (error != null) {
+                        listener.onError(error);
+                        return;
+                    }
+                    if (snapshot == null || snapshot.getDocumentChanges().isEmpty()) {
+                        return;
+                    }
+                    synchronized (seen) {
+                        List<StudentChange> changes = new ArrayList<>();
+                        for (DocumentChange change : snapshot.getDocumentChanges()) {
+                            Student s = StudentCodec.fromSnapshot(change.getDocument());
+                            if (change.getType() != DocumentChange.Type.REMOVED) {
+                                seen.put(s.getId(), s.getUpdatedAt());
+                            }
+                            changes.add(new StudentChange(toChangeType(change.getType()), s.getId(), s));
+                        }
+                        listener.onChanges(changes);
+                    }
+                });
+
+        ListenerRegistration deleted = db.collection(TOMBSTONES)
+                .whereGreaterThan("deletedAt", from)
+                .addSnapshotListener(IoExecutor.get(), (snapshot, error) -> {
+                    if (error != null) {
+                        listener.onError(error);
+                        return;
+                    }
+                    if (snapshot == null || snapshot.getDocumentChanges().isEmpty()) {
+                        return;
+                    }
+                    synchronized (seen) {
+                        List<StudentChange> changes = new ArrayList<>();
+                        for (DocumentChange change : snapshot.getDocumentChanges()) {
+                            Long id = change.getDocument().getLong("id");
+                            String deletedAt = change.getDocument().getString("deletedAt");
+                            if (change.getType() == DocumentChange.Type.REMOVED || id == null) {
+                                continue;
+                            }
+                            String version = seen.get(id.intValue());
+                            if (version != null && deletedAt != null && version.compareTo(deletedAt) > 0) {
+                                continue; // created again after this delete
+                            }
+                            changes.add(new StudentChange(StudentChange.Type.REMOVED, id.intValue(), null));
+                        }
+                        if (!changes.isEmpty()) {
+                            listener.onChanges(changes);
+                        }
+                    }
+                });
+
+        return () -> {
+            changed.remove();
+            deleted.remove();
+        };
+    }
+
+    /**
+     * Writes a group of mutations in Firestore transactions of at most
+     * 100 mutations, committed one after the other. Upserts get the same
+     * timestamps as {@link #addStudent(Student)}, and deletes leave a
+     * tombstone just like {@link #deleteStudent(int)}.
+     *
+     * Each transaction also updates the summaries of the courses it
+     * touches (see commitWithSummaries), so the summaries never disagree
+     * with the tasks, even on deletes and status changes.
+     *
+     * Field updates write only the changed fields and updatedAt, so a
+     * status change does not resend the whole record. A field update of a
+     * task that another client deleted in the meantime is dropped (a lost
+     * update): it must not bring back half a task, and it must not make
+     * the whole batch fail (and be retried) forever either.
+     *
+     * Journaled mutations carry an idempotency key, which is stored with
+     * the write (lastMutationId on the record, mutationId on a tombstone).
+     * Every write sets absolute values (an overwrite or a field update),
+     * so replaying the same entry after a crash leaves the same data, and
+     * the key shows which write it was.
+     *
+     * @param mutations changes to write, at most one per student id
+     * @return future completed with true if every transaction committed, false otherwise
+     */
+    @Override
+    public CompletableFuture<Boolean> applyBatchAsync(List<StudentMutation> mutations) {
+        return commitWithSummaries(mutations, false).handle((result, error) -> {
+            if (error != null) {
+                System.out.println("Failed to commit batch to Firebase.");
+                error.printStackTrace();
+                return false;
+            }
+            System.out.println("Batch of " + mutations.size() + " write(s) committed to Firebase.");
+            return true;
+        });
+    }
+
+    /**
+     * Reads the summary document of one course.
+     *
+     * @param className course name
+     * @return the summary, or null if it could not be read
+     */
+    @Override
+    public CourseSummary getCourseSummary(String className) {
+        try {
+            return getCourseSummaryAsync(className).join();
+        } catch (CompletionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Async version of {@link #getCourseSummary(String)}: one document read.
+     *
+     * @param className course name
+     * @return future with the summary (empty if the course has no tasks);
+     *         completes exceptionally on failure
+     */
+    @Override
+    public CompletableFuture<CourseSummary> getCourseSummaryAsync(String className) {
+        CompletableFuture<DocumentSnapshot> read;
+        try {
+            read = toCompletable(summaryRef(className).get());
+        } catch (Exception e) {
+            read = CompletableFuture.failedFuture(e);
+        }
+        return read.handle((doc, error) -> {
+            if (error != null) {
+                System.out.println("Failed to read the course summary from Firebase.");
+                error.printStackTrace();
+                throw new CompletionException(error);
+            }
+            return CourseSummaries.fromSnapshot(doc, className);
+        });
+    }
+
+    @Override
+    public List<CourseSummary> getCourseSummaries() {
+        return getCourseSummariesAsync().join();
+    }
+
+    /**
+     * Reads every document of "courseSummaries" (one read per course).
+     *
+     * @return future with the summaries sorted by course name (never null)
+     */
+    @Override
+    public CompletableFuture<List<CourseSummary>> getCourseSummariesAsync() {
+        try {
+            return toCompletable(db.collection(CourseSummaries.COLLECTION)
+                    .orderBy(CourseSummaries.FIELD_CLASS_NAME).get()).handle((snapshot, error) -> {
+                List<CourseSummary> list = new ArrayList<>();
+                if (error != null) {
+                    System.out.println("Failed to read course summaries from Firebase.");
+                    error.printStackTrace();
+                    return list;
+                }
+                for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+                    list.add(CourseSummaries.fromSnapshot(doc, doc.getString(CourseSummaries.FIELD_CLASS_NAME)));
+                }
+                return list;
+            });
+
         } catch (Exception e) {
-            System.out.println("Failed to fetch students by className from Firebase.");
+            System.out.println("Failed to read course summaries from Firebase.");
             e.printStackTrace();
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
+    }
 
-        return list;
+    @Override
+    public boolean rebuildCourseSummaries() {
+        return rebuildCourseSummariesAsync().join();
     }
 
     /**
-     * Returns all students with a given status.
-     * Example: "Incomplete" or "Complete".
+     * Reads every task, computes the summaries and overwrites the
+     * "courseSummaries" collection (summaries of courses without tasks
+     * are deleted). Writes made while this runs may be counted twice or
+     * not at all, so run it when nobody else is writing.
      *
-     * @param status status value to filter by
-     * @return list of matching Student objects
+     * @return future completed with true if every summary was written
      */
-    public List<Student> getStudentsByStatus(String status) {
-        List<Student> list = new ArrayList<>();
+    @Override
+    public CompletableFuture<Boolean> rebuildCourseSummariesAsync() {
+        try {
+            CompletableFuture<List<Student>> students = getAllStudentsAsync();
+            CompletableFuture<QuerySnapshot> existing =
+                    toCompletable(db.collection(CourseSummaries.COLLECTION).get());
+
+            return students.thenCombine(existing, (all, stored) -> {
+                List<CompletableFuture<List<WriteResult>>> commits = new ArrayList<>();
+                WriteBatch batch = db.batch();
+                int writesInBatch = 0;
+
+                Map<String, CourseSummary> rebuilt = new HashMap<>();
+                for (CourseSummary summary : CourseSummaries.rebuild(all, Timestamps.now())) {
+                    rebuilt.put(CourseSummaries.documentId(summary.getClassName()), summary);
+                }
+                List<DocumentReference> stale = new ArrayList<>();
+                for (QueryDocumentSnapshot doc : stored.getDocuments()) {
+                    if (!rebuilt.containsKey(doc.getId())) {
+                        stale.add(doc.getReference());
+                    }
+                }
 
+                for (Map.Entry<String, CourseSummary> e : rebuilt.entrySet()) {
+                    if (writesInBatch == MAX_BATCH_WRITES) {
+                        commits.add(toCompletable(batch.commit()));
+                        batch = db.batch();
+                        writesInBatch = 0;
+                    }
+                    batch.set(db.collection(CourseSummaries.COLLECTION).document(e.getKey()),
+                            CourseSummaries.toMap(e.getValue()));
+                    writesInBatch++;
+                }
+                for (DocumentReference ref : stale) {
+                    if (writesInBatch == MAX_BATCH_WRITES) {
+                        commits.add(toCompletable(batch.commit()));
+                        batch = db.batch();
+                        writesInBatch = 0;
+                    }
+                    batch.delete(ref);
+                    writesInBatch++;
+                }
+                if (writesInBatch > 0) {
+                    commits.add(toCompletable(batch.commit()));
+                }
+                System.out.println("Rebuilding " + rebuilt.size() + " course summaries in Firebase.");
+                return CompletableFuture.allOf(commits.toArray(new CompletableFuture[0]));
+
+            }).thenCompose(done -> done).handle((result, error) -> {
+                if (error != null) {
+                    System.out.println("Failed to rebuild course summaries in Firebase.");
+                    error.printStackTrace();
+                    return false;
+                }
+                return true;
+            });
+
+        } catch (Exception e) {
+            System.out.println("Failed to rebuild course summaries in Firebase.");
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(false);
+        }
+    }
+
+    /**
+     * Moves every task and tombstone document to the id it has in the
+     * given key scheme (see {@link DocumentKeys}).
+     *
+     * @param target key scheme to move to
+     * @return number of documents moved, or -1 if the migration failed
+     */
+    public int migrateDocumentKeys(DocumentKeys.Scheme target) {
+        try {
+            return migrateDocumentKeysAsync(target).join();
+        } catch (CompletionException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Async version of {@link #migrateDocumentKeys(DocumentKeys.Scheme)}.
+     *
+     * Both collections are read page by page. Each page is moved in one
+     * batch: the document is copied as it is to its new id and the old one
+     * is deleted, with a precondition that it was not changed since it was
+     * read. A document edited during the migration therefore fails its
+     * batch instead of losing the edit; documents moved so far stay moved,
+     * and running the migration again continues where it stopped (documents
+     * that already have the right id are skipped).
+     *
+     * Run it while no client writes (other clients use the old ids until
+     * they are restarted with the new stm.firestore.keys setting), then
+     * switch every client to the new scheme. The course summaries are not
+     * touched: the task data does not change.
+     *
+     * @param target key scheme to move to
+     * @return future with the number of documents moved; completes
+     *         exceptionally if a page could not be read or moved
+     */
+    public CompletableFuture<Integer> migrateDocumentKeysAsync(DocumentKeys.Scheme target) {
         try {
-            ApiFuture<QuerySnapshot> future = db.collection(COLLECTION)
-                    .whereEqualTo("status", status)
-                    .get();
+            return migrateCollection(COLLECTION, target)
+                    .thenCombine(migrateCollection(TOMBSTONES, target), Integer::sum)
+                    .whenComplete((moved, error) -> {
+                        if (error != null) {
+                            System.out.println("Failed to migrate document keys in Firebase.");
+                            error.printStackTrace();
+                        } else {
+                            System.out.println("Moved " + moved + " document(s) to " + target + " keys.");
+                        }
+                    });
 
-            List<QueryDocumentSnapshot> documents = future.get().getDocuments();
+        } catch (Exception e) {
+            System.out.println("Failed to migrate document keys in Firebase.");
+            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Integer> migrateCollection(String collection, DocumentKeys.Scheme target) {
+        Query firstPage = db.collection(collection)
+                .orderBy(FieldPath.documentId())
+                .limit(MIGRATION_PAGE_SIZE);
+        return migratePages(collection, firstPage, target, 0);
+    }
+
+    /**
+     * Moves one page, then asks for the next one. Moved documents may show
+     * up again on a later page under their new id; they are skipped then.
+     */
+    private CompletableFuture<Integer> migratePages(String collection, Query page,
+                                                    DocumentKeys.Scheme target, int movedSoFar) {
+        return toCompletable(page.get()).thenCompose(snapshot -> {
+            List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+            if (documents.isEmpty()) {
+                return CompletableFuture.completedFuture(movedSoFar);
+            }
+
+            WriteBatch batch = db.batch();
+            int moved = 0;
             for (QueryDocumentSnapshot doc : documents) {
-                list.add(doc.toObject(Student.class));
+                Long id = doc.getLong(StudentCodec.FIELD_ID);
+                if (id == null) {
+                    continue; // not written by this app
+                }
+                String newKey = DocumentKeys.key(id.intValue(), target);
+                if (newKey.equals(doc.getId())) {
+                    continue;
+                }
+                batch.set(db.collection(collection).document(newKey), doc.getData());
+                batch.delete(doc.getReference(), Precondition.updatedAt(doc.getUpdateTime()));
+                moved++;
+            }
+
+            int total = movedSoFar + moved;
+            CompletableFuture<?> commit = moved > 0
+                    ? toCompletable(batch.commit())
+                    : CompletableFuture.completedFuture(null);
+
+            // A short page means we reached the end of the collection.
+            if (documents.size() < MIGRATION_PAGE_SIZE) {
+                return commit.thenApply(ignored -> total);
+            }
+            Query next = db.collection(collection)
+                    .orderBy(FieldPath.documentId())
+                    .startAfter(documents.get(documents.size() - 1))
+                    .limit(MIGRATION_PAGE_SIZE);
+            return commit.thenCompose(ignored -> migratePages(collection, next, target, total));
+        });
+    }
+
+    /**
+     * Reserves a block of ids from the counters/studentIds document.
+     *
+     * @param count number of ids to reserve
+     * @return the first reserved id
+     * @throws IllegalStateException if the transaction failed
+     */
+    @Override
+    public int reserveIds(int count) {
+        return reserveIdsAsync(count).join();
+    }
+
+    /**
+     * Async version of {@link #reserveIds(int)}.
+     *
+     * The counter is read and moved forward inside a Firestore transaction,
+     * so clients that reserve at the same time are serialized by Firestore
+     * (a transaction that loses the race is retried automatically).
+     *
+     * The first time, when the counter document does not exist yet, it
+     * starts after the highest stored id. That is a single-document query
+     * on the "id" field, not a read of the whole collection.
+     *
+     * @param count number of ids to reserve (must be positive)
+     * @return future with the first reserved id; completes exceptionally on failure
+     */
+    @Override
+    public CompletableFuture<Integer> reserveIdsAsync(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        try {
+            DocumentReference counter = db.collection(COUNTERS).document(ID_COUNTER);
+            Query highestId = db.collection(COLLECTION)
+                    .orderBy(StudentCodec.FIELD_ID, Query.Direction.DESCENDING)
+                    .limit(1);
+
+            ApiFuture<Integer> future = db.runTransaction(transaction -> {
+                DocumentSnapshot snapshot = transaction.get(counter).get();
+                long first;
+                if (snapshot.exists() && snapshot.getLong("next") != null) {
+                    first = snapshot.getLong("next");
+                } else {
+                    first = IdAllocator.FIRST_ID;
+                    for (QueryDocumentSnapshot doc : transaction.get(highestId).get().getDocuments()) {
+                        Long max = doc.getLong(StudentCodec.FIELD_ID);
+                        if (max != null && max >= first) {
+                            first = max + 1;
+                        }
+                    }
+                }
+                if (first + count > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("No ids left in the counter");
+                }
+
+                Map<String, Object> update = new HashMap<>();
+                update.put("next", first + count);
+                update.put("updatedAt", Timestamps.now());
+                transaction.set(counter, update);
+                return (int) first;
+            });
+
+            return toCompletable(future).whenComplete((first, error) -> {
+                if (error != null) {
+                    System.out.println("Failed to reserve ids in Firebase.");
+                    error.printStackTrace();
+                }
+            });
+
+        } catch (Exception e) {
+            System.out.println("Failed to reserve ids in Firebase.");
+            e.printStackTrace();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    /**
+     * Writes mutations together with the course summaries they change.
+     * The mutations are split into transactions of at most
+     * MAX_TRANSACTION_MUTATIONS, committed one after the other (they would
+     * often touch the same summaries, so running them in parallel would
+     * only make Firestore retry them).
+     *
+     * This costs more than the plain WriteBatch that flushes used before
+     * the summaries existed. A write-behind flush of 200 mutations was one
+     * commit round trip and 200 document writes. Now it is two
+     * transactions, each with five round trips in a row (begin, read the
+     * tasks, read the summaries, the next-due lookups, commit), so ten
+     * round trips: about 0.8 s instead of 0.08 s at 80 ms per round trip.
+     * It also reads the 200 tasks, one summary per course involved and a
+     * few lookup results, and writes those summaries. Flushes run in the
+     * background, so no screen waits for this, but one client's write
+     * rate is capped at about 250 mutations per second at that latency.
+     * Counting with FieldValue.increment in the old batch would avoid the
+     * reads, but it cannot know a task's previous course and status, or
+     * keep the next due date, without reading the task first.
+     *
+     * @param mustExist fail an UPDATE whose document does not exist
+     *                  (otherwise the UPDATE is dropped)
+     * @return future completed when every transaction committed
+     */
+    private CompletableFuture<Void> commitWithSummaries(List<StudentMutation> mutations, boolean mustExist) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (int from = 0; from < mutations.size(); from += MAX_TRANSACTION_MUTATIONS) {
+            List<StudentMutation> chunk = mutations.subList(from,
+                    Math.min(mutations.size(), from + MAX_TRANSACTION_MUTATIONS));
+            chain = chain.thenCompose(ignored -> toCompletable(
+                    db.runTransaction(transaction -> writeWithSummaries(transaction, chunk, mustExist))));
+        }
+        return chain;
+    }
+
+    /**
+     * Body of one write transaction. Firestore wants every read before
+     * the first write, so it:
+     *  1. reads the current version of every written task,
+     *  2. reads the summaries of every course involved (old and new course),
+     *  3. applies the changes to the summaries; where the task with the
+     *     earliest due date went away, reads the next one with a query on
+     *     (className, status) ordered by dueDate - a single indexed
+     *     lookup, not a scan of the course,
+     *  4. writes the tasks, tombstones and summaries.
+     * Firestore runs it again if another client changed any of those
+     * documents in the meantime, so summaries never drift.
+     */
+    private Void writeWithSummaries(Transaction transaction, List<StudentMutation> mutations,
+                                    boolean mustExist) throws Exception {
+        String now = Timestamps.now();
+
+        // 1. Tasks as they are now
+        DocumentReference[] taskRefs = new DocumentReference[mutations.size()];
+        for (int i = 0; i < mutations.size(); i++) {
+            taskRefs[i] = taskRef(mutations.get(i).getId());
+        }
+        List<DocumentSnapshot> current = transaction.getAll(taskRefs).get();
+
+        List<Student> before = new ArrayList<>(mutations.size());
+        List<Student> after = new ArrayList<>(mutations.size());
+        Set<Integer> written = new HashSet<>();
+        boolean[] skipped = new boolean[mutations.size()];
+        for (int i = 0; i < mutations.size(); i++) {
+            StudentMutation m = mutations.get(i);
+            Student old = StudentCodec.fromSnapshot(current.get(i));
+            if (old == null && m.getType() == StudentMutation.Type.UPDATE) {
+                if (mustExist) {
+                    throw new IllegalStateException("No student with id " + m.getId());
+                }
+                // Deleted by another client: writing the fields would
+                // create a partial task without an id
+                System.out.println("Dropping update of deleted student id " + m.getId());
+                skipped[i] = true;
+                continue;
+            }
+            if (m.isReplay() && m.isSupersededBy(old)) {
+                // Sent before the app stopped, or edited elsewhere since
+                System.out.println("Skipping stale replay of " + m);
+                skipped[i] = true;
+                continue;
             }
+            before.add(old);
+            after.add(afterWrite(m, old, now));
+            written.add(m.getId());
+        }
+
+        // 2. Summaries of the courses involved
+        Map<String, CourseSummary> summaries = new HashMap<>();
+        List<String> courses = new ArrayList<>(CourseSummaries.affectedCourses(before, after));
+        if (!courses.isEmpty()) {
+            DocumentReference[] summaryRefs = new DocumentReference[courses.size()];
+            for (int i = 0; i < courses.size(); i++) {
+                summaryRefs[i] = summaryRef(courses.get(i));
+            }
+            List<DocumentSnapshot> docs = transaction.getAll(summaryRefs).get();
+            for (int i = 0; i < courses.size(); i++) {
+                summaries.put(courses.get(i), CourseSummaries.fromSnapshot(docs.get(i), courses.get(i)));
+            }
+        }
+
+        // 3. New totals; look up the next due date where the earliest task went away.
+        // Only dated tasks: Firestore sorts null (and "") due dates first, so
+        // undated tasks would otherwise fill the limit. Tasks written here are
+        // skipped: their new versions are already counted.
+        // The lookups are all sent before waiting for any, so they cost one round trip.
+        Map<String, Set<String>> stale = CourseSummaries.apply(summaries, before, after, now);
+        List<String[]> lookedUp = new ArrayList<>();
+        List<ApiFuture<QuerySnapshot>> lookups = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> e : stale.entrySet()) {
+            for (String status : e.getValue()) {
+                Query next = db.collection(COLLECTION)
+                        .whereEqualTo(StudentCodec.FIELD_STATUS, CourseSummaries.statusValue(status))
+                        .whereEqualTo(StudentCodec.FIELD_CLASS_NAME, e.getKey())
+                        .whereGreaterThan(StudentCodec.FIELD_DUE_DATE, "")
+                        .orderBy(StudentCodec.FIELD_DUE_DATE)
+                        .limit(written.size() + 1);
+                lookedUp.add(new String[]{e.getKey(), status});
+                lookups.add(transaction.get(next));
+            }
+        }
+        for (int i = 0; i < lookups.size(); i++) {
+            String course = lookedUp.get(i)[0];
+            String status = lookedUp.get(i)[1];
+            for (QueryDocumentSnapshot doc : lookups.get(i).get().getDocuments()) {
+                Long id = doc.getLong(StudentCodec.FIELD_ID);
+                if (id != null && written.contains(id.intValue())) {
+                    continue;
+                }
+                summaries.get(course).offerDueDate(status, doc.getString(StudentCodec.FIELD_DUE_DATE));
+                break;
+            }
+        }
+
+        // 4. Writes
+        for (int i = 0; i < mutations.size(); i++) {
+            StudentMutation m = mutations.get(i);
+            if (skipped[i]) {
+                continue;
+            }
+            if (m.getType() == StudentMutation.Type.DELETE) {
+                addDelete(transaction, m.getId(), now, m.getIdempotencyKey());
+            } else if (m.getType() == StudentMutation.Type.UPDATE) {
+                // Read above in this transaction, so the document exists
+                // (update() without a precondition requires that)
+                transaction.update(taskRefs[i], StudentCodec.toUpdateMap(m.getStudent(), m.getFields()));
+            } else {
+                transaction.set(taskRefs[i], StudentCodec.toMap(m.getStudent()));
+            }
+        }
+        for (CourseSummary summary : summaries.values()) {
+            if (summary.isEmpty()) {
+                transaction.delete(summaryRef(summary.getClassName()));
+            } else {
+                transaction.set(summaryRef(summary.getClassName()), CourseSummaries.toMap(summary));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the timestamps on the mutation's student and returns the task
+     * as it will be stored (null for a delete).
+     *
+     * @param old the stored version, or null if there is none
+     */
+    private static Student afterWrite(StudentMutation m, Student old, String now) {
+        if (m.getType() == StudentMutation.Type.DELETE) {
+            return null;
+        }
+
+        Student s = m.getStudent();
+        s.setUpdatedAt(now);
+        if (m.getIdempotencyKey() != null) {
+            s.setLastMutationId(m.getIdempotencyKey());
+        }
+
+        if (m.getType() == StudentMutation.Type.UPDATE) {
+            // Only the listed fields change; the rest stays as stored
+            Student merged = old != null ? StudentCodec.copy(old) : new Student();
+            merged.setId(m.getId());
+            for (String field : m.getFields()) {
+                StudentCodec.copyField(merged, field, s);
+            }
+            merged.setUpdatedAt(now);
+            merged.setLastMutationId(s.getLastMutationId());
+            return merged;
+        }
+
+        if (s.getCreatedAt() == null || s.getCreatedAt().isEmpty()) {
+            s.setCreatedAt(old != null && old.getCreatedAt() != null ? old.getCreatedAt() : now);
+        }
+        return s;
+    }
+
+    /**
+     * Adds a document delete plus its tombstone to a transaction.
+     */
+    private void addDelete(Transaction transaction, int id, String deletedAt, String mutationId) {
+        String key = DocumentKeys.key(id, keys);
+        transaction.delete(db.collection(COLLECTION).document(key));
+
+        Map<String, Object> tombstone = new HashMap<>();
+        tombstone.put("id", id);
+        tombstone.put("deletedAt", deletedAt);
+        if (mutationId != null) {
+            tombstone.put("mutationId", mutationId);
+        }
+        transaction.set(db.collection(TOMBSTONES).document(key), tombstone);
+    }
+
+    private DocumentReference taskRef(int id) {
+        return db.collection(COLLECTION).document(DocumentKeys.key(id, keys));
+    }
+
+    private DocumentReference summaryRef(String className) {
+        return db.collection(CourseSummaries.COLLECTION).document(CourseSummaries.documentId(className));
+    }
+
+    /**
+     * Maps a Firestore document change type to our own enum.
+     */
+    private static StudentChange.Type toChangeType(DocumentChange.Type type) {
+        switch (type) {
+            case ADDED:
+                return StudentChange.Type.ADDED;
+            case REMOVED:
+                return StudentChange.Type.REMOVED;
+            default:
+                return StudentChange.Type.MODIFIED;
+        }
+    }
+
+    /**
+     * Returns the later of two timestamps (null-safe).
+     */
+    private static String later(String a, String b) {
+        if (b == null) return a;
+        if (a == null) return b;
+        return b.compareTo(a) > 0 ? b : a;
+    }
+
+    /**
+     * Loads one page, hands it to the consumer and continues after its last document.
+     */
+    private CompletableFuture<Integer> fetchPages(Query page,
+                                                  int pageSize,
+                                                  Consumer<List<Student>> pageConsumer,
+                                                  int deliveredSoFar) {
+        try {
+            return toCompletable(page.get()).handle((snapshot, error) -> {
+                if (error != null) {
+                    System.out.println("Failed to fetch a page of students from Firebase.");
+                    error.printStackTrace();
+                    // Not a short collection: the caller must know the load is incomplete
+                    return CompletableFuture.<Integer>failedFuture(new PageLoadException(deliveredSoFar, error));
+                }
+
+                List<QueryDocumentSnapshot> documents = snapshot.getDocuments();
+                if (documents.isEmpty()) {
+                    return CompletableFuture.completedFuture(deliveredSoFar);
+                }
+
+                List<Student> students = new ArrayList<>(documents.size());
+                for (QueryDocumentSnapshot doc : documents) {
+                    students.add(StudentCodec.fromSnapshot(doc));
+                }
+                pageConsumer.accept(students);
+
+                int delivered = deliveredSoFar + students.size();
+
+                // A short page means we reached the end of the collection.
+                if (documents.size() < pageSize) {
+                    return CompletableFuture.completedFuture(delivered);
+                }
+
+                Query next = db.collection(COLLECTION)
+                        .orderBy(FieldPath.documentId())
+                        .startAfter(documents.get(documents.size() - 1))
+                        .limit(pageSize);
+                return fetchPages(next, pageSize, pageConsumer, delivered);
+
+            }).thenCompose(f -> f);
+
+        } catch (Exception e) {
+            System.out.println("Failed to fetch a page of students from Firebase.");
+            e.printStackTrace();
+            return CompletableFuture.failedFuture(new PageLoadException(deliveredSoFar, e));
+        }
+    }
+
+    /**
+     * Translates a StudentQuery into a Firestore query: the equality
+     * filters become whereEqualTo, the due-date range
+     * whereGreaterThanOrEqualTo / whereLessThanOrEqualTo on the ISO date
+     * text, then orderBy and limit. Combinations of equality filters with
+     * an order need a composite index from firestore.indexes.json; without
+     * it Firestore fails the query (the error contains a link to create it).
+     */
+    private Query toFirestoreQuery(StudentQuery query) {
+        Query q = db.collection(COLLECTION);
+        for (Map.Entry<String, String> filter : query.equalityFilters().entrySet()) {
+            q = q.whereEqualTo(filter.getKey(), filter.getValue());
+        }
+        if (query.getDueFrom() != null) {
+            q = q.whereGreaterThanOrEqualTo(StudentCodec.FIELD_DUE_DATE, query.getDueFrom().toString());
+        }
+        if (query.getDueTo() != null) {
+            q = q.whereLessThanOrEqualTo(StudentCodec.FIELD_DUE_DATE, query.getDueTo().toString());
+        }
+        if (query.getSortField() != null) {
+            q = q.orderBy(query.getSortField().getField(),
+                    query.isDescending() ? Query.Direction.DESCENDING : Query.Direction.ASCENDING);
+        }
+        if (query.getLimit() > 0) {
+            q = q.limit(query.getLimit());
+        }
+        return q;
+    }
+
+    /**
+     * Runs a query and maps every document to a Student.
+     * On failure the error is logged and the future completes with an empty list,
+     * matching the behavior of the blocking methods.
+     */
+    private CompletableFuture<List<Student>> queryAsync(Query query, String errorMessage) {
+        try {
+            return toCompletable(query.get()).handle((snapshot, error) -> {
+                List<Student> list = new ArrayList<>();
+                if (error != null) {
+                    System.out.println(errorMessage);
+                    error.printStackTrace();
+                    return list;
+                }
+                for (QueryDocumentSnapshot doc : snapshot.getDocuments()) {
+                    list.add(StudentCodec.fromSnapshot(doc));
+                }
+                return list;
+            });
 
         } catch (Exception e) {
-            System.out.println("Failed to fetch students by status from Firebase.");
+            System.out.println(errorMessage);
             e.printStackTrace();
+            return CompletableFuture.completedFuture(new ArrayList<>());
         }
+    }
+
+    /**
+     * Bridges a Firestore ApiFuture to a CompletableFuture without blocking.
+     * The callback (and everything chained on the result) runs on the
+     * shared I/O executor instead of a gRPC thread.
+     */
+    private static <T> CompletableFuture<T> toCompletable(ApiFuture<T> apiFuture) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        ApiFutures.addCallback(apiFuture, new ApiFutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, IoExecutor.get());
 
-        return list;
+        return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the Firestore composite index definitions that
+ * {@link StudentQuery} needs, in the firestore.indexes.json format used by
+ * the Firebase CLI ("firebase deploy --only firestore:indexes").
+ *
+ * Firestore serves equality-only queries from its automatic single-field
+ * indexes, but equality filters combined with an order (or a due-date
+ * range, which is ordered by due date) need a composite index. This class
+ * lists every such combination: each non-empty set of equality fields,
+ * times each sort field and direction.
+ *
+ * The generated file is committed at the project root. Regenerate it
+ * after changing StudentQuery:
+ * <pre>
+ *   java -cp backend/target/classes:... com.studenttaskmanager.backend.repository.FirestoreIndexes firestore.indexes.json
+ * </pre>
+ * StudentQueryTest fails when the committed file is out of date.
+ */
+public final class FirestoreIndexes {
+
+    // Firestore collection the queries run on
+    private static final String COLLECTION = "students";
+
+    private FirestoreIndexes() {
+    }
+
+    /**
+     * Every composite index a StudentQuery can need, as field lists in
+     * {@link StudentQuery#requiredIndex()} format, without duplicates.
+     */
+    public static List<List<String>> requiredIndexes() {
+        Set<List<String>> indexes = new LinkedHashSet<>();
+        List<String> equality = StudentQuery.EQUALITY_FIELDS;
+
+        // Every non-empty subset of the equality fields (bit mask), in a stable order
+        for (int mask = 1; mask < (1 << equality.size()); mask++) {
+            for (StudentQuery.SortField sort : StudentQuery.SortField.values()) {
+                for (boolean descending : new boolean[] {false, true}) {
+                    StudentQuery.Builder query = StudentQuery.builder().orderBy(sort, descending);
+                    if ((mask & 1) != 0) query.status("x");
+                    if ((mask & 2) != 0) query.className("x");
+                    if ((mask & 4) != 0) query.priority("x");
+                    indexes.add(query.build().requiredIndex());
+                }
+            }
+        }
+        return new ArrayList<>(indexes);
+    }
+
+    /**
+     * The contents of firestore.indexes.json.
+     */
+    public static String toJson() {
+        List<Map<String, Object>> indexes = new ArrayList<>();
+        for (List<String> fields : requiredIndexes()) {
+            List<Map<String, String>> fieldList = new ArrayList<>();
+            for (String field : fields) {
+                String[] parts = field.split(":");
+                Map<String, String> entry = new LinkedHashMap<>();
+                entry.put("fieldPath", parts[0]);
+                entry.put("order", parts[1]);
+                fieldList.add(entry);
+            }
+
+            Map<String, Object> index = new LinkedHashMap<>();
+            index.put("collectionGroup", COLLECTION);
+            index.put("queryScope", "COLLECTION");
+            index.put("fields", fieldList);
+            indexes.add(index);
+        }
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("indexes", indexes);
+        root.put("fieldOverrides", new ArrayList<>());
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        return gson.toJson(root) + "\n";
+    }
+
+    /**
+     * Writes the index definitions.
+     *
+     * @param args optional output path (default firestore.indexes.json)
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get(args.length > 0 ? args[0] : "firestore.indexes.json");
+        Files.writeString(out, toJson(), StandardCharsets.UTF_8);
+        System.out.println("Wrote " + requiredIndexes().size() + " indexes to " + out.toAbsolutePath());
+    }
+}
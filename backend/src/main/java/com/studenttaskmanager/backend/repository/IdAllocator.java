@@ -0,0 +1,345 @@
+package com.studenttaskmanager.backend.repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * Hands out new task ids that no other client will ever hand out.
+ *
+ * Instead of looking for the highest id in the loaded data, the allocator
+ * leases a block of ids (for example 20000-20049) from a counter that the
+ * backend keeps and updates atomically (see
+ * {@link StudentRepository#reserveIdsAsync(int)}). Two clients started at
+ * the same time therefore get different blocks, and nothing has to be
+ * read to start.
+ *
+ * Inside a block, {@link #next()} is a single atomic increment, so it can
+ * be called from any thread without a lock. When half of a block is used,
+ * the next block is requested in the background, so the caller normally
+ * never waits for the backend. While offline, the ids that are left in
+ * the current and the prefetched block can still be used.
+ *
+ * Ids that are leased but never used are simply skipped; ids only have
+ * to be unique, not gap-free.
+ *
+ * With a lease file, the ids left in the current and the prefetched block
+ * are also written to disk, so an app that is started without a network
+ * connection can still add tasks with the ids it leased in an earlier
+ * session. To avoid a disk write per id, the file marks a few ids ahead
+ * as used ({@link #SAVE_AHEAD}); after a crash those few are skipped.
+ *
+ * {@link #next()} waits for the backend when no block is left, which is
+ * fine on a background thread. The UI uses {@link #nextNow()}, which
+ * fails right away instead.
+ */
+public class IdAllocator {
+
+    /**
+     * Smallest id handed out when the backend has no counter and no data yet.
+     */
+    public static final int FIRST_ID = 20000;
+
+    /**
+     * Default number of ids leased per round trip.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    /**
+     * Ids marked as used in the lease file before they are handed out.
+     */
+    public static final int SAVE_AHEAD = 10;
+
+    // How long next() waits for a block when none is ready
+    private static final long LEASE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * A leased range [next, end). next may run past end when several
+     * threads race for the last id; those extra values are not used.
+     */
+    private static final class Block {
+        final AtomicInteger next;
+        final int first;
+        final int end;
+
+        Block(int first, int end) {
+            this.next = new AtomicInteger(first);
+            this.first = first;
+            this.end = end;
+        }
+    }
+
+    private final IntFunction<CompletableFuture<Integer>> lease;
+    private final int blockSize;
+
+    // Where unused leased ids are kept between sessions (null: nowhere)
+    private final Path leaseFile;
+
+    // Block ids are currently taken from (an empty one before the first lease)
+    private final AtomicReference<Block> current = new AtomicReference<>(new Block(0, 0));
+
+    // Ids of the current block below this may already be handed out, so
+    // they are left out of the lease file (written under "this")
+    private volatile int savedUpTo;
+
+    // Next block, requested ahead of time (guarded by "this")
+    private CompletableFuture<Block> upcoming;
+
+    /**
+     * @param repository backend that keeps the shared counter
+     * @param blockSize  ids leased per round trip
+     */
+    public IdAllocator(StudentRepository repository, int blockSize) {
+        this(repository::reserveIdsAsync, blockSize);
+    }
+
+    /**
+     * @param lease     reserves the given number of ids and returns the first one
+     * @param blockSize ids leased per round trip
+     */
+    public IdAllocator(IntFunction<CompletableFuture<Integer>> lease, int blockSize) {
+        this(lease, blockSize, null);
+    }
+
+    /**
+     * @param repository backend that keeps the shared counter
+     * @param blockSize  ids leased per round trip
+     * @param leaseFile  where unused leased ids are kept between sessions,
+     *                   or null to keep them in memory only
+     */
+    public IdAllocator(StudentRepository repository, int blockSize, Path leaseFile) {
+        this(repository::reserveIdsAsync, blockSize, leaseFile);
+    }
+
+    /**
+     * @param lease     reserves the given number of ids and returns the first one
+     * @param blockSize ids leased per round trip
+     * @param leaseFile where unused leased ids are kept between sessions,
+     *                  or null to keep them in memory only
+     */
+    public IdAllocator(IntFunction<CompletableFuture<Integer>> lease, int blockSize, Path leaseFile) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive");
+        }
+        this.lease = lease;
+        this.blockSize = blockSize;
+        this.leaseFile = leaseFile;
+        if (leaseFile != null) {
+            load();
+        }
+    }
+
+    /**
+     * Requests the first block in the background, so the first next()
+     * does not have to wait. Safe to call more than once.
+     */
+    public void prefetch() {
+        requestUpcoming();
+    }
+
+    /**
+     * Returns a new unique id.
+     *
+     * Normally this does not block. Only when the current block is used up
+     * and the next one has not arrived yet does it wait for the backend.
+     *
+     * @return an id that has not been handed out before
+     * @throws IllegalStateException if no block could be leased
+     */
+    public int next() {
+        return take(true);
+    }
+
+    /**
+     * Returns a new unique id without ever waiting for the backend.
+     *
+     * Use this on the JavaFX thread. When the leased ids are used up and
+     * the next block has not arrived yet (for example while offline), it
+     * fails immediately; the block is still requested in the background.
+     *
+     * @return an id that has not been handed out before
+     * @throws IllegalStateException if no leased id is available right now
+     */
+    public int nextNow() {
+        return take(false);
+    }
+
+    /**
+     * Ids still available without a round trip (current block only).
+     */
+    public int remaining() {
+        Block block = current.get();
+        return Math.max(0, block.end - block.next.get());
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private int take(boolean wait) {
+        while (true) {
+            Block block = current.get();
+            int id = block.next.getAndIncrement();
+            if (id < block.end) {
+                if (block.end - id == blockSize / 2) {
+                    // Half used: ask for the next block while this one lasts
+                    requestUpcoming();
+                }
+                if (leaseFile != null && id >= savedUpTo) {
+                    saveAhead(block, id);
+                }
+                return id;
+            }
+            switchBlock(block, wait);
+        }
+    }
+
+    /**
+     * Replaces a used-up block with the upcoming one. Only one thread does
+     * the switch; the others find the new block when they try again.
+     */
+    private synchronized void switchBlock(Block usedUp, boolean wait) {
+        if (current.get() != usedUp) {
+            return; // another thread already switched
+        }
+
+        CompletableFuture<Block> pending = requestUpcoming();
+        if (!wait && !pending.isDone()) {
+            throw new IllegalStateException("No leased ids left and the backend has not answered yet");
+        }
+        Block next;
+        try {
+            next = pending.get(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            // Forget the failed request, so the next call asks again
+            upcoming = null;
+            throw new IllegalStateException("Could not reserve new ids from the backend", e);
+        }
+
+        upcoming = null;
+        savedUpTo = next.first;
+        current.set(next);
+        save();
+    }
+
+    /**
+     * Starts a lease unless one is already running or done and unused.
+     */
+    private synchronized CompletableFuture<Block> requestUpcoming() {
+        if (upcoming == null || upcoming.isCompletedExceptionally()) {
+            try {
+                upcoming = lease.apply(blockSize)
+                        .thenApply(first -> new Block(first, first + blockSize));
+            } catch (RuntimeException e) {
+                upcoming = CompletableFuture.failedFuture(e);
+            }
+            if (leaseFile != null) {
+                // Keep the new block on disk as soon as it arrives
+                CompletableFuture<Block> requested = upcoming;
+                requested.thenRun(() -> {
+                    synchronized (this) {
+                        if (upcoming == requested) {
+                            save();
+                        }
+                    }
+                });
+            }
+        }
+        return upcoming;
+    }
+
+    /**
+     * Marks the next few ids of the block as used in the lease file before
+     * the given one is handed out.
+     */
+    private synchronized void saveAhead(Block block, int id) {
+        if (current.get() != block || id < savedUpTo) {
+            return; // already covered by an earlier save
+        }
+        int mark = Math.min(block.end, id + SAVE_AHEAD);
+        save(block, mark);
+        savedUpTo = mark;
+    }
+
+    private synchronized void save() {
+        save(current.get(), savedUpTo);
+    }
+
+    /**
+     * Writes the unused part of the current block and the prefetched block
+     * to the lease file, one "first end" range per line.
+     */
+    private synchronized void save(Block block, int usedUpTo) {
+        if (leaseFile == null) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        int first = Math.max(block.first, usedUpTo);
+        if (first < block.end) {
+            text.append(first).append(' ').append(block.end).append('\n');
+        }
+        if (upcoming != null && upcoming.isDone() && !upcoming.isCompletedExceptionally()) {
+            Block next = upcoming.join();
+            text.append(next.first).append(' ').append(next.end).append('\n');
+        }
+
+        // Write a new file and move it over the old one, so a crash never
+        // leaves a half written lease file behind
+        Path temp = leaseFile.resolveSibling(leaseFile.getFileName() + ".tmp");
+        try {
+            Files.write(temp, text.toString().getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+            Files.move(temp, leaseFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Could not save leased ids to " + leaseFile);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Picks up the ids left over from an earlier session.
+     */
+    private void load() {
+        if (!Files.exists(leaseFile)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(leaseFile, StandardCharsets.UTF_8);
+            if (lines.size() > 0) {
+                Block block = parse(lines.get(0));
+                current.set(block);
+                savedUpTo = block.first;
+            }
+            if (lines.size() > 1) {
+                upcoming = CompletableFuture.completedFuture(parse(lines.get(1)));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Never reuse ids from a file we cannot read; lease new ones instead
+            System.out.println("Could not read leased ids from " + leaseFile + ", ignoring them.");
+            e.printStackTrace();
+            current.set(new Block(0, 0));
+            upcoming = null;
+        }
+    }
+
+    private static Block parse(String line) {
+        String[] parts = line.trim().split(" ");
+        int first = Integer.parseInt(parts[0]);
+        int end = Integer.parseInt(parts[1]);
+        if (first >= end) {
+            throw new IllegalArgumentException("Empty id range: " + line);
+        }
+        return new Block(first, end);
+    }
+}
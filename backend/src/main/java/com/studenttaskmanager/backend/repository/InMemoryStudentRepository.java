@@ -0,0 +1,506 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.studenttaskmanager.backend.db.IoExecutor;
+import com.studenttaskmanager.backend.models.CourseSummary;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentChange;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * {@link StudentRepository} that keeps everything in memory.
+ *
+ * Used by tests and benchmarks that must run without Firebase credentials
+ * or a database file. It behaves like the real backends:
+ *  - records are stored as copies, so callers cannot change stored data
+ *    by mutating a Student after saving it,
+ *  - createdAt / updatedAt are set the same way,
+ *  - field updates change only the listed fields,
+ *  - deletes leave a tombstone for delta sync,
+ *  - course summaries change together with the tasks,
+ *  - live listeners get an initial snapshot and then every change.
+ *
+ * Nothing is logged per write, so benchmarks measure the repository
+ * and not the console.
+ */
+public class InMemoryStudentRepository implements StudentRepository {
+
+    // Stored records by id, in id order. Guarded by "this".
+    private final TreeMap<Integer, Student> students = new TreeMap<>();
+
+    // Deleted id -> deletedAt timestamp. Guarded by "this".
+    private final Map<Integer, String> tombstones = new HashMap<>();
+
+    // Course name -> summary of its tasks, in name order. Guarded by "this".
+    private final TreeMap<String, CourseSummary> summaries = new TreeMap<>();
+
+    // Next id handed out by reserveIds, 0 until first used. Guarded by "this".
+    private long nextFreeId = 0;
+
+    private final List<StudentChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Delivers live changes one at a time, in commit order.
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "memory-notify");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // --------------------
+    // CRUD
+    // --------------------
+
+    @Override
+    public boolean addStudent(Student s) {
+        return applyBatch(List.of(StudentMutation.upsert(s)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addStudentAsync(Student s) {
+        return async(() -> addStudent(s));
+    }
+
+    @Override
+    public synchronized List<Student> getAllStudents() {
+        return copyAll(students.values(), null);
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getAllStudentsAsync() {
+        return async(this::getAllStudents);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAllStudentsPagedAsync(int pageSize,
+                                                             Consumer<List<Student>> pageConsumer) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+
+        return async(() -> {
+            int delivered = 0;
+            Integer lastId = null;
+
+            while (true) {
+                List<Student> page = new ArrayList<>(pageSize);
+                synchronized (this) {
+                    Map<Integer, Student> rest = lastId == null
+                            ? students
+                            : students.tailMap(lastId, false);
+                    for (Student s : rest.values()) {
+                        if (page.size() == pageSize) break;
+                        page.add(StudentCodec.copy(s));
+                    }
+                }
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                pageConsumer.accept(page);
+                delivered += page.size();
+                lastId = page.get(page.size() - 1).getId();
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+            return delivered;
+        });
+    }
+
+    @Override
+    public boolean updateStatus(int id, String newStatus) {
+        Student updated;
+        synchronized (this) {
+            Student current = students.get(id);
+            if (current == null) {
+                // Same as Firestore: updating a missing document fails.
+                System.out.println("Failed to update status: no student with ID " + id);
+                return false;
+            }
+            Student before = StudentCodec.copy(current);
+            String now = Timestamps.now();
+            current.setStatus(newStatus);
+            current.setUpdatedAt(now);
+            updated = StudentCodec.copy(current);
+            updateSummaries(List.of(before), List.of(updated), now);
+        }
+        publish(List.of(new StudentChange(StudentChange.Type.MODIFIED, id, updated)));
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateStatusAsync(int id, String newStatus) {
+        return async(() -> updateStatus(id, newStatus));
+    }
+
+    @Override
+    public boolean deleteStudent(int id) {
+        return applyBatch(List.of(StudentMutation.delete(id)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteStudentAsync(int id) {
+        return async(() -> deleteStudent(id));
+    }
+
+    @Override
+    public synchronized List<Student> getStudentsByClassName(String className) {
+        return copyAll(students.values(), s -> className != null && className.equals(s.getClassName()));
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByClassNameAsync(String className) {
+        return async(() -> getStudentsByClassName(className));
+    }
+
+    @Override
+    public synchronized List<Student> getStudentsByStatus(String status) {
+        return copyAll(students.values(), s -> status != null && status.equals(s.getStatus()));
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByStatusAsync(String status) {
+        return async(() -> getStudentsByStatus(status));
+    }
+
+    @Override
+    public List<Student> findStudents(StudentQuery query) {
+        List<Student> result;
+        synchronized (this) {
+            result = copyAll(students.values(), query::matches);
+        }
+        if (query.comparator() != null) {
+            result.sort(query.comparator());
+        }
+        if (query.getLimit() > 0 && result.size() > query.getLimit()) {
+            result = new ArrayList<>(result.subList(0, query.getLimit()));
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> findStudentsAsync(StudentQuery query) {
+        return async(() -> findStudents(query));
+    }
+
+    /**
+     * Counts locally: one pass over the map, without copying any record.
+     */
+    @Override
+    public synchronized long countStudents(StudentQuery query) {
+        long count = 0;
+        for (Student s : students.values()) {
+            if (query.matches(s)) {
+                count++;
+            }
+        }
+        return query.getLimit() > 0 ? Math.min(count, query.getLimit()) : count;
+    }
+
+    @Override
+    public CompletableFuture<Long> countStudentsAsync(StudentQuery query) {
+        return async(() -> countStudents(query));
+    }
+
+    // --------------------
+    // Sync support
+    // --------------------
+
+    /**
+     * Everything written at or after the mark. The comparison includes the
+     * mark itself: a write in the same millisecond as the last sync is
+     * returned again rather than skipped (a merge by id does not mind).
+     * Timestamps are taken under the lock, so a write can never commit
+     * with an older timestamp than one a sync has already seen.
+     */
+    @Override
+    public CompletableFuture<StudentDelta> getChangesSinceAsync(String since) {
+        return async(() -> {
+            synchronized (this) {
+                String highWaterMark = since;
+
+                List<Student> changed = new ArrayList<>();
+                for (Student s : students.values()) {
+                    if (s.getUpdatedAt() != null && s.getUpdatedAt().compareTo(since) >= 0) {
+                        changed.add(StudentCodec.copy(s));
+                        highWaterMark = later(highWaterMark, s.getUpdatedAt());
+                    }
+                }
+
+                List<Integer> deletedIds = new ArrayList<>();
+                for (Map.Entry<Integer, String> e : tombstones.entrySet()) {
+                    if (e.getValue().compareTo(since) >= 0) {
+                        deletedIds.add(e.getKey());
+                        highWaterMark = later(highWaterMark, e.getValue());
+                    }
+                }
+
+                return new StudentDelta(changed, deletedIds, highWaterMark);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> applyBatchAsync(List<StudentMutation> mutations) {
+        return async(() -> applyBatch(mutations));
+    }
+
+    /**
+     * Applies all mutations at once (all-or-nothing, like a transaction).
+     */
+    private boolean applyBatch(List<StudentMutation> mutations) {
+        List<StudentChange> changes = new ArrayList<>(mutations.size());
+
+        synchronized (this) {
+            // Taken under the lock, so timestamps follow commit order (see getChangesSinceAsync)
+            String now = Timestamps.now();
+            // Versions before and after, for the course summaries
+            List<Student> before = new ArrayList<>(mutations.size());
+            List<Student> after = new ArrayList<>(mutations.size());
+
+            for (StudentMutation m : mutations) {
+                Student old = students.get(m.getId());
+                if (m.isReplay() && m.isSupersededBy(old)) {
+                    // Same rule as the Firestore repository
+                    continue;
+                }
+                if (old == null && m.getType() == StudentMutation.Type.UPDATE) {
+                    // A field update of a deleted task is dropped, as in Firestore
+                    continue;
+                }
+                before.add(old != null ? StudentCodec.copy(old) : null);
+
+                if (m.getType() == StudentMutation.Type.DELETE) {
+                    students.remove(m.getId());
+                    tombstones.put(m.getId(), now);
+                    changes.add(new StudentChange(StudentChange.Type.REMOVED, m.getId(), null));
+                } else if (m.getType() == StudentMutation.Type.UPDATE) {
+                    // Copy only the changed fields onto the stored record
+                    Student stored = students.get(m.getId());
+                    Student s = m.getStudent();
+                    for (String field : m.getFields()) {
+                        StudentCodec.copyField(stored, field, s);
+                    }
+                    stored.setUpdatedAt(now);
+                    if (m.getIdempotencyKey() != null) {
+                        stored.setLastMutationId(m.getIdempotencyKey());
+                    }
+                    changes.add(new StudentChange(StudentChange.Type.MODIFIED, stored.getId(), StudentCodec.copy(stored)));
+                } else {
+                    Student s = m.getStudent();
+                    if (s.getCreatedAt() == null || s.getCreatedAt().isEmpty()) {
+                        Student existing = students.get(s.getId());
+                        s.setCreatedAt(existing != null ? existing.getCreatedAt() : now);
+                    }
+                    s.setUpdatedAt(now);
+                    if (m.getIdempotencyKey() != null) {
+                        s.setLastMutationId(m.getIdempotencyKey());
+                    }
+                    Student stored = StudentCodec.copy(s);
+                    students.put(s.getId(), stored);
+                    tombstones.remove(s.getId());
+                    changes.add(new StudentChange(StudentChange.Type.MODIFIED, s.getId(), StudentCodec.copy(stored)));
+                }
+                after.add(students.containsKey(m.getId()) ? StudentCodec.copy(students.get(m.getId())) : null);
+            }
+
+            updateSummaries(before, after, now);
+        }
+
+        publish(changes);
+        return true;
+    }
+
+    @Override
+    public synchronized CourseSummary getCourseSummary(String className) {
+        CourseSummary summary = summaries.get(className);
+        return summary != null ? new CourseSummary(summary) : new CourseSummary(className);
+    }
+
+    @Override
+    public CompletableFuture<CourseSummary> getCourseSummaryAsync(String className) {
+        return async(() -> getCourseSummary(className));
+    }
+
+    @Override
+    public synchronized List<CourseSummary> getCourseSummaries() {
+        List<CourseSummary> result = new ArrayList<>(summaries.size());
+        for (CourseSummary summary : summaries.values()) {
+            result.add(new CourseSummary(summary));
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<CourseSummary>> getCourseSummariesAsync() {
+        return async(this::getCourseSummaries);
+    }
+
+    @Override
+    public synchronized boolean rebuildCourseSummaries() {
+        summaries.clear();
+        for (CourseSummary summary : CourseSummaries.rebuild(students.values(), Timestamps.now())) {
+            summaries.put(summary.getClassName(), summary);
+        }
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> rebuildCourseSummariesAsync() {
+        return async(this::rebuildCourseSummaries);
+    }
+
+    @Override
+    public synchronized int reserveIds(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        if (nextFreeId == 0) {
+            nextFreeId = students.isEmpty()
+                    ? IdAllocator.FIRST_ID
+                    : Math.max(IdAllocator.FIRST_ID, students.lastKey() + 1L);
+        }
+        if (nextFreeId + count > Integer.MAX_VALUE) {
+            throw new IllegalStateException("No ids left in the counter");
+        }
+        int first = (int) nextFreeId;
+        nextFreeId += count;
+        return first;
+    }
+
+    @Override
+    public CompletableFuture<Integer> reserveIdsAsync(int count) {
+        return async(() -> reserveIds(count));
+    }
+
+    @Override
+    public ChangeSubscription listenForChanges(StudentChangeListener listener) {
+        notifier.execute(() -> {
+            // Initial snapshot, then every later change through publish().
+            List<StudentChange> initial = new ArrayList<>();
+            for (Student s : getAllStudents()) {
+                initial.add(new StudentChange(StudentChange.Type.ADDED, s.getId(), s));
+            }
+            listeners.add(listener);
+            if (!initial.isEmpty()) {
+                listener.onChanges(initial);
+            }
+        });
+        return () -> notifier.execute(() -> listeners.remove(listener));
+    }
+
+    @Override
+    public ChangeSubscription listenForChanges(String since, StudentChangeListener listener) {
+        if (since == null) {
+            return listenForChanges(listener);
+        }
+        notifier.execute(() -> {
+            // Changes since the mark, then every later change through publish().
+            List<StudentChange> initial = new ArrayList<>();
+            try {
+                StudentDelta delta = getChangesSinceAsync(since).join();
+                // Deletes first, so a task deleted and then created again stays
+                for (int id : delta.getDeletedIds()) {
+                    initial.add(new StudentChange(StudentChange.Type.REMOVED, id, null));
+                }
+                for (Student s : delta.getChanged()) {
+                    initial.add(new StudentChange(StudentChange.Type.ADDED, s.getId(), s));
+                }
+            } catch (RuntimeException e) {
+                listener.onError(e);
+                return;
+            }
+            listeners.add(listener);
+            if (!initial.isEmpty()) {
+                listener.onChanges(initial);
+            }
+        });
+        return () -> notifier.execute(() -> listeners.remove(listener));
+    }
+
+    /**
+     * Number of stored students.
+     */
+    public synchronized int size() {
+        return students.size();
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    /**
+     * Hands committed changes to the live listeners, in commit order.
+     */
+    private void publish(List<StudentChange> changes) {
+        if (changes.isEmpty() || listeners.isEmpty()) {
+            return;
+        }
+        notifier.execute(() -> {
+            for (StudentChangeListener listener : listeners) {
+                listener.onChanges(changes);
+            }
+        });
+    }
+
+    /**
+     * Applies a group of writes to the course summaries. Where the task
+     * with the earliest due date went away, the next one is found by
+     * scanning that course (cheap in memory). Caller holds the lock.
+     */
+    private void updateSummaries(List<Student> before, List<Student> after, String now) {
+        for (String course : CourseSummaries.affectedCourses(before, after)) {
+            summaries.computeIfAbsent(course, CourseSummary::new);
+        }
+
+        Map<String, Set<String>> stale = CourseSummaries.apply(summaries, before, after, now);
+        for (Map.Entry<String, Set<String>> e : stale.entrySet()) {
+            CourseSummary summary = summaries.get(e.getKey());
+            for (Student s : students.values()) {
+                String status = CourseSummary.statusKey(s.getStatus());
+                if (e.getKey().equals(s.getClassName()) && e.getValue().contains(status)) {
+                    summary.offerDueDate(status, s.getDueDate());
+                }
+            }
+        }
+        summaries.values().removeIf(CourseSummary::isEmpty);
+    }
+
+    private static List<Student> copyAll(Iterable<Student> source, Predicate<Student> filter) {
+        List<Student> result = new ArrayList<>();
+        for (Student s : source) {
+            if (filter == null || filter.test(s)) {
+                result.add(StudentCodec.copy(s));
+            }
+        }
+        return result;
+    }
+
+    private static String later(String a, String b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Runs repository work on the shared I/O executor, like the real backends.
+     */
+    private static <T> CompletableFuture<T> async(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, IoExecutor.get());
+    }
+}
@@ -0,0 +1,480 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentMutation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Local append-only journal of student mutations (a write-ahead log).
+ *
+ * Every mutation is written to a file on disk before it is sent to the
+ * database, so changes made while Firestore is unreachable are not lost
+ * when the app closes. The file holds one JSON line per entry:
+ *
+ *   {"seq":12,"key":"3f0c...:12","at":"2025-03-01T09:15:02.114Z","type":"UPSERT","id":5,"student":{...}}
+ *   {"seq":13,"key":"3f0c...:13","at":"2025-03-01T09:15:04.530Z","type":"UPDATE","id":5,"student":{...},"fields":["status"]}
+ *   {"confirmed":12}
+ *
+ * How it works:
+ *  - {@link #append(StudentMutation)} gives the mutation the next sequence
+ *    number and an idempotency key ("clientId:seq") and hands the line to
+ *    a writer thread. The caller does not wait for the disk; use
+ *    {@link #sync()} before sending entries to the database.
+ *  - The writer thread writes everything that piled up since its last
+ *    write and then calls fsync once (group commit), so a burst of edits
+ *    costs one fsync instead of one per edit.
+ *  - {@link #confirm(long)} records that all entries up to a sequence
+ *    number reached the database. Once enough entries are confirmed the
+ *    file is rewritten with only the unconfirmed ones (compaction).
+ *  - On startup {@link #unconfirmed()} returns what still has to be sent,
+ *    marked as replays (see {@link StudentMutation#isSupersededBy}).
+ *
+ * Edits appended but not yet fsynced are lost if the machine crashes
+ * in between (at most a few milliseconds of edits, since the writer
+ * thread syncs right away). They have not been sent to the database
+ * either, because the write-behind queue waits for {@link #sync()}.
+ *
+ * The client id is stored in a small file next to the journal, so
+ * idempotency keys stay unique across restarts of the same install.
+ */
+public class MutationJournal implements AutoCloseable {
+
+    // Rewrite the file after this many entries have been confirmed.
+    private static final int COMPACT_AFTER = 500;
+
+    private static final Gson GSON = new Gson();
+
+    private final Path path;
+    private final String clientId;
+
+    // Entries not yet confirmed, by sequence number. Guarded by "this".
+    private final TreeMap<Long, StudentMutation> unconfirmed = new TreeMap<>();
+
+    // Lines waiting for the writer thread.
+    private final LinkedBlockingQueue<PendingWrite> writes = new LinkedBlockingQueue<>();
+
+    private final Thread writer;
+
+    // Guarded by "this".
+    private FileChannel channel;
+    private long lastSequence;
+    private long confirmedSequence;
+    private int confirmedSinceCompaction = 0;
+    private boolean closed = false;
+
+    /**
+     * Opens (or creates) the journal and reads back any entries that were
+     * not confirmed in a previous session.
+     *
+     * @param path journal file
+     * @throws IOException if the file cannot be read or opened
+     */
+    public MutationJournal(Path path) throws IOException {
+        this.path = path;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.clientId = loadClientId(path.resolveSibling(path.getFileName() + ".client"));
+
+        recover();
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Adds a mutation to the journal.
+     *
+     * @param mutation change to record
+     * @return the mutation stamped with its sequence number and idempotency key
+     */
+    public synchronized StudentMutation append(StudentMutation mutation) {
+        if (closed) {
+            throw new IllegalStateException("MutationJournal is closed");
+        }
+        long seq = ++lastSequence;
+        StudentMutation journaled = mutation.withJournalPosition(seq, clientId + ":" + seq, Timestamps.now());
+        unconfirmed.put(seq, journaled);
+        writes.add(new PendingWrite(toLine(journaled)));
+        return journaled;
+    }
+
+    /**
+     * Returns a future that completes once everything appended so far is
+     * on disk (fsync done). It completes exceptionally with the
+     * IOException when the file could not be written; the lines are then
+     * written again together with the next group.
+     */
+    public CompletableFuture<Void> sync() {
+        PendingWrite marker = new PendingWrite(null);
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.completedFuture(null);
+            }
+            writes.add(marker);
+        }
+        return marker.done;
+    }
+
+    /**
+     * Marks every entry up to and including this sequence number as stored
+     * in the database. They will not be replayed again.
+     *
+     * @param sequence highest confirmed sequence number
+     */
+    public synchronized void confirm(long sequence) {
+        if (closed || sequence <= confirmedSequence) {
+            return;
+        }
+        Map<Long, StudentMutation> done = unconfirmed.headMap(sequence, true);
+        confirmedSinceCompaction += done.size();
+        done.clear();
+        confirmedSequence = sequence;
+        writes.add(new PendingWrite("{\"confirmed\":" + sequence + "}"));
+
+        if (confirmedSinceCompaction >= COMPACT_AFTER) {
+            writes.add(PendingWrite.COMPACT);
+        }
+    }
+
+    /**
+     * Entries that have not been confirmed yet, oldest first.
+     */
+    public synchronized List<StudentMutation> unconfirmed() {
+        return new ArrayList<>(unconfirmed.values());
+    }
+
+    /**
+     * Sequence number of the newest appended entry.
+     */
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Highest confirmed sequence number.
+     */
+    public synchronized long confirmedSequence() {
+        return confirmedSequence;
+    }
+
+    /**
+     * Id of this install, used as the first part of every idempotency key.
+     */
+    public String getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Writes everything still buffered, compacts the file and closes it.
+     */
+    @Override
+    public void close() {
+        try {
+            sync().join();
+        } catch (CompletionException e) {
+            // Already logged by the writer; the entries stay unconfirmed and
+            // the lines that did reach the file are replayed next start
+            System.out.println("Closing mutation journal " + path + " after a failed write.");
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writes.add(PendingWrite.STOP);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------------------
+    // Writer thread
+    // ---------------------
+
+    private void writeLoop() {
+        List<PendingWrite> group = new ArrayList<>();
+        // Lines of a group that could not be written; they go first next time
+        String unwritten = "";
+        while (true) {
+            try {
+                group.add(writes.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            writes.drainTo(group);
+
+            boolean stop = false;
+            boolean compact = false;
+            StringBuilder text = new StringBuilder(unwritten);
+            for (PendingWrite w : group) {
+                if (w == PendingWrite.STOP) {
+                    stop = true;
+                } else if (w == PendingWrite.COMPACT) {
+                    compact = true;
+                } else if (w.line != null) {
+                    text.append(w.line).append('\n');
+                }
+            }
+
+            IOException failure = null;
+            if (text.length() > 0) {
+                long start = -1;
+                try {
+                    start = channel.size();
+                    ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    // One fsync for the whole group.
+                    channel.force(false);
+                } catch (IOException e) {
+                    failure = e;
+                    // The entries are still in memory and in the write queue,
+                    // which does not send them until a later sync succeeds.
+                    System.out.println("Error writing mutation journal " + path
+                            + ", " + group.size() + " write(s) are not on disk.");
+                    e.printStackTrace();
+                    dropTornWrite(start);
+                }
+            }
+            unwritten = failure == null ? "" : text.toString();
+
+            if ((compact || stop) && failure == null) {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    // The entries are already in the old file, so only the
+                    // clean-up is lost; it is tried again next time.
+                    System.out.println("Error compacting mutation journal " + path);
+                    e.printStackTrace();
+                }
+            }
+
+            for (PendingWrite w : group) {
+                if (failure == null) {
+                    w.done.complete(null);
+                } else {
+                    w.done.completeExceptionally(failure);
+                }
+            }
+            group.clear();
+
+            if (stop) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cuts off whatever part of a failed write made it into the file, so
+     * the retry does not end up glued to half a line.
+     */
+    private void dropTornWrite(long start) {
+        if (start < 0) {
+            return;
+        }
+        try {
+            channel.truncate(start);
+        } catch (IOException e) {
+            // Recovery skips an unreadable line, so this only costs that line
+            System.out.println("Could not undo a partial write in " + path);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the unconfirmed entries.
+     * Only called from the writer thread.
+     */
+    private void compact() throws IOException {
+        List<StudentMutation> keep;
+        long confirmed;
+        synchronized (this) {
+            keep = new ArrayList<>(unconfirmed.values());
+            confirmed = confirmedSequence;
+            confirmedSinceCompaction = 0;
+        }
+
+        // Write a new file next to the old one, then swap it in atomically.
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        StringBuilder text = new StringBuilder();
+        text.append("{\"confirmed\":").append(confirmed).append("}\n");
+        for (StudentMutation m : keep) {
+            text.append(toLine(m)).append('\n');
+        }
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+
+        channel.close();
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // Reopen also when the move failed, so later writes still work
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+    }
+
+    // ---------------------
+    // Recovery
+    // ---------------------
+
+    /**
+     * Reads the journal file and rebuilds the unconfirmed entries.
+     * A torn last line (crash in the middle of a write) is ignored.
+     */
+    private void recover() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+
+            Entry entry;
+            try {
+                entry = GSON.fromJson(line, Entry.class);
+            } catch (JsonSyntaxException e) {
+                System.out.println("Skipping unreadable journal line " + lineNumber + " in " + path);
+                continue;
+            }
+            if (entry == null) continue;
+
+            if (entry.confirmed != null) {
+                confirmedSequence = Math.max(confirmedSequence, entry.confirmed);
+                continue;
+            }
+
+            StudentMutation m = fromEntry(entry);
+            if (m != null) {
+                unconfirmed.put(m.getSequence(), m.asReplay());
+                lastSequence = Math.max(lastSequence, m.getSequence());
+            }
+        }
+
+        unconfirmed.headMap(confirmedSequence, true).clear();
+        lastSequence = Math.max(lastSequence, confirmedSequence);
+
+        if (!unconfirmed.isEmpty()) {
+            System.out.println("Mutation journal has " + unconfirmed.size()
+                    + " change(s) that were not written to the database yet.");
+        }
+    }
+
+    private static String loadClientId(Path idFile) throws IOException {
+        if (Files.exists(idFile)) {
+            String id = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+            if (!id.isEmpty()) {
+                return id;
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(idFile, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    // ---------------------
+    // Line format
+    // ---------------------
+
+    private static String toLine(StudentMutation m) {
+        Entry e = new Entry();
+        e.seq = m.getSequence();
+        e.key = m.getIdempotencyKey();
+        e.at = m.getRecordedAt();
+        e.type = m.getType().name();
+        e.id = m.getId();
+        e.student = m.getStudent();
+        if (m.getType() == StudentMutation.Type.UPDATE) {
+            e.fields = new ArrayList<>(m.getFields());
+        }
+        return GSON.toJson(e);
+    }
+
+    private static StudentMutation fromEntry(Entry e) {
+        if (e.seq == null || e.type == null || e.id == null) {
+            return null;
+        }
+        StudentMutation m;
+        if (StudentMutation.Type.UPSERT.name().equals(e.type)) {
+            if (e.student == null) return null;
+            m = StudentMutation.upsert(e.student);
+        } else if (StudentMutation.Type.UPDATE.name().equals(e.type)) {
+            if (e.student == null || e.fields == null || e.fields.isEmpty()) return null;
+            m = StudentMutation.update(e.student, e.fields);
+        } else if (StudentMutation.Type.DELETE.name().equals(e.type)) {
+            m = StudentMutation.delete(e.id);
+        } else {
+            return null;
+        }
+        return m.withJournalPosition(e.seq, e.key, e.at);
+    }
+
+    /**
+     * One JSON line of the journal (either a mutation or a confirmation).
+     */
+    private static class Entry {
+        Long seq;
+        String key;
+        String at;
+        String type;
+        Integer id;
+        Student student;
+        List<String> fields;
+        Long confirmed;
+    }
+
+    /**
+     * A line waiting to be written; completes once it is on disk.
+     */
+    private static class PendingWrite {
+
+        static final PendingWrite COMPACT = new PendingWrite(null);
+        static final PendingWrite STOP = new PendingWrite(null);
+
+        final String line;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        PendingWrite(String line) {
+            this.line = line;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.studenttaskmanager.backend.repository;
+
+/**
+ * A paged load ({@link StudentRepository#getAllStudentsPagedAsync}) stopped
+ * because a page could not be read. The pages before it were already
+ * handed to the consumer, so the caller has part of the data, not all
+ * of it.
+ */
+public class PageLoadException extends RuntimeException {
+
+    private final int delivered;
+
+    /**
+     * @param delivered number of students delivered before the failed page
+     * @param cause     why the page could not be read (may be null)
+     */
+    public PageLoadException(int delivered, Throwable cause) {
+        super("Paged load stopped after " + delivered + " student(s)", cause);
+        this.delivered = delivered;
+    }
+
+    /**
+     * Number of students the consumer received before the load stopped.
+     */
+    public int getDelivered() {
+        return delivered;
+    }
+}
@@ -0,0 +1,987 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.studenttaskmanager.backend.db.IoExecutor;
+import com.studenttaskmanager.backend.models.CourseSummary;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentChange;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * {@link StudentRepository} backed by a local SQLite database file.
+ *
+ * Meant for labs and offline machines, and as a low-latency baseline
+ * for benchmarks: no network round trips are involved.
+ *
+ * It works with the "students" table of the TaskManager.db file that
+ * ships with the project. Missing columns (createdAt / updatedAt, dueDate,
+ * priority, notes) and the tombstone table used by delta sync are added
+ * on first use.
+ *
+ * Details:
+ *  - the database runs in WAL mode, so readers do not block the writer,
+ *  - every statement is a prepared statement,
+ *  - batches are written in one transaction with JDBC statement batching,
+ *    field updates as UPDATE statements of only the changed columns,
+ *  - new ids come in blocks from the id_counters table,
+ *  - the course_summaries table (one row per course and status) is kept
+ *    up to date by triggers, so it changes in the same transaction as
+ *    the task, whichever statement or process writes it,
+ *  - all access goes through one connection, guarded by its monitor.
+ *
+ * Live listeners see every change made through this repository object.
+ * Changes made by other processes are only picked up by delta sync.
+ */
+public class SqliteStudentRepository implements StudentRepository {
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, first_name, last_name, class_name, task, status, due_date, priority, notes, "
+                    + "created_at, updated_at FROM students ";
+
+    // Insert or overwrite; created_at is kept when the row already exists.
+    private static final String UPSERT =
+            "INSERT INTO students (id, first_name, last_name, class_name, task, status, "
+                    + "due_date, priority, notes, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT(id) DO UPDATE SET first_name = excluded.first_name, "
+                    + "last_name = excluded.last_name, class_name = excluded.class_name, "
+                    + "task = excluded.task, status = excluded.status, due_date = excluded.due_date, "
+                    + "priority = excluded.priority, notes = excluded.notes, updated_at = excluded.updated_at";
+
+    private static final String DELETE = "DELETE FROM students WHERE id = ?";
+
+    // Fields stored in columns added later, which allow NULL.
+    private static final Set<String> NULLABLE_FIELDS = Set.of(
+            StudentCodec.FIELD_DUE_DATE, StudentCodec.FIELD_PRIORITY, StudentCodec.FIELD_NOTES);
+
+    private static final String TOMBSTONE =
+            "INSERT OR REPLACE INTO deleted_students (id, deleted_at) VALUES (?, ?)";
+
+    // Fills course_summaries from the students table (tasks without a course are not counted).
+    private static final String FILL_SUMMARIES =
+            "INSERT INTO course_summaries (class_name, status, task_count, next_due, updated_at) "
+                    + "SELECT class_name, status, COUNT(*), MIN(CASE WHEN due_date > '' THEN due_date END), "
+                    + "MAX(updated_at) FROM students WHERE class_name <> '' GROUP BY class_name, status";
+
+    // Counts a task in its course row. Used for inserts and for the new side of updates.
+    private static final String SUMMARY_ADD =
+            "INSERT INTO course_summaries (class_name, status, task_count, next_due, updated_at) "
+                    + "VALUES (NEW.class_name, NEW.status, 1, NULLIF(NEW.due_date, ''), NEW.updated_at) "
+                    + "ON CONFLICT(class_name, status) DO UPDATE SET task_count = task_count + 1, "
+                    + "next_due = CASE WHEN excluded.next_due IS NOT NULL "
+                    + "AND (next_due IS NULL OR excluded.next_due < next_due) "
+                    + "THEN excluded.next_due ELSE next_due END, "
+                    + "updated_at = excluded.updated_at; ";
+
+    // Uncounts a task. The earliest due date is looked up again in the
+    // (class_name, status, due_date) index, so deletes stay cheap.
+    private static final String SUMMARY_REMOVE =
+            "UPDATE course_summaries SET task_count = task_count - 1, "
+                    + "next_due = (SELECT MIN(due_date) FROM students WHERE class_name = OLD.class_name "
+                    + "AND status = OLD.status AND due_date > ''), "
+                    + "updated_at = strftime('%Y-%m-%dT%H:%M:%fZ', 'now') "
+                    + "WHERE class_name = OLD.class_name AND status = OLD.status; "
+                    + "DELETE FROM course_summaries WHERE class_name = OLD.class_name "
+                    + "AND status = OLD.status AND task_count <= 0; ";
+
+    private final Connection connection;
+
+    private final List<StudentChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Delivers live changes one at a time, in commit order.
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "sqlite-notify");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Opens (or creates) the database file and prepares the schema.
+     *
+     * @param path path of the SQLite file, for example "TaskManager.db"
+     * @throws IllegalStateException if the database cannot be opened
+     */
+    public SqliteStudentRepository(String path) {
+        try {
+            this.connection = DriverManager.getConnection("jdbc:sqlite:" + path);
+            try (Statement st = connection.createStatement()) {
+                st.execute("PRAGMA journal_mode=WAL");
+                st.execute("PRAGMA synchronous=NORMAL");
+                st.execute("PRAGMA busy_timeout=5000");
+            }
+            ensureSchema();
+            System.out.println("SQLite repository opened: " + path);
+
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open SQLite database " + path, e);
+        }
+    }
+
+    // --------------------
+    // CRUD
+    // --------------------
+
+    @Override
+    public boolean addStudent(Student s) {
+        try {
+            synchronized (connection) {
+                // Taken under the lock, so timestamps follow commit order (see getChangesSinceAsync)
+                String now = Timestamps.now();
+                if (s.getCreatedAt() == null || s.getCreatedAt().isEmpty()) {
+                    s.setCreatedAt(now);
+                }
+                s.setUpdatedAt(now);
+
+                try (PreparedStatement ps = connection.prepareStatement(UPSERT)) {
+                    bindUpsert(ps, s);
+                    ps.executeUpdate();
+                }
+            }
+            System.out.println("Student saved to SQLite with ID: " + s.getId());
+            publish(List.of(new StudentChange(StudentChange.Type.MODIFIED, s.getId(), s)));
+            return true;
+
+        } catch (SQLException e) {
+            System.out.println("Failed to add student to SQLite.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> addStudentAsync(Student s) {
+        return async(() -> addStudent(s));
+    }
+
+    @Override
+    public List<Student> getAllStudents() {
+        return query(SELECT_COLUMNS + "ORDER BY id", null,
+                "Failed to fetch students from SQLite.");
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getAllStudentsAsync() {
+        return async(this::getAllStudents);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getAllStudentsPagedAsync(int pageSize,
+                                                             Consumer<List<Student>> pageConsumer) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+
+        return async(() -> {
+            int delivered = 0;
+            long lastId = Long.MIN_VALUE;
+
+            // Keyset pagination: each page starts after the last id of the previous one.
+            while (true) {
+                long after = lastId;
+                List<Student> page;
+                try {
+                    page = queryChecked(SELECT_COLUMNS + "WHERE id > ? ORDER BY id LIMIT ?", ps -> {
+                        ps.setLong(1, after);
+                        ps.setInt(2, pageSize);
+                    });
+                } catch (SQLException e) {
+                    System.out.println("Failed to fetch a page of students from SQLite.");
+                    e.printStackTrace();
+                    throw new PageLoadException(delivered, e);
+                }
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                pageConsumer.accept(page);
+                delivered += page.size();
+                lastId = page.get(page.size() - 1).getId();
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+            return delivered;
+        });
+    }
+
+    @Override
+    public boolean updateStatus(int id, String newStatus) {
+        try {
+            int rows;
+            synchronized (connection) {
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "UPDATE students SET status = ?, updated_at = ? WHERE id = ?")) {
+                    ps.setString(1, newStatus);
+                    ps.setString(2, Timestamps.now());
+                    ps.setInt(3, id);
+                    rows = ps.executeUpdate();
+                }
+            }
+            if (rows == 0) {
+                System.out.println("No student with id " + id + " in SQLite.");
+                return false;
+            }
+
+            System.out.println("Status updated for student id: " + id);
+            List<Student> updated = query(SELECT_COLUMNS + "WHERE id = ?",
+                    ps -> ps.setInt(1, id), "Failed to re-read student from SQLite.");
+            if (!updated.isEmpty()) {
+                publish(List.of(new StudentChange(StudentChange.Type.MODIFIED, id, updated.get(0))));
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.out.println("Failed to update status in SQLite.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> updateStatusAsync(int id, String newStatus) {
+        return async(() -> updateStatus(id, newStatus));
+    }
+
+    @Override
+    public boolean deleteStudent(int id) {
+        return applyBatch(List.of(StudentMutation.delete(id)));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteStudentAsync(int id) {
+        return async(() -> deleteStudent(id));
+    }
+
+    @Override
+    public List<Student> getStudentsByClassName(String className) {
+        return query(SELECT_COLUMNS + "WHERE class_name = ? ORDER BY id",
+                ps -> ps.setString(1, className),
+                "Failed to fetch students by className from SQLite.");
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByClassNameAsync(String className) {
+        return async(() -> getStudentsByClassName(className));
+    }
+
+    @Override
+    public List<Student> getStudentsByStatus(String status) {
+        return query(SELECT_COLUMNS + "WHERE status = ? ORDER BY id",
+                ps -> ps.setString(1, status),
+                "Failed to fetch students by status from SQLite.");
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByStatusAsync(String status) {
+        return async(() -> getStudentsByStatus(status));
+    }
+
+    /**
+     * Translates the query into one SELECT with WHERE, ORDER BY and LIMIT.
+     * Dates are ISO text, so the range is a plain text comparison.
+     */
+    @Override
+    public List<Student> findStudents(StudentQuery query) {
+        List<String> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(where(query, params));
+
+        if (query.getSortField() != null) {
+            String direction = query.isDescending() ? " DESC" : "";
+            sql.append(" ORDER BY ").append(sortColumn(query)).append(direction).append(", id").append(direction);
+        } else {
+            sql.append(" ORDER BY id");
+        }
+        if (query.getLimit() > 0) {
+            sql.append(" LIMIT ").append(query.getLimit());
+        }
+
+        return query(sql.toString(), ps -> bindAll(ps, params), "Failed to run query " + query + " on SQLite.");
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> findStudentsAsync(StudentQuery query) {
+        return async(() -> findStudents(query));
+    }
+
+    /**
+     * Counts with SELECT COUNT(*), using the same WHERE clause as
+     * {@link #findStudents(StudentQuery)}, so no rows are read into Java.
+     *
+     * @return the count, or -1 if it failed (the error is logged)
+     */
+    @Override
+    public long countStudents(StudentQuery query) {
+        List<String> params = new ArrayList<>();
+        String where = where(query, params);
+        String sql = query.getLimit() > 0
+                ? "SELECT COUNT(*) FROM (SELECT id FROM students" + where + " LIMIT " + query.getLimit() + ")"
+                : "SELECT COUNT(*) FROM students" + where;
+
+        try {
+            synchronized (connection) {
+                try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                    bindAll(ps, params);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return rs.next() ? rs.getLong(1) : 0;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Failed to count " + query + " on SQLite.");
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> countStudentsAsync(StudentQuery query) {
+        return async(() -> {
+            long count = countStudents(query);
+            if (count < 0) {
+                throw new IllegalStateException("Failed to count " + query + " on SQLite.");
+            }
+            return count;
+        });
+    }
+
+    // --------------------
+    // Sync support
+    // --------------------
+
+    /**
+     * Everything written at or after the mark. The comparison includes the
+     * mark itself: a write in the same millisecond as the last sync is
+     * returned again rather than skipped (a merge by id does not mind).
+     * Every write takes its timestamp while holding the connection, so no
+     * write can commit with an older timestamp than one already synced.
+     */
+    @Override
+    public CompletableFuture<StudentDelta> getChangesSinceAsync(String since) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                String highWaterMark = since;
+                List<Student> changed = new ArrayList<>();
+                List<Integer> deletedIds = new ArrayList<>();
+
+                synchronized (connection) {
+                    try (PreparedStatement ps = connection.prepareStatement(
+                            SELECT_COLUMNS + "WHERE updated_at >= ? ORDER BY updated_at")) {
+                        ps.setString(1, since);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                Student s = readStudent(rs);
+                                changed.add(s);
+                                highWaterMark = s.getUpdatedAt();
+                            }
+                        }
+                    }
+
+                    try (PreparedStatement ps = connection.prepareStatement(
+                            "SELECT id, deleted_at FROM deleted_students WHERE deleted_at >= ? ORDER BY deleted_at")) {
+                        ps.setString(1, since);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                deletedIds.add(rs.getInt("id"));
+                                String deletedAt = rs.getString("deleted_at");
+                                if (deletedAt.compareTo(highWaterMark) > 0) {
+                                    highWaterMark = deletedAt;
+                                }
+                            }
+                        }
+                    }
+                }
+
+                return new StudentDelta(changed, deletedIds, highWaterMark);
+
+            } catch (SQLException e) {
+                System.out.println("Failed to fetch changes from SQLite.");
+                e.printStackTrace();
+                throw new IllegalStateException(e);
+            }
+        }, IoExecutor.get());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> applyBatchAsync(List<StudentMutation> mutations) {
+        return async(() -> applyBatch(mutations));
+    }
+
+    /**
+     * Writes all mutations in one transaction, using JDBC batches
+     * for the upserts, deletes and tombstones.
+     */
+    private boolean applyBatch(List<StudentMutation> mutations) {
+        List<StudentChange> changes = new ArrayList<>(mutations.size());
+
+        try {
+            synchronized (connection) {
+                // Taken under the lock, so timestamps follow commit order (see getChangesSinceAsync)
+                String now = Timestamps.now();
+                connection.setAutoCommit(false);
+                try (PreparedStatement upsert = connection.prepareStatement(UPSERT);
+                     PreparedStatement delete = connection.prepareStatement(DELETE);
+                     PreparedStatement tombstone = connection.prepareStatement(TOMBSTONE)) {
+
+                    for (StudentMutation m : mutations) {
+                        if (m.getType() == StudentMutation.Type.DELETE) {
+                            delete.setInt(1, m.getId());
+                            delete.addBatch();
+                            tombstone.setInt(1, m.getId());
+                            tombstone.setString(2, now);
+                            tombstone.addBatch();
+                            changes.add(new StudentChange(StudentChange.Type.REMOVED, m.getId(), null));
+                        } else if (m.getType() == StudentMutation.Type.UPDATE) {
+                            // No row: deleted meanwhile, and the update is dropped
+                            // rather than bringing back half a task
+                            if (updateFields(m.getStudent(), m.getFields(), now)) {
+                                changes.add(new StudentChange(StudentChange.Type.MODIFIED, m.getId(), m.getStudent()));
+                            }
+                        } else {
+                            Student s = m.getStudent();
+                            if (s.getCreatedAt() == null || s.getCreatedAt().isEmpty()) {
+                                s.setCreatedAt(now);
+                            }
+                            s.setUpdatedAt(now);
+                            bindUpsert(upsert, s);
+                            upsert.addBatch();
+                            changes.add(new StudentChange(StudentChange.Type.MODIFIED, s.getId(), s));
+                        }
+                    }
+
+                    upsert.executeBatch();
+                    delete.executeBatch();
+                    tombstone.executeBatch();
+                    connection.commit();
+
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+
+            System.out.println("Batch of " + mutations.size() + " write(s) committed to SQLite.");
+            publish(changes);
+            return true;
+
+        } catch (SQLException e) {
+            System.out.println("Failed to commit batch to SQLite.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public CourseSummary getCourseSummary(String className) {
+        try {
+            List<CourseSummary> found = readSummaries(className);
+            return found.isEmpty() ? new CourseSummary(className) : found.get(0);
+        } catch (SQLException e) {
+            System.out.println("Failed to read the course summary from SQLite.");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<CourseSummary> getCourseSummaryAsync(String className) {
+        return async(() -> {
+            CourseSummary summary = getCourseSummary(className);
+            if (summary == null) {
+                throw new IllegalStateException("Failed to read the course summary of " + className);
+            }
+            return summary;
+        });
+    }
+
+    @Override
+    public List<CourseSummary> getCourseSummaries() {
+        try {
+            return readSummaries(null);
+        } catch (SQLException e) {
+            System.out.println("Failed to read course summaries from SQLite.");
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<CourseSummary>> getCourseSummariesAsync() {
+        return async(this::getCourseSummaries);
+    }
+
+    /**
+     * Empties and refills course_summaries in one transaction.
+     */
+    @Override
+    public boolean rebuildCourseSummaries() {
+        try {
+            synchronized (connection) {
+                connection.setAutoCommit(false);
+                try (Statement st = connection.createStatement()) {
+                    st.execute("DELETE FROM course_summaries");
+                    st.execute(FILL_SUMMARIES);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.out.println("Failed to rebuild course summaries in SQLite.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Boolean> rebuildCourseSummariesAsync() {
+        return async(this::rebuildCourseSummaries);
+    }
+
+    /**
+     * Reserves a block of ids from the id_counters table.
+     *
+     * The counter is read and moved forward in one IMMEDIATE transaction,
+     * which takes SQLite's write lock up front, so two processes using the
+     * same file cannot read the same value. The first time, the counter
+     * starts after the highest stored id (an index lookup, not a scan).
+     *
+     * @throws IllegalStateException if the counter could not be updated
+     */
+    @Override
+    public int reserveIds(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        try {
+            synchronized (connection) {
+                try (Statement st = connection.createStatement()) {
+                    st.execute("BEGIN IMMEDIATE");
+                }
+                try {
+                    long first = IdAllocator.FIRST_ID;
+                    try (PreparedStatement ps = connection.prepareStatement(
+                            "SELECT COALESCE((SELECT next FROM id_counters WHERE name = 'students'), "
+                                    + "(SELECT MAX(id) + 1 FROM students), 0)")) {
+                        try (ResultSet rs = ps.executeQuery()) {
+                            if (rs.next()) {
+                                first = Math.max(first, rs.getLong(1));
+                            }
+                        }
+                    }
+                    if (first + count > Integer.MAX_VALUE) {
+                        throw new SQLException("No ids left in the counter");
+                    }
+
+                    try (PreparedStatement ps = connection.prepareStatement(
+                            "INSERT OR REPLACE INTO id_counters (name, next) VALUES ('students', ?)")) {
+                        ps.setLong(1, first + count);
+                        ps.executeUpdate();
+                    }
+                    try (Statement st = connection.createStatement()) {
+                        st.execute("COMMIT");
+                    }
+                    return (int) first;
+
+                } catch (SQLException e) {
+                    try (Statement st = connection.createStatement()) {
+                        st.execute("ROLLBACK");
+                    }
+                    throw e;
+                }
+            }
+
+        } catch (SQLException e) {
+            System.out.println("Failed to reserve ids in SQLite.");
+            e.printStackTrace();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> reserveIdsAsync(int count) {
+        return async(() -> reserveIds(count));
+    }
+
+    @Override
+    public ChangeSubscription listenForChanges(StudentChangeListener listener) {
+        notifier.execute(() -> {
+            // Initial snapshot, then every later change through publish().
+            List<StudentChange> initial = new ArrayList<>();
+            for (Student s : getAllStudents()) {
+                initial.add(new StudentChange(StudentChange.Type.ADDED, s.getId(), s));
+            }
+            listeners.add(listener);
+            if (!initial.isEmpty()) {
+                listener.onChanges(initial);
+            }
+        });
+        return () -> notifier.execute(() -> listeners.remove(listener));
+    }
+
+    @Override
+    public ChangeSubscription listenForChanges(String since, StudentChangeListener listener) {
+        if (since == null) {
+            return listenForChanges(listener);
+        }
+        notifier.execute(() -> {
+            // Changes since the mark, then every later change through publish().
+            List<StudentChange> initial = new ArrayList<>();
+            try {
+                StudentDelta delta = getChangesSinceAsync(since).join();
+                // Deletes first, so a task deleted and then created again stays
+                for (int id : delta.getDeletedIds()) {
+                    initial.add(new StudentChange(StudentChange.Type.REMOVED, id, null));
+                }
+                for (Student s : delta.getChanged()) {
+                    initial.add(new StudentChange(StudentChange.Type.ADDED, s.getId(), s));
+                }
+            } catch (RuntimeException e) {
+                listener.onError(e);
+                return;
+            }
+            listeners.add(listener);
+            if (!initial.isEmpty()) {
+                listener.onChanges(initial);
+            }
+        });
+        return () -> notifier.execute(() -> listeners.remove(listener));
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    /**
+     * Creates the table if needed and adds columns and tables that the
+     * original TaskManager.db schema does not have yet.
+     */
+    private void ensureSchema() throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS students ("
+                    + "id INTEGER PRIMARY KEY, "
+                    + "first_name TEXT NOT NULL, "
+                    + "last_name TEXT NOT NULL, "
+                    + "class_name TEXT NOT NULL, "
+                    + "task TEXT NOT NULL, "
+                    + "status TEXT NOT NULL DEFAULT 'Incomplete')");
+
+            Set<String> columns = new HashSet<>();
+            try (ResultSet rs = st.executeQuery("PRAGMA table_info(students)")) {
+                while (rs.next()) {
+                    columns.add(rs.getString("name"));
+                }
+            }
+            if (!columns.contains("created_at")) {
+                st.execute("ALTER TABLE students ADD COLUMN created_at TEXT");
+            }
+            if (!columns.contains("updated_at")) {
+                st.execute("ALTER TABLE students ADD COLUMN updated_at TEXT");
+            }
+            // Nullable, unlike the original text columns: a task may have no due date
+            for (String column : new String[] {"due_date", "priority", "notes"}) {
+                if (!columns.contains(column)) {
+                    st.execute("ALTER TABLE students ADD COLUMN " + column + " TEXT");
+                }
+            }
+
+            st.execute("CREATE INDEX IF NOT EXISTS idx_students_class_name ON students(class_name)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_students_status ON students(status)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_students_updated_at ON students(updated_at)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_students_due_date ON students(due_date)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_students_status_due_date ON students(status, due_date)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_students_class_name_due_date ON students(class_name, due_date)");
+
+            st.execute("CREATE TABLE IF NOT EXISTS deleted_students ("
+                    + "id INTEGER PRIMARY KEY, "
+                    + "deleted_at TEXT NOT NULL)");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_deleted_students_deleted_at "
+                    + "ON deleted_students(deleted_at)");
+
+            st.execute("CREATE TABLE IF NOT EXISTS id_counters ("
+                    + "name TEXT PRIMARY KEY, "
+                    + "next INTEGER NOT NULL)");
+
+            boolean hasSummaries;
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = 'course_summaries'")) {
+                hasSummaries = rs.next();
+            }
+            st.execute("CREATE TABLE IF NOT EXISTS course_summaries ("
+                    + "class_name TEXT NOT NULL, "
+                    + "status TEXT NOT NULL, "
+                    + "task_count INTEGER NOT NULL, "
+                    + "next_due TEXT, "
+                    + "updated_at TEXT, "
+                    + "PRIMARY KEY (class_name, status))");
+            st.execute("CREATE INDEX IF NOT EXISTS idx_students_class_name_status_due_date "
+                    + "ON students(class_name, status, due_date)");
+
+            // An update is an uncount of the old row plus a count of the new one.
+            // The two update triggers give the same result in either order.
+            st.execute("CREATE TRIGGER IF NOT EXISTS course_summary_insert AFTER INSERT ON students "
+                    + "WHEN NEW.class_name <> '' BEGIN " + SUMMARY_ADD + "END");
+            st.execute("CREATE TRIGGER IF NOT EXISTS course_summary_delete AFTER DELETE ON students "
+                    + "WHEN OLD.class_name <> '' BEGIN " + SUMMARY_REMOVE + "END");
+            st.execute("CREATE TRIGGER IF NOT EXISTS course_summary_update_old AFTER UPDATE ON students "
+                    + "WHEN OLD.class_name <> '' BEGIN " + SUMMARY_REMOVE + "END");
+            st.execute("CREATE TRIGGER IF NOT EXISTS course_summary_update_new AFTER UPDATE ON students "
+                    + "WHEN NEW.class_name <> '' BEGIN " + SUMMARY_ADD + "END");
+
+            if (!hasSummaries) {
+                // First use on an existing file: count the tasks already there
+                st.execute(FILL_SUMMARIES);
+            }
+        }
+    }
+
+    /**
+     * Runs an UPDATE of only the given fields (plus updated_at). The column
+     * list differs per field set, so this is a separate statement and not
+     * part of the JDBC batch. Must be called inside the batch transaction.
+     *
+     * @return false if the row does not exist (the caller writes it in full)
+     */
+    private boolean updateFields(Student s, Set<String> fields, String now) throws SQLException {
+        StringBuilder sql = new StringBuilder("UPDATE students SET ");
+        for (String field : fields) {
+            sql.append(column(field)).append(" = ?, ");
+        }
+        sql.append("updated_at = ? WHERE id = ?");
+
+        try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (String field : fields) {
+                String value = (String) StudentCodec.fieldValue(s, field);
+                // The original text columns are NOT NULL, see bindUpsert
+                ps.setString(index++, NULLABLE_FIELDS.contains(field) ? value : orEmpty(value));
+            }
+            ps.setString(index++, now);
+            ps.setInt(index, s.getId());
+            if (ps.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        s.setUpdatedAt(now);
+        return true;
+    }
+
+    /**
+     * WHERE clause of a StudentQuery (starting with a space). The values
+     * are added to params, in order, for the ? placeholders.
+     */
+    private static String where(StudentQuery query, List<String> params) {
+        StringBuilder sql = new StringBuilder(" WHERE 1 = 1");
+        for (Map.Entry<String, String> filter : query.equalityFilters().entrySet()) {
+            sql.append(" AND ").append(column(filter.getKey())).append(" = ?");
+            params.add(filter.getValue());
+        }
+        if (query.getDueFrom() != null) {
+            sql.append(" AND due_date >= ?");
+            params.add(query.getDueFrom().toString());
+        }
+        if (query.getDueTo() != null) {
+            sql.append(" AND due_date <= ?");
+            params.add(query.getDueTo().toString());
+        }
+        if (query.getSortField() != null) {
+            // Like Firestore, ordering by a field skips rows without it
+            sql.append(" AND ").append(sortColumn(query)).append(" IS NOT NULL");
+        }
+        return sql.toString();
+    }
+
+    private static String sortColumn(StudentQuery query) {
+        return query.getSortField() == StudentQuery.SortField.DUE_DATE ? "due_date" : "updated_at";
+    }
+
+    private static void bindAll(PreparedStatement ps, List<String> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            ps.setString(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Column that stores a StudentCodec field.
+     */
+    private static String column(String field) {
+        switch (field) {
+            case StudentCodec.FIELD_FIRST_NAME:
+                return "first_name";
+            case StudentCodec.FIELD_LAST_NAME:
+                return "last_name";
+            case StudentCodec.FIELD_CLASS_NAME:
+                return "class_name";
+            case StudentCodec.FIELD_TASK:
+                return "task";
+            case StudentCodec.FIELD_STATUS:
+                return "status";
+            case StudentCodec.FIELD_DUE_DATE:
+                return "due_date";
+            case StudentCodec.FIELD_PRIORITY:
+                return "priority";
+            case StudentCodec.FIELD_NOTES:
+                return "notes";
+            default:
+                throw new IllegalArgumentException("Field cannot be updated: " + field);
+        }
+    }
+
+    /**
+     * Binds a student to the UPSERT statement. The original schema marks
+     * the text columns NOT NULL, so missing values are stored as "".
+     */
+    private static void bindUpsert(PreparedStatement ps, Student s) throws SQLException {
+        ps.setInt(1, s.getId());
+        ps.setString(2, orEmpty(s.getFirstName()));
+        ps.setString(3, orEmpty(s.getLastName()));
+        ps.setString(4, orEmpty(s.getClassName()));
+        ps.setString(5, orEmpty(s.getTask()));
+        ps.setString(6, s.getStatus() != null ? s.getStatus() : "Incomplete");
+        ps.setString(7, s.getDueDate());
+        ps.setString(8, s.getPriority());
+        ps.setString(9, s.getNotes());
+        ps.setString(10, s.getCreatedAt());
+        ps.setString(11, s.getUpdatedAt());
+    }
+
+    private static Student readStudent(ResultSet rs) throws SQLException {
+        Student s = new Student(
+                rs.getInt("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("class_name"),
+                rs.getString("task"),
+                rs.getString("status"));
+        s.setDueDate(rs.getString("due_date"));
+        s.setPriority(rs.getString("priority"));
+        s.setNotes(rs.getString("notes"));
+        s.setCreatedAt(rs.getString("created_at"));
+        s.setUpdatedAt(rs.getString("updated_at"));
+        return s;
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    /**
+     * Sets the parameters of a prepared statement.
+     */
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Runs a SELECT and maps every row. Logs and returns an empty list on failure.
+     */
+    private List<Student> query(String sql, Binder binder, String errorMessage) {
+        try {
+            return queryChecked(sql, binder);
+        } catch (SQLException e) {
+            System.out.println(errorMessage);
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Same as query, but a failure is thrown instead of giving an empty list.
+     */
+    private List<Student> queryChecked(String sql, Binder binder) throws SQLException {
+        List<Student> list = new ArrayList<>();
+        synchronized (connection) {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                if (binder != null) {
+                    binder.bind(ps);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(readStudent(rs));
+                    }
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Reads the course_summaries rows of one course (or of all courses
+     * when className is null) and groups them into summaries.
+     */
+    private List<CourseSummary> readSummaries(String className) throws SQLException {
+        String sql = "SELECT class_name, status, task_count, next_due, updated_at FROM course_summaries "
+                + (className != null ? "WHERE class_name = ? " : "")
+                + "ORDER BY class_name";
+        Map<String, CourseSummary> summaries = new LinkedHashMap<>();
+
+        synchronized (connection) {
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                if (className != null) {
+                    ps.setString(1, className);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        CourseSummary summary = summaries.computeIfAbsent(
+                                rs.getString("class_name"), CourseSummary::new);
+                        summary.setStatus(rs.getString("status"), rs.getLong("task_count"), rs.getString("next_due"));
+
+                        String updatedAt = rs.getString("updated_at");
+                        if (updatedAt != null && (summary.getUpdatedAt() == null
+                                || updatedAt.compareTo(summary.getUpdatedAt()) > 0)) {
+                            summary.setUpdatedAt(updatedAt);
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * Hands committed changes to the live listeners, in commit order.
+     */
+    private void publish(List<StudentChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        notifier.execute(() -> {
+            for (StudentChangeListener listener : listeners) {
+                listener.onChanges(changes);
+            }
+        });
+    }
+
+    /**
+     * Runs blocking SQLite work on the shared I/O executor.
+     */
+    private static <T> CompletableFuture<T> async(Supplier<T> work) {
+        return CompletableFuture.supplyAsync(work, IoExecutor.get());
+    }
+}
@@ -0,0 +1,32 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.studenttaskmanager.backend.models.StudentChange;
+
+import java.util.List;
+
+/**
+ * Callback for live updates of the "students" collection.
+ *
+ * The first call delivers every existing document as ADDED. After that,
+ * each call carries only the documents that changed in one snapshot.
+ * Calls arrive one at a time on a backend I/O thread.
+ */
+public interface StudentChangeListener {
+
+    /**
+     * Called with the changes of one snapshot, in the order Firestore reports them.
+     *
+     * @param changes document changes (never empty)
+     */
+    void onChanges(List<StudentChange> changes);
+
+    /**
+     * Called if the listener fails. Firestore stops listening after an error.
+     *
+     * @param error the failure reported by Firestore
+     */
+    default void onError(Throwable error) {
+        System.out.println("Live student listener failed.");
+        error.printStackTrace();
+    }
+}
@@ -0,0 +1,295 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.studenttaskmanager.backend.models.Student;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hand-written mapping between {@link Student} and Firestore documents.
+ *
+ * Firestore's own doc.toObject(Student.class) and set(student) use a
+ * reflection-based bean mapper. That is convenient, but on large loads it
+ * costs a lot of time and garbage: it looks up getters and setters through
+ * reflection, builds a full field map for every document, and checks every
+ * property name. This codec reads and writes the few fields we have
+ * directly:
+ *  - {@link #fromSnapshot(DocumentSnapshot)} reads each field straight
+ *    from the snapshot, without building the intermediate map,
+ *  - {@link #toMap(Student)} builds one right-sized map, skipping nulls,
+ *  - {@link #toUpdateMap(Student, Collection)} builds the map for a
+ *    partial update with only the changed fields.
+ *
+ * Every written document also gets a "schemaVersion" field. Documents
+ * written before the codec existed have no version and are read as
+ * version 0, which has the same fields as version 1. Version 2 added
+ * dueDate, priority and notes; older documents simply do not have them
+ * and are read with null values. When the model changes, bump
+ * {@link #SCHEMA_VERSION} and handle the older versions in
+ * {@link #fromMap(Map)}/{@link #fromSnapshot(DocumentSnapshot)}.
+ *
+ * Keep the field names in sync with the getters in {@link Student}, so
+ * documents stay readable by the bean mapper as well.
+ */
+public final class StudentCodec {
+
+    // Version written into every document by this codec.
+    public static final int SCHEMA_VERSION = 2;
+
+    // Field names in Firestore (same as the bean property names).
+    public static final String FIELD_SCHEMA_VERSION = "schemaVersion";
+    public static final String FIELD_ID = "id";
+    public static final String FIELD_FIRST_NAME = "firstName";
+    public static final String FIELD_LAST_NAME = "lastName";
+    public static final String FIELD_CLASS_NAME = "className";
+    public static final String FIELD_TASK = "task";
+    public static final String FIELD_STATUS = "status";
+    public static final String FIELD_DUE_DATE = "dueDate";
+    public static final String FIELD_PRIORITY = "priority";
+    public static final String FIELD_NOTES = "notes";
+    public static final String FIELD_CREATED_AT = "createdAt";
+    public static final String FIELD_UPDATED_AT = "updatedAt";
+    public static final String FIELD_LAST_MUTATION_ID = "lastMutationId";
+
+    // Parsed once: DocumentSnapshot.get(String) would parse the path on every call.
+    private static final FieldPath PATH_SCHEMA_VERSION = FieldPath.of(FIELD_SCHEMA_VERSION);
+    private static final FieldPath PATH_ID = FieldPath.of(FIELD_ID);
+    private static final FieldPath PATH_FIRST_NAME = FieldPath.of(FIELD_FIRST_NAME);
+    private static final FieldPath PATH_LAST_NAME = FieldPath.of(FIELD_LAST_NAME);
+    private static final FieldPath PATH_CLASS_NAME = FieldPath.of(FIELD_CLASS_NAME);
+    private static final FieldPath PATH_TASK = FieldPath.of(FIELD_TASK);
+    private static final FieldPath PATH_STATUS = FieldPath.of(FIELD_STATUS);
+    private static final FieldPath PATH_DUE_DATE = FieldPath.of(FIELD_DUE_DATE);
+    private static final FieldPath PATH_PRIORITY = FieldPath.of(FIELD_PRIORITY);
+    private static final FieldPath PATH_NOTES = FieldPath.of(FIELD_NOTES);
+    private static final FieldPath PATH_CREATED_AT = FieldPath.of(FIELD_CREATED_AT);
+    private static final FieldPath PATH_UPDATED_AT = FieldPath.of(FIELD_UPDATED_AT);
+    private static final FieldPath PATH_LAST_MUTATION_ID = FieldPath.of(FIELD_LAST_MUTATION_ID);
+
+    // 13 fields fit without a resize at the default load factor.
+    private static final int MAP_CAPACITY = 18;
+
+    private StudentCodec() {
+    }
+
+    /**
+     * Converts a student into the field map written to Firestore.
+     * Null fields are left out; set() replaces the whole document anyway.
+     *
+     * @param s student to encode
+     * @return map of Firestore field values
+     */
+    public static Map<String, Object> toMap(Student s) {
+        Map<String, Object> map = new HashMap<>(MAP_CAPACITY);
+        map.put(FIELD_SCHEMA_VERSION, SCHEMA_VERSION);
+        map.put(FIELD_ID, s.getId());
+        putIfNotNull(map, FIELD_FIRST_NAME, s.getFirstName());
+        putIfNotNull(map, FIELD_LAST_NAME, s.getLastName());
+        putIfNotNull(map, FIELD_CLASS_NAME, s.getClassName());
+        putIfNotNull(map, FIELD_TASK, s.getTask());
+        putIfNotNull(map, FIELD_STATUS, s.getStatus());
+        putIfNotNull(map, FIELD_DUE_DATE, s.getDueDate());
+        putIfNotNull(map, FIELD_PRIORITY, s.getPriority());
+        putIfNotNull(map, FIELD_NOTES, s.getNotes());
+        putIfNotNull(map, FIELD_CREATED_AT, s.getCreatedAt());
+        putIfNotNull(map, FIELD_UPDATED_AT, s.getUpdatedAt());
+        putIfNotNull(map, FIELD_LAST_MUTATION_ID, s.getLastMutationId());
+        return map;
+    }
+
+    /**
+     * Builds the field map for a partial update: the given fields, plus
+     * updatedAt and lastMutationId (when set). Unlike {@link #toMap(Student)}
+     * a null value is written, because it clears a field that had a value.
+     * The schemaVersion is left alone: missing fields are read as null in
+     * every version, so a partial update never makes a document unreadable.
+     *
+     * @param s      student with the current values
+     * @param fields field names to write (FIELD_* constants)
+     * @return map for DocumentReference.update / WriteBatch.update
+     * @throws IllegalArgumentException for a field that cannot be updated
+     */
+    public static Map<String, Object> toUpdateMap(Student s, Collection<String> fields) {
+        Map<String, Object> map = new HashMap<>(MAP_CAPACITY);
+        for (String field : fields) {
+            map.put(field, fieldValue(s, field));
+        }
+        map.put(FIELD_UPDATED_AT, s.getUpdatedAt());
+        putIfNotNull(map, FIELD_LAST_MUTATION_ID, s.getLastMutationId());
+        return map;
+    }
+
+    /**
+     * Value of one updatable field.
+     *
+     * @throws IllegalArgumentException for id, timestamps and unknown names
+     */
+    public static Object fieldValue(Student s, String field) {
+        switch (field) {
+            case FIELD_FIRST_NAME:
+                return s.getFirstName();
+            case FIELD_LAST_NAME:
+                return s.getLastName();
+            case FIELD_CLASS_NAME:
+                return s.getClassName();
+            case FIELD_TASK:
+                return s.getTask();
+            case FIELD_STATUS:
+                return s.getStatus();
+            case FIELD_DUE_DATE:
+                return s.getDueDate();
+            case FIELD_PRIORITY:
+                return s.getPriority();
+            case FIELD_NOTES:
+                return s.getNotes();
+            default:
+                throw new IllegalArgumentException("Field cannot be updated: " + field);
+        }
+    }
+
+    /**
+     * Copies one updatable field from source to target (the setter
+     * counterpart of {@link #fieldValue}).
+     *
+     * @throws IllegalArgumentException for id, timestamps and unknown names
+     */
+    public static void copyField(Student target, String field, Student source) {
+        switch (field) {
+            case FIELD_FIRST_NAME:
+                target.setFirstName(source.getFirstName());
+                break;
+            case FIELD_LAST_NAME:
+                target.setLastName(source.getLastName());
+                break;
+            case FIELD_CLASS_NAME:
+                target.setClassName(source.getClassName());
+                break;
+            case FIELD_TASK:
+                target.setTask(source.getTask());
+                break;
+            case FIELD_STATUS:
+                target.setStatus(source.getStatus());
+                break;
+            case FIELD_DUE_DATE:
+                target.setDueDate(source.getDueDate());
+                break;
+            case FIELD_PRIORITY:
+                target.setPriority(source.getPriority());
+                break;
+            case FIELD_NOTES:
+                target.setNotes(source.getNotes());
+                break;
+            default:
+                throw new IllegalArgumentException("Field cannot be updated: " + field);
+        }
+    }
+
+    /**
+     * A field-by-field copy of a student, timestamps included.
+     */
+    public static Student copy(Student s) {
+        Student c = new Student(s.getId(), s.getFirstName(), s.getLastName(),
+                s.getClassName(), s.getTask(), s.getStatus());
+        c.setDueDate(s.getDueDate());
+        c.setPriority(s.getPriority());
+        c.setNotes(s.getNotes());
+        c.setCreatedAt(s.getCreatedAt());
+        c.setUpdatedAt(s.getUpdatedAt());
+        c.setLastMutationId(s.getLastMutationId());
+        return c;
+    }
+
+    /**
+     * Reads a student straight from a document snapshot.
+     *
+     * @param doc Firestore document
+     * @return the student, or null if the document does not exist
+     */
+    public static Student fromSnapshot(DocumentSnapshot doc) {
+        if (doc == null || !doc.exists()) {
+            return null;
+        }
+
+        Student s = new Student();
+        s.setId(toInt(doc.get(PATH_ID)));
+        s.setFirstName(toStringValue(doc.get(PATH_FIRST_NAME)));
+        s.setLastName(toStringValue(doc.get(PATH_LAST_NAME)));
+        s.setClassName(toStringValue(doc.get(PATH_CLASS_NAME)));
+        s.setTask(toStringValue(doc.get(PATH_TASK)));
+        s.setStatus(toStringValue(doc.get(PATH_STATUS)));
+        s.setDueDate(toStringValue(doc.get(PATH_DUE_DATE)));
+        s.setPriority(toStringValue(doc.get(PATH_PRIORITY)));
+        s.setNotes(toStringValue(doc.get(PATH_NOTES)));
+        s.setCreatedAt(toStringValue(doc.get(PATH_CREATED_AT)));
+        s.setUpdatedAt(toStringValue(doc.get(PATH_UPDATED_AT)));
+        s.setLastMutationId(toStringValue(doc.get(PATH_LAST_MUTATION_ID)));
+        return s;
+    }
+
+    /**
+     * Reads a student from a plain field map (for example doc.getData()).
+     *
+     * @param map Firestore field values
+     * @return the student, or null if the map is null
+     */
+    public static Student fromMap(Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+
+        Student s = new Student();
+        s.setId(toInt(map.get(FIELD_ID)));
+        s.setFirstName(toStringValue(map.get(FIELD_FIRST_NAME)));
+        s.setLastName(toStringValue(map.get(FIELD_LAST_NAME)));
+        s.setClassName(toStringValue(map.get(FIELD_CLASS_NAME)));
+        s.setTask(toStringValue(map.get(FIELD_TASK)));
+        s.setStatus(toStringValue(map.get(FIELD_STATUS)));
+        s.setDueDate(toStringValue(map.get(FIELD_DUE_DATE)));
+        s.setPriority(toStringValue(map.get(FIELD_PRIORITY)));
+        s.setNotes(toStringValue(map.get(FIELD_NOTES)));
+        s.setCreatedAt(toStringValue(map.get(FIELD_CREATED_AT)));
+        s.setUpdatedAt(toStringValue(map.get(FIELD_UPDATED_AT)));
+        s.setLastMutationId(toStringValue(map.get(FIELD_LAST_MUTATION_ID)));
+        return s;
+    }
+
+    /**
+     * Schema version of a stored document (0 for documents written
+     * before the codec was introduced).
+     */
+    public static int schemaVersion(DocumentSnapshot doc) {
+        return toInt(doc.get(PATH_SCHEMA_VERSION));
+    }
+
+    /**
+     * Schema version stored in a field map (0 if missing).
+     */
+    public static int schemaVersion(Map<String, Object> map) {
+        return toInt(map.get(FIELD_SCHEMA_VERSION));
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private static void putIfNotNull(Map<String, Object> map, String field, Object value) {
+        if (value != null) {
+            map.put(field, value);
+        }
+    }
+
+    // Firestore returns whole numbers as Long.
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    private static String toStringValue(Object value) {
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,219 @@
+package com.studenttaskmanager.backend.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Analytics numbers counted by the backend instead of on the client.
+ *
+ * Each number is one {@link StudentRepository#countStudentsAsync(StudentQuery)}
+ * call: on Firestore an aggregation query, billed like a single document
+ * read (per 1000 matches) however many tasks match. All counts of a
+ * summary are started together, so the screen waits for one round trip,
+ * not one per number.
+ *
+ * Every count can be narrowed by a base filter (for example "only this
+ * course" or the selected analytics filter). When the base filter and the
+ * count cannot both hold (two different statuses, or due-date ranges that
+ * do not overlap) the count is 0 and no query is sent.
+ *
+ * Dates follow the Analytics screen: overdue means due before today,
+ * whatever the status, and "next 7 days" is tomorrow to today + 7.
+ */
+public final class StudentCounts {
+
+    private final long total;
+    private final Map<String, Long> byStatus;
+    private final long overdue;
+    private final long dueToday;
+    private final long dueNextWeek;
+
+    private StudentCounts(long total, Map<String, Long> byStatus,
+                          long overdue, long dueToday, long dueNextWeek) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.overdue = overdue;
+        this.dueToday = dueToday;
+        this.dueNextWeek = dueNextWeek;
+    }
+
+    /**
+     * Counts everything the Analytics screen shows, for the tasks that
+     * match the filter: the total, one count per status, overdue, due
+     * today and due in the next 7 days. Runs 4 + statuses.size() counts
+     * in parallel.
+     *
+     * @param repository backend to count in
+     * @param filter     base filter (order and limit are ignored)
+     * @param today      the date the due buckets are relative to
+     * @param statuses   statuses to count separately
+     * @return future with the counts; completes exceptionally if any count failed
+     */
+    public static CompletableFuture<StudentCounts> summary(StudentRepository repository, StudentQuery filter,
+                                                           LocalDate today, Collection<String> statuses) {
+        CompletableFuture<Long> total = count(repository, narrow(filter, null, null, null, null));
+        CompletableFuture<Map<String, Long>> byStatus = countByStatus(repository, filter, statuses);
+        CompletableFuture<Long> overdue = countOverdue(repository, filter, today);
+        CompletableFuture<Long> dueToday = countDueBetween(repository, filter, today, today);
+        CompletableFuture<Long> dueNextWeek = countDueBetween(repository, filter, today.plusDays(1), today.plusDays(7));
+
+        return CompletableFuture.allOf(total, byStatus, overdue, dueToday, dueNextWeek)
+                .thenApply(ignored -> new StudentCounts(total.join(), byStatus.join(),
+                        overdue.join(), dueToday.join(), dueNextWeek.join()));
+    }
+
+    /**
+     * Number of matching tasks for each status, in the given order.
+     */
+    public static CompletableFuture<Map<String, Long>> countByStatus(StudentRepository repository,
+                                                                    StudentQuery filter,
+                                                                    Collection<String> statuses) {
+        Map<String, CompletableFuture<Long>> counts = new LinkedHashMap<>();
+        for (String status : statuses) {
+            counts.put(status, count(repository, narrow(filter, status, null, null, null)));
+        }
+        return collect(counts);
+    }
+
+    /**
+     * Number of matching tasks for each course, in the given order.
+     * Firestore has no "group by", so the course names have to be known.
+     */
+    public static CompletableFuture<Map<String, Long>> countByCourse(StudentRepository repository,
+                                                                    StudentQuery filter,
+                                                                    Collection<String> courses) {
+        Map<String, CompletableFuture<Long>> counts = new LinkedHashMap<>();
+        for (String course : courses) {
+            counts.put(course, count(repository, narrow(filter, null, course, null, null)));
+        }
+        return collect(counts);
+    }
+
+    /**
+     * Number of matching tasks due before today.
+     */
+    public static CompletableFuture<Long> countOverdue(StudentRepository repository, StudentQuery filter,
+                                                       LocalDate today) {
+        return count(repository, narrow(filter, null, null, null, today.minusDays(1)));
+    }
+
+    /**
+     * Number of matching tasks due between the two dates, both included.
+     */
+    public static CompletableFuture<Long> countDueBetween(StudentRepository repository, StudentQuery filter,
+                                                          LocalDate from, LocalDate to) {
+        return count(repository, narrow(filter, null, null, from, to));
+    }
+
+    // --------------------
+    // Getters
+    // --------------------
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Count for one status (0 if it was not counted).
+     */
+    public long getStatusCount(String status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public long getDueToday() {
+        return dueToday;
+    }
+
+    public long getDueNextWeek() {
+        return dueNextWeek;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentCounts{total=" + total + ", byStatus=" + byStatus + ", overdue=" + overdue
+                + ", dueToday=" + dueToday + ", dueNextWeek=" + dueNextWeek + '}';
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    /**
+     * The base filter plus one more condition, or null when both cannot
+     * hold at the same time. Order and limit are dropped.
+     */
+    private static StudentQuery narrow(StudentQuery filter, String status, String course,
+                                       LocalDate from, LocalDate to) {
+        String s = filter.getStatus();
+        if (status != null) {
+            if (s != null && !s.equals(status)) {
+                return null;
+            }
+            s = status;
+        }
+
+        String c = filter.getClassName();
+        if (course != null) {
+            if (c != null && !c.equals(course)) {
+                return null;
+            }
+            c = course;
+        }
+
+        LocalDate f = later(filter.getDueFrom(), from);
+        LocalDate t = earlier(filter.getDueTo(), to);
+        if (f != null && t != null && f.isAfter(t)) {
+            return null;
+        }
+
+        return StudentQuery.builder()
+                .status(s)
+                .className(c)
+                .priority(filter.getPriority())
+                .dueOnOrAfter(f)
+                .dueOnOrBefore(t)
+                .build();
+    }
+
+    private static CompletableFuture<Long> count(StudentRepository repository, StudentQuery query) {
+        if (query == null) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return repository.countStudentsAsync(query);
+    }
+
+    private static CompletableFuture<Map<String, Long>> collect(Map<String, CompletableFuture<Long>> counts) {
+        List<CompletableFuture<Long>> all = List.copyOf(counts.values());
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Map.Entry<String, CompletableFuture<Long>> e : counts.entrySet()) {
+                result.put(e.getKey(), e.getValue().join());
+            }
+            return result;
+        });
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate earlier(LocalDate a, LocalDate b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isBefore(b) ? a : b;
+    }
+}
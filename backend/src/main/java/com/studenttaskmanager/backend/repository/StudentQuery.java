@@ -0,0 +1,346 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.studenttaskmanager.backend.models.Student;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A typed query for {@link StudentRepository#findStudentsAsync(StudentQuery)}.
+ *
+ * It combines, all optional:
+ *  - equality on status, course (className) and priority,
+ *  - a due-date range (both ends included),
+ *  - ordering by due date or by last update, ascending or descending,
+ *  - a maximum number of results.
+ *
+ * Each repository translates it into its own query language (a Firestore
+ * composite query, an SQL WHERE/ORDER BY/LIMIT, or a filter in memory),
+ * so only the matching records travel. The Firestore composite indexes
+ * these queries need are generated by {@link FirestoreIndexes} into
+ * firestore.indexes.json at the project root.
+ *
+ * Firestore rules that the builder checks up front:
+ *  - a due-date range can only be combined with ordering by due date
+ *    (a range without an order is ordered by due date),
+ *  - ordering by a field leaves out records that do not have that field,
+ *    so a due-date order only returns tasks with a due date. The other
+ *    repositories do the same, so results match.
+ *
+ * Example:
+ * <pre>
+ *   StudentQuery q = StudentQuery.builder()
+ *           .status("Not started")
+ *           .className("Math 101")
+ *           .dueBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31))
+ *           .limit(50)
+ *           .build();
+ * </pre>
+ */
+public final class StudentQuery {
+
+    /**
+     * Fields a query can be ordered by.
+     */
+    public enum SortField {
+        DUE_DATE(StudentCodec.FIELD_DUE_DATE),
+        UPDATED_AT(StudentCodec.FIELD_UPDATED_AT);
+
+        private final String field;
+
+        SortField(String field) {
+            this.field = field;
+        }
+
+        /**
+         * Name of the stored field (a StudentCodec.FIELD_* constant).
+         */
+        public String getField() {
+            return field;
+        }
+    }
+
+    /**
+     * Fields that can be compared with equality, in the order used for
+     * composite indexes.
+     */
+    public static final List<String> EQUALITY_FIELDS = List.of(
+            StudentCodec.FIELD_STATUS, StudentCodec.FIELD_CLASS_NAME, StudentCodec.FIELD_PRIORITY);
+
+    private final String status;
+    private final String className;
+    private final String priority;
+    private final LocalDate dueFrom;
+    private final LocalDate dueTo;
+    private final SortField sortField;
+    private final boolean descending;
+    private final int limit;
+
+    private StudentQuery(Builder b) {
+        this.status = b.status;
+        this.className = b.className;
+        this.priority = b.priority;
+        this.dueFrom = b.dueFrom;
+        this.dueTo = b.dueTo;
+        this.descending = b.descending;
+        this.limit = b.limit;
+
+        boolean hasRange = b.dueFrom != null || b.dueTo != null;
+        if (hasRange && b.sortField != null && b.sortField != SortField.DUE_DATE) {
+            throw new IllegalStateException(
+                    "A due-date range can only be ordered by due date (Firestore rule)");
+        }
+        if (b.dueFrom != null && b.dueTo != null && b.dueFrom.isAfter(b.dueTo)) {
+            throw new IllegalStateException("Due-date range is empty: " + b.dueFrom + " > " + b.dueTo);
+        }
+        this.sortField = hasRange && b.sortField == null ? SortField.DUE_DATE : b.sortField;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // --------------------
+    // Getters
+    // --------------------
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    /**
+     * First due date included, or null for no lower bound.
+     */
+    public LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    /**
+     * Last due date included, or null for no upper bound.
+     */
+    public LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    /**
+     * Field the results are ordered by, or null for the repository's own order.
+     */
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * Maximum number of results, 0 for no limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * The equality filters as stored field name -> value, in
+     * {@link #EQUALITY_FIELDS} order. Filters that are not set are left out.
+     */
+    public Map<String, String> equalityFilters() {
+        Map<String, String> filters = new LinkedHashMap<>();
+        putIfNotNull(filters, StudentCodec.FIELD_STATUS, status);
+        putIfNotNull(filters, StudentCodec.FIELD_CLASS_NAME, className);
+        putIfNotNull(filters, StudentCodec.FIELD_PRIORITY, priority);
+        return filters;
+    }
+
+    // --------------------
+    // Evaluation in memory
+    // --------------------
+
+    /**
+     * True if the student passes every filter. Used by the in-memory
+     * repository, and handy for checking results in tests.
+     */
+    public boolean matches(Student s) {
+        if (status != null && !status.equals(s.getStatus())) return false;
+        if (className != null && !className.equals(s.getClassName())) return false;
+        if (priority != null && !priority.equals(s.getPriority())) return false;
+
+        // Dates are stored as ISO text, so text comparison is date comparison
+        String due = s.getDueDate();
+        if (dueFrom != null && (due == null || due.compareTo(dueFrom.toString()) < 0)) return false;
+        if (dueTo != null && (due == null || due.compareTo(dueTo.toString()) > 0)) return false;
+
+        // Like Firestore: ordering by a field skips records without it
+        return sortField == null || sortValue(s) != null;
+    }
+
+    /**
+     * Order of the results: by the sort field, then by id. Null when
+     * the query has no sort field.
+     */
+    public Comparator<Student> comparator() {
+        if (sortField == null) {
+            return null;
+        }
+        // Ties go by id in the same direction, like Firestore's implicit document order
+        Comparator<Student> order = Comparator.comparing(this::sortValue,
+                Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                .thenComparingInt(Student::getId);
+        return descending ? order.reversed() : order;
+    }
+
+    /**
+     * Fields of the Firestore composite index this query needs, as
+     * "field:ASCENDING"/"field:DESCENDING", or an empty list when the
+     * built-in single-field indexes are enough (no equality filter, or
+     * no order).
+     */
+    public List<String> requiredIndex() {
+        Map<String, String> filters = equalityFilters();
+        if (filters.isEmpty() || sortField == null) {
+            return Collections.emptyList();
+        }
+        List<String> fields = new ArrayList<>();
+        for (String field : filters.keySet()) {
+            fields.add(field + ":ASCENDING");
+        }
+        fields.add(sortField.getField() + (descending ? ":DESCENDING" : ":ASCENDING"));
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentQuery{" + equalityFilters()
+                + (dueFrom != null || dueTo != null ? ", due=" + dueFrom + ".." + dueTo : "")
+                + (sortField != null ? ", orderBy=" + sortField + (descending ? " desc" : "") : "")
+                + (limit > 0 ? ", limit=" + limit : "")
+                + '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StudentQuery)) return false;
+        StudentQuery q = (StudentQuery) o;
+        return descending == q.descending && limit == q.limit
+                && Objects.equals(status, q.status) && Objects.equals(className, q.className)
+                && Objects.equals(priority, q.priority) && Objects.equals(dueFrom, q.dueFrom)
+                && Objects.equals(dueTo, q.dueTo) && sortField == q.sortField;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, className, priority, dueFrom, dueTo, sortField, descending, limit);
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private String sortValue(Student s) {
+        return sortField == SortField.DUE_DATE ? s.getDueDate() : s.getUpdatedAt();
+    }
+
+    private static void putIfNotNull(Map<String, String> map, String field, String value) {
+        if (value != null) {
+            map.put(field, value);
+        }
+    }
+
+    /**
+     * Builds a {@link StudentQuery}. Every setting is optional; an empty
+     * query returns every record.
+     */
+    public static final class Builder {
+        private String status;
+        private String className;
+        private String priority;
+        private LocalDate dueFrom;
+        private LocalDate dueTo;
+        private SortField sortField;
+        private boolean descending;
+        private int limit;
+
+        private Builder() {
+        }
+
+        public Builder status(String status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Only tasks of this course.
+         */
+        public Builder className(String className) {
+            this.className = className;
+            return this;
+        }
+
+        public Builder priority(String priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Only tasks due on or after this date.
+         */
+        public Builder dueOnOrAfter(LocalDate from) {
+            this.dueFrom = from;
+            return this;
+        }
+
+        /**
+         * Only tasks due on or before this date.
+         */
+        public Builder dueOnOrBefore(LocalDate to) {
+            this.dueTo = to;
+            return this;
+        }
+
+        /**
+         * Only tasks due between the two dates, both included.
+         */
+        public Builder dueBetween(LocalDate from, LocalDate to) {
+            return dueOnOrAfter(from).dueOnOrBefore(to);
+        }
+
+        public Builder orderBy(SortField field, boolean descending) {
+            this.sortField = field;
+            this.descending = descending;
+            return this;
+        }
+
+        /**
+         * At most this many results (0 = no limit).
+         */
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("limit must not be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * @throws IllegalStateException if the combination cannot run on Firestore
+         */
+        public StudentQuery build() {
+            return new StudentQuery(this);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.studenttaskmanager.backend.models.CourseSummary;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Storage interface for Student records.
+ *
+ * The rest of the application only talks to this interface, so the
+ * storage backend can be swapped by configuration (see
+ * {@link com.studenttaskmanager.backend.db.RepositoryConfig}):
+ *  - {@link FirebaseStudentRepository}: Cloud Firestore (default),
+ *  - {@link SqliteStudentRepository}: local SQLite file, no network needed.
+ *  - {@link InMemoryStudentRepository}: in memory only, for tests and benchmarks,
+ *    optionally wrapped in {@link FaultInjectingStudentRepository} to add
+ *    network-like latency and failures.
+ *
+ * Every operation has a blocking form and an async form. Async futures
+ * complete on the shared {@link com.studenttaskmanager.backend.db.IoExecutor};
+ * UI code should only use the async forms.
+ *
+ * Errors are logged by the implementation. Write methods then report
+ * false and read methods return an empty list, instead of throwing.
+ *
+ * Every write also updates the {@link CourseSummary} of the courses it
+ * touches, atomically with the task itself.
+ */
+public interface StudentRepository {
+
+    /**
+     * Adds a new student or overwrites an existing one with the same id.
+     * Sets createdAt the first time and always updates updatedAt.
+     *
+     * @param s student to save
+     * @return true if the write succeeded
+     */
+    boolean addStudent(Student s);
+
+    CompletableFuture<Boolean> addStudentAsync(Student s);
+
+    /**
+     * Returns every stored student (never null).
+     */
+    List<Student> getAllStudents();
+
+    CompletableFuture<List<Student>> getAllStudentsAsync();
+
+    /**
+     * Streams every stored student page by page in id order, so only one
+     * page is held in memory at a time.
+     *
+     * @param pageSize     number of students per page (must be positive)
+     * @param pageConsumer receives each non-empty page in order, on an I/O thread
+     * @return future completed with the total number of students delivered,
+     *         or exceptionally with a {@link PageLoadException} if a page
+     *         could not be read (the earlier pages were delivered)
+     */
+    CompletableFuture<Integer> getAllStudentsPagedAsync(int pageSize,
+                                                      Consumer<List<Student>> pageConsumer);
+
+    /**
+     * Updates only the status (and updatedAt) of one student.
+     *
+     * @return true if the update succeeded
+     */
+    boolean updateStatus(int id, String newStatus);
+
+    CompletableFuture<Boolean> updateStatusAsync(int id, String newStatus);
+
+    /**
+     * Deletes one student and records a tombstone for delta sync.
+     *
+     * @return true if the delete succeeded
+     */
+    boolean deleteStudent(int id);
+
+    CompletableFuture<Boolean> deleteStudentAsync(int id);
+
+    /**
+     * Returns all students of one class (never null).
+     */
+    List<Student> getStudentsByClassName(String className);
+
+    CompletableFuture<List<Student>> getStudentsByClassNameAsync(String className);
+
+    /**
+     * Returns all students with one status (never null).
+     */
+    List<Student> getStudentsByStatus(String status);
+
+    CompletableFuture<List<Student>> getStudentsByStatusAsync(String status);
+
+    /**
+     * Returns the students that match a query, filtered, ordered and
+     * limited by the backend, so only the matching records are read
+     * (never null).
+     */
+    List<Student> findStudents(StudentQuery query);
+
+    CompletableFuture<List<Student>> findStudentsAsync(StudentQuery query);
+
+    /**
+     * Counts the students that match a query without reading them: the
+     * backend counts and only the number travels (Firestore aggregation,
+     * SQL COUNT; the other backends count locally). Like
+     * {@link #findStudents(StudentQuery)}, an order leaves out records
+     * without that field and a limit caps the count.
+     *
+     * @return the number of matching students, or -1 if counting failed
+     */
+    long countStudents(StudentQuery query);
+
+    /**
+     * Async version of {@link #countStudents(StudentQuery)}. See
+     * {@link StudentCounts} for counting several things at once.
+     *
+     * @return future with the count; completes exceptionally on failure
+     */
+    CompletableFuture<Long> countStudentsAsync(StudentQuery query);
+
+    /**
+     * Returns what changed after the given high-water mark.
+     * May repeat a few recent changes; apply the result idempotently.
+     *
+     * @param since high-water mark from the previous sync (a {@link Timestamps} value)
+     * @return future with the delta; completes exceptionally on failure
+     */
+    CompletableFuture<StudentDelta> getChangesSinceAsync(String since);
+
+    /**
+     * Writes a group of mutations (at most one per id) in as few
+     * round trips as the backend allows. A field update of a student that
+     * no longer exists is dropped; it does not recreate the record.
+     *
+     * @return future completed with true if the batch was committed
+     */
+    CompletableFuture<Boolean> applyBatchAsync(List<StudentMutation> mutations);
+
+    /**
+     * Returns the summary of one course (tasks per status, earliest due
+     * date, last change). Summaries are kept up to date by every write,
+     * in the same transaction, so this is a single read however many
+     * tasks the course has.
+     *
+     * @param className course name
+     * @return the summary (empty if the course has no tasks), or null if it could not be read
+     */
+    CourseSummary getCourseSummary(String className);
+
+    /**
+     * Async version of {@link #getCourseSummary(String)}.
+     *
+     * @return future with the summary; completes exceptionally on failure
+     */
+    CompletableFuture<CourseSummary> getCourseSummaryAsync(String className);
+
+    /**
+     * Returns the summaries of all courses that have tasks, sorted by
+     * course name (never null). One read per course.
+     */
+    List<CourseSummary> getCourseSummaries();
+
+    CompletableFuture<List<CourseSummary>> getCourseSummariesAsync();
+
+    /**
+     * Recomputes every course summary from the stored tasks and replaces
+     * the stored ones. Only needed once for data written before summaries
+     * existed, or to repair them; it reads every task.
+     *
+     * @return true if the summaries were rebuilt
+     */
+    boolean rebuildCourseSummaries();
+
+    CompletableFuture<Boolean> rebuildCourseSummariesAsync();
+
+    /**
+     * Reserves a block of new ids from a counter that the backend updates
+     * atomically, so two clients never get the same ids. The first call on
+     * an empty counter starts after the highest stored id (at least
+     * {@link IdAllocator#FIRST_ID}). Use {@link IdAllocator} instead of
+     * calling this for every new record.
+     *
+     * @param count number of ids to reserve (must be positive)
+     * @return the first reserved id; the block is [first, first + count)
+     */
+    int reserveIds(int count);
+
+    /**
+     * Async version of {@link #reserveIds(int)}.
+     *
+     * @return future with the first reserved id; completes exceptionally on failure
+     */
+    CompletableFuture<Integer> reserveIdsAsync(int count);
+
+    /**
+     * Registers a live listener. It first receives every existing student as
+     * ADDED, then each later change.
+     *
+     * @param listener receives changes on an I/O thread, one call at a time
+     * @return handle used to stop listening
+     */
+    ChangeSubscription listenForChanges(StudentChangeListener listener);
+
+    /**
+     * Registers a live listener that resumes from an earlier load or sync
+     * instead of starting with every student. It first receives what
+     * changed since then (changed students as ADDED, deleted ids as
+     * REMOVED, like {@link #getChangesSinceAsync(String)}), then each
+     * later change.
+     *
+     * @param since    high-water mark of the last load or sync, or null
+     *                 for a full first snapshot
+     * @param listener receives changes on an I/O thread, one call at a time
+     * @return handle used to stop listening
+     */
+    ChangeSubscription listenForChanges(String since, StudentChangeListener listener);
+}
@@ -0,0 +1,51 @@
+package com.studenttaskmanager.backend.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formats the createdAt / updatedAt / deletedAt values stored in Firestore.
+ *
+ * Instant.toString() drops trailing zero fractions ("...:05Z" vs
+ * "...:05.120Z"), so two timestamps do not always sort correctly as
+ * strings. This class always writes exactly three fraction digits in UTC,
+ * which keeps the values ISO-8601 and makes string order equal time order.
+ * That is what the updatedAt range queries of delta sync rely on.
+ */
+public final class Timestamps {
+
+    private static final DateTimeFormatter FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+                    .withZone(ZoneOffset.UTC);
+
+    private Timestamps() {
+    }
+
+    /**
+     * Current time as a fixed-width ISO-8601 string.
+     */
+    public static String now() {
+        return format(Instant.now());
+    }
+
+    /**
+     * Formats an instant as a fixed-width ISO-8601 string.
+     */
+    public static String format(Instant instant) {
+        return FORMAT.format(instant);
+    }
+
+    /**
+     * Moves a stored timestamp back by the given amount.
+     * Used to re-read a small overlap window when syncing.
+     *
+     * @param timestamp value produced by this class (or any ISO-8601 instant)
+     * @param amount    how far to move back
+     * @return the earlier timestamp, in the fixed-width format
+     */
+    public static String minus(String timestamp, Duration amount) {
+        return format(Instant.parse(timestamp).minus(amount));
+    }
+}
@@ -0,0 +1,323 @@
+package com.studenttaskmanager.backend.repository;
+
+import com.studenttaskmanager.backend.db.IoExecutor;
+import com.studenttaskmanager.backend.models.StudentMutation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Write-behind pipeline for student mutations.
+ *
+ * Instead of sending one database write per user action, mutations are
+ * collected in memory and committed together as one batch:
+ *  - only one mutation per student id is kept: a newer one replaces the
+ *    older one, except that field updates are merged into the pending
+ *    write (see {@link StudentMutation#coalesce}),
+ *  - a flush happens every flush interval, or as soon as maxBatchSize
+ *    different ids are waiting,
+ *  - {@link #close()} flushes whatever is left, so call it on shutdown.
+ *
+ * Flushes run one after another, so a newer write for an id can never
+ * reach the database before an older one. If a batch fails, its
+ * mutations go back into the queue unless a newer mutation for the
+ * same id has arrived in the meantime.
+ *
+ * With a {@link MutationJournal} the queue is also offline-safe: every
+ * mutation is appended to the journal before {@link #enqueue} returns,
+ * each flush waits until the journal has it on disk before sending it,
+ * entries left over from an earlier session are queued again on startup,
+ * and the journal is told which entries are confirmed after each
+ * successful flush. Replayed entries can arrive at a record that changed
+ * since; the repository skips those (see
+ * {@link StudentMutation#isSupersededBy}). While the database is unreachable, automatic flushes
+ * back off (up to {@link #MAX_RETRY_DELAY_MS}) instead of retrying every
+ * interval.
+ */
+public class WriteBehindQueue {
+
+    // Sends a batch to the database; completes with true on success.
+    private final Function<List<StudentMutation>, CompletableFuture<Boolean>> committer;
+
+    private final int maxBatchSize;
+
+    // Longest wait between automatic retries while the database is unreachable.
+    public static final long MAX_RETRY_DELAY_MS = 30_000;
+
+    // Optional offline journal, null when not used.
+    private final MutationJournal journal;
+
+    private final long flushIntervalMs;
+
+    // Automatic flushes wait until this time after a failure. Guarded by "this".
+    private long retryDelayMs = 0;
+    private long nextAttemptAt = 0;
+
+    // Pending mutations keyed by student id, oldest first. Guarded by "this".
+    private final Map<Integer, StudentMutation> pending = new LinkedHashMap<>();
+
+    // Tail of the flush chain. Guarded by "this".
+    private CompletableFuture<Boolean> lastFlush = CompletableFuture.completedFuture(true);
+
+    private final ScheduledExecutorService timer;
+
+    private boolean closed = false;
+
+    /**
+     * Creates the queue and starts its flush timer.
+     *
+     * @param committer       writes one batch of mutations to the database
+     * @param maxBatchSize    number of pending ids that triggers an early flush
+     * @param flushIntervalMs time between timed flushes, in milliseconds
+     */
+    public WriteBehindQueue(Function<List<StudentMutation>, CompletableFuture<Boolean>> committer,
+                            int maxBatchSize,
+                            long flushIntervalMs) {
+        this(committer, maxBatchSize, flushIntervalMs, null);
+    }
+
+    /**
+     * Creates the queue backed by an offline journal. Entries the journal
+     * has not confirmed yet are queued again and sent on the first flush.
+     *
+     * @param committer       writes one batch of mutations to the database
+     * @param maxBatchSize    number of pending ids that triggers an early flush
+     * @param flushIntervalMs time between timed flushes, in milliseconds
+     * @param journal         journal to record mutations in (may be null)
+     */
+    public WriteBehindQueue(Function<List<StudentMutation>, CompletableFuture<Boolean>> committer,
+                            int maxBatchSize,
+                            long flushIntervalMs,
+                            MutationJournal journal) {
+        this.committer = committer;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.journal = journal;
+
+        if (journal != null) {
+            // Replay in journal order, keeping one (merged) entry per id.
+            for (StudentMutation m : journal.unconfirmed()) {
+                StudentMutation older = pending.remove(m.getId());
+                pending.put(m.getId(), StudentMutation.coalesce(older, m));
+            }
+            if (!pending.isEmpty()) {
+                System.out.println("Write-behind replaying " + pending.size()
+                        + " journaled mutation(s).");
+            }
+        }
+
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(this::flushIfDue,
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a mutation. Replaces (or, for a field update, merges with)
+     * any pending mutation for the same id. With a journal, the merged
+     * mutation is recorded there first, so replaying the journal entry
+     * alone is enough to restore it.
+     *
+     * @param mutation change to write later
+     */
+    public void enqueue(StudentMutation mutation) {
+        boolean full;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("WriteBehindQueue is closed");
+            }
+            // Remove first so the id moves to the end (newest position).
+            StudentMutation older = pending.remove(mutation.getId());
+            mutation = StudentMutation.coalesce(older, mutation);
+            if (journal != null) {
+                mutation = journal.append(mutation);
+            }
+            pending.put(mutation.getId(), mutation);
+            full = pending.size() >= maxBatchSize;
+        }
+
+        if (full) {
+            flushIfDue();
+        }
+    }
+
+    /**
+     * Number of ids currently waiting to be written.
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * True if a mutation for this id has not been sent yet.
+     * Sync code uses this to avoid overwriting local edits with older
+     * server data.
+     */
+    public synchronized boolean isPending(int id) {
+        return pending.containsKey(id);
+    }
+
+    /**
+     * Copy of the mutations waiting to be written, oldest first.
+     * Used on startup to show changes made offline in an earlier session.
+     */
+    public synchronized List<StudentMutation> pendingMutations() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /**
+     * Sends everything that is pending as soon as earlier flushes are done.
+     *
+     * @return future completed with true if the batch (or nothing) was written,
+     *         false if the batch failed and was put back into the queue
+     */
+    public CompletableFuture<Boolean> flush() {
+        synchronized (this) {
+            // Chained on the I/O executor so callers (often the UI thread)
+            // never build or send the batch themselves.
+            lastFlush = lastFlush.thenComposeAsync(previous -> commitPending(), IoExecutor.get());
+            return lastFlush;
+        }
+    }
+
+    /**
+     * Stops the timer and writes everything that is still pending.
+     * Blocks until the final flush has finished.
+     */
+    public void close() {
+        CompletableFuture<Boolean> last;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            timer.shutdown();
+            last = flush();
+        }
+        last.join();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Flush used by the timer and by a full queue. Skipped while waiting
+     * out the retry delay after a failed flush.
+     */
+    private void flushIfDue() {
+        synchronized (this) {
+            if (System.currentTimeMillis() < nextAttemptAt) {
+                return;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Drains the pending map and commits it as one batch.
+     */
+    private CompletableFuture<Boolean> commitPending() {
+        List<StudentMutation> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return CompletableFuture.completedFuture(true);
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        // Nothing is sent before it is on disk: otherwise a crash right after
+        // the commit could lose an edit the database already has, and the
+        // journal could not tell what to replay. A failed journal write
+        // fails the flush, so the batch is requeued and retried below.
+        CompletableFuture<Void> durable = journal != null
+                ? journal.sync()
+                : CompletableFuture.completedFuture(null);
+
+        // Back on the I/O executor: sync() completes on the journal's writer thread.
+        CompletableFuture<Boolean> commit = durable.thenComposeAsync(ignored -> {
+            try {
+                return committer.apply(batch);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }, IoExecutor.get());
+
+        return commit.handle((ok, error) -> {
+            if (error == null && Boolean.TRUE.equals(ok)) {
+                System.out.println("Write-behind flushed " + batch.size() + " mutation(s).");
+                onFlushSucceeded();
+                return true;
+            }
+
+            if (error != null) {
+                error.printStackTrace();
+            }
+            requeue(batch);
+            long delay = onFlushFailed();
+            System.out.println("Write-behind flush failed, " + batch.size()
+                    + " mutation(s) will be retried in " + delay + " ms.");
+            return false;
+        });
+    }
+
+    /**
+     * Resets the retry delay and confirms journal entries that are written.
+     *
+     * Flushes run one at a time, so right after a successful flush every
+     * journal entry older than the oldest pending mutation is in the
+     * database (or was replaced by a newer mutation for the same id).
+     */
+    private synchronized void onFlushSucceeded() {
+        retryDelayMs = 0;
+        nextAttemptAt = 0;
+
+        if (journal != null) {
+            long watermark = pending.isEmpty()
+                    ? journal.lastSequence()
+                    : pending.values().iterator().next().getSequence() - 1;
+            journal.confirm(watermark);
+        }
+    }
+
+    /**
+     * Doubles the retry delay (starting at the flush interval).
+     *
+     * @return the new delay in milliseconds
+     */
+    private synchronized long onFlushFailed() {
+        retryDelayMs = retryDelayMs == 0
+                ? Math.max(flushIntervalMs, 1)
+                : Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+        nextAttemptAt = System.currentTimeMillis() + retryDelayMs;
+        return retryDelayMs;
+    }
+
+    /**
+     * Puts a failed batch back. A newer mutation queued meanwhile replaces
+     * the failed one, or is merged with it if it is a field update.
+     */
+    private synchronized void requeue(List<StudentMutation> batch) {
+        Map<Integer, StudentMutation> merged = new LinkedHashMap<>();
+        for (StudentMutation m : batch) {
+            merged.put(m.getId(), m);
+        }
+        // Newer mutations win and keep their position after the old ones.
+        for (Map.Entry<Integer, StudentMutation> e : pending.entrySet()) {
+            StudentMutation older = merged.remove(e.getKey());
+            merged.put(e.getKey(), StudentMutation.coalesce(older, e.getValue()));
+        }
+        pending.clear();
+        pending.putAll(merged);
+    }
+}
@@ -0,0 +1,189 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.dataset.DatasetGenerator;
+import com.studenttaskmanager.backend.models.CourseSummary;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.SqliteStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import com.studenttaskmanager.backend.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the per-course summaries: after any mix of writes (new
+ * tasks, edits that move a task to another course or status, deletes of
+ * the task due first) they must equal summaries counted from scratch.
+ */
+public class CourseSummaryTest {
+
+    private static final String[] STATUSES = {"Not started", "In progress", "Completed"};
+
+    @Test
+    public void testAddAndRemove() {
+        CourseSummary summary = new CourseSummary("Math 101");
+        Student a = task(1, "Math 101", "Not started", "2025-03-01");
+        Student b = task(2, "Math 101", "Not started", "2025-03-05");
+        Student c = task(3, "Math 101", "Completed", "2025-02-01");
+        summary.add(a);
+        summary.add(b);
+        summary.add(c);
+
+        assertEquals(3, summary.getTotal());
+        assertEquals(2, summary.getOpenCount());
+        // Completed tasks are not "next due"
+        assertEquals("2025-03-01", summary.getNextDueDate());
+
+        // Removing the earliest task asks for a lookup of the next one
+        assertTrue(summary.remove(a));
+        assertNull(summary.getNextDueDate("Not started"));
+        summary.offerDueDate("Not started", "2025-03-05");
+        assertEquals("2025-03-05", summary.getNextDueDate());
+
+        // Removing the last task of a status needs no lookup
+        assertFalse(summary.remove(c));
+        assertEquals(0, summary.getCount("Completed"));
+        assertFalse(summary.remove(b));
+        assertTrue(summary.isEmpty());
+    }
+
+    @Test
+    public void testCompletedIsMatchedIgnoringCase() {
+        // Same comparison as the Analytics screen (TaskStatistics)
+        CourseSummary summary = new CourseSummary("Math 101");
+        summary.add(task(1, "Math 101", "completed", "2025-02-01"));
+        summary.add(task(2, "Math 101", "COMPLETED", "2025-02-02"));
+        summary.add(task(3, "Math 101", "In progress", "2025-03-01"));
+
+        assertEquals(3, summary.getTotal());
+        assertEquals(1, summary.getOpenCount());
+        assertEquals("2025-03-01", summary.getNextDueDate());
+        // Counts stay per stored value
+        assertEquals(1, summary.getCount("completed"));
+    }
+
+    @Test
+    public void testInMemorySummariesFollowWrites() {
+        checkSummariesFollowWrites(new InMemoryStudentRepository());
+    }
+
+    @Test
+    public void testSqliteSummariesFollowWrites() throws IOException {
+        Path file = Files.createTempFile("summaries", ".db");
+        file.toFile().deleteOnExit();
+        SqliteStudentRepository sqlite = new SqliteStudentRepository(file.toString());
+        checkSummariesFollowWrites(sqlite);
+
+        // The summaries survive reopening the database
+        SqliteStudentRepository reopened = new SqliteStudentRepository(file.toString());
+        assertSummariesMatch(reopened);
+
+        assertTrue(reopened.rebuildCourseSummaries());
+        assertSummariesMatch(reopened);
+    }
+
+    private void checkSummariesFollowWrites(StudentRepository repo) {
+        List<StudentMutation> rows = new ArrayList<>();
+        for (Student s : new DatasetGenerator().size(300).courses(5).seed(7).students()) {
+            rows.add(StudentMutation.upsert(s));
+        }
+        assertTrue(repo.applyBatchAsync(rows).join());
+        assertSummariesMatch(repo);
+
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            List<Student> all = repo.getAllStudents();
+            List<StudentMutation> batch = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Student s = all.get(random.nextInt(all.size()));
+                if (batch.stream().anyMatch(m -> m.getId() == s.getId())) {
+                    continue; // one write per id in a batch
+                }
+                switch (random.nextInt(4)) {
+                    case 0 -> batch.add(StudentMutation.delete(s.getId()));
+                    case 1 -> {
+                        // Move to another course and status
+                        s.setClassName(DatasetGenerator.courseName(random.nextInt(6)));
+                        s.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+                        batch.add(StudentMutation.upsert(s));
+                    }
+                    case 2 -> {
+                        Student change = new Student();
+                        change.setId(s.getId());
+                        change.setDueDate("2025-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10));
+                        batch.add(StudentMutation.update(change, List.of(StudentCodec.FIELD_DUE_DATE)));
+                    }
+                    default -> {
+                        Student added = task(10_000 + round * 10 + i, DatasetGenerator.courseName(random.nextInt(6)),
+                                STATUSES[random.nextInt(STATUSES.length)], "2024-12-0" + (1 + random.nextInt(9)));
+                        batch.add(StudentMutation.upsert(added));
+                    }
+                }
+            }
+            assertTrue(repo.applyBatchAsync(batch).join());
+
+            // A status change through the single-record path
+            Student s = repo.getAllStudents().get(random.nextInt(repo.getAllStudents().size()));
+            assertTrue(repo.updateStatus(s.getId(), STATUSES[random.nextInt(STATUSES.length)]));
+
+            assertSummariesMatch(repo);
+        }
+
+        // Deleting the task due first in its course and status
+        Student first = repo.getAllStudents().stream()
+                .filter(t -> t.getDueDate() != null && !t.getDueDate().isEmpty())
+                .min((x, y) -> x.getDueDate().compareTo(y.getDueDate()))
+                .orElseThrow();
+        assertTrue(repo.deleteStudent(first.getId()));
+        assertSummariesMatch(repo);
+    }
+
+    /**
+     * The stored summaries equal summaries counted from every task.
+     */
+    private static void assertSummariesMatch(StudentRepository repo) {
+        Map<String, CourseSummary> expected = new TreeMap<>();
+        for (Student s : repo.getAllStudents()) {
+            if (s.getClassName() == null || s.getClassName().isEmpty()) continue;
+            expected.computeIfAbsent(s.getClassName(), CourseSummary::new).add(s);
+        }
+
+        List<CourseSummary> actual = repo.getCourseSummaries();
+        assertEquals(new ArrayList<>(expected.keySet()),
+                actual.stream().map(CourseSummary::getClassName).toList());
+        for (CourseSummary summary : actual) {
+            CourseSummary want = expected.get(summary.getClassName());
+            assertEquals(want.getCounts(), summary.getCounts(), summary.getClassName());
+            for (String status : want.getCounts().keySet()) {
+                assertEquals(want.getNextDueDate(status), summary.getNextDueDate(status),
+                        summary.getClassName() + " / " + status);
+            }
+            assertNotNull(summary.getUpdatedAt());
+
+            CourseSummary single = repo.getCourseSummary(summary.getClassName());
+            assertEquals(summary.getCounts(), single.getCounts());
+            assertEquals(summary.getNextDueDate(), single.getNextDueDate());
+        }
+    }
+
+    private static Student task(int id, String course, String status, String due) {
+        Student s = new Student();
+        s.setId(id);
+        s.setTask("Task " + id);
+        s.setClassName(course);
+        s.setStatus(status);
+        s.setDueDate(due);
+        return s;
+    }
+}
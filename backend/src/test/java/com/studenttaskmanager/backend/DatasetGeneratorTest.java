@@ -0,0 +1,68 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.dataset.DatasetGenerator;
+import com.studenttaskmanager.backend.dataset.DatasetGenerator.DueDateDistribution;
+import com.studenttaskmanager.backend.dataset.DatasetGenerator.Record;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the synthetic dataset generator.
+ */
+public class DatasetGeneratorTest {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2025, 3, 15);
+
+    @Test
+    public void testSameSettingsGiveSameData() {
+        List<Record> a = new DatasetGenerator().size(500).seed(7).records();
+        List<Record> b = new DatasetGenerator().size(500).seed(7).records();
+
+        assertEquals(500, a.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).getTitle(), b.get(i).getTitle());
+            assertEquals(a.get(i).getDueDate(), b.get(i).getDueDate());
+            assertEquals(a.get(i).getStatus(), b.get(i).getStatus());
+        }
+        assertEquals(1, a.get(0).getId());
+        assertEquals(500, a.get(499).getId());
+    }
+
+    @Test
+    public void testCourseCardinality() {
+        Set<String> courses = new HashSet<>();
+        for (Record r : new DatasetGenerator().size(2000).courses(5).records()) {
+            courses.add(r.getCourse());
+        }
+        assertEquals(5, courses.size());
+    }
+
+    @Test
+    public void testNearTermDistribution() {
+        int overdue = 0;
+        int withinTwoWeeks = 0;
+        List<Record> records = new DatasetGenerator().size(10_000)
+                .dueDates(DueDateDistribution.NEAR_TERM, ANCHOR, 60)
+                .records();
+
+        for (Record r : records) {
+            LocalDate due = r.getDueDate();
+            assertFalse(due.isAfter(ANCHOR.plusDays(60)));
+            if (due.isBefore(ANCHOR)) {
+                overdue++;
+            } else if (!due.isAfter(ANCHOR.plusDays(14))) {
+                withinTwoWeeks++;
+            }
+        }
+
+        // About 15% overdue, and most open tasks due soon.
+        assertTrue(overdue > 1200 && overdue < 1800, "overdue=" + overdue);
+        assertTrue(withinTwoWeeks > 5000, "withinTwoWeeks=" + withinTwoWeeks);
+    }
+}
@@ -0,0 +1,55 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.repository.DocumentKeys;
+import com.studenttaskmanager.backend.repository.DocumentKeys.Scheme;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Firestore document ids: stable, reversible, and spread
+ * over the key space for consecutive task ids.
+ */
+public class DocumentKeysTest {
+
+    @Test
+    public void testKeysAreStableAndReversible() {
+        assertEquals("20001", DocumentKeys.key(20001, Scheme.PLAIN));
+
+        String hashed = DocumentKeys.key(20001, Scheme.HASHED);
+        assertTrue(hashed.matches("[0-9a-f]{4}-20001"), hashed);
+        assertEquals(hashed, DocumentKeys.key(20001, Scheme.HASHED));
+
+        assertEquals(20001, DocumentKeys.idOf(hashed));
+        assertEquals(20001, DocumentKeys.idOf("20001"));
+    }
+
+    @Test
+    public void testConsecutiveIdsAreSpread() {
+        // 1000 consecutive ids, counted per first hex digit of the key
+        int[] buckets = new int[16];
+        Set<String> keys = new HashSet<>();
+        int ascending = 0;
+        String previous = null;
+        for (int id = 20000; id < 21000; id++) {
+            String key = DocumentKeys.key(id, Scheme.HASHED);
+            keys.add(key);
+            buckets[Character.digit(key.charAt(0), 16)]++;
+            if (previous != null && key.compareTo(previous) > 0) {
+                ascending++;
+            }
+            previous = key;
+        }
+
+        assertEquals(1000, keys.size());
+        for (int count : buckets) {
+            // About 62 each; a sequential key would put all 1000 in one bucket
+            assertTrue(count > 30 && count < 100, "bucket size " + count);
+        }
+        // Key order is unrelated to id order (plain ids would give 999)
+        assertTrue(ascending > 400 && ascending < 600, "ascending steps " + ascending);
+    }
+}
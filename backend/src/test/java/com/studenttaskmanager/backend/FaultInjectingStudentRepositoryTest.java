@@ -0,0 +1,54 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.repository.FaultInjectingStudentRepository;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.PageLoadException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for latency and failure injection.
+ */
+public class FaultInjectingStudentRepositoryTest {
+
+    private static Student student(int id) {
+        return new Student(id, "Student", "Task", "Math 101", "Homework", "Not started");
+    }
+
+    @Test
+    public void testLatencyIsAdded() {
+        FaultInjectingStudentRepository repo = new FaultInjectingStudentRepository(
+                new InMemoryStudentRepository(), 50, 0, 0.0, 1);
+
+        long start = System.nanoTime();
+        assertTrue(repo.addStudent(student(1)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs >= 50, "elapsed " + elapsedMs + " ms");
+        assertEquals(1, repo.getAllStudents().size());
+    }
+
+    @Test
+    public void testFailuresLookLikeFirebaseErrors() {
+        InMemoryStudentRepository memory = new InMemoryStudentRepository();
+        memory.addStudent(student(1));
+        FaultInjectingStudentRepository repo = new FaultInjectingStudentRepository(memory, 0, 0, 1.0, 1);
+
+        assertFalse(repo.addStudent(student(2)));
+        assertTrue(repo.getAllStudents().isEmpty());
+        // A failed page is an error, not an empty collection
+        CompletionException failed = assertThrows(CompletionException.class,
+                () -> repo.getAllStudentsPagedAsync(10, page -> fail("no page expected")).join());
+        assertInstanceOf(PageLoadException.class, failed.getCause());
+        assertEquals(0, ((PageLoadException) failed.getCause()).getDelivered());
+        assertThrows(CompletionException.class,
+                () -> repo.getChangesSinceAsync("2000-01-01T00:00:00.000Z").join());
+
+        // Nothing reached the real store.
+        assertEquals(1, memory.size());
+    }
+}
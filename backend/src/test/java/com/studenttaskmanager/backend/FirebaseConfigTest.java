@@ -1,24 +1,100 @@
 package com.studenttaskmanager.backend;
 
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
 import com.studenttaskmanager.backend.db.FirebaseConfig;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * Simple integration-style test to verify that FirebaseConfig
  * can initialize Firebase and return a non-null Firestore instance.
  *
- * This test assumes that serviceAccountKey.json is present in
- * src/main/resources and that the Firebase project is configured.
+ * This test needs serviceAccountKey.json in src/main/resources and a
+ * configured Firebase project. Without the key file it is skipped, so the
+ * rest of the suite can run on machines without Firebase access.
  */
 public class FirebaseConfigTest {
 
     @Test
     public void testGetFirestoreNotNull() {
+        assumeTrue(hasKey(), "serviceAccountKey.json not available");
+
         FirebaseConfig.init();
         Firestore firestore = FirebaseConfig.getFirestore();
         assertNotNull(firestore, "Firestore instance should not be null after init()");
     }
-}
\ No newline at end of file
+
+    /**
+     * Many threads asking for the client at the same time get the same one.
+     * Uses the emulator settings, so no key file or network is needed
+     * (the client does not connect until the first call).
+     */
+    @Test
+    public void testConcurrentFirstUseCreatesOneClient() throws Exception {
+        assumeTrue(!hasKey(), "uses the emulator settings, real key present");
+        System.setProperty("stm.firestore.emulator", "localhost:8080");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Firestore>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return FirebaseConfig.getFirestore();
+                }));
+            }
+            go.countDown();
+
+            Firestore first = results.get(0).get(10, TimeUnit.SECONDS);
+            assertNotNull(first);
+            for (Future<Firestore> result : results) {
+                assertSame(first, result.get(10, TimeUnit.SECONDS));
+            }
+            assertSame(first, FirebaseConfig.initAsync().get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+            System.clearProperty("stm.firestore.emulator");
+        }
+    }
+
+    @Test
+    public void testFirestoreOptionsFromSettings() {
+        System.setProperty("stm.firestore.channels", "4");
+        System.setProperty("stm.firestore.keepalive.s", "60");
+        System.setProperty("stm.firestore.deadline.s", "15");
+        try {
+            FirestoreOptions options = FirebaseConfig.firestoreOptions("demo-test");
+
+            assertEquals("demo-test", options.getProjectId());
+            assertEquals(15, options.getRetrySettings().getTotalTimeout().getSeconds());
+            assertEquals(15, options.getRetrySettings().getMaxRpcTimeout().getSeconds());
+            InstantiatingGrpcChannelProvider channel =
+                    (InstantiatingGrpcChannelProvider) options.getTransportChannelProvider();
+            assertEquals(60, channel.getKeepAliveTime().getSeconds());
+
+            System.setProperty("stm.firestore.emulator", "localhost:8080");
+            assertEquals("localhost:8080", FirebaseConfig.firestoreOptions("demo-test").getEmulatorHost());
+        } finally {
+            System.clearProperty("stm.firestore.channels");
+            System.clearProperty("stm.firestore.keepalive.s");
+            System.clearProperty("stm.firestore.deadline.s");
+            System.clearProperty("stm.firestore.emulator");
+        }
+    }
+
+    private static boolean hasKey() {
+        return FirebaseConfig.class.getClassLoader().getResource("serviceAccountKey.json") != null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.repository.IdAllocator;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for leasing blocks of task ids.
+ */
+public class IdAllocatorTest {
+
+    @Test
+    public void testTwoClientsNeverShareIds() throws Exception {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.addStudent(new Student(25000, "Student", "Task", "Math 101", "Homework", "Incomplete"));
+
+        // Two "clients" starting at the same time, each used from several threads
+        IdAllocator first = new IdAllocator(repo, 16);
+        IdAllocator second = new IdAllocator(repo, 16);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            IdAllocator ids = t % 2 == 0 ? first : second;
+            workers.add(pool.submit(() -> {
+                go.await();
+                for (int i = 0; i < 500; i++) {
+                    if (!seen.add(ids.next())) duplicates.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(0, duplicates.get());
+        assertEquals(4000, seen.size());
+        // Counter started after the highest stored id, without reading every record
+        assertTrue(seen.stream().allMatch(id -> id > 25000));
+    }
+
+    @Test
+    public void testPrefetchAndRecoveryAfterFailure() {
+        List<Integer> requests = new ArrayList<>();
+        boolean[] offline = {false};
+        int[] counter = {IdAllocator.FIRST_ID};
+
+        IdAllocator ids = new IdAllocator(count -> {
+            requests.add(count);
+            if (offline[0]) {
+                return CompletableFuture.failedFuture(new IllegalStateException("offline"));
+            }
+            int firstId = counter[0];
+            counter[0] += count;
+            return CompletableFuture.completedFuture(firstId);
+        }, 4);
+
+        ids.prefetch();
+        assertEquals(1, requests.size());
+        assertEquals(IdAllocator.FIRST_ID, ids.next());
+        assertEquals(1, requests.size());
+
+        // Half of the block used: the next block is requested ahead of time
+        ids.next();
+        ids.next();
+        assertEquals(2, requests.size());
+
+        // Going offline only matters once the leased ids run out
+        offline[0] = true;
+        for (int i = 0; i < 5; i++) {
+            ids.next();
+        }
+        assertThrows(IllegalStateException.class, ids::next);
+
+        offline[0] = false;
+        assertEquals(IdAllocator.FIRST_ID + 8, ids.next());
+    }
+
+    @Test
+    public void testNextNowDoesNotWaitForTheBackend() {
+        // A backend that never answers
+        IdAllocator ids = new IdAllocator(count -> new CompletableFuture<>(), 4);
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, ids::nextNow);
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 2);
+    }
+
+    @Test
+    public void testLeasedIdsSurviveARestartWhileOffline() throws Exception {
+        Path dir = Files.createTempDirectory("id-lease-test");
+        Path file = dir.resolve("mutations.journal.ids");
+        int[] counter = {IdAllocator.FIRST_ID};
+        try {
+            IdAllocator online = new IdAllocator(count -> {
+                int firstId = counter[0];
+                counter[0] += count;
+                return CompletableFuture.completedFuture(firstId);
+            }, 20, file);
+            online.prefetch();
+            Set<Integer> used = new HashSet<>();
+            for (int i = 0; i < 3; i++) {
+                used.add(online.nextNow());
+            }
+
+            // Next session starts without a network connection
+            IdAllocator offline = new IdAllocator(
+                    count -> CompletableFuture.failedFuture(new IllegalStateException("offline")), 20, file);
+            int id = offline.nextNow();
+            assertFalse(used.contains(id));
+            assertTrue(id < counter[0], "id must come from a block leased earlier");
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir.resolve("mutations.journal.ids.tmp"));
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentChange;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.ChangeSubscription;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import com.studenttaskmanager.backend.repository.Timestamps;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the in-memory repository used by tests and benchmarks.
+ */
+public class InMemoryStudentRepositoryTest {
+
+    private static Student student(int id, String status) {
+        return new Student(id, "Student", "Task", "Math 101", "Homework", status);
+    }
+
+    @Test
+    public void testStoresCopiesAndPagesInIdOrder() {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        for (int id = 5; id >= 1; id--) {
+            assertTrue(repo.addStudent(student(id, "Not started")));
+        }
+
+        Student s = repo.getAllStudents().get(0);
+        s.setStatus("Changed outside");
+        assertEquals("Not started", repo.getAllStudents().get(0).getStatus());
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        int total = repo.getAllStudentsPagedAsync(2, page -> {
+            pageSizes.add(page.size());
+            page.forEach(p -> ids.add(p.getId()));
+        }).join();
+
+        assertEquals(5, total);
+        assertEquals(List.of(2, 2, 1), pageSizes);
+        assertEquals(List.of(1, 2, 3, 4, 5), ids);
+    }
+
+    @Test
+    public void testDeltaIncludesDeletes() {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.addStudent(student(1, "Not started"));
+        repo.addStudent(student(2, "Not started"));
+        String since = "2000-01-01T00:00:00.000Z";
+
+        assertTrue(repo.deleteStudent(2));
+        assertFalse(repo.updateStatus(2, "Completed"));
+
+        StudentDelta delta = repo.getChangesSinceAsync(since).join();
+        assertEquals(1, delta.getChanged().size());
+        assertEquals(List.of(2), delta.getDeletedIds());
+        assertTrue(delta.getHighWaterMark().compareTo(since) > 0);
+    }
+
+    @Test
+    public void testUpdateAfterARemoteDeleteDoesNotRecreateTheTask() {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.addStudent(student(1, "Not started"));
+        repo.addStudent(student(2, "Not started"));
+        // Another client deletes task 1 while this one still has an edit queued
+        assertTrue(repo.deleteStudent(1));
+
+        Student edit = student(1, "Completed");
+        Student other = student(2, "Completed");
+        assertTrue(repo.applyBatchAsync(List.of(
+                StudentMutation.update(edit, List.of(StudentCodec.FIELD_STATUS)),
+                StudentMutation.update(other, List.of(StudentCodec.FIELD_STATUS)))).join());
+
+        assertEquals(List.of(2), repo.getAllStudents().stream().map(Student::getId).toList());
+        assertEquals("Completed", repo.getAllStudents().get(0).getStatus());
+        assertEquals(1, repo.getCourseSummary("Math 101").getTotal());
+        assertEquals(List.of(1), repo.getChangesSinceAsync("2000-01-01T00:00:00.000Z").join().getDeletedIds());
+    }
+
+    @Test
+    public void testWriteInTheSameMillisecondAsTheMarkIsNotSkipped() {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.addStudent(student(1, "Not started"));
+        String mark = repo.getChangesSinceAsync("2000-01-01T00:00:00.000Z").join().getHighWaterMark();
+        assertEquals(mark, repo.getAllStudents().get(0).getUpdatedAt());
+
+        StudentDelta next = repo.getChangesSinceAsync(mark).join();
+        assertEquals(1, next.getChanged().size());
+        assertEquals(1, next.getChanged().get(0).getId());
+    }
+
+    @Test
+    public void testResumedListenerStartsWithTheChangesOnly() throws Exception {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        for (int id = 1; id <= 5; id++) {
+            repo.addStudent(student(id, "Not started"));
+        }
+        // A mark between the load and the later writes
+        Thread.sleep(5);
+        String mark = Timestamps.now();
+        Thread.sleep(5);
+
+        repo.updateStatus(2, "Completed");
+        repo.deleteStudent(4);
+
+        List<StudentChange> received = new CopyOnWriteArrayList<>();
+        ChangeSubscription subscription = repo.listenForChanges(mark, received::addAll);
+        repo.updateStatus(3, "In progress");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        subscription.remove();
+
+        // Not the five loaded tasks again: the delete, the update, then the live change
+        assertEquals(3, received.size(), received.toString());
+        assertEquals(StudentChange.Type.REMOVED, received.get(0).getType());
+        assertEquals(4, received.get(0).getId());
+        assertEquals(2, received.get(1).getId());
+        assertEquals(3, received.get(2).getId());
+    }
+}
@@ -0,0 +1,216 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.MutationJournal;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import com.studenttaskmanager.backend.repository.WriteBehindQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the offline mutation journal.
+ * Each test uses its own temporary directory.
+ */
+public class MutationJournalTest {
+
+    private Path dir;
+    private Path file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal-test");
+        file = dir.resolve("mutations.journal");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    private static Student student(int id, String status) {
+        return new Student(id, "Student", "Task", "Math 101", "Homework", status);
+    }
+
+    @Test
+    public void testUnconfirmedEntriesSurviveRestart() throws IOException {
+        MutationJournal journal = new MutationJournal(file);
+        StudentMutation first = journal.append(StudentMutation.upsert(student(1, "Not started")));
+        journal.append(StudentMutation.delete(2));
+        journal.append(StudentMutation.update(student(3, "Completed"), List.of("status")));
+        journal.close();
+
+        assertEquals(1, first.getSequence());
+        assertEquals(journal.getClientId() + ":1", first.getIdempotencyKey());
+
+        MutationJournal reopened = new MutationJournal(file);
+        List<StudentMutation> replay = reopened.unconfirmed();
+        assertEquals(3, replay.size());
+        assertEquals("Not started", replay.get(0).getStudent().getStatus());
+        assertEquals(StudentMutation.Type.DELETE, replay.get(1).getType());
+        assertEquals(StudentMutation.Type.UPDATE, replay.get(2).getType());
+        assertEquals(List.of("status"), new ArrayList<>(replay.get(2).getFields()));
+        assertEquals(first.getIdempotencyKey(), replay.get(0).getIdempotencyKey());
+
+        // Same install keeps its client id, and sequence numbers keep growing.
+        assertEquals(journal.getClientId(), reopened.getClientId());
+        assertEquals(4, reopened.append(StudentMutation.delete(3)).getSequence());
+        reopened.close();
+    }
+
+    @Test
+    public void testConfirmedEntriesAreNotReplayed() throws IOException {
+        MutationJournal journal = new MutationJournal(file);
+        journal.append(StudentMutation.upsert(student(1, "Not started")));
+        journal.append(StudentMutation.upsert(student(2, "Not started")));
+        journal.append(StudentMutation.upsert(student(3, "Not started")));
+        journal.confirm(2);
+        journal.close();
+
+        MutationJournal reopened = new MutationJournal(file);
+        List<StudentMutation> replay = reopened.unconfirmed();
+        assertEquals(1, replay.size());
+        assertEquals(3, replay.get(0).getId());
+        assertEquals(2L, reopened.confirmedSequence());
+        reopened.close();
+    }
+
+    @Test
+    public void testTornLastLineIsIgnored() throws IOException {
+        MutationJournal journal = new MutationJournal(file);
+        journal.append(StudentMutation.upsert(student(1, "Not started")));
+        journal.close();
+
+        // Simulate a crash in the middle of writing the next entry.
+        Files.writeString(file, Files.readString(file) + "{\"seq\":2,\"key\":\"x:2\",\"ty");
+
+        MutationJournal reopened = new MutationJournal(file);
+        assertEquals(1, reopened.unconfirmed().size());
+        reopened.close();
+    }
+
+    @Test
+    public void testQueueReplaysAndConfirmsJournal() throws IOException {
+        MutationJournal journal = new MutationJournal(file);
+        journal.append(StudentMutation.upsert(student(1, "Not started")));
+        journal.close();
+
+        // Second session: Firebase is down for the first flush, then comes back.
+        List<List<StudentMutation>> sent = new ArrayList<>();
+        boolean[] online = {false};
+        MutationJournal second = new MutationJournal(file);
+        WriteBehindQueue queue = new WriteBehindQueue(batch -> {
+            sent.add(batch);
+            return CompletableFuture.completedFuture(online[0]);
+        }, 100, 60_000, second);
+        assertTrue(queue.isPending(1));
+
+        queue.enqueue(StudentMutation.upsert(student(2, "Completed")));
+        assertFalse(queue.flush().join());
+        assertEquals(2, queue.pendingCount());
+        assertEquals(0L, second.confirmedSequence());
+
+        online[0] = true;
+        assertTrue(queue.flush().join());
+        assertEquals(2, sent.get(1).size());
+        assertNotNull(sent.get(1).get(1).getIdempotencyKey());
+        assertEquals(2L, second.confirmedSequence());
+        queue.close();
+
+        MutationJournal third = new MutationJournal(file);
+        assertTrue(third.unconfirmed().isEmpty());
+        third.close();
+    }
+
+    @Test
+    public void testFlushSendsOnlyWhatIsOnDisk() throws IOException {
+        MutationJournal journal = new MutationJournal(file);
+        List<String> missing = new ArrayList<>();
+        WriteBehindQueue queue = new WriteBehindQueue(batch -> {
+            try {
+                String onDisk = Files.readString(file);
+                for (StudentMutation m : batch) {
+                    if (!onDisk.contains("\"key\":\"" + m.getIdempotencyKey() + "\"")) {
+                        missing.add(m.getIdempotencyKey());
+                    }
+                }
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return CompletableFuture.completedFuture(true);
+        }, 100, 60_000, journal);
+
+        for (int id = 1; id <= 20; id++) {
+            queue.enqueue(StudentMutation.upsert(student(id, "Not started")));
+        }
+        assertTrue(queue.flush().join());
+        assertEquals(List.of(), missing);
+        queue.close();
+    }
+
+    @Test
+    public void testReplayAfterLostConfirmDoesNotOverwriteNewerEdits() throws Exception {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.addStudent(student(1, "Not started"));
+        repo.addStudent(student(2, "Not started"));
+
+        // First session: the write reached the database, then the app
+        // stopped before the journal recorded the confirmation.
+        MutationJournal journal = new MutationJournal(file);
+        StudentMutation sent = journal.append(
+                StudentMutation.update(student(1, "In progress"), List.of(StudentCodec.FIELD_STATUS)));
+        journal.append(StudentMutation.update(student(2, "In progress"), List.of(StudentCodec.FIELD_STATUS)));
+        assertTrue(repo.applyBatchAsync(List.of(sent)).join());
+        journal.close();
+
+        // Someone else edits task 1 afterwards
+        Thread.sleep(2);
+        assertTrue(repo.applyBatchAsync(List.of(StudentMutation.upsert(student(1, "Completed")))).join());
+
+        // Second session replays both entries
+        MutationJournal second = new MutationJournal(file);
+        assertTrue(second.unconfirmed().stream().allMatch(StudentMutation::isReplay));
+        WriteBehindQueue queue = new WriteBehindQueue(repo::applyBatchAsync, 100, 60_000, second);
+        assertTrue(queue.flush().join());
+        queue.close();
+
+        assertEquals("Completed", repo.getAllStudents().get(0).getStatus());
+        // The entry that never reached the database is still applied
+        assertEquals("In progress", repo.getAllStudents().get(1).getStatus());
+    }
+
+    @Test
+    public void testReplayIsRecognizedByItsKey() {
+        Student stored = student(1, "In progress");
+        stored.setUpdatedAt("2025-03-01T09:00:00.000Z");
+        StudentMutation replay = StudentMutation.upsert(student(1, "In progress"))
+                .withJournalPosition(12, "client-a:12", "2025-03-01T09:00:00.000Z")
+                .asReplay();
+
+        stored.setLastMutationId("client-a:12");
+        assertTrue(replay.isSupersededBy(stored));
+        stored.setLastMutationId("client-a:15");
+        assertTrue(replay.isSupersededBy(stored));
+        // An older write of ours, or another client's at the same time, does not block it
+        stored.setLastMutationId("client-a:9");
+        assertFalse(replay.isSupersededBy(stored));
+        stored.setLastMutationId("client-b:40");
+        assertFalse(replay.isSupersededBy(stored));
+        assertFalse(replay.isSupersededBy(null));
+    }
+}
@@ -0,0 +1,138 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.SqliteStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import com.studenttaskmanager.backend.repository.Timestamps;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SQLite repository against a temporary database file.
+ * Unlike FirebaseConfigTest, these need no network or service account.
+ */
+public class SqliteStudentRepositoryTest {
+
+    private Path file;
+    private SqliteStudentRepository repo;
+
+    @BeforeEach
+    public void openDatabase() throws IOException {
+        file = Files.createTempFile("students", ".db");
+        file.toFile().deleteOnExit();
+        repo = new SqliteStudentRepository(file.toString());
+    }
+
+    private static Student student(int id, String className, String status) {
+        return new Student(id, "Student", "Task", className, "Homework " + id, status);
+    }
+
+    @Test
+    public void testReservedIdBlocksDoNotOverlap() {
+        assertTrue(repo.addStudent(student(30000, "Math 101", "Incomplete")));
+
+        // The first block starts after the highest stored id
+        assertEquals(30001, repo.reserveIds(10));
+
+        // A second process using the same file continues from the counter
+        SqliteStudentRepository other = new SqliteStudentRepository(file.toString());
+        assertEquals(30011, other.reserveIds(5));
+        assertEquals(30016, repo.reserveIdsAsync(1).join());
+    }
+
+    @Test
+    public void testAddUpdateAndDelete() {
+        assertTrue(repo.addStudent(student(1, "Math 101", "Incomplete")));
+        assertTrue(repo.addStudent(student(2, "Science 202", "Incomplete")));
+
+        assertTrue(repo.updateStatus(1, "Complete"));
+        assertEquals(1, repo.getStudentsByStatus("Complete").size());
+        assertEquals(1, repo.getStudentsByClassName("Science 202").size());
+
+        assertTrue(repo.deleteStudent(2));
+        List<Student> all = repo.getAllStudents();
+        assertEquals(1, all.size());
+        assertEquals("Complete", all.get(0).getStatus());
+        assertNotNull(all.get(0).getCreatedAt());
+    }
+
+    @Test
+    public void testPagedReadDeliversEveryStudentInOrder() {
+        List<StudentMutation> batch = new ArrayList<>();
+        for (int id = 1; id <= 25; id++) {
+            batch.add(StudentMutation.upsert(student(id, "Math 101", "Incomplete")));
+        }
+        assertTrue(repo.applyBatchAsync(batch).join());
+
+        List<Integer> pageSizes = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        int total = repo.getAllStudentsPagedAsync(10, page -> {
+            pageSizes.add(page.size());
+            page.forEach(s -> ids.add(s.getId()));
+        }).join();
+
+        assertEquals(25, total);
+        assertEquals(List.of(10, 10, 5), pageSizes);
+        assertEquals(1, ids.get(0));
+        assertEquals(25, ids.get(24));
+    }
+
+    @Test
+    public void testChangesSinceIncludesUpdatesAndTombstones() {
+        repo.addStudent(student(1, "Math 101", "Incomplete"));
+        repo.addStudent(student(2, "Math 101", "Incomplete"));
+        String mark = Timestamps.now();
+
+        repo.applyBatchAsync(List.of(
+                StudentMutation.upsert(student(1, "Math 101", "Complete")),
+                StudentMutation.delete(2))).join();
+
+        StudentDelta delta = repo.getChangesSinceAsync(mark).join();
+        assertEquals(1, delta.getChanged().size());
+        assertEquals("Complete", delta.getChanged().get(0).getStatus());
+        assertEquals(List.of(2), delta.getDeletedIds());
+        assertTrue(delta.getHighWaterMark().compareTo(mark) >= 0);
+    }
+
+    @Test
+    public void testUpdateAfterARemoteDeleteDoesNotRecreateTheTask() {
+        repo.addStudent(student(1, "Math 101", "Incomplete"));
+        assertTrue(repo.deleteStudent(1));
+
+        assertTrue(repo.applyBatchAsync(List.of(StudentMutation.update(
+                student(1, "Math 101", "Complete"), List.of(StudentCodec.FIELD_STATUS)))).join());
+
+        assertTrue(repo.getAllStudents().isEmpty());
+        assertTrue(repo.getCourseSummaries().isEmpty());
+    }
+
+    @Test
+    public void testWriteInTheSameMillisecondAsTheMarkIsNotSkipped() {
+        repo.addStudent(student(1, "Math 101", "Incomplete"));
+        StudentDelta first = repo.getChangesSinceAsync("2000-01-01T00:00:00.000Z").join();
+        String mark = first.getHighWaterMark();
+
+        // A write stamped with the very millisecond the last sync ended on
+        Student stored = repo.getAllStudents().get(0);
+        assertEquals(mark, stored.getUpdatedAt());
+
+        StudentDelta next = repo.getChangesSinceAsync(mark).join();
+        assertEquals(1, next.getChanged().size());
+        assertEquals(1, next.getChanged().get(0).getId());
+
+        // Tombstones in the same millisecond are returned too
+        repo.deleteStudent(1);
+        String deletedAt = repo.getChangesSinceAsync(mark).join().getHighWaterMark();
+        assertEquals(List.of(1), repo.getChangesSinceAsync(deletedAt).join().getDeletedIds());
+    }
+}
@@ -0,0 +1,57 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the hand-written Firestore codec.
+ */
+public class StudentCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        Student s = new Student(10001, "Ada", "Lovelace", "CSC 101", "Homework 1", "Completed");
+        s.setCreatedAt("2025-01-01T00:00:00.000Z");
+        s.setUpdatedAt("2025-01-02T00:00:00.000Z");
+        s.setLastMutationId("client:7");
+
+        Map<String, Object> map = StudentCodec.toMap(s);
+        assertEquals(StudentCodec.SCHEMA_VERSION, StudentCodec.schemaVersion(map));
+
+        Student copy = StudentCodec.fromMap(map);
+        assertEquals(s.toString(), copy.toString());
+    }
+
+    @Test
+    public void testNullFieldsAreNotWritten() {
+        Student s = new Student(5, "Ada", "Lovelace", "CSC 101", "Homework 1", "Completed");
+
+        Map<String, Object> map = StudentCodec.toMap(s);
+
+        assertFalse(map.containsKey(StudentCodec.FIELD_CREATED_AT));
+        assertFalse(map.containsKey(StudentCodec.FIELD_LAST_MUTATION_ID));
+    }
+
+    @Test
+    public void testReadsLegacyDocument() {
+        // Written by the bean mapper: no schemaVersion, numbers come back as Long.
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", 42L);
+        map.put("className", "MATH 200");
+        map.put("task", "Quiz");
+        map.put("status", "Not Started");
+
+        Student s = StudentCodec.fromMap(map);
+
+        assertEquals(0, StudentCodec.schemaVersion(map));
+        assertEquals(42, s.getId());
+        assertEquals("MATH 200", s.getClassName());
+        assertNull(s.getFirstName());
+    }
+}
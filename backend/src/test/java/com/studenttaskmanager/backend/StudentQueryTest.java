@@ -0,0 +1,133 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.dataset.DatasetGenerator;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.FirestoreIndexes;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.SqliteStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentCounts;
+import com.studenttaskmanager.backend.repository.StudentQuery;
+import com.studenttaskmanager.backend.repository.StudentQuery.SortField;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the typed query builder: the SQLite and in-memory
+ * translations return (and count) the same records, and the committed
+ * Firestore index file matches what the queries need.
+ */
+public class StudentQueryTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate MARCH_31 = LocalDate.of(2025, 3, 31);
+
+    @Test
+    public void testSqliteAndMemoryReturnTheSameRecords() throws IOException {
+        List<Student> students = new DatasetGenerator().size(2000).courses(10).students();
+        InMemoryStudentRepository memory = new InMemoryStudentRepository();
+        Path file = Files.createTempFile("query", ".db");
+        file.toFile().deleteOnExit();
+        SqliteStudentRepository sqlite = new SqliteStudentRepository(file.toString());
+
+        List<StudentMutation> rows = new ArrayList<>();
+        for (Student s : students) {
+            rows.add(StudentMutation.upsert(s));
+        }
+        assertTrue(memory.applyBatchAsync(rows).join());
+        assertTrue(sqlite.applyBatchAsync(rows).join());
+
+        String course = DatasetGenerator.courseName(3);
+        List<StudentQuery> queries = List.of(
+                StudentQuery.builder().status("Not started").build(),
+                StudentQuery.builder().className(course).priority("High").build(),
+                StudentQuery.builder().status("In progress").dueBetween(MARCH_1, MARCH_31).build(),
+                StudentQuery.builder().className(course)
+                        .orderBy(SortField.DUE_DATE, true).limit(25).build(),
+                StudentQuery.builder().dueOnOrAfter(MARCH_31).limit(10).build());
+
+        for (StudentQuery query : queries) {
+            List<Student> expected = memory.findStudents(query);
+            List<Student> actual = sqlite.findStudents(query);
+            assertFalse(expected.isEmpty(), query.toString());
+            assertEquals(ids(expected), ids(actual), query.toString());
+            assertEquals(expected.size(), memory.countStudents(query), query.toString());
+            assertEquals(expected.size(), sqlite.countStudents(query), query.toString());
+            for (Student s : actual) {
+                assertTrue(query.matches(s), query.toString());
+            }
+        }
+
+        // A range is ordered by due date and only returns tasks inside it
+        List<Student> march = sqlite.findStudents(
+                StudentQuery.builder().dueBetween(MARCH_1, MARCH_31).build());
+        assertTrue(MARCH_1.toString().compareTo(march.get(0).getDueDate()) <= 0);
+        for (int i = 1; i < march.size(); i++) {
+            assertTrue(march.get(i - 1).getDueDate().compareTo(march.get(i).getDueDate()) <= 0);
+        }
+    }
+
+    @Test
+    public void testCountsAreNarrowedByTheFilter() {
+        InMemoryStudentRepository memory = new InMemoryStudentRepository();
+        List<StudentMutation> rows = new ArrayList<>();
+        for (Student s : new DatasetGenerator().size(500).students()) {
+            rows.add(StudentMutation.upsert(s));
+        }
+        assertTrue(memory.applyBatchAsync(rows).join());
+        List<Student> all = memory.getAllStudents();
+
+        StudentQuery completed = StudentQuery.builder().status("Completed").build();
+        StudentCounts counts = StudentCounts.summary(memory, completed, MARCH_1,
+                List.of("Completed", "In progress")).join();
+
+        assertEquals(all.stream().filter(completed::matches).count(), counts.getTotal());
+        assertEquals(counts.getTotal(), counts.getStatusCount("Completed"));
+        // A different status than the filter's cannot match
+        assertEquals(0, counts.getStatusCount("In progress"));
+        assertEquals(all.stream().filter(s -> "Completed".equals(s.getStatus()) && s.getDueDate() != null
+                && s.getDueDate().compareTo(MARCH_1.toString()) < 0).count(), counts.getOverdue());
+
+        // Ranges that do not overlap count 0
+        StudentQuery overdue = StudentQuery.builder().dueOnOrBefore(MARCH_1.minusDays(1)).build();
+        assertEquals(0, StudentCounts.countDueBetween(memory, overdue, MARCH_1, MARCH_31).join());
+    }
+
+    @Test
+    public void testFirestoreRulesAndIndexes() throws IOException {
+        // A range can only be ordered by the same field
+        assertThrows(IllegalStateException.class, () -> StudentQuery.builder()
+                .dueOnOrAfter(MARCH_1).orderBy(SortField.UPDATED_AT, true).build());
+
+        // Equality only: served by single-field indexes
+        assertTrue(StudentQuery.builder().status("Completed").className("Math 101").build()
+                .requiredIndex().isEmpty());
+        assertEquals(List.of("status:ASCENDING", "className:ASCENDING", "dueDate:ASCENDING"),
+                StudentQuery.builder().className("Math 101").status("Completed")
+                        .dueOnOrBefore(MARCH_31).build().requiredIndex());
+
+        // The committed index file is the generated one
+        Path committed = Paths.get("..", "firestore.indexes.json");
+        assertTrue(Files.exists(committed), "firestore.indexes.json missing, run FirestoreIndexes");
+        assertEquals(FirestoreIndexes.toJson(), Files.readString(committed, StandardCharsets.UTF_8),
+                "firestore.indexes.json is out of date, run FirestoreIndexes");
+    }
+
+    private static List<Integer> ids(List<Student> students) {
+        List<Integer> ids = new ArrayList<>();
+        for (Student s : students) {
+            ids.add(s.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,38 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.repository.Timestamps;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the stored timestamp format.
+ * Delta sync compares these strings directly, so string order must match time order.
+ */
+public class TimestampsTest {
+
+    @Test
+    public void testFixedWidthFormat() {
+        assertEquals("2024-01-01T10:00:05.000Z",
+                Timestamps.format(Instant.parse("2024-01-01T10:00:05Z")));
+        assertEquals("2024-01-01T10:00:05.120Z",
+                Timestamps.format(Instant.parse("2024-01-01T10:00:05.12Z")));
+    }
+
+    @Test
+    public void testStringOrderMatchesTimeOrder() {
+        // Instant.toString() would give "...:05Z" and "...:05.120Z", which sort the wrong way.
+        String earlier = Timestamps.format(Instant.parse("2024-01-01T10:00:05Z"));
+        String later = Timestamps.format(Instant.parse("2024-01-01T10:00:05.120Z"));
+        assertTrue(earlier.compareTo(later) < 0);
+    }
+
+    @Test
+    public void testMinus() {
+        assertEquals("2024-01-01T09:59:35.000Z",
+                Timestamps.minus("2024-01-01T10:00:05.000Z", Duration.ofSeconds(30)));
+    }
+}
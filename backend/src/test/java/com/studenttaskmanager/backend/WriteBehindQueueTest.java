@@ -0,0 +1,195 @@
+package com.studenttaskmanager.backend;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.MutationJournal;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import com.studenttaskmanager.backend.repository.WriteBehindQueue;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the write-behind queue.
+ * A fake committer records every batch instead of talking to Firebase.
+ */
+public class WriteBehindQueueTest {
+
+    // Long interval so only explicit or size-triggered flushes happen.
+    private static final long NO_TIMER = 60_000;
+
+    private final List<List<StudentMutation>> batches = new ArrayList<>();
+
+    private CompletableFuture<Boolean> record(List<StudentMutation> batch) {
+        synchronized (batches) {
+            batches.add(batch);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    private static Student student(int id, String status) {
+        return new Student(id, "Student", "Task", "Math 101", "Homework", status);
+    }
+
+    @Test
+    public void testLastWriteWinsPerId() {
+        WriteBehindQueue queue = new WriteBehindQueue(this::record, 100, NO_TIMER);
+
+        queue.enqueue(StudentMutation.upsert(student(1, "Not started")));
+        queue.enqueue(StudentMutation.upsert(student(2, "Not started")));
+        queue.enqueue(StudentMutation.upsert(student(1, "Completed")));
+        queue.enqueue(StudentMutation.delete(2));
+        assertEquals(2, queue.pendingCount());
+
+        queue.flush().join();
+
+        assertEquals(1, batches.size());
+        List<StudentMutation> batch = batches.get(0);
+        assertEquals(2, batch.size());
+        assertEquals("Completed", batch.get(0).getStudent().getStatus());
+        assertEquals(StudentMutation.Type.DELETE, batch.get(1).getType());
+        assertEquals(0, queue.pendingCount());
+        queue.close();
+    }
+
+    @Test
+    public void testFieldUpdatesAreMergedAndOnlyTouchTheirFields() {
+        WriteBehindQueue queue = new WriteBehindQueue(this::record, 100, NO_TIMER);
+
+        Student one = student(1, "Completed");
+        queue.enqueue(StudentMutation.update(one, Set.of(StudentCodec.FIELD_STATUS)));
+        one.setTask("Homework 2");
+        queue.enqueue(StudentMutation.update(one, Set.of(StudentCodec.FIELD_TASK)));
+
+        // An update of a task that is not written yet stays a full write
+        queue.enqueue(StudentMutation.upsert(student(2, "Not started")));
+        queue.enqueue(StudentMutation.update(student(2, "Completed"), Set.of(StudentCodec.FIELD_STATUS)));
+        queue.flush().join();
+
+        List<StudentMutation> batch = batches.get(0);
+        assertEquals(StudentMutation.Type.UPDATE, batch.get(0).getType());
+        assertEquals(Set.of(StudentCodec.FIELD_STATUS, StudentCodec.FIELD_TASK), batch.get(0).getFields());
+        assertEquals(StudentMutation.Type.UPSERT, batch.get(1).getType());
+        assertEquals("Completed", batch.get(1).getStudent().getStatus());
+
+        // The update map carries only the changed fields plus updatedAt
+        assertEquals(Set.of("status", "task", "updatedAt"),
+                StudentCodec.toUpdateMap(one, batch.get(0).getFields()).keySet());
+
+        // Applied to a stored record, the other fields are left alone
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        repo.addStudent(new Student(1, "Ada", "Lovelace", "Math 101", "Homework", "Not started"));
+        repo.applyBatchAsync(List.of(batch.get(0))).join();
+        Student stored = repo.getAllStudents().get(0);
+        assertEquals("Ada", stored.getFirstName());
+        assertEquals("Homework 2", stored.getTask());
+        assertEquals("Completed", stored.getStatus());
+        queue.close();
+    }
+
+    @Test
+    public void testUpdateAfterDeleteKeepsTheDelete() {
+        WriteBehindQueue queue = new WriteBehindQueue(this::record, 100, NO_TIMER);
+
+        queue.enqueue(StudentMutation.delete(1));
+        // A late edit of the deleted task, e.g. from a dialog that was still open
+        queue.enqueue(StudentMutation.update(student(1, "Completed"), Set.of(StudentCodec.FIELD_STATUS)));
+        queue.flush().join();
+
+        List<StudentMutation> batch = batches.get(0);
+        assertEquals(1, batch.size());
+        assertEquals(StudentMutation.Type.DELETE, batch.get(0).getType());
+        assertNull(batch.get(0).getStudent());
+        queue.close();
+    }
+
+    @Test
+    public void testSizeTriggerFlushes() {
+        WriteBehindQueue queue = new WriteBehindQueue(this::record, 3, NO_TIMER);
+
+        for (int id = 1; id <= 3; id++) {
+            queue.enqueue(StudentMutation.upsert(student(id, "Not started")));
+        }
+        // The size-triggered flush is queued before this one, so it has finished.
+        queue.flush().join();
+
+        assertEquals(1, batches.size());
+        assertEquals(3, batches.get(0).size());
+        queue.close();
+    }
+
+    @Test
+    public void testCloseFlushesPendingWrites() {
+        WriteBehindQueue queue = new WriteBehindQueue(this::record, 100, NO_TIMER);
+        queue.enqueue(StudentMutation.delete(7));
+
+        queue.close();
+
+        assertEquals(1, batches.size());
+        assertThrows(IllegalStateException.class,
+                () -> queue.enqueue(StudentMutation.delete(8)));
+    }
+
+    @Test
+    public void testFailedBatchIsRetriedWithoutOverwritingNewerWrites() {
+        List<List<StudentMutation>> attempts = new ArrayList<>();
+        WriteBehindQueue queue = new WriteBehindQueue(batch -> {
+            attempts.add(batch);
+            // First attempt fails, later ones succeed.
+            return CompletableFuture.completedFuture(attempts.size() > 1);
+        }, 100, NO_TIMER);
+
+        queue.enqueue(StudentMutation.upsert(student(1, "Not started")));
+        queue.enqueue(StudentMutation.upsert(student(2, "Not started")));
+        assertFalse(queue.flush().join());
+
+        // A newer write for id 2 arrives before the retry.
+        queue.enqueue(StudentMutation.upsert(student(2, "Completed")));
+        assertTrue(queue.flush().join());
+
+        List<StudentMutation> retry = attempts.get(1);
+        assertEquals(2, retry.size());
+        assertEquals(1, retry.get(0).getId());
+        assertEquals("Completed", retry.get(1).getStudent().getStatus());
+        queue.close();
+    }
+
+    @Test
+    public void testNothingIsSentWhenTheJournalCannotBeWritten() throws Exception {
+        Path dir = Files.createTempDirectory("queue-journal-test");
+        MutationJournal journal = new MutationJournal(dir.resolve("mutations.journal")) {
+            @Override
+            public CompletableFuture<Void> sync() {
+                return CompletableFuture.failedFuture(new IOException("disk full"));
+            }
+        };
+        WriteBehindQueue queue = new WriteBehindQueue(this::record, 100, NO_TIMER, journal);
+        try {
+            queue.enqueue(StudentMutation.upsert(student(1, "Completed")));
+
+            assertFalse(queue.flush().join());
+            assertTrue(batches.isEmpty());
+            // Kept for the next flush, and not confirmed in the journal
+            assertEquals(1, queue.pendingCount());
+            assertEquals(0, journal.confirmedSequence());
+        } finally {
+            // Closes the journal too
+            queue.close();
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+}
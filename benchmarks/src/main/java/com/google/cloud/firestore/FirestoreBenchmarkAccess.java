@@ -0,0 +1,39 @@
+package com.google.cloud.firestore;
+
+import java.util.Map;
+
+/**
+ * Benchmark-only bridge into package-private Firestore internals.
+ *
+ * Lives in Firestore's own package so the benchmarks can build real
+ * {@link DocumentSnapshot} objects from field maps and call the
+ * reflection-based bean mapper directly, without a network connection.
+ * Works on the plain classpath (the benchmarks jar), not on the module path.
+ */
+public final class FirestoreBenchmarkAccess {
+
+    private FirestoreBenchmarkAccess() {
+    }
+
+    /**
+     * Builds a snapshot as if the document had been read from the server.
+     *
+     * @param db   Firestore client (no connection is made)
+     * @param ref  document the snapshot belongs to
+     * @param data field values
+     * @return snapshot holding the encoded fields
+     */
+    public static DocumentSnapshot snapshot(Firestore db, DocumentReference ref, Map<String, Object> data) {
+        return DocumentSnapshot.fromObject((FirestoreRpcContext<?>) db, ref, data, UserDataConverter.NO_DELETES);
+    }
+
+    /**
+     * What DocumentReference.set(bean) does to a POJO before writing it.
+     *
+     * @param bean object to convert
+     * @return plain Java map of field values
+     */
+    public static Object reflectiveEncode(Object bean) {
+        return CustomClassMapper.convertToPlainJavaTypes(bean);
+    }
+}
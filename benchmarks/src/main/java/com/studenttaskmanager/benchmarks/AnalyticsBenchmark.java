@@ -0,0 +1,74 @@
+package com.studenttaskmanager.benchmarks;
+
+import com.studenttaskmanager.backend.dataset.DatasetGenerator;
+import frontend.Service.TaskAggregator;
+import frontend.Service.TaskStatistics;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of keeping the Analytics screen up to date after one task change:
+ * a full recount with {@link TaskStatistics#compute} (what the screen
+ * used to do on every change) against the incremental
+ * {@link TaskAggregator} the screen binds to now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AnalyticsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    @Param({TaskStatistics.ALL_TASKS, TaskStatistics.OVERDUE, TaskStatistics.NEXT_7_DAYS})
+    public String filter;
+
+    private List<Task> tasks;
+
+    private ObservableList<Task> observed;
+    private TaskAggregator aggregator;
+    private Task extra;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = BenchmarkData.tasks(size);
+        observed = FXCollections.observableArrayList(tasks);
+        aggregator = new TaskAggregator(observed, BenchmarkData.TODAY);
+        aggregator.setFilter(filter);
+        extra = new Task(size + 1, "Extra task", DatasetGenerator.courseName(0),
+                BenchmarkData.TODAY, "High", "Not started", "");
+    }
+
+    @Benchmark
+    public TaskStatistics updateStats() {
+        return TaskStatistics.compute(tasks, filter, BenchmarkData.TODAY);
+    }
+
+    @Benchmark
+    public int updateStatsIncremental() {
+        // One task added and removed again, with the counters read after each
+        observed.add(extra);
+        int total = aggregator.totalProperty().get();
+        observed.remove(observed.size() - 1);
+        return total + aggregator.totalProperty().get();
+    }
+}
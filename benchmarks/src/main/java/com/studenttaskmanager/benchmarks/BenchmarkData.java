@@ -0,0 +1,56 @@
+package com.studenttaskmanager.benchmarks;
+
+import com.studenttaskmanager.backend.dataset.DatasetGenerator;
+import com.studenttaskmanager.backend.models.Student;
+import frontend.model.Task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic datasets shared by the benchmarks, built with {@link DatasetGenerator}.
+ *
+ * A fixed seed makes every run (and every machine) see exactly the same
+ * data, so numbers before and after a change can be compared directly.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42L;
+
+    // Fixed "today" so date-based results do not change from day to day.
+    static final LocalDate TODAY = LocalDate.of(2025, 3, 15);
+
+    private static final int COURSES = 40;
+
+    private BenchmarkData() {
+    }
+
+    static DatasetGenerator generator(int size) {
+        return new DatasetGenerator()
+                .size(size)
+                .courses(COURSES)
+                .dueDates(DatasetGenerator.DueDateDistribution.UNIFORM, TODAY, 180)
+                .seed(SEED);
+    }
+
+    /**
+     * UI tasks with ids 1..size, due dates spread over one year around {@link #TODAY}.
+     */
+    static List<Task> tasks(int size) {
+        List<DatasetGenerator.Record> records = generator(size).records();
+        List<Task> tasks = new ArrayList<>(records.size());
+        for (DatasetGenerator.Record r : records) {
+            tasks.add(new Task(r.getId(), r.getTitle(), r.getCourse(), r.getDueDate(),
+                    r.getPriority(), r.getStatus(), r.getNotes()));
+        }
+        return tasks;
+    }
+
+    /**
+     * Backend records matching {@link #tasks(int)}.
+     */
+    static List<Student> students(int size) {
+        return generator(size).students();
+    }
+}
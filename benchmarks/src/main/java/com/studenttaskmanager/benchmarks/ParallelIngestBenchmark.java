@@ -0,0 +1,142 @@
+package com.studenttaskmanager.benchmarks;
+
+import com.studenttaskmanager.backend.repository.DocumentKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bulk import of new tasks by several parallel writers, with plain and
+ * hashed document ids ({@link DocumentKeys}).
+ *
+ * Firestore cannot be measured offline, so this models how it stores a
+ * collection: documents sorted by id and split into key ranges
+ * ("tablets"), each range accepting one write at a time. The ranges are
+ * split evenly over the documents already stored (ids 20000..59999), and
+ * then ids 60000..61999 are imported, like a semester import or a restore.
+ *
+ * With plain ids every new document sorts after all existing ones, so all
+ * writers queue on the last range and adding writers does not help. With
+ * hashed ids the new documents land in every range and throughput grows
+ * with the number of writers (up to the number of ranges).
+ *
+ * Score is documents per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelIngestBenchmark {
+
+    // Documents already in the collection: ids 20000..59999 (five digits,
+    // so text order is number order for plain ids)
+    private static final int FIRST_ID = 20_000;
+    private static final int EXISTING = 40_000;
+
+    // Documents imported per benchmark call
+    private static final int IMPORT = 2_000;
+
+    // Key ranges the collection is split into
+    private static final int RANGES = 16;
+
+    // Time a range is busy per write. It waits instead of using CPU: the
+    // work happens on the server, and the writers only wait for it.
+    private static final long WRITE_NANOS = 20_000;
+
+    @Param({"PLAIN", "HASHED"})
+    public DocumentKeys.Scheme keys;
+
+    @Param({"1", "4", "8"})
+    public int writers;
+
+    // First key of ranges 1..RANGES-1 (range 0 starts at the smallest key)
+    private String[] splitPoints;
+    private Object[] rangeLocks;
+    private ExecutorService pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] existing = new String[EXISTING];
+        for (int i = 0; i < EXISTING; i++) {
+            existing[i] = DocumentKeys.key(FIRST_ID + i, keys);
+        }
+        Arrays.sort(existing);
+
+        splitPoints = new String[RANGES - 1];
+        for (int r = 1; r < RANGES; r++) {
+            splitPoints[r - 1] = existing[r * EXISTING / RANGES];
+        }
+        rangeLocks = new Object[RANGES];
+        for (int r = 0; r < RANGES; r++) {
+            rangeLocks[r] = new Object();
+        }
+        pool = Executors.newFixedThreadPool(writers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IMPORT)
+    public int parallelImport() throws Exception {
+        List<Callable<Integer>> work = new ArrayList<>(writers);
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            work.add(() -> {
+                int written = 0;
+                // Writers take turns through the new ids, like a parallel importer
+                for (int i = writer; i < IMPORT; i += writers) {
+                    write(DocumentKeys.key(FIRST_ID + EXISTING + i, keys));
+                    written++;
+                }
+                return written;
+            });
+        }
+
+        int total = 0;
+        for (Future<Integer> done : pool.invokeAll(work)) {
+            total += done.get();
+        }
+        return total;
+    }
+
+    /**
+     * One document write: the range holding the key is busy for WRITE_NANOS.
+     */
+    private void write(String key) {
+        synchronized (rangeLocks[rangeOf(key)]) {
+            LockSupport.parkNanos(WRITE_NANOS);
+        }
+    }
+
+    private int rangeOf(String key) {
+        int pos = Arrays.binarySearch(splitPoints, key);
+        // Found: the key starts range pos + 1; not found: it sorts into range (insertion point)
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+}
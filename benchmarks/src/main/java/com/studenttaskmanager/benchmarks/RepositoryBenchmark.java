@@ -0,0 +1,84 @@
+package com.studenttaskmanager.benchmarks;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository calls made by TaskService, against the in-process
+ * {@link InMemoryStudentRepository}. This measures our own code around
+ * the storage (copying, paging, batching, async hand-off), not the network.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RepositoryBenchmark {
+
+    // Same values TaskService uses.
+    private static final int PAGE_SIZE = 300;
+    private static final int WRITE_BATCH_SIZE = 200;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private StudentRepository repo;
+    private List<StudentMutation> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Student> students = BenchmarkData.students(size);
+        repo = new InMemoryStudentRepository();
+
+        List<StudentMutation> load = new ArrayList<>(students.size());
+        for (Student s : students) {
+            load.add(StudentMutation.upsert(s));
+        }
+        repo.applyBatchAsync(load).join();
+
+        // A typical write-behind flush: overwrite WRITE_BATCH_SIZE existing records.
+        batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        for (int i = 0; i < Math.min(WRITE_BATCH_SIZE, students.size()); i++) {
+            batch.add(StudentMutation.upsert(students.get(i)));
+        }
+    }
+
+    @Benchmark
+    public List<Student> getAllStudents() {
+        return repo.getAllStudentsAsync().join();
+    }
+
+    @Benchmark
+    public int pagedLoad() {
+        return repo.getAllStudentsPagedAsync(PAGE_SIZE, page -> { }).join();
+    }
+
+    @Benchmark
+    public List<Student> getStudentsByStatus() {
+        return repo.getStudentsByStatusAsync("Completed").join();
+    }
+
+    @Benchmark
+    public boolean applyBatch() {
+        return repo.applyBatchAsync(batch).join();
+    }
+}
@@ -0,0 +1,126 @@
+package com.studenttaskmanager.benchmarks;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreBenchmarkAccess;
+import com.google.cloud.firestore.FirestoreOptions;
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link StudentCodec} with Firestore's reflection-based bean mapper.
+ *
+ * Each operation maps a whole page of "size" documents, the way a
+ * collection load does:
+ *  - read:  doc.toObject(Student.class) vs StudentCodec.fromSnapshot(doc)
+ *  - write: the POJO conversion done by set(student) vs StudentCodec.toMap(student)
+ *
+ * Snapshots are built in memory from real Firestore encodings, so no
+ * server or credentials are needed. The reflective read uses documents
+ * without "schemaVersion" (as written before the codec existed) so the
+ * bean mapper does not log an unknown-field warning on every call.
+ *
+ * Run: java -jar benchmarks/target/benchmarks.jar StudentCodecBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentCodecBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private Firestore db;
+    private List<Student> students;
+    private List<DocumentSnapshot> legacySnapshots;
+    private List<DocumentSnapshot> codecSnapshots;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The client is only used to build snapshots; the emulator host
+        // avoids any credential lookup and no request is ever sent.
+        db = FirestoreOptions.newBuilder()
+                .setProjectId("benchmark")
+                .setCredentials(NoCredentials.getInstance())
+                .setEmulatorHost("localhost:8080")
+                .build()
+                .getService();
+        CollectionReference collection = db.collection("students");
+
+        students = new ArrayList<>(size);
+        legacySnapshots = new ArrayList<>(size);
+        codecSnapshots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Student s = new Student(10000 + i, "Student", "Task",
+                    "Course " + (i % 25), "Homework " + i, i % 3 == 0 ? "Completed" : "In Progress");
+            s.setCreatedAt("2025-01-01T00:00:00.000Z");
+            s.setUpdatedAt("2025-01-02T00:00:00.000Z");
+            students.add(s);
+
+            Map<String, Object> fields = StudentCodec.toMap(s);
+            codecSnapshots.add(FirestoreBenchmarkAccess.snapshot(db,
+                    collection.document(String.valueOf(s.getId())), fields));
+
+            fields.remove(StudentCodec.FIELD_SCHEMA_VERSION);
+            legacySnapshots.add(FirestoreBenchmarkAccess.snapshot(db,
+                    collection.document(String.valueOf(s.getId())), fields));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Benchmark
+    public void readReflective(Blackhole bh) {
+        for (DocumentSnapshot doc : legacySnapshots) {
+            bh.consume(doc.toObject(Student.class));
+        }
+    }
+
+    @Benchmark
+    public void readCodec(Blackhole bh) {
+        for (DocumentSnapshot doc : codecSnapshots) {
+            bh.consume(StudentCodec.fromSnapshot(doc));
+        }
+    }
+
+    @Benchmark
+    public void writeReflective(Blackhole bh) {
+        for (Student s : students) {
+            bh.consume(FirestoreBenchmarkAccess.reflectiveEncode(s));
+        }
+    }
+
+    @Benchmark
+    public void writeCodec(Blackhole bh) {
+        for (Student s : students) {
+            bh.consume(StudentCodec.toMap(s));
+        }
+    }
+}
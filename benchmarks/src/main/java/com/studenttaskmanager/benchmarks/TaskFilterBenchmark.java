@@ -0,0 +1,101 @@
+package com.studenttaskmanager.benchmarks;
+
+import frontend.Service.TaskFilter;
+import frontend.Service.TaskSearchIndex;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Predicate evaluation behind TasksController.applyFilters: one operation
+ * builds the filter and runs it over every task, like FilteredList does
+ * after each keystroke in the search box. applyFilter searches the text
+ * of every task; applyFilterIndexed resolves the search text through
+ * {@link TaskSearchIndex} first, like the Tasks screen does now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskFilterBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * search: text only, status: status + priority only, combined: all three.
+     */
+    @Param({"search", "status", "combined"})
+    public String scenario;
+
+    private List<Task> tasks;
+    private TaskSearchIndex index;
+
+    private String search;
+    private String status;
+    private String priority;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = BenchmarkData.tasks(size);
+        index = new TaskSearchIndex(FXCollections.observableArrayList(tasks));
+        switch (scenario) {
+            case "search":
+                search = "essay 12";
+                status = TaskFilter.ALL;
+                priority = TaskFilter.ALL;
+                break;
+            case "status":
+                search = "";
+                status = "In progress";
+                priority = "High";
+                break;
+            default:
+                search = "course 11";
+                status = "Completed";
+                priority = "Low";
+                break;
+        }
+    }
+
+    @Benchmark
+    public int applyFilter() {
+        return count(TaskFilter.of(search, status, priority));
+    }
+
+    @Benchmark
+    public int applyFilterIndexed() {
+        return count(TaskFilter.of(search, status, priority, index));
+    }
+
+    private int count(TaskFilter filter) {
+        int matches = 0;
+        for (Task t : tasks) {
+            if (filter.test(t)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int searchOnly() {
+        return index.search(search).size();
+    }
+}
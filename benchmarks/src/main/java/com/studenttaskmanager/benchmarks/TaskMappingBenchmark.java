@@ -0,0 +1,60 @@
+package com.studenttaskmanager.benchmarks;
+
+import com.studenttaskmanager.backend.models.Student;
+import frontend.Service.TaskMapper;
+import frontend.model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student <-> Task mapping done by TaskService on every load, sync and save
+ * (see {@link TaskMapper}). One operation maps the whole dataset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TaskMappingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Student> students;
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+        tasks = BenchmarkData.tasks(size);
+    }
+
+    @Benchmark
+    public void fromStudent(Blackhole bh) {
+        for (Student s : students) {
+            bh.consume(TaskMapper.fromStudent(s));
+        }
+    }
+
+    @Benchmark
+    public void toStudent(Blackhole bh) {
+        for (Task t : tasks) {
+            bh.consume(TaskMapper.toStudent(t));
+        }
+    }
+}
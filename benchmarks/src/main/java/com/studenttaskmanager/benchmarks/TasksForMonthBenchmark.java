@@ -0,0 +1,86 @@
+package com.studenttaskmanager.benchmarks;
+
+import frontend.Service.TaskFilter;
+import frontend.Service.TaskIndex;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Month and day lookups behind the calendar and the monthly report:
+ * a linear scan ({@link TaskFilter#dueInMonth}) against the due-date
+ * index ({@link TaskIndex}) that TaskService.getTasksForMonth now uses.
+ * The calendar methods look up every day of the month, like one render
+ * of the calendar screen.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TasksForMonthBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private List<Task> tasks;
+    private TaskIndex index;
+    private final YearMonth month = YearMonth.from(BenchmarkData.TODAY);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = BenchmarkData.tasks(size);
+        index = new TaskIndex(FXCollections.observableArrayList(tasks));
+    }
+
+    @Benchmark
+    public List<Task> tasksForMonth() {
+        return TaskFilter.dueInMonth(tasks, month);
+    }
+
+    @Benchmark
+    public List<Task> tasksForMonthIndexed() {
+        return index.dueBetween(month.atDay(1), month.atEndOfMonth());
+    }
+
+    @Benchmark
+    public int calendarRenderScan() {
+        // What the calendar did before: one full pass per day cell
+        int found = 0;
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            LocalDate date = month.atDay(day);
+            for (Task t : tasks) {
+                if (t.getDueDate() != null && t.getDueDate().isEqual(date)) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int calendarRenderIndexed() {
+        int found = 0;
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            found += index.dueOn(month.atDay(day)).size();
+        }
+        return found;
+    }
+}
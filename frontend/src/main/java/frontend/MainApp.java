@@ -1,6 +1,10 @@
 package frontend;
 
+import frontend.Service.TaskService;
 import frontend.Service.ThemeManager;
+import frontend.Service.UserSession;
+import frontend.controller.SidebarController;
+import frontend.util.ViewRegistry;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -14,18 +18,32 @@ import java.io.IOException;
  *
  * This class handles:
  *  - initial startup of the program
- *  - loading the first screen (Login)
+ *  - loading the first screen (Splash, then Login)
  *  - global scene management
  *  - switching between screens without losing the active theme
  *
  * The entire frontend uses ONE shared Scene, and only the root node changes.
  * This makes theme switching simpler and avoids creating new windows.
+ *
+ * The main screens (dashboard, tasks, calendar, analytics, settings) are
+ * loaded once and kept in a {@link ViewRegistry}; after login they are
+ * preloaded in the background, so switching screens is close to instant.
+ * Login, signup and the add/edit form are loaded fresh every time.
  */
 public class MainApp extends Application {
 
     /** Main window reference so all controllers can request screen changes. */
     private static Stage primaryStage;
 
+    /** Cached main screens (see {@link #preloadMainScreens()}). */
+    private static final ViewRegistry views = new ViewRegistry();
+
+    private static final String DASHBOARD = "/frontend/fxml/Dashboard.fxml";
+    private static final String TASKS = "/frontend/fxml/Tasks.fxml";
+    private static final String CALENDAR = "/frontend/fxml/Calendar.fxml";
+    private static final String ANALYTICS = "/frontend/fxml/Analytics.fxml";
+    private static final String SETTINGS = "/frontend/fxml/Settings.fxml";
+
     /**
      * Allows other classes (like controllers) to access the main window.
      */
@@ -35,7 +53,8 @@ public class MainApp extends Application {
 
     /**
      * Called when the JavaFX app starts.
-     * Sets up the primary stage, loads the login screen,
+     * Sets up the primary stage, shows the splash screen (which runs the
+     * startup work and then opens the login screen, see SplashController),
      * attaches the main stylesheet, and applies the default theme.
      */
     @Override
@@ -43,7 +62,7 @@ public class MainApp extends Application {
         primaryStage = stage;
 
         Parent root = FXMLLoader.load(
-                MainApp.class.getResource("/frontend/fxml/Login.fxml"));
+                MainApp.class.getResource("/frontend/fxml/Splash.fxml"));
 
         Scene scene = new Scene(root);
 
@@ -61,6 +80,61 @@ public class MainApp extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Called when the JavaFX app is closing.
+     * Makes sure all queued task changes are written to Firebase first.
+     */
+    @Override
+    public void stop() {
+        TaskService.shutdown();
+    }
+
+    /**
+     * Starts loading the main screens on a background thread, so the first
+     * visit of each one does not wait for FXML parsing. Called after login.
+     */
+    public static void preloadMainScreens() {
+        views.preload(TASKS, CALENDAR, ANALYTICS, SETTINGS);
+    }
+
+    /**
+     * Drops the cached screens, so the next user gets fresh ones.
+     * Called on logout.
+     */
+    public static void clearScreenCache() {
+        views.clear();
+    }
+
+    /**
+     * Logs the current user out and returns to the login screen.
+     * <p>
+     * Used by every logout button, so they all stop live task updates,
+     * clear the {@link UserSession}, reset the sidebar selection and drop
+     * the cached screens in the same way.
+     */
+    public static void logout() {
+        TaskService.stopLiveSync();
+        UserSession.clear();
+        SidebarController.resetSelection();
+        clearScreenCache();
+        showLogin();
+    }
+
+    /**
+     * Shows a cached main screen, loading it first if it is not cached yet.
+     * The screen refreshes itself when it is put on screen (see
+     * {@link frontend.util.ViewLifecycle#whenShown}).
+     *
+     * @param fxmlPath path to the FXML file inside /resources/frontend/fxml/
+     */
+    private static void showCached(String fxmlPath) {
+        try {
+            showRoot(views.get(fxmlPath).getRoot());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Replaces the root of the current Scene with a new FXML layout.
      * Keeps the same Scene and reapplies the active theme.
@@ -69,49 +143,53 @@ public class MainApp extends Application {
      */
     private static void setRoot(String fxmlPath) {
         try {
-            Parent root = FXMLLoader.load(MainApp.class.getResource(fxmlPath));
-
-            Scene scene = primaryStage.getScene();
-
-            // If the scene does not exist yet (should not happen normally)
-            if (scene == null) {
-                scene = new Scene(root);
-                scene.getStylesheets().clear();
-                scene.getStylesheets().add(
-                        MainApp.class.getResource("/frontend/css/styles.css").toExternalForm()
-                );
-                primaryStage.setScene(scene);
-            } else {
-                // Swap the root node but keep the Scene
-                scene.setRoot(root);
-            }
-
-            // Reapply the active theme so the new screen matches the previous one
-            ThemeManager.applyTheme(root, ThemeManager.getCurrentTheme());
-
+            showRoot(FXMLLoader.load(MainApp.class.getResource(fxmlPath)));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * Puts the given root into the shared Scene and reapplies the active theme.
+     */
+    private static void showRoot(Parent root) {
+        Scene scene = primaryStage.getScene();
+
+        // If the scene does not exist yet (should not happen normally)
+        if (scene == null) {
+            scene = new Scene(root);
+            scene.getStylesheets().clear();
+            scene.getStylesheets().add(
+                    MainApp.class.getResource("/frontend/css/styles.css").toExternalForm()
+            );
+            primaryStage.setScene(scene);
+        } else {
+            // Swap the root node but keep the Scene
+            scene.setRoot(root);
+        }
+
+        // Reapply the active theme so the new screen matches the previous one
+        ThemeManager.applyTheme(root, ThemeManager.getCurrentTheme());
+    }
+
     // ------------------------------
     //          Navigation
     // ------------------------------
 
     /** Show the dashboard screen. */
-    public static void showDashboard() { setRoot("/frontend/fxml/Dashboard.fxml"); }
+    public static void showDashboard() { showCached(DASHBOARD); }
 
     /** Show the tasks screen. */
-    public static void showTasks() { setRoot("/frontend/fxml/Tasks.fxml"); }
+    public static void showTasks() { showCached(TASKS); }
 
     /** Show the calendar screen. */
-    public static void showCalendar() { setRoot("/frontend/fxml/Calendar.fxml"); }
+    public static void showCalendar() { showCached(CALENDAR); }
 
     /** Show the analytics screen. */
-    public static void showAnalytics() { setRoot("/frontend/fxml/Analytics.fxml"); }
+    public static void showAnalytics() { showCached(ANALYTICS); }
 
     /** Show the settings screen. */
-    public static void showSettings() { setRoot("/frontend/fxml/Settings.fxml"); }
+    public static void showSettings() { showCached(SETTINGS); }
 
     /** Show the login screen. */
     public static void showLogin() { setRoot("/frontend/fxml/Login.fxml"); }
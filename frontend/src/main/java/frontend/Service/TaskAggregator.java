@@ -0,0 +1,380 @@
+package frontend.Service;
+
+import frontend.model.Task;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the Analytics screen numbers up to date as the task list changes.
+ * <p>
+ * {@link TaskStatistics#compute} walks every task, and the Analytics
+ * screen used to call it on each list change. While tasks are loading
+ * that is one full pass per page (or per task), so the work grows with
+ * the square of the list size. This class instead listens to the list
+ * and only adjusts a few counters for the tasks that were added or
+ * removed.
+ * <p>
+ * Every task is counted in one cell of a small table:
+ * status (completed / in progress / not started / other) by due bucket
+ * (overdue / today / next 7 days / later / no date). Each analytics
+ * filter is a set of rows or columns of that table, so the numbers for
+ * any filter come from at most 20 cells, no matter how many tasks there
+ * are. Per-priority and per-course counts are kept as well.
+ * <p>
+ * The numbers for the selected filter are published as read-only
+ * properties the screen can bind to. They change once per list change,
+ * not once per task.
+ * <p>
+ * Like {@link TaskIndex}, a task edited in place is recounted from the
+ * list's update change (see {@link Task#extractor()}); lists without an
+ * extractor need a call to {@link #reindex(Task)}.
+ * Only use this on the JavaFX application thread.
+ */
+public final class TaskAggregator {
+
+    // Table rows: status
+    private static final int COMPLETED = 0;
+    private static final int IN_PROGRESS = 1;
+    private static final int NOT_STARTED = 2;
+    private static final int OTHER_STATUS = 3;
+    private static final int STATUSES = 4;
+
+    // Table columns: due bucket
+    private static final int OVERDUE = 0;
+    private static final int TODAY = 1;
+    private static final int NEXT_7_DAYS = 2;
+    private static final int LATER = 3;
+    private static final int NO_DATE = 4;
+    private static final int BUCKETS = 5;
+
+    private final int[][] cells = new int[STATUSES][BUCKETS];
+
+    // Lower-case value -> number of tasks
+    private final Map<String, Integer> byPriority = new HashMap<>();
+    private final Map<String, Integer> byCourse = new HashMap<>();
+
+    // The keys each task was counted under (see TaskIndex)
+    private final Map<Task, Keys> counted = new IdentityHashMap<>();
+
+    private final ObservableList<Task> source;
+    private LocalDate today;
+    private String filter = TaskStatistics.ALL_TASKS;
+
+    // Numbers for the selected filter
+    private final ReadOnlyIntegerWrapper total = new ReadOnlyIntegerWrapper(this, "total");
+    private final ReadOnlyIntegerWrapper completed = new ReadOnlyIntegerWrapper(this, "completed");
+    private final ReadOnlyIntegerWrapper inProgress = new ReadOnlyIntegerWrapper(this, "inProgress");
+    private final ReadOnlyIntegerWrapper notStarted = new ReadOnlyIntegerWrapper(this, "notStarted");
+    private final ReadOnlyIntegerWrapper overdue = new ReadOnlyIntegerWrapper(this, "overdue");
+    private final ReadOnlyIntegerWrapper dueToday = new ReadOnlyIntegerWrapper(this, "dueToday");
+    private final ReadOnlyIntegerWrapper dueNextWeek = new ReadOnlyIntegerWrapper(this, "dueNextWeek");
+
+    /**
+     * Counts the current content of the list and keeps following it.
+     *
+     * @param source the task list
+     * @param today  the date "overdue", "today" and "next 7 days" are relative to
+     */
+    public TaskAggregator(ObservableList<Task> source, LocalDate today) {
+        this.source = source;
+        this.today = today;
+        countAll();
+        source.addListener((ListChangeListener<Task>) this::onChanged);
+        publish();
+    }
+
+    // --------------------
+    // Settings
+    // --------------------
+
+    /**
+     * Selects the analytics filter the properties report on
+     * (one of the {@link TaskStatistics} filter labels; null means all tasks).
+     */
+    public void setFilter(String filter) {
+        this.filter = filter != null ? filter : TaskStatistics.ALL_TASKS;
+        publish();
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    /**
+     * Moves "today". The due buckets depend on it, so this recounts
+     * every task, but only when the date really changed.
+     */
+    public void setToday(LocalDate today) {
+        if (today.equals(this.today)) {
+            return;
+        }
+        this.today = today;
+        for (int[] row : cells) {
+            Arrays.fill(row, 0);
+        }
+        byPriority.clear();
+        byCourse.clear();
+        counted.clear();
+        countAll();
+        publish();
+    }
+
+    public LocalDate getToday() {
+        return today;
+    }
+
+    // --------------------
+    // Results
+    // --------------------
+
+    /**
+     * Numbers for any filter, worked out from the counters
+     * (same result as {@link TaskStatistics#compute} over the whole list).
+     */
+    public TaskStatistics statistics(String filter) {
+        int total = 0;
+        int[] perStatus = new int[STATUSES];
+        int[] perBucket = new int[BUCKETS];
+
+        for (int s = 0; s < STATUSES; s++) {
+            for (int b = 0; b < BUCKETS; b++) {
+                if (matches(filter, s, b)) {
+                    total += cells[s][b];
+                    perStatus[s] += cells[s][b];
+                    perBucket[b] += cells[s][b];
+                }
+            }
+        }
+
+        return new TaskStatistics(total, perStatus[COMPLETED], perStatus[IN_PROGRESS],
+                perStatus[NOT_STARTED], perBucket[OVERDUE], perBucket[TODAY], perBucket[NEXT_7_DAYS]);
+    }
+
+    /**
+     * Number of tasks with the given priority (case-insensitive).
+     */
+    public int countWithPriority(String priority) {
+        return byPriority.getOrDefault(key(priority), 0);
+    }
+
+    /**
+     * Number of tasks in the given course (case-insensitive).
+     */
+    public int countForCourse(String course) {
+        return byCourse.getOrDefault(key(course), 0);
+    }
+
+    /**
+     * Number of different courses.
+     */
+    public int courseCount() {
+        return byCourse.size();
+    }
+
+    public ReadOnlyIntegerProperty totalProperty() {
+        return total.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty completedProperty() {
+        return completed.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty inProgressProperty() {
+        return inProgress.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty notStartedProperty() {
+        return notStarted.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty overdueProperty() {
+        return overdue.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty dueTodayProperty() {
+        return dueToday.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty dueNextWeekProperty() {
+        return dueNextWeek.getReadOnlyProperty();
+    }
+
+    // --------------------
+    // Updates
+    // --------------------
+
+    /**
+     * Recounts a task after its fields were changed in place.
+     * Does nothing for a task that is not in the list.
+     */
+    public void reindex(Task task) {
+        if (task == null || !counted.containsKey(task)) {
+            return;
+        }
+        remove(task);
+        add(task);
+        publish();
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    Task t = change.getList().get(i);
+                    remove(t);
+                    add(t);
+                }
+                continue;
+            }
+            for (Task t : change.getRemoved()) {
+                remove(t);
+            }
+            if (change.wasAdded()) {
+                for (Task t : change.getAddedSubList()) {
+                    add(t);
+                }
+            }
+        }
+        // Once per change, however many tasks it touched
+        publish();
+    }
+
+    private void countAll() {
+        for (Task t : source) {
+            add(t);
+        }
+    }
+
+    private void add(Task task) {
+        if (task == null || counted.containsKey(task)) {
+            return;
+        }
+        Keys keys = new Keys(statusRow(task.getStatus()), bucket(task.getDueDate()),
+                key(task.getPriority()), key(task.getCourse()));
+        counted.put(task, keys);
+
+        cells[keys.status][keys.bucket]++;
+        if (keys.priority != null) {
+            byPriority.merge(keys.priority, 1, Integer::sum);
+        }
+        if (keys.course != null) {
+            byCourse.merge(keys.course, 1, Integer::sum);
+        }
+    }
+
+    private void remove(Task task) {
+        if (task == null) {
+            return;
+        }
+        Keys keys = counted.remove(task);
+        if (keys == null) {
+            return;
+        }
+
+        cells[keys.status][keys.bucket]--;
+        if (keys.priority != null) {
+            decrement(byPriority, keys.priority);
+        }
+        if (keys.course != null) {
+            decrement(byCourse, keys.course);
+        }
+    }
+
+    private void publish() {
+        TaskStatistics stats = statistics(filter);
+        total.set(stats.getTotal());
+        completed.set(stats.getCompleted());
+        inProgress.set(stats.getInProgress());
+        notStarted.set(stats.getNotStarted());
+        overdue.set(stats.getOverdue());
+        dueToday.set(stats.getDueToday());
+        dueNextWeek.set(stats.getDueNextWeek());
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    // Same rules as TaskStatistics.compute / matchesFilter
+    private static int statusRow(String status) {
+        String s = status != null ? status : "";
+        if (s.equalsIgnoreCase("Completed")) return COMPLETED;
+        if (s.equalsIgnoreCase("In progress")) return IN_PROGRESS;
+        if (s.equalsIgnoreCase("Not started")) return NOT_STARTED;
+        return OTHER_STATUS;
+    }
+
+    private int bucket(LocalDate due) {
+        if (due == null) return NO_DATE;
+        if (due.isBefore(today)) return OVERDUE;
+        if (due.isEqual(today)) return TODAY;
+        if (!due.isAfter(today.plusDays(7))) return NEXT_7_DAYS;
+        return LATER;
+    }
+
+    private static boolean matches(String filter, int status, int bucket) {
+        if (filter == null) {
+            return true;
+        }
+        switch (filter) {
+            case TaskStatistics.COMPLETED:
+                return status == COMPLETED;
+            case TaskStatistics.IN_PROGRESS:
+                return status == IN_PROGRESS;
+            case TaskStatistics.NOT_STARTED:
+                return status == NOT_STARTED;
+            case TaskStatistics.OVERDUE:
+                return bucket == OVERDUE;
+            case TaskStatistics.TODAY:
+                return bucket == TODAY;
+            case TaskStatistics.NEXT_7_DAYS:
+                return bucket == NEXT_7_DAYS;
+            default:
+                return true;
+        }
+    }
+
+    private static void decrement(Map<String, Integer> counts, String key) {
+        Integer n = counts.get(key);
+        if (n == null) {
+            return;
+        }
+        if (n <= 1) {
+            counts.remove(key);
+        } else {
+            counts.put(key, n - 1);
+        }
+    }
+
+    private static String key(String value) {
+        return value != null ? value.trim().toLowerCase() : null;
+    }
+
+    /**
+     * Where a task was counted.
+     */
+    private static final class Keys {
+        final int status;
+        final int bucket;
+        final String priority;
+        final String course;
+
+        Keys(int status, int bucket, String priority, String course) {
+            this.status = status;
+            this.bucket = bucket;
+            this.priority = priority;
+            this.course = course;
+        }
+    }
+}
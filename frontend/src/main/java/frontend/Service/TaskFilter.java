@@ -0,0 +1,134 @@
+package frontend.Service;
+
+import frontend.model.Task;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Search / status / priority filter used by the Tasks screen.
+ * <p>
+ * The filter values are read once when the filter is created, so testing
+ * a task does not touch any UI control. "All" (or an empty search text)
+ * means that part of the filter is switched off.
+ * <p>
+ * The search text matches any part of the title, course or notes. When a
+ * {@link TaskSearchIndex} is given, the matching tasks are looked up once
+ * when the filter is created, and testing a task is a set lookup instead
+ * of a text search.
+ */
+public final class TaskFilter implements Predicate<Task> {
+
+    public static final String ALL = "All";
+
+    private final String searchText;   // lower case, trimmed
+    private final String status;
+    private final String priority;
+
+    // Tasks matching the search text, from the search index (null = check the text)
+    private final Set<Task> searchMatches;
+
+    private TaskFilter(String searchText, String status, String priority, Set<Task> searchMatches) {
+        this.searchText = searchText;
+        this.status = status;
+        this.priority = priority;
+        this.searchMatches = searchMatches;
+    }
+
+    /**
+     * Creates a filter from the raw values of the search box and combo boxes.
+     *
+     * @param searchText text typed in the search box (may be null)
+     * @param status     selected status, null or "All" for every status
+     * @param priority   selected priority, null or "All" for every priority
+     * @return the filter
+     */
+    public static TaskFilter of(String searchText, String status, String priority) {
+        return of(searchText, status, priority, null);
+    }
+
+    /**
+     * Same as {@link #of(String, String, String)}, but the search text is
+     * resolved through the search index right away.
+     *
+     * @param index search index over the tasks that will be tested (may be null)
+     */
+    public static TaskFilter of(String searchText, String status, String priority,
+                                TaskSearchIndex index) {
+        String search = searchText != null ? searchText.toLowerCase().trim() : "";
+        Set<Task> matches = index != null && !search.isEmpty() ? index.search(search) : null;
+        return new TaskFilter(
+                search,
+                status != null ? status : ALL,
+                priority != null ? priority : ALL,
+                matches);
+    }
+
+    /**
+     * True if the task matches the search text (title, course or notes),
+     * the status and the priority.
+     */
+    @Override
+    public boolean test(Task task) {
+        if (task == null) return false;
+
+        // Search by title, course or notes
+        if (searchMatches != null) {
+            if (!searchMatches.contains(task)) {
+                return false;
+            }
+        } else if (!searchText.isEmpty()) {
+            String title = task.getTitle() != null ? task.getTitle().toLowerCase() : "";
+            String course = task.getCourse() != null ? task.getCourse().toLowerCase() : "";
+            String notes = task.getNotes() != null ? task.getNotes().toLowerCase() : "";
+            if (!title.contains(searchText) && !course.contains(searchText)
+                    && !notes.contains(searchText)) {
+                return false;
+            }
+        }
+
+        // Status filter
+        if (!ALL.equals(status)) {
+            String s = task.getStatus() != null ? task.getStatus() : "";
+            if (!s.equalsIgnoreCase(status)) {
+                return false;
+            }
+        }
+
+        // Priority filter
+        if (!ALL.equals(priority)) {
+            String p = task.getPriority() != null ? task.getPriority() : "";
+            if (!p.equalsIgnoreCase(priority)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the tasks whose due date falls in the given month.
+     *
+     * @param tasks tasks to scan
+     * @param month month to match
+     * @return matching tasks in list order
+     */
+    public static List<Task> dueInMonth(Iterable<Task> tasks, YearMonth month) {
+        List<Task> result = new ArrayList<>();
+
+        for (Task t : tasks) {
+            if (t == null) continue;
+
+            LocalDate d = t.getDueDate();
+            if (d != null && YearMonth.from(d).equals(month)) {
+                result.add(t);
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,201 @@
+package frontend.Service;
+
+import frontend.model.Task;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the Tasks screen filter in the background, so typing in the
+ * search box never waits for the filter.
+ * <p>
+ * Setting a new predicate on a FilteredList tests every task right away,
+ * on the JavaFX thread, on every keystroke. With this pipeline:
+ *  - a new filter request waits a short moment (debounce), and a newer
+ *    request replaces it, so a burst of keystrokes is filtered once,
+ *  - the filter runs on a worker thread over a snapshot of the task list
+ *    (a copy that is only taken again after the list changed); the search
+ *    text is looked up in the {@link TaskSearchIndex} there as well,
+ *  - a run that was overtaken by a newer request stops early and its
+ *    result is thrown away,
+ *  - the result is handed to the JavaFX thread and applied to the
+ *    {@link FilteredList} in one update (a set lookup per task).
+ * <p>
+ * While a filter is active, changes to the task list start a new run, so
+ * added tasks show up once it finishes. Without a filter the list is shown
+ * unfiltered straight away. Call {@link #request} on the JavaFX thread only.
+ */
+public final class TaskFilterPipeline {
+
+    // Wait this long after the last keystroke before filtering
+    public static final long DEFAULT_DEBOUNCE_MS = 120;
+
+    // A run checks for a newer request this often (in tasks)
+    private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+    private final ObservableList<Task> source;
+    private final FilteredList<Task> filtered;
+    private final TaskSearchIndex searchIndex;
+    private final Executor fxExecutor;
+    private final long debounceMs;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "task-filter");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Incremented by every request; a run only publishes if it is still the latest
+    private final AtomicLong generation = new AtomicLong();
+
+    // JavaFX thread only
+    private List<Task> snapshot;
+    private String search = "";
+    private String status = TaskFilter.ALL;
+    private String priority = TaskFilter.ALL;
+    private ScheduledFuture<?> pending;
+
+    /**
+     * @param source      the task list to filter
+     * @param searchIndex search index over the same list (null = search the text of every task)
+     * @param fxExecutor  runs work on the JavaFX thread (Platform::runLater)
+     * @param debounceMs  how long to wait for more input before filtering
+     */
+    public TaskFilterPipeline(ObservableList<Task> source, TaskSearchIndex searchIndex,
+                              Executor fxExecutor, long debounceMs) {
+        this.source = source;
+        this.filtered = new FilteredList<>(source);
+        this.searchIndex = searchIndex;
+        this.fxExecutor = fxExecutor;
+        this.debounceMs = debounceMs;
+
+        source.addListener((ListChangeListener<Task>) change -> {
+            if (!onlyUpdates(change)) {
+                snapshot = null; // copy again on the next run
+            }
+            // An edited task may now match (or stop matching) the filter
+            if (isActive()) {
+                schedule();
+            }
+        });
+    }
+
+    /**
+     * The filtered view for the table.
+     */
+    public FilteredList<Task> getFiltered() {
+        return filtered;
+    }
+
+    /**
+     * Asks for the list to be filtered with new values from the search
+     * box and combo boxes (same meaning as {@link TaskFilter#of}).
+     * Returns right away; the table is updated when the filter is done.
+     */
+    public void request(String searchText, String status, String priority) {
+        this.search = searchText != null ? searchText.trim() : "";
+        this.status = status != null ? status : TaskFilter.ALL;
+        this.priority = priority != null ? priority : TaskFilter.ALL;
+
+        if (!isActive()) {
+            // Nothing to filter: show everything now and drop any pending run
+            generation.incrementAndGet();
+            cancelPending();
+            filtered.setPredicate(null);
+            return;
+        }
+        schedule();
+    }
+
+    /**
+     * Stops the worker thread. Pending runs are dropped.
+     */
+    public void shutdown() {
+        generation.incrementAndGet();
+        worker.shutdownNow();
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private boolean isActive() {
+        return !search.isEmpty() || !TaskFilter.ALL.equals(status) || !TaskFilter.ALL.equals(priority);
+    }
+
+    /**
+     * True if the change only edited tasks in place (same tasks, same
+     * order), so the snapshot still holds the right tasks.
+     */
+    private static boolean onlyUpdates(ListChangeListener.Change<? extends Task> change) {
+        boolean updatesOnly = true;
+        while (change.next()) {
+            if (!change.wasUpdated()) {
+                updatesOnly = false;
+            }
+        }
+        change.reset();
+        return updatesOnly;
+    }
+
+    private void schedule() {
+        long myGeneration = generation.incrementAndGet();
+        cancelPending();
+
+        if (snapshot == null) {
+            snapshot = Collections.unmodifiableList(new ArrayList<>(source));
+        }
+        List<Task> tasks = snapshot;
+        String search = this.search;
+        String status = this.status;
+        String priority = this.priority;
+
+        pending = worker.schedule(() -> run(myGeneration, tasks, search, status, priority),
+                debounceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelPending() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+    /**
+     * Worker thread: tests every task of the snapshot, then publishes.
+     */
+    private void run(long myGeneration, List<Task> tasks,
+                     String search, String status, String priority) {
+        // The index lookup is the expensive part of a text search; do it here too
+        TaskFilter filter = TaskFilter.of(search, status, priority, searchIndex);
+
+        Set<Task> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < tasks.size(); i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && generation.get() != myGeneration) {
+                return; // a newer request took over
+            }
+            Task t = tasks.get(i);
+            if (filter.test(t)) {
+                matches.add(t);
+            }
+        }
+
+        fxExecutor.execute(() -> {
+            if (generation.get() == myGeneration) {
+                filtered.setPredicate(matches::contains);
+            }
+        });
+    }
+}
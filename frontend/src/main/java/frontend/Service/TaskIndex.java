@@ -0,0 +1,281 @@
+package frontend.Service;
+
+import frontend.model.Task;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the task list, so screens can look tasks up
+ * instead of scanning every task.
+ * <p>
+ * The index listens to the observable task list and is updated on every
+ * add, remove and replace. It keeps:
+ *  - a due-date index sorted by date (day, range and "before" lookups),
+ *  - hash indexes on status, course and priority (case-insensitive).
+ * <p>
+ * A task that is edited in place (same object, new field values) is
+ * reported as an update when the list was made with
+ * {@link Task#extractor()}, as in TaskService. For any other list, whoever
+ * edits a task must call {@link #reindex(Task)} afterwards.
+ * <p>
+ * Tasks inside one bucket keep the order they were indexed in.
+ * Like the task list itself, the index must only be used on the JavaFX
+ * application thread.
+ */
+public final class TaskIndex {
+
+    // Due date -> tasks due that day, sorted by date
+    private final TreeMap<LocalDate, Set<Task>> byDueDate = new TreeMap<>();
+
+    // Lower-case value -> tasks with that value
+    private final Map<String, Set<Task>> byStatus = new HashMap<>();
+    private final Map<String, Set<Task>> byCourse = new HashMap<>();
+    private final Map<String, Set<Task>> byPriority = new HashMap<>();
+
+    // The keys each task was indexed under. Needed to find the old
+    // buckets after a task was changed in place. Task has no equals(),
+    // so identity is what we want anyway.
+    private final Map<Task, Keys> indexed = new IdentityHashMap<>();
+
+    /**
+     * Indexes the current content of the list and keeps following it.
+     *
+     * @param source the list to index
+     */
+    public TaskIndex(ObservableList<Task> source) {
+        addAll(source);
+        source.addListener((ListChangeListener<Task>) this::onChanged);
+    }
+
+    // --------------------
+    // Lookups
+    // --------------------
+
+    /**
+     * Tasks due on the given day.
+     */
+    public List<Task> dueOn(LocalDate date) {
+        Set<Task> bucket = byDueDate.get(date);
+        return bucket != null ? new ArrayList<>(bucket) : new ArrayList<>();
+    }
+
+    /**
+     * Tasks due between the two days, both included, sorted by due date.
+     */
+    public List<Task> dueBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return new ArrayList<>();
+        }
+        return flatten(byDueDate.subMap(from, true, to, true));
+    }
+
+    /**
+     * Tasks due before the given day (not included), sorted by due date.
+     * For example the overdue tasks are dueBefore(today).
+     */
+    public List<Task> dueBefore(LocalDate date) {
+        return flatten(byDueDate.headMap(date, false));
+    }
+
+    /**
+     * Number of tasks due between the two days, both included.
+     */
+    public int countDueBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return 0;
+        }
+        int count = 0;
+        for (Set<Task> bucket : byDueDate.subMap(from, true, to, true).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    /**
+     * Tasks with the given status (case-insensitive).
+     */
+    public List<Task> withStatus(String status) {
+        return lookup(byStatus, status);
+    }
+
+    /**
+     * Tasks of the given course (case-insensitive).
+     */
+    public List<Task> withCourse(String course) {
+        return lookup(byCourse, course);
+    }
+
+    /**
+     * Tasks with the given priority (case-insensitive).
+     */
+    public List<Task> withPriority(String priority) {
+        return lookup(byPriority, priority);
+    }
+
+    /**
+     * Number of tasks with the given status (case-insensitive).
+     */
+    public int countWithStatus(String status) {
+        Set<Task> bucket = byStatus.get(key(status));
+        return bucket != null ? bucket.size() : 0;
+    }
+
+    /**
+     * Number of indexed tasks.
+     */
+    public int size() {
+        return indexed.size();
+    }
+
+    // --------------------
+    // Updates
+    // --------------------
+
+    /**
+     * Moves a task to the right buckets after its fields were changed
+     * in place. Does nothing for a task that is not in the list.
+     *
+     * @param task the edited task
+     */
+    public void reindex(Task task) {
+        if (task == null || !indexed.containsKey(task)) {
+            return;
+        }
+        remove(task);
+        add(task);
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue; // same tasks, different order
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    reindex(change.getList().get(i));
+                }
+                continue;
+            }
+            // A replace (set) reports both; remove the old tasks first.
+            for (Task t : change.getRemoved()) {
+                remove(t);
+            }
+            if (change.wasAdded()) {
+                addAll(change.getAddedSubList());
+            }
+        }
+    }
+
+    private void addAll(Collection<? extends Task> tasks) {
+        for (Task t : tasks) {
+            add(t);
+        }
+    }
+
+    private void add(Task task) {
+        if (task == null || indexed.containsKey(task)) {
+            return;
+        }
+        Keys keys = new Keys(task);
+        indexed.put(task, keys);
+
+        if (keys.dueDate != null) {
+            byDueDate.computeIfAbsent(keys.dueDate, d -> new LinkedHashSet<>()).add(task);
+        }
+        put(byStatus, keys.status, task);
+        put(byCourse, keys.course, task);
+        put(byPriority, keys.priority, task);
+    }
+
+    private void remove(Task task) {
+        if (task == null) {
+            return;
+        }
+        Keys keys = indexed.remove(task);
+        if (keys == null) {
+            return;
+        }
+
+        if (keys.dueDate != null) {
+            Set<Task> bucket = byDueDate.get(keys.dueDate);
+            if (bucket != null) {
+                bucket.remove(task);
+                if (bucket.isEmpty()) {
+                    byDueDate.remove(keys.dueDate);
+                }
+            }
+        }
+        take(byStatus, keys.status, task);
+        take(byCourse, keys.course, task);
+        take(byPriority, keys.priority, task);
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private static void put(Map<String, Set<Task>> index, String key, Task task) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(task);
+        }
+    }
+
+    private static void take(Map<String, Set<Task>> index, String key, Task task) {
+        if (key == null) {
+            return;
+        }
+        Set<Task> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(task);
+            if (bucket.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static List<Task> lookup(Map<String, Set<Task>> index, String value) {
+        Set<Task> bucket = index.get(key(value));
+        return bucket != null ? new ArrayList<>(bucket) : new ArrayList<>();
+    }
+
+    private static List<Task> flatten(NavigableMap<LocalDate, Set<Task>> range) {
+        List<Task> result = new ArrayList<>();
+        for (Set<Task> bucket : range.values()) {
+            result.addAll(bucket);
+        }
+        return result;
+    }
+
+    private static String key(String value) {
+        return value != null ? value.trim().toLowerCase() : null;
+    }
+
+    /**
+     * Field values a task was indexed under.
+     */
+    private static final class Keys {
+        final LocalDate dueDate;
+        final String status;
+        final String course;
+        final String priority;
+
+        Keys(Task task) {
+            this.dueDate = task.getDueDate();
+            this.status = key(task.getStatus());
+            this.course = key(task.getCourse());
+            this.priority = key(task.getPriority());
+        }
+    }
+}
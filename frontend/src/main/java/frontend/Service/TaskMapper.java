@@ -0,0 +1,119 @@
+package frontend.Service;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.repository.StudentCodec;
+import frontend.model.Task;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Converts between the backend {@link Student} record and the UI {@link Task}.
+ * <p>
+ * Kept separate from {@link TaskService} so the mapping can be used (and
+ * benchmarked) without loading TaskService, which connects to the backend
+ * as soon as the class is loaded.
+ */
+public final class TaskMapper {
+
+    private TaskMapper() {
+    }
+
+    /**
+     * Map backend Student -> frontend Task.
+     *
+     * @param s backend record, may be null
+     * @return the task, or null if s is null
+     */
+    public static Task fromStudent(Student s) {
+        if (s == null) return null;
+
+        int id = s.getId();
+        String title = s.getTask();        // Task title
+        String course = s.getClassName();  // Course name
+
+        // Records written before these fields existed get reasonable defaults
+        LocalDate dueDate = parseDate(s.getDueDate());
+        String priority = s.getPriority() != null ? s.getPriority() : "Medium";
+        String status = s.getStatus();
+        String notes = s.getNotes() != null ? s.getNotes() : "";
+
+        return new Task(id, title, course, dueDate, priority, status, notes);
+    }
+
+    /**
+     * Map frontend Task -> backend Student.
+     *
+     * @param t UI task, may be null
+     * @return the backend record, or null if t is null
+     */
+    public static Student toStudent(Task t) {
+        if (t == null) return null;
+
+        int id = t.getId();
+
+        // firstName and lastName are not in the UI, so we set simple placeholders.
+        String firstName = "Student";
+        String lastName = "Task";
+
+        String className = t.getCourse();
+        String taskText = t.getTitle();
+        String status = t.getStatus();
+
+        Student s = new Student(id, firstName, lastName, className, taskText, status);
+        s.setDueDate(t.getDueDate() != null ? t.getDueDate().toString() : null);
+        s.setPriority(t.getPriority());
+        s.setNotes(t.getNotes());
+        return s;
+    }
+
+    /**
+     * Maps changed Task fields (see {@link Task#getDirtyFields()}) to the
+     * backend fields that store them. Fields that are not stored in the
+     * backend are left out.
+     *
+     * @param taskFields names of changed Task fields
+     * @return StudentCodec field names to write
+     */
+    public static Set<String> toStudentFields(Collection<String> taskFields) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : taskFields) {
+            switch (field) {
+                case "title":
+                    fields.add(StudentCodec.FIELD_TASK);
+                    break;
+                case "course":
+                    fields.add(StudentCodec.FIELD_CLASS_NAME);
+                    break;
+                case "status":
+                    fields.add(StudentCodec.FIELD_STATUS);
+                    break;
+                case "dueDate":
+                    fields.add(StudentCodec.FIELD_DUE_DATE);
+                    break;
+                case "priority":
+                    fields.add(StudentCodec.FIELD_PRIORITY);
+                    break;
+                case "notes":
+                    fields.add(StudentCodec.FIELD_NOTES);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return fields;
+    }
+
+    // Stored as an ISO date; anything unreadable is treated as "no due date"
+    private static LocalDate parseDate(String value) {
+        if (value == null || value.isEmpty()) return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package frontend.Service;
+
+import frontend.model.Task;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text index for the search box of the Tasks screen.
+ * <p>
+ * The search box matches any part of a task's title, course or notes
+ * ("ssay" finds "Essay 12"). Checking that with toLowerCase().contains()
+ * on every task, on every keystroke, means a full scan and new strings
+ * for every task. This index answers the same question from trigrams:
+ *  - every task gets a slot number and its lower-case text is stored once,
+ *  - for every 3-character piece (trigram) of that text the index keeps
+ *    the sorted list of slots that contain it,
+ *  - a search text of 3 or more characters is split into trigrams, their
+ *    slot lists are intersected (smallest first), and only the few tasks
+ *    left are checked with contains(), so the result is exact.
+ * Search texts of 1 or 2 characters match most tasks anyway; they are
+ * checked against the stored lower-case texts without building any strings.
+ * <p>
+ * Like {@link TaskIndex}, the index follows the task list through a list
+ * listener, including update changes for tasks edited in place (lists
+ * without {@link Task#extractor()} need a call to {@link #reindex(Task)}).
+ * Removing a task only marks its slot as dead (so updates are
+ * cheap), and the index is rebuilt once more than half of the slots are dead.
+ * <p>
+ * Updates happen on the JavaFX application thread. {@link #search(String)}
+ * may also be called from a background thread (see
+ * {@link TaskFilterPipeline}); a read/write lock keeps the two apart.
+ */
+public final class TaskSearchIndex {
+
+    private static final int GRAM = 3;
+
+    // Separates title, course and notes, so no trigram spans two fields
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    // Dead slots are tolerated up to this number before a rebuild is considered
+    private static final int MIN_DEAD_FOR_REBUILD = 1024;
+
+    // Slot -> task and its lower-case text (null once the slot is dead)
+    private Task[] slotTasks = new Task[1024];
+    private String[] slotTexts = new String[1024];
+    private int nextSlot = 0;
+    private int deadSlots = 0;
+
+    private final Map<Task, Integer> slotOf = new IdentityHashMap<>();
+
+    // Trigram -> slots that contain it, in increasing slot order
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Searches read, list changes write
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes the current content of the list and keeps following it.
+     *
+     * @param source the task list
+     */
+    public TaskSearchIndex(ObservableList<Task> source) {
+        lock.writeLock().lock();
+        try {
+            for (Task t : source) {
+                add(t);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        source.addListener((ListChangeListener<Task>) this::onChanged);
+    }
+
+    // --------------------
+    // Search
+    // --------------------
+
+    /**
+     * Finds the tasks whose title, course or notes contain the text
+     * (ignoring case and surrounding spaces). Same result as checking
+     * every task with toLowerCase().contains().
+     *
+     * @param text search text; blank text matches every task
+     * @return the matching tasks (compared by identity)
+     */
+    public Set<Task> search(String text) {
+        String query = text != null ? text.toLowerCase().trim() : "";
+
+        lock.readLock().lock();
+        try {
+            return find(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed tasks.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Task> find(String query) {
+        Set<Task> result = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        if (query.length() < GRAM) {
+            // Too short for trigrams: check the stored texts directly
+            for (int slot = 0; slot < nextSlot; slot++) {
+                if (slotTasks[slot] != null && slotTexts[slot].contains(query)) {
+                    result.add(slotTasks[slot]);
+                }
+            }
+            return result;
+        }
+
+        int[] candidates = candidates(query);
+        for (int slot : candidates) {
+            // Trigrams can all match without the whole text matching
+            if (slotTasks[slot] != null && slotTexts[slot].contains(query)) {
+                result.add(slotTasks[slot]);
+            }
+        }
+        return result;
+    }
+
+    // --------------------
+    // Updates
+    // --------------------
+
+    /**
+     * Re-reads a task after its title, course or notes were changed in
+     * place. Does nothing for a task that is not in the list.
+     */
+    public void reindex(Task task) {
+        lock.writeLock().lock();
+        try {
+            if (task == null || !slotOf.containsKey(task)) {
+                return;
+            }
+            remove(task);
+            add(task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends Task> change) {
+        lock.writeLock().lock();
+        try {
+            apply(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    reindex(change.getList().get(i));
+                }
+                continue;
+            }
+            for (Task t : change.getRemoved()) {
+                remove(t);
+            }
+            if (change.wasAdded()) {
+                for (Task t : change.getAddedSubList()) {
+                    add(t);
+                }
+            }
+        }
+        if (deadSlots > MIN_DEAD_FOR_REBUILD && deadSlots > slotOf.size()) {
+            rebuild();
+        }
+    }
+
+    private void add(Task task) {
+        if (task == null || slotOf.containsKey(task)) {
+            return;
+        }
+        String text = text(task);
+
+        int slot = nextSlot++;
+        if (slot == slotTasks.length) {
+            slotTasks = Arrays.copyOf(slotTasks, slot * 2);
+            slotTexts = Arrays.copyOf(slotTexts, slot * 2);
+        }
+        slotTasks[slot] = task;
+        slotTexts[slot] = text;
+        slotOf.put(task, slot);
+
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            long gram = gram(text, i);
+            if (gram >= 0) {
+                postings.computeIfAbsent(gram, g -> new Postings()).add(slot);
+            }
+        }
+    }
+
+    private void remove(Task task) {
+        if (task == null) {
+            return;
+        }
+        Integer slot = slotOf.remove(task);
+        if (slot == null) {
+            return;
+        }
+        // The slot stays in the posting lists; search skips dead slots.
+        slotTasks[slot] = null;
+        slotTexts[slot] = null;
+        deadSlots++;
+    }
+
+    /**
+     * Indexes the live tasks again into fresh slots, dropping dead ones.
+     */
+    private void rebuild() {
+        List<Task> live = new ArrayList<>(slotOf.size());
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (slotTasks[slot] != null) {
+                live.add(slotTasks[slot]);
+            }
+        }
+
+        slotTasks = new Task[Math.max(1024, live.size() * 2)];
+        slotTexts = new String[slotTasks.length];
+        nextSlot = 0;
+        deadSlots = 0;
+        slotOf.clear();
+        postings.clear();
+
+        for (Task t : live) {
+            add(t);
+        }
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    /**
+     * Slots that contain every trigram of the query, in increasing order.
+     */
+    private int[] candidates(String query) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            grams.add(gram(query, i));
+        }
+
+        List<Postings> lists = new ArrayList<>(grams.size());
+        for (Long g : grams) {
+            Postings p = postings.get(g);
+            if (p == null) {
+                return new int[0]; // some trigram appears in no task
+            }
+            lists.add(p);
+        }
+
+        // Start from the shortest list, so the intersection stays small
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        int[] result = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        int size = result.length;
+        for (int k = 1; k < lists.size() && size > 0; k++) {
+            size = intersect(result, size, lists.get(k));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Keeps the values of a[0..size) that are also in the posting list.
+     * Both are sorted; a is overwritten in place.
+     *
+     * @return the new size of a
+     */
+    private static int intersect(int[] a, int size, Postings b) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < b.size; i++) {
+            while (j < b.size && b.slots[j] < a[i]) {
+                j++;
+            }
+            if (j < b.size && b.slots[j] == a[i]) {
+                a[kept++] = a[i];
+            }
+        }
+        return kept;
+    }
+
+    private static String text(Task task) {
+        return lower(task.getTitle()) + FIELD_SEPARATOR
+                + lower(task.getCourse()) + FIELD_SEPARATOR
+                + lower(task.getNotes());
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.toLowerCase() : "";
+    }
+
+    /**
+     * The three characters at position i packed into one number,
+     * or -1 if they include a field separator.
+     */
+    private static long gram(String text, int i) {
+        char a = text.charAt(i);
+        char b = text.charAt(i + 1);
+        char c = text.charAt(i + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+            return -1;
+        }
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Growable, sorted list of slot numbers.
+     */
+    private static final class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            // Slots only grow, so a repeated trigram of the same task is the last entry
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
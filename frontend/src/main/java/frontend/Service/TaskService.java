@@ -1,74 +1,275 @@
 package frontend.Service;
 
 import frontend.model.Task;
+import frontend.util.FxFutures;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 
-// Backend imports – use our Firebase-based repository
-import com.studenttaskmanager.backend.db.FirebaseConfig;
+// Backend imports – the repository is chosen by RepositoryConfig (Firebase by default)
+import com.studenttaskmanager.backend.db.RepositoryConfig;
+import com.studenttaskmanager.backend.models.CourseSummary;
 import com.studenttaskmanager.backend.models.Student;
-import com.studenttaskmanager.backend.repository.FirebaseStudentRepository;
+import com.studenttaskmanager.backend.models.StudentDelta;
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.IdAllocator;
+import com.studenttaskmanager.backend.repository.MutationJournal;
+import com.studenttaskmanager.backend.repository.StudentCounts;
+import com.studenttaskmanager.backend.repository.StudentRepository;
+import com.studenttaskmanager.backend.repository.Timestamps;
+import com.studenttaskmanager.backend.repository.WriteBehindQueue;
 
 import java.time.LocalDate;
-import java.util.List;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * TaskService is the bridge between the JavaFX UI and the backend.
- * The UI only talks to TaskService. TaskService talks to Firebase.
+ * The UI only talks to TaskService. TaskService talks to the backend
+ * repository (Firebase by default, or SQLite; see RepositoryConfig).
+ *
+ * All Firebase calls are asynchronous: the request goes out on the
+ * backend I/O threads, and the result is applied to the task list
+ * back on the JavaFX application thread. The UI thread never waits
+ * for a network round trip.
+ *
+ * Adds, edits and deletes update the local list right away and are
+ * written to Firebase later by a {@link WriteBehindQueue}, which sends
+ * many changes together in one batch. Call {@link #shutdown()} when the
+ * application closes so nothing pending is lost.
+ *
+ * Every change is also recorded in a local journal file first (see
+ * {@link MutationJournal}). If Firebase cannot be reached, changes stay
+ * in the journal and are sent when the connection comes back, even if
+ * the app was closed and started again in between.
  */
 public class TaskService {
 
-    // List used by the UI (tables, lists, etc.)
+    // List used by the UI (tables, lists, etc.). The extractor makes an
+    // edit of a task's fields show up as an update of that one task.
     private static final ObservableList<Task> tasks =
-            FXCollections.observableArrayList();
+            FXCollections.observableArrayList(Task.extractor());
+
+    // Due date / status / course / priority lookups over the same list
+    private static final TaskIndex index = new TaskIndex(tasks);
+
+    // Trigram index for the search box of the Tasks screen
+    private static final TaskSearchIndex searchIndex = new TaskSearchIndex(tasks);
+
+    // Filters the Tasks screen in the background. One shared instance, so
+    // visiting the screen again does not hang another FilteredList on the list.
+    private static final TaskFilterPipeline filterPipeline = new TaskFilterPipeline(
+            tasks, searchIndex, Platform::runLater, TaskFilterPipeline.DEFAULT_DEBOUNCE_MS);
+
+    // Analytics counters, updated from list changes instead of recomputed
+    private static final TaskAggregator aggregator =
+            new TaskAggregator(tasks, LocalDate.now());
 
     // Used by Add / Edit / Details screens
     private static Task editingTask;
     private static Task selectedTask;
 
-    // Backend repository (Firebase)
-    private static final FirebaseStudentRepository repo;
+    // Backend repository (Firebase or SQLite, see RepositoryConfig)
+    private static final StudentRepository repo;
+
+    // Collects task writes and sends them to Firebase in batches
+    private static final WriteBehindQueue writeQueue;
+
+    // Pushes changes from Firebase into the task list while running
+    private static final TaskSyncEngine syncEngine;
+
+    // Flush when this many tasks are waiting, or after FLUSH_INTERVAL_MS
+    private static final int WRITE_BATCH_SIZE = 200;
+    private static final long FLUSH_INTERVAL_MS = 500;
+
+    // Hands out new task IDs from blocks leased from the backend counter
+    private static final IdAllocator ids;
+
+    // Runs repository results on the JavaFX application thread (see FxFutures)
+    private static final Executor FX_THREAD = Platform::runLater;
+
+    // Number of tasks fetched per page when loading from Firebase
+    private static final int LOAD_PAGE_SIZE = 300;
+
+    // Incremented on every load so pages from an older load are ignored
+    private static int loadGeneration = 0;
 
-    // Simple counter to generate new IDs for tasks
-    private static int nextId = 20000;
+    // The most recent full load (done when no load is running). FX thread only.
+    private static CompletableFuture<Integer> currentLoad = CompletableFuture.completedFuture(0);
+
+    // True between startLiveSync and stopLiveSync. FX thread only.
+    private static boolean liveSyncWanted = false;
+
+    // Timestamp of the last successful load or sync (null = never loaded).
+    // Delta sync only asks Firebase for changes after this point.
+    private static String syncHighWaterMark;
 
     // Static initializer runs once when the class is loaded
     static {
-        // Make sure Firebase is ready before any calls
-        FirebaseConfig.init();
-        repo = new FirebaseStudentRepository();
+        // Pick the configured backend (initializes Firebase only when it is used)
+        repo = RepositoryConfig.createRepository();
+        // Changes from an earlier session that never reached Firebase are replayed
+        writeQueue = new WriteBehindQueue(repo::applyBatchAsync,
+                WRITE_BATCH_SIZE, FLUSH_INTERVAL_MS, RepositoryConfig.openJournal());
+        syncEngine = new TaskSyncEngine(repo);
+        // Lease the first block of IDs now, so adding a task never waits for it;
+        // IDs leased in an earlier session are kept on disk for offline use
+        ids = new IdAllocator(repo, IdAllocator.DEFAULT_BLOCK_SIZE, RepositoryConfig.idLeasePath());
+        ids.prefetch();
     }
 
     // ---------------------
     // Public API for UI
     // ---------------------
 
+    /**
+     * Sets up the backend: picks the repository (initializing Firebase if
+     * it is used), opens the journal and starts the write queue. All of
+     * that happens in the static initializer the first time TaskService is
+     * used; the splash screen calls this on a background thread so that
+     * first use never happens on the JavaFX thread.
+     */
+    public static void init() {
+        // Nothing else to do: calling any static method runs the static initializer
+    }
+
     // Expose the observable list to controllers
     public static ObservableList<Task> getTasks() {
         return tasks;
     }
 
+    // Filtered view of the task list used by the Tasks screen table
+    public static FilteredList<Task> getFilteredTasks() {
+        return filterPipeline.getFiltered();
+    }
+
+    // Debounced background filtering for the Tasks screen
+    public static TaskFilterPipeline getFilterPipeline() {
+        return filterPipeline;
+    }
+
+    // Indexed lookups over the task list (calendar, reminders, reports)
+    public static TaskIndex getIndex() {
+        return index;
+    }
+
+    // Full-text search over title, course and notes (Tasks screen)
+    public static TaskSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    // Incrementally maintained analytics numbers (Analytics screen)
+    public static TaskAggregator getAggregator() {
+        return aggregator;
+    }
+
     /**
      * Load all tasks from Firebase into the local ObservableList.
      * Call this once when the app starts (for example in the first screen).
+     *
+     * Tasks are streamed in pages: the list is cleared right away and each
+     * page is appended on the FX thread as soon as it arrives, so the first
+     * tasks show up long before the whole collection has been read.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return completes on the FX thread with the number of tasks read
+     *         once the last page is in the list, or exceptionally if a page
+     *         failed (the list then only has the pages before it)
      */
-    public static void loadFromBackend() {
+    public static CompletableFuture<Integer> loadFromBackend() {
+        int generation = ++loadGeneration;
         tasks.clear();
 
-        List<Student> students = repo.getAllStudents();
-        updateNextId(students);
+        // Show changes that are still waiting to be written (for example
+        // tasks added while offline) instead of the older server copy.
+        List<Student> local = new ArrayList<>();
+        for (StudentMutation m : writeQueue.pendingMutations()) {
+            if (m.getType() != StudentMutation.Type.DELETE) {
+                local.add(m.getStudent());
+            }
+        }
+        for (Student s : local) {
+            tasks.add(fromStudent(s));
+        }
+
+        // Everything written after this moment will be picked up by the next delta sync
+        String loadStartedAt = Timestamps.now();
+        syncHighWaterMark = null;
+
+        currentLoad = FxFutures.applyOn(FX_THREAD, repo.getAllStudentsPagedAsync(LOAD_PAGE_SIZE, page -> {
+            // Map on the I/O thread, only touch the list on the FX thread
+            List<Task> loaded = new ArrayList<>(page.size());
+            for (Student s : page) {
+                Task t = fromStudent(s);
+                if (t != null && !writeQueue.isPending(t.getId())) {
+                    loaded.add(t);
+                }
+            }
 
-        for (Student s : students) {
-            Task t = fromStudent(s);
-            if (t != null) {
-                tasks.add(t);
+            Platform.runLater(() -> {
+                if (generation != loadGeneration) return; // a newer load started
+                if (syncEngine.isRunning()) {
+                    // Live sync may have added some of these already
+                    Set<Integer> present = new HashSet<>();
+                    for (Task t : tasks) {
+                        if (t != null) present.add(t.getId());
+                    }
+                    loaded.removeIf(t -> present.contains(t.getId()));
+                }
+                tasks.addAll(loaded);
+            });
+        }), total -> {
+            // Only runs when every page arrived. After a failed page the mark
+            // stays null, so the next sync loads everything again instead of
+            // resuming after the tasks that are missing.
+            if (generation == loadGeneration) {
+                syncHighWaterMark = loadStartedAt;
+                System.out.println("Loaded " + total + " tasks from Firebase");
             }
+            return total;
+        });
+        return currentLoad;
+    }
+
+    /**
+     * Refreshes the task list with only what changed in Firebase since the
+     * last load or sync, instead of downloading every task again.
+     *
+     * Changed tasks replace their old version in place, new tasks are
+     * appended and deleted tasks are removed. Tasks with local edits that
+     * are still waiting in the write queue are left alone. If nothing has
+     * been loaded yet, this falls back to a full {@link #loadFromBackend()}.
+     * Must be called on the JavaFX application thread.
+     */
+    public static void syncFromBackend() {
+        if (syncHighWaterMark == null) {
+            loadFromBackend();
+            return;
         }
 
-        System.out.println("Loaded " + tasks.size() + " tasks from Firebase");
+        int generation = loadGeneration;
+        FxFutures.applyOn(FX_THREAD, repo.getChangesSinceAsync(syncHighWaterMark), delta -> {
+            if (generation != loadGeneration) return null; // a full load replaced the list
+            if (!delta.isEmpty()) {
+                mergeDelta(delta);
+            }
+            // Moved only after the merge worked, so a failed sync is fetched again
+            syncHighWaterMark = delta.getHighWaterMark();
+            return null;
+        }).exceptionally(error -> {
+            System.out.println("Could not sync tasks from Firebase, will try again on the next sync.");
+            error.printStackTrace();
+            return null;
+        });
     }
 
     /**
@@ -89,44 +290,53 @@ public class TaskService {
 
     /**
      * Add a new task and save it to Firebase.
+     * The task appears in the list immediately; the write is batched.
+     *
+     * @return false if the task could not get an ID (backend unreachable
+     *         and no leased IDs left); the task is not added then
      */
-    public static void addTask(Task task) {
-        if (task == null) return;
+    public static boolean addTask(Task task) {
+        if (task == null) return false;
 
         // If this is a new task, give it an ID
         if (task.getId() == 0) {
-            task.setId(nextId++);
+            try {
+                // Never wait for the backend here, this runs on the FX thread
+                task.setId(ids.nextNow());
+            } catch (IllegalStateException e) {
+                System.out.println("Could not get an ID for the new task.");
+                e.printStackTrace();
+                return false;
+            }
         }
 
-        Student s = toStudent(task);
-        boolean ok = repo.addStudent(s);
-
-        if (ok) {
-            tasks.add(task);
-            System.out.println("Task added and saved to Firebase, id=" + task.getId());
-        } else {
-            System.out.println("Failed to save task to Firebase");
-        }
+        tasks.add(task);
+        writeQueue.enqueue(StudentMutation.upsert(toStudent(task)));
+        task.markClean();
+        System.out.println("Task added and queued for Firebase, id=" + task.getId());
+        return true;
     }
 
     /**
      * Remove a task from memory and from Firebase.
+     * The task leaves the list immediately; the delete is batched.
      */
     public static void removeTask(Task task) {
         if (task == null) return;
 
-        boolean ok = repo.deleteStudent(task.getId());
-        if (ok) {
-            tasks.remove(task);
-            System.out.println("Task deleted from Firebase, id=" + task.getId());
-        } else {
-            System.out.println("Failed to delete task from Firebase");
-        }
+        tasks.remove(task);
+        writeQueue.enqueue(StudentMutation.delete(task.getId()));
+        System.out.println("Task deleted and queued for Firebase, id=" + task.getId());
     }
 
     /**
-     * Save edits for an existing task (overwrites the record in Firebase).
+     * Save edits for an existing task.
      * Call this after the user edits a task’s fields.
+     *
+     * Only the fields that changed since the task was loaded or last saved
+     * are sent (a Firestore update() of those fields plus updatedAt); if
+     * nothing changed, nothing is written. Several saves of the same task
+     * within one flush window become one write.
      */
     public static void saveTask(Task task) {
         if (task == null) return;
@@ -137,14 +347,63 @@ public class TaskService {
             return;
         }
 
-        Student s = toStudent(task);
-        boolean ok = repo.addStudent(s); // set() in repo overwrites existing doc
+        // The setters already updated the table, indexes and counters
+        // (the list reports edits through Task.extractor())
+        Set<String> fields = TaskMapper.toStudentFields(task.getDirtyFields());
+        task.markClean();
+        if (fields.isEmpty()) {
+            System.out.println("Nothing changed, nothing to save, id=" + task.getId());
+            return;
+        }
+
+        writeQueue.enqueue(StudentMutation.update(toStudent(task), fields));
+        System.out.println("Task update queued for Firebase, id=" + task.getId() + " " + fields);
+    }
 
-        if (ok) {
-            System.out.println("Task updated in Firebase, id=" + task.getId());
-        } else {
-            System.out.println("Failed to update task in Firebase");
+    /**
+     * Starts push-based sync: a Firestore snapshot listener feeds every
+     * change made by any client straight into the task list, so no reload
+     * or polling is needed. If the list was already loaded (the splash
+     * screen does that), the listener resumes from that load and its first
+     * snapshot only holds what changed since; otherwise it delivers every task.
+     *
+     * If the first load is still paging (the splash screen gives up waiting
+     * for it after a while), the listener starts when the load is done,
+     * from its mark, instead of reading the whole collection a second time
+     * next to it. Must be called on the JavaFX application thread.
+     */
+    public static void startLiveSync() {
+        liveSyncWanted = true;
+        if (!currentLoad.isDone()) {
+            // Completes on the FX thread, also when the load fails
+            currentLoad.whenComplete((total, error) -> {
+                if (liveSyncWanted) {
+                    syncEngine.start(syncHighWaterMark);
+                }
+            });
+            return;
         }
+        syncEngine.start(syncHighWaterMark);
+    }
+
+    /**
+     * Stops push-based sync (for example when the user logs out).
+     * Must be called on the JavaFX application thread.
+     */
+    public static void stopLiveSync() {
+        liveSyncWanted = false;
+        syncEngine.stop();
+    }
+
+    /**
+     * Writes every pending change to Firebase and stops the write-behind timer.
+     * Called once when the application closes.
+     */
+    public static void shutdown() {
+        filterPipeline.shutdown();
+        liveSyncWanted = false;
+        syncEngine.stop();
+        writeQueue.close();
     }
 
     // ---------------------
@@ -183,66 +442,116 @@ public class TaskService {
     // Helper methods
     // ---------------------
 
-    // Map backend Student -> frontend Task
+    // Map backend Student -> frontend Task (see TaskMapper)
     private static Task fromStudent(Student s) {
-        if (s == null) return null;
-
-        int id = s.getId();
-        String title = s.getTask();        // Task title
-        String course = s.getClassName();  // Course name
-
-        // We are not storing dueDate/priority/notes in Firebase yet,
-        // so we use reasonable defaults for the UI.
-        LocalDate dueDate = null;
-        String priority = "Medium";
-        String status = s.getStatus();
-        String notes = "";
-
-        return new Task(id, title, course, dueDate, priority, status, notes);
+        return TaskMapper.fromStudent(s);
     }
 
-    // Map frontend Task -> backend Student
+    // Map frontend Task -> backend Student (see TaskMapper)
     private static Student toStudent(Task t) {
-        if (t == null) return null;
-
-        int id = t.getId();
-
-        // firstName and lastName are not in the UI, so we set simple placeholders.
-        String firstName = "Student";
-        String lastName = "Task";
+        return TaskMapper.toStudent(t);
+    }
 
-        String className = t.getCourse();
-        String taskText = t.getTitle();
-        String status = t.getStatus();
+    // Apply a delta from Firebase to the task list in place
+    private static void mergeDelta(StudentDelta delta) {
+        applyRemoteChanges(delta.getChanged(), delta.getDeletedIds());
 
-        return new Student(id, firstName, lastName, className, taskText, status);
+        System.out.println("Synced " + delta.getChanged().size() + " changed and "
+                + delta.getDeletedIds().size() + " deleted tasks from Firebase");
     }
 
-    // Update nextId based on maximum ID from Firebase
-    private static void updateNextId(List<Student> students) {
-        int max = nextId;
-        if (students != null) {
-            for (Student s : students) {
-                if (s != null && s.getId() > max) {
-                    max = s.getId();
-                }
+    /**
+     * Applies changes that came from Firebase to the task list in place.
+     * Changed tasks get the new field values (the Task objects stay the
+     * same, so an open edit or details screen keeps the current one and a
+     * later save does not overwrite the remote change), new tasks are appended and
+     * removed ids are dropped. Ids with local edits still waiting in the
+     * write queue are skipped, so remote data never hides a local change.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param changedStudents created or updated records
+     * @param removedIds      ids of deleted records
+     */
+    static void applyRemoteChanges(Collection<Student> changedStudents,
+                                   Collection<Integer> removedIds) {
+        Set<Integer> deleted = new HashSet<>();
+        for (Integer id : removedIds) {
+            if (!writeQueue.isPending(id)) {
+                deleted.add(id);
+            }
+        }
+
+        Map<Integer, Task> changed = new LinkedHashMap<>();
+        for (Student s : changedStudents) {
+            Task t = fromStudent(s);
+            if (t != null && !writeQueue.isPending(t.getId())) {
+                changed.put(t.getId(), t);
             }
         }
-        nextId = max + 1;
-    }
-    // Get tasks whose due date is in the given month (used for reports)
-    public static List<Task> getTasksForMonth(YearMonth month) {
-        List<Task> result = new ArrayList<>();
 
-        for (Task t : tasks) {
-            if (t == null) continue;
+        // Deletes first, so a task deleted and then re-created comes back.
+        if (!deleted.isEmpty()) {
+            tasks.removeIf(t -> t != null && deleted.contains(t.getId()));
+        }
 
-            LocalDate d = t.getDueDate();
-            if (d != null && YearMonth.from(d).equals(month)) {
-                result.add(t);
+        // Update existing tasks in place (the same Task object, so screens
+        // holding it see the new values), then append the new ones
+        for (Task current : tasks) {
+            if (changed.isEmpty()) break;
+            if (current == null) continue;
+            Task updated = changed.remove(current.getId());
+            if (updated != null) {
+                current.copyFrom(updated);
             }
         }
+        tasks.addAll(changed.values());
+    }
 
-        return result;
+    /**
+     * Counts the analytics numbers for a filter on the backend, without
+     * loading any task: about a handful of aggregation queries (one read
+     * each on Firestore) instead of one read per task.
+     *
+     * The numbers are what is stored in the backend: edits still waiting
+     * in the write queue are not counted.
+     *
+     * @param filter one of the {@link TaskStatistics} filter labels
+     * @param today  the date "overdue", "today" and "next 7 days" are relative to
+     * @return completes on the FX thread with the numbers, or exceptionally
+     *         (also on the FX thread) if the backend could not count
+     */
+    public static CompletableFuture<TaskStatistics> countTasksOnServer(String filter, LocalDate today) {
+        return FxFutures.applyOn(FX_THREAD,
+                StudentCounts.summary(repo, TaskStatistics.toQuery(filter, today), today, TaskStatistics.STATUSES),
+                TaskStatistics::fromCounts);
+    }
+
+    /**
+     * Reads the per-course summaries kept by the backend (counts per
+     * status and next due date): one small document per course, however
+     * many tasks each course has.
+     *
+     * @return completes on the FX thread with the summaries, sorted by course,
+     *         or exceptionally (also on the FX thread) if they could not be read
+     */
+    public static CompletableFuture<List<CourseSummary>> getCourseSummaries() {
+        return FxFutures.completeOn(FX_THREAD, repo.getCourseSummariesAsync());
+    }
+
+    /**
+     * Reads the summary of one course: a single document read.
+     *
+     * @param course course name
+     * @return completes on the FX thread with the summary (empty if the
+     *         course has no tasks), or exceptionally if it could not be read
+     */
+    public static CompletableFuture<CourseSummary> getCourseSummary(String course) {
+        return FxFutures.completeOn(FX_THREAD, repo.getCourseSummaryAsync(course));
+    }
+
+    // Get tasks whose due date is in the given month (used for reports),
+    // sorted by due date
+    public static List<Task> getTasksForMonth(YearMonth month) {
+        return index.dueBetween(month.atDay(1), month.atEndOfMonth());
     }
-}
\ No newline at end of file
+}
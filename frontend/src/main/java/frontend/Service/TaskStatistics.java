@@ -0,0 +1,225 @@
+package frontend.Service;
+
+import com.studenttaskmanager.backend.repository.StudentCounts;
+import com.studenttaskmanager.backend.repository.StudentQuery;
+import frontend.model.Task;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Summary numbers shown on the Analytics screen.
+ * <p>
+ * {@link #compute(Iterable, String, LocalDate)} walks the task list once
+ * and counts tasks by status and by due date, for the tasks that match
+ * the selected analytics filter. The result is a plain value object, so
+ * it can be computed (and benchmarked) without any UI.
+ * <p>
+ * The Analytics screen does not call compute() on every change; it binds
+ * to a {@link TaskAggregator}, which keeps the same numbers up to date
+ * incrementally. In its "count on server" mode it gets the numbers from
+ * {@link #fromCounts(StudentCounts)} instead, counted by the backend.
+ */
+public final class TaskStatistics {
+
+    // Analytics filter choices (same labels as the combo box).
+    public static final String ALL_TASKS = "All tasks";
+    public static final String COMPLETED = "Completed";
+    public static final String IN_PROGRESS = "In progress";
+    public static final String NOT_STARTED = "Not started";
+    public static final String OVERDUE = "Overdue";
+    public static final String TODAY = "Today";
+    public static final String NEXT_7_DAYS = "Next 7 days";
+
+    private final int total;
+    private final int completed;
+    private final int inProgress;
+    private final int notStarted;
+    private final int overdue;
+    private final int dueToday;
+    private final int dueNextWeek;
+
+    // Statuses counted separately (the stored values are the labels)
+    static final List<String> STATUSES = List.of(COMPLETED, IN_PROGRESS, NOT_STARTED);
+
+    // Also used by TaskAggregator, which keeps the counts up to date
+    TaskStatistics(int total, int completed, int inProgress, int notStarted,
+                   int overdue, int dueToday, int dueNextWeek) {
+        this.total = total;
+        this.completed = completed;
+        this.inProgress = inProgress;
+        this.notStarted = notStarted;
+        this.overdue = overdue;
+        this.dueToday = dueToday;
+        this.dueNextWeek = dueNextWeek;
+    }
+
+    /**
+     * Counts the tasks that match the filter.
+     *
+     * @param tasks  tasks to count
+     * @param filter one of the filter labels (null means all tasks)
+     * @param today  the date "overdue", "today" and "next 7 days" are relative to
+     * @return the counts
+     */
+    public static TaskStatistics compute(Iterable<Task> tasks, String filter, LocalDate today) {
+        int total = 0;
+        int completed = 0;
+        int inProgress = 0;
+        int notStarted = 0;
+        int overdue = 0;
+        int todayCount = 0;
+        int upcomingWeek = 0;
+
+        LocalDate weekFromNow = today.plusDays(7);
+
+        for (Task task : tasks) {
+            if (task == null) continue;
+
+            // Skip tasks that do not match the current filter
+            if (!matchesFilter(task, filter, today, weekFromNow)) {
+                continue;
+            }
+
+            total++;
+
+            String status = task.getStatus() != null ? task.getStatus() : "";
+            if (status.equalsIgnoreCase("Completed")) {
+                completed++;
+            } else if (status.equalsIgnoreCase("In progress")) {
+                inProgress++;
+            } else if (status.equalsIgnoreCase("Not started")) {
+                notStarted++;
+            }
+
+            if (task.getDueDate() != null) {
+                LocalDate due = task.getDueDate();
+                if (due.isBefore(today)) {
+                    overdue++;
+                } else if (due.isEqual(today)) {
+                    todayCount++;
+                } else if (!due.isAfter(weekFromNow)) {
+                    upcomingWeek++;
+                }
+            }
+        }
+
+        return new TaskStatistics(total, completed, inProgress, notStarted,
+                overdue, todayCount, upcomingWeek);
+    }
+
+    /**
+     * Checks whether a given task should be included for analytics
+     * under the selected filter.
+     *
+     * @param task        the task to check
+     * @param filter      current filter label from the combo box
+     * @param today       today's date
+     * @param weekFromNow date 7 days from today
+     * @return true if this task matches the filter, false otherwise
+     */
+    public static boolean matchesFilter(Task task,
+                                        String filter,
+                                        LocalDate today,
+                                        LocalDate weekFromNow) {
+
+        if (filter == null || filter.equals(ALL_TASKS)) {
+            return true;
+        }
+
+        String status = task.getStatus() != null ? task.getStatus() : "";
+        LocalDate due = task.getDueDate();
+
+        switch (filter) {
+            case COMPLETED:
+                return status.equalsIgnoreCase("Completed");
+            case IN_PROGRESS:
+                return status.equalsIgnoreCase("In progress");
+            case NOT_STARTED:
+                return status.equalsIgnoreCase("Not started");
+            case OVERDUE:
+                return due != null && due.isBefore(today);
+            case TODAY:
+                return due != null && due.isEqual(today);
+            case NEXT_7_DAYS:
+                return due != null
+                        && due.isAfter(today)
+                        && !due.isAfter(weekFromNow);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * The backend query for a filter label, so the backend can count the
+     * same tasks as {@link #matchesFilter}. Status labels are compared
+     * exactly on the backend (the app only stores these exact values).
+     *
+     * @param filter one of the filter labels (null means all tasks)
+     * @param today  today's date
+     * @return the query (no order, no limit)
+     */
+    public static StudentQuery toQuery(String filter, LocalDate today) {
+        StudentQuery.Builder query = StudentQuery.builder();
+        if (filter == null) {
+            return query.build();
+        }
+        switch (filter) {
+            case COMPLETED:
+            case IN_PROGRESS:
+            case NOT_STARTED:
+                return query.status(filter).build();
+            case OVERDUE:
+                return query.dueOnOrBefore(today.minusDays(1)).build();
+            case TODAY:
+                return query.dueBetween(today, today).build();
+            case NEXT_7_DAYS:
+                return query.dueBetween(today.plusDays(1), today.plusDays(7)).build();
+            default:
+                return query.build();
+        }
+    }
+
+    /**
+     * Converts counts made by the backend (see {@link StudentCounts#summary})
+     * into the numbers shown on the Analytics screen.
+     */
+    public static TaskStatistics fromCounts(StudentCounts counts) {
+        return new TaskStatistics(
+                Math.toIntExact(counts.getTotal()),
+                Math.toIntExact(counts.getStatusCount(COMPLETED)),
+                Math.toIntExact(counts.getStatusCount(IN_PROGRESS)),
+                Math.toIntExact(counts.getStatusCount(NOT_STARTED)),
+                Math.toIntExact(counts.getOverdue()),
+                Math.toIntExact(counts.getDueToday()),
+                Math.toIntExact(counts.getDueNextWeek()));
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getInProgress() {
+        return inProgress;
+    }
+
+    public int getNotStarted() {
+        return notStarted;
+    }
+
+    public int getOverdue() {
+        return overdue;
+    }
+
+    public int getDueToday() {
+        return dueToday;
+    }
+
+    public int getDueNextWeek() {
+        return dueNextWeek;
+    }
+}
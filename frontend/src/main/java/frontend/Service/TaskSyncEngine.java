@@ -0,0 +1,235 @@
+package frontend.Service;
+
+import com.studenttaskmanager.backend.models.Student;
+import com.studenttaskmanager.backend.models.StudentChange;
+import com.studenttaskmanager.backend.repository.ChangeSubscription;
+import com.studenttaskmanager.backend.repository.StudentChangeListener;
+import com.studenttaskmanager.backend.repository.StudentRepository;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the shared task list up to date with push notifications from Firebase.
+ * <p>
+ * The engine registers a live listener with the repository (a Firestore
+ * snapshot listener on the "students" collection for the Firebase backend). Every snapshot delivers only the documents that changed
+ * (ADDED, MODIFIED or REMOVED). Changes are collected on the backend
+ * I/O thread and applied to {@link TaskService#getTasks()} in one batch
+ * on the JavaFX application thread. If several snapshots arrive before the
+ * FX thread gets to run, they are merged and only the newest version of
+ * each task is applied.
+ * <p>
+ * When the list was already loaded, {@link #start(String)} resumes from
+ * that load, so the first snapshot only holds what changed since then
+ * instead of every task a second time.
+ * <p>
+ * Firestore stops a listener after an error (for example when the
+ * connection is lost for good or the credentials expire). The engine
+ * then registers a new one from the same mark, after a delay that
+ * doubles on every failure in a row (up to {@link #MAX_RETRY_DELAY_MS}),
+ * so the list does not silently stop updating.
+ */
+public class TaskSyncEngine {
+
+    private final StudentRepository repo;
+
+    /**
+     * Changes waiting for the FX thread, newest version per id.
+     * A null value means the task was removed. Guarded by "this".
+     */
+    private Map<Integer, Student> pending = new LinkedHashMap<>();
+
+    /**
+     * True while a drain is scheduled on the FX thread. Guarded by "this".
+     */
+    private boolean drainScheduled = false;
+
+    // Longest wait before registering again after a listener error.
+    public static final long MAX_RETRY_DELAY_MS = 30_000;
+
+    private static final long FIRST_RETRY_DELAY_MS = 1_000;
+
+    // Guarded by "this".
+    private ChangeSubscription registration;
+
+    // Mark the listener was started from; a restart resumes from it. Guarded by "this".
+    private String since;
+
+    // Incremented on every start and stop, so a late error or retry of an
+    // older listener does nothing. Guarded by "this".
+    private int generation = 0;
+
+    // Delay before the next restart (0 = no failure in a row). Guarded by "this".
+    private long retryDelayMs = 0;
+
+    /**
+     * @param repo repository whose collection should be watched
+     */
+    public TaskSyncEngine(StudentRepository repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * Starts listening with a full first snapshot.
+     * Calling this when already started does nothing.
+     */
+    public synchronized void start() {
+        start(null);
+    }
+
+    /**
+     * Starts listening from an earlier load or sync: the first snapshot
+     * only holds what changed since then. Calling this when already
+     * started does nothing.
+     *
+     * @param since high-water mark of the last load or sync, or null
+     *              for a full first snapshot
+     */
+    public synchronized void start(String since) {
+        if (registration != null) return;
+        this.since = since;
+        retryDelayMs = 0;
+        register();
+        System.out.println("Live task sync started" + (since != null ? " from " + since : ""));
+    }
+
+    /**
+     * Registers a listener from the current mark, tagged with a new generation.
+     */
+    private synchronized void register() {
+        int current = ++generation;
+        registration = repo.listenForChanges(since, new StudentChangeListener() {
+            @Override
+            public void onChanges(List<StudentChange> changes) {
+                synchronized (TaskSyncEngine.this) {
+                    if (current == generation) {
+                        retryDelayMs = 0; // working again
+                    }
+                }
+                collect(changes);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                listenerFailed(current, error);
+            }
+        });
+    }
+
+    /**
+     * A listener stopped with an error: drop it and register a new one
+     * from the same mark after the retry delay. Changes made in the
+     * meantime arrive with the new listener's first snapshot.
+     */
+    private void listenerFailed(int failedGeneration, Throwable error) {
+        ChangeSubscription failed;
+        long delay;
+        synchronized (this) {
+            if (failedGeneration != generation || registration == null) {
+                return; // stopped or restarted since
+            }
+            failed = registration;
+            registration = null;
+            retryDelayMs = retryDelayMs == 0
+                    ? FIRST_RETRY_DELAY_MS
+                    : Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+            delay = retryDelayMs;
+        }
+        System.out.println("Live task sync failed, restarting in " + delay + " ms.");
+        error.printStackTrace();
+        // A resumed listener is two Firestore listeners; stop the other one too
+        failed.remove();
+
+        Executor later = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+        later.execute(() -> restart(failedGeneration));
+    }
+
+    /**
+     * Registers again, unless the engine was stopped or restarted meanwhile.
+     */
+    private synchronized void restart(int failedGeneration) {
+        if (failedGeneration != generation || registration != null) {
+            return;
+        }
+        register();
+        System.out.println("Live task sync restarted" + (since != null ? " from " + since : ""));
+    }
+
+    /**
+     * Stops listening. Changes that were already received are still applied.
+     */
+    public synchronized void stop() {
+        boolean wasWaiting = registration == null && retryDelayMs > 0;
+        generation++; // cancels a pending restart
+        retryDelayMs = 0;
+        if (registration == null) {
+            if (wasWaiting) {
+                System.out.println("Live task sync stopped");
+            }
+            return;
+        }
+        registration.remove();
+        registration = null;
+        System.out.println("Live task sync stopped");
+    }
+
+    /**
+     * True while the engine is listening, including while it waits to
+     * register again after a listener error.
+     */
+    public synchronized boolean isRunning() {
+        return registration != null || retryDelayMs > 0;
+    }
+
+    /**
+     * Runs on the I/O thread for every snapshot.
+     * Merges the changes into the pending map and makes sure one drain is scheduled.
+     */
+    private void collect(List<StudentChange> changes) {
+        synchronized (this) {
+            for (StudentChange change : changes) {
+                // remove + put keeps the newest change at the end
+                pending.remove(change.getId());
+                pending.put(change.getId(),
+                        change.getType() == StudentChange.Type.REMOVED ? null : change.getStudent());
+            }
+
+            if (drainScheduled) return;
+            drainScheduled = true;
+        }
+        Platform.runLater(this::drain);
+    }
+
+    /**
+     * Runs on the FX thread and applies everything collected so far in one go.
+     */
+    private void drain() {
+        Map<Integer, Student> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            drainScheduled = false;
+        }
+
+        List<Student> upserts = new ArrayList<>();
+        Set<Integer> removed = new HashSet<>();
+        for (Map.Entry<Integer, Student> e : batch.entrySet()) {
+            if (e.getValue() == null) {
+                removed.add(e.getKey());
+            } else {
+                upserts.add(e.getValue());
+            }
+        }
+
+        TaskService.applyRemoteChanges(upserts, removed);
+    }
+}
@@ -97,6 +97,29 @@ public class UserSession {
         profileImageListener = listener;
     }
 
+    /**
+     * Removes the display name listener, but only if it is still the given one
+     * (a newer screen may already have registered its own).
+     *
+     * @param listener the callback registered earlier
+     */
+    public static void removeDisplayNameListener(Runnable listener) {
+        if (displayNameListener == listener) {
+            displayNameListener = null;
+        }
+    }
+
+    /**
+     * Removes the profile image listener, but only if it is still the given one.
+     *
+     * @param listener the callback registered earlier
+     */
+    public static void removeProfileImageListener(Runnable listener) {
+        if (profileImageListener == listener) {
+            profileImageListener = null;
+        }
+    }
+
     /**
      * Clears all session data and listeners.
      * <p>
@@ -10,6 +10,9 @@ import javafx.scene.control.DatePicker;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 
+import java.time.LocalDate;
+import java.util.Objects;
+
 /**
  * Controller for the Add / Edit Task screen.
  *
@@ -40,6 +43,18 @@ public class AddTaskController {
      */
     private Task editingTask;
 
+    /**
+     * Values shown when the form was opened. Only fields the user changed
+     * away from these are written back, so a change another client made
+     * to the task while the form was open is not overwritten.
+     */
+    private String openedTitle;
+    private String openedCourse;
+    private LocalDate openedDueDate;
+    private String openedPriority;
+    private String openedStatus;
+    private String openedNotes;
+
     /**
      * Initializes the form, populates combo boxes,
      * and pre-fills fields when editing an existing task.
@@ -64,6 +79,15 @@ public class AddTaskController {
             priorityField.setValue(editingTask.getPriority());
             statusField.setValue(editingTask.getStatus());
             notesField.setText(editingTask.getNotes());
+
+            // Read the values back from the form, so an untouched field
+            // compares equal in handleSave
+            openedTitle = titleField.getText();
+            openedCourse = courseField.getText();
+            openedDueDate = dueDatePicker.getValue();
+            openedPriority = priorityField.getValue();
+            openedStatus = statusField.getValue();
+            openedNotes = notesField.getText();
         }
     }
 
@@ -81,7 +105,8 @@ public class AddTaskController {
      * Validates the form and either creates a new task
      * or updates the existing one.
      *
-     * <p>When editing, changes are persisted through
+     * <p>When editing, only the fields that differ from the values the
+     * form was opened with are set, and they are persisted through
      * {@link TaskService#saveTask(Task)}. When creating,
      * {@link TaskService#addTask(Task)} is used.</p>
      */
@@ -98,13 +123,25 @@ public class AddTaskController {
         }
 
         if (editMode && editingTask != null) {
-            // Update existing task
-            editingTask.setTitle(title);
-            editingTask.setCourse(course);
-            editingTask.setDueDate(dueDatePicker.getValue());
-            editingTask.setPriority(priorityField.getValue());
-            editingTask.setStatus(statusField.getValue());
-            editingTask.setNotes(notesField.getText());
+            // Update existing task, only the fields the user changed
+            if (!Objects.equals(title, openedTitle)) {
+                editingTask.setTitle(title);
+            }
+            if (!Objects.equals(course, openedCourse)) {
+                editingTask.setCourse(course);
+            }
+            if (!Objects.equals(dueDatePicker.getValue(), openedDueDate)) {
+                editingTask.setDueDate(dueDatePicker.getValue());
+            }
+            if (!Objects.equals(priorityField.getValue(), openedPriority)) {
+                editingTask.setPriority(priorityField.getValue());
+            }
+            if (!Objects.equals(statusField.getValue(), openedStatus)) {
+                editingTask.setStatus(statusField.getValue());
+            }
+            if (!Objects.equals(notesField.getText(), openedNotes)) {
+                editingTask.setNotes(notesField.getText());
+            }
 
             // Persist changes (Firebase / DB)
             TaskService.saveTask(editingTask);
@@ -120,7 +157,10 @@ public class AddTaskController {
                     notesField.getText()
             );
 
-            TaskService.addTask(newTask);
+            if (!TaskService.addTask(newTask)) {
+                NotificationUtil.showError("Could not save the task right now. Please try again.");
+                return;
+            }
         }
 
         NotificationUtil.showSuccess("Task saved");
@@ -2,14 +2,22 @@ package frontend.controller;
 
 import frontend.model.Task;
 import frontend.Service.TaskService;
-import javafx.collections.ListChangeListener;
+import frontend.Service.TaskAggregator;
+import frontend.Service.TaskStatistics;
+import frontend.util.ViewLifecycle;
+import com.studenttaskmanager.backend.models.CourseSummary;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.chart.BarChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Alert;
 import javafx.stage.FileChooser;
 
@@ -17,6 +25,7 @@ import java.io.File;
 import java.io.PrintWriter;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,10 +33,17 @@ import java.util.List;
 /**
  * Controller for the analytics screen.
  * <p>
- * This controller reads the shared task list from {@link TaskService},
- * calculates summary statistics, updates the labels and bar chart,
+ * This controller shows the summary statistics kept by the shared
+ * {@link TaskAggregator} in labels and a bar chart,
  * and allows the user to export a CSV report for the current month
  * (or all tasks if the current month has no tasks).
+ * <p>
+ * With "Count on server" checked, the numbers are counted by the backend
+ * instead (see {@link TaskService#countTasksOnServer}): a few aggregation
+ * queries, without going through the task list. They are a snapshot
+ * taken when the screen is shown or the filter changes. That mode also
+ * lists every course from the summaries the backend keeps per course
+ * (see {@link TaskService#getCourseSummaries()}), one read per course.
  */
 public class AnalyticsController {
 
@@ -48,11 +64,22 @@ public class AnalyticsController {
      */
     @FXML private ComboBox<String> filterChoice;
 
+    /**
+     * When selected, the numbers are counted by the backend instead of
+     * from the task list in memory.
+     */
+    @FXML private CheckBox serverTotalsCheck;
+
     /**
      * Bar chart showing the count of tasks by status.
      */
     @FXML private BarChart<String, Number> statusChart;
 
+    /**
+     * Per-course lines, only shown in "count on server" mode.
+     */
+    @FXML private ListView<String> courseSummaryList;
+
     // Button is defined in FXML with onAction="#handleExportMonth"
     @FXML private Button exportMonthBtn;
 
@@ -62,19 +89,31 @@ public class AnalyticsController {
      */
     private ObservableList<Task> tasks;
 
+    /**
+     * Analytics counters kept up to date by {@link TaskService}.
+     */
+    private TaskAggregator aggregator;
+
+    /**
+     * Bindings of the numbers currently shown (live or server counts).
+     * Replaced when the mode changes and ended when the screen is left.
+     */
+    private ViewLifecycle statsLifecycle;
+
     /**
      * Initializes the controller after the FXML is loaded.
      * <p>
-     * This method
-     * 1. Loads the tasks from TaskService,
-     * 2. Sets up the filter combo box,
-     * 3. Computes initial statistics,
-     * 4. Adds a listener so that analytics update automatically when tasks change.
+     * This method sets up the filter combo box. Every time the screen is
+     * shown, it
+     * 1. Loads the tasks and the analytics counters from TaskService,
+     * 2. Binds the labels and the bar chart to the counters, so they
+     *    update automatically when tasks change (or, in "count on server"
+     *    mode, asks the backend for the numbers).
+     * The screen is cached (see MainApp), so the bindings only live while
+     * it is shown.
      */
     @FXML
     private void initialize() {
-        tasks = TaskService.getTasks();
-
         if (filterChoice != null) {
             filterChoice.getItems().addAll(
                     "All tasks",
@@ -87,18 +126,35 @@ public class AnalyticsController {
             );
             filterChoice.setValue("All tasks");
 
-            // Whenever the user changes the filter, recalculate the statistics
+            // Whenever the user changes the filter, the counters report on the new filter
             filterChoice.valueProperty().addListener((obs, oldVal, newVal) -> {
-                updateStats();
+                if (aggregator == null) {
+                    return; // not shown yet
+                }
+                if (isServerMode()) {
+                    showStats();
+                } else {
+                    aggregator.setFilter(newVal);
+                }
+            });
+        }
+
+        if (serverTotalsCheck != null) {
+            serverTotalsCheck.selectedProperty().addListener((obs, oldVal, newVal) -> {
+                if (aggregator != null) {
+                    showStats();
+                }
             });
         }
 
-        // Calculate initial statistics
-        updateStats();
+        ViewLifecycle.whenShown(totalTasksLabel, lifecycle -> {
+            tasks = TaskService.getTasks();
+            aggregator = TaskService.getAggregator();
+
+            // The counters may have been created on an earlier day
+            aggregator.setToday(LocalDate.now());
 
-        // Recalculate stats whenever the underlying task list changes
-        tasks.addListener((ListChangeListener<Task>) change -> {
-            updateStats();
+            showStats();
         });
     }
 
@@ -112,129 +168,199 @@ public class AnalyticsController {
     }
 
     /**
-     * Recomputes all analytics numbers based on the current tasks and current filter,
-     * and updates the labels and bar chart in the UI.
+     * Shows the numbers for the current mode, undoing whatever the
+     * previous mode had bound.
      */
-    private void updateStats() {
-        if (tasks == null) return;
-
-        int total = 0;
-        int completed = 0;
-        int inProgress = 0;
-        int notStarted = 0;
-        int overdue = 0;
-        int todayCount = 0;
-        int upcomingWeek = 0;
+    private void showStats() {
+        if (statsLifecycle != null) {
+            statsLifecycle.dispose();
+        }
+        // Also ends by itself when the user leaves the screen
+        statsLifecycle = ViewLifecycle.of(totalTasksLabel);
 
-        LocalDate today = LocalDate.now();
-        LocalDate weekFromNow = today.plusDays(7);
+        if (courseSummaryList != null) {
+            courseSummaryList.setVisible(isServerMode());
+            courseSummaryList.setManaged(isServerMode());
+            courseSummaryList.getItems().clear();
+        }
 
-        String filter = filterChoice != null && filterChoice.getValue() != null
-                ? filterChoice.getValue()
-                : "All tasks";
+        if (isServerMode()) {
+            showServerStats(statsLifecycle);
+            showCourseSummaries(statsLifecycle);
+        } else {
+            aggregator.setFilter(currentFilter());
+            bindStats(statsLifecycle);
+        }
+    }
 
-        for (Task task : tasks) {
-            if (task == null) continue;
+    /**
+     * Asks the backend for the numbers and shows them when they arrive.
+     * Nothing is shown if the user switched mode or left in the meantime.
+     *
+     * @param lifecycle the bindings the result belongs to
+     */
+    private void showServerStats(ViewLifecycle lifecycle) {
+        Label[] labels = {totalTasksLabel, completedTasksLabel, inProgressTasksLabel,
+                notStartedTasksLabel, overdueTasksLabel, todayTasksLabel, upcomingWeekTasksLabel};
+        for (Label label : labels) {
+            label.setText("…");
+        }
 
-            // Skip tasks that do not match the current filter
-            if (!matchesFilter(task, filter, today, weekFromNow)) {
-                continue;
+        // Completes on the FX thread, also when counting fails
+        TaskService.countTasksOnServer(currentFilter(), LocalDate.now()).whenComplete((stats, error) -> {
+            if (lifecycle.isDisposed()) {
+                return;
             }
-
-            total++;
-
-            String status = task.getStatus() != null ? task.getStatus() : "";
-            if (status.equalsIgnoreCase("Completed")) {
-                completed++;
-            } else if (status.equalsIgnoreCase("In progress")) {
-                inProgress++;
-            } else if (status.equalsIgnoreCase("Not started")) {
-                notStarted++;
+            if (error != null) {
+                System.out.println("Failed to count tasks on the server.");
+                error.printStackTrace();
+                for (Label label : labels) {
+                    label.setText("-");
+                }
+                return;
             }
+            showStatistics(stats);
+        });
+    }
 
-            if (task.getDueDate() != null) {
-                LocalDate due = task.getDueDate();
-                if (due.isBefore(today)) {
-                    overdue++;
-                } else if (due.isEqual(today)) {
-                    todayCount++;
-                } else if (!due.isAfter(weekFromNow)) {
-                    upcomingWeek++;
-                }
+    /**
+     * Reads the course summaries and lists them, one line per course.
+     *
+     * @param lifecycle the bindings the result belongs to
+     */
+    private void showCourseSummaries(ViewLifecycle lifecycle) {
+        if (courseSummaryList == null) {
+            return;
+        }
+        // Completes on the FX thread, also when the read fails
+        TaskService.getCourseSummaries().whenComplete((summaries, error) -> {
+            if (lifecycle.isDisposed()) {
+                return;
+            }
+            if (error != null) {
+                System.out.println("Failed to read the course summaries.");
+                error.printStackTrace();
+                courseSummaryList.getItems().clear();
+                return;
             }
+            List<String> lines = new ArrayList<>();
+            for (CourseSummary summary : summaries) {
+                lines.add(describe(summary));
+            }
+            courseSummaryList.getItems().setAll(lines);
+        });
+    }
+
+    /**
+     * One line of the course list, e.g.
+     * "Math 101: 5 tasks, 3 open, next due 2025-03-01".
+     */
+    static String describe(CourseSummary summary) {
+        String line = summary.getClassName() + ": " + summary.getTotal()
+                + (summary.getTotal() == 1 ? " task, " : " tasks, ")
+                + summary.getOpenCount() + " open";
+        if (summary.getNextDueDate() != null) {
+            line += ", next due " + summary.getNextDueDate();
         }
+        return line;
+    }
 
-        totalTasksLabel.setText(String.valueOf(total));
-        completedTasksLabel.setText(String.valueOf(completed));
-        inProgressTasksLabel.setText(String.valueOf(inProgress));
-        notStartedTasksLabel.setText(String.valueOf(notStarted));
-        overdueTasksLabel.setText(String.valueOf(overdue));
-        todayTasksLabel.setText(String.valueOf(todayCount));
-        upcomingWeekTasksLabel.setText(String.valueOf(upcomingWeek));
+    /**
+     * Shows fixed numbers (server counts) in the labels and the chart.
+     */
+    private void showStatistics(TaskStatistics stats) {
+        totalTasksLabel.setText(String.valueOf(stats.getTotal()));
+        completedTasksLabel.setText(String.valueOf(stats.getCompleted()));
+        inProgressTasksLabel.setText(String.valueOf(stats.getInProgress()));
+        notStartedTasksLabel.setText(String.valueOf(stats.getNotStarted()));
+        overdueTasksLabel.setText(String.valueOf(stats.getOverdue()));
+        todayTasksLabel.setText(String.valueOf(stats.getDueToday()));
+        upcomingWeekTasksLabel.setText(String.valueOf(stats.getDueNextWeek()));
 
         if (todaySummaryLabel != null) {
-            String summary = "Today " + todayCount + " due, "
-                    + overdue + " overdue, "
-                    + upcomingWeek + " due in the next 7 days";
-            todaySummaryLabel.setText(summary);
+            todaySummaryLabel.setText("Today " + stats.getDueToday() + " due, "
+                    + stats.getOverdue() + " overdue, "
+                    + stats.getDueNextWeek() + " due in the next 7 days");
         }
 
         if (statusChart != null) {
-            // Clear and rebuild the bar chart with the new numbers
             statusChart.getData().clear();
 
             XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.getData().add(new XYChart.Data<>("Completed", completed));
-            series.getData().add(new XYChart.Data<>("In progress", inProgress));
-            series.getData().add(new XYChart.Data<>("Not started", notStarted));
-            series.getData().add(new XYChart.Data<>("Overdue", overdue));
+            series.getData().add(new XYChart.Data<>("Completed", stats.getCompleted()));
+            series.getData().add(new XYChart.Data<>("In progress", stats.getInProgress()));
+            series.getData().add(new XYChart.Data<>("Not started", stats.getNotStarted()));
+            series.getData().add(new XYChart.Data<>("Overdue", stats.getOverdue()));
 
             statusChart.getData().add(series);
         }
     }
 
+    private boolean isServerMode() {
+        return serverTotalsCheck != null && serverTotalsCheck.isSelected();
+    }
+
+    private String currentFilter() {
+        return filterChoice != null && filterChoice.getValue() != null
+                ? filterChoice.getValue()
+                : TaskStatistics.ALL_TASKS;
+    }
+
     /**
-     * Checks whether a given task should be included for analytics
-     * under the currently selected filter.
+     * Binds the labels and the bar chart to the counters of the
+     * {@link TaskAggregator}. The aggregator updates a few counters per
+     * task change, so nothing here walks the task list, and the chart is
+     * built once per visit instead of on every change. The bindings belong
+     * to this visit's {@link ViewLifecycle}, so a screen the user has left
+     * no longer listens to the shared counters.
      *
-     * @param task        the task to check
-     * @param filter      current filter label from the combo box
-     * @param today       today's date
-     * @param weekFromNow date 7 days from today
-     * @return true if this task matches the filter, false otherwise
+     * @param lifecycle undoes everything bound here when the user leaves the screen
      */
-    private boolean matchesFilter(Task task,
-                                  String filter,
-                                  LocalDate today,
-                                  LocalDate weekFromNow) {
+    private void bindStats(ViewLifecycle lifecycle) {
+        lifecycle.bindText(totalTasksLabel.textProperty(), aggregator.totalProperty());
+        lifecycle.bindText(completedTasksLabel.textProperty(), aggregator.completedProperty());
+        lifecycle.bindText(inProgressTasksLabel.textProperty(), aggregator.inProgressProperty());
+        lifecycle.bindText(notStartedTasksLabel.textProperty(), aggregator.notStartedProperty());
+        lifecycle.bindText(overdueTasksLabel.textProperty(), aggregator.overdueProperty());
+        lifecycle.bindText(todayTasksLabel.textProperty(), aggregator.dueTodayProperty());
+        lifecycle.bindText(upcomingWeekTasksLabel.textProperty(), aggregator.dueNextWeekProperty());
 
-        if (filter == null || filter.equals("All tasks")) {
-            return true;
+        if (todaySummaryLabel != null) {
+            StringBinding summary = Bindings.createStringBinding(
+                    () -> "Today " + aggregator.dueTodayProperty().get() + " due, "
+                            + aggregator.overdueProperty().get() + " overdue, "
+                            + aggregator.dueNextWeekProperty().get() + " due in the next 7 days",
+                    aggregator.dueTodayProperty(),
+                    aggregator.overdueProperty(),
+                    aggregator.dueNextWeekProperty());
+            lifecycle.bind(todaySummaryLabel.textProperty(), summary);
+            lifecycle.onDispose(summary::dispose);
         }
 
-        String status = task.getStatus() != null ? task.getStatus() : "";
-        LocalDate due = task.getDueDate();
-
-        switch (filter) {
-            case "Completed":
-                return status.equalsIgnoreCase("Completed");
-            case "In progress":
-                return status.equalsIgnoreCase("In progress");
-            case "Not started":
-                return status.equalsIgnoreCase("Not started");
-            case "Overdue":
-                return due != null && due.isBefore(today);
-            case "Today":
-                return due != null && due.isEqual(today);
-            case "Next 7 days":
-                return due != null
-                        && due.isAfter(today)
-                        && !due.isAfter(weekFromNow);
-            default:
-                return true;
+        if (statusChart != null) {
+            statusChart.getData().clear();
+
+            XYChart.Series<String, Number> series = new XYChart.Series<>();
+            series.getData().add(boundBar(lifecycle, "Completed", aggregator.completedProperty()));
+            series.getData().add(boundBar(lifecycle, "In progress", aggregator.inProgressProperty()));
+            series.getData().add(boundBar(lifecycle, "Not started", aggregator.notStartedProperty()));
+            series.getData().add(boundBar(lifecycle, "Overdue", aggregator.overdueProperty()));
+
+            statusChart.getData().add(series);
         }
     }
 
+    /**
+     * Creates one bar whose height follows the given counter
+     * while the screen is shown.
+     */
+    private XYChart.Data<String, Number> boundBar(ViewLifecycle lifecycle, String name,
+                                                  ReadOnlyIntegerProperty count) {
+        XYChart.Data<String, Number> bar = new XYChart.Data<>(name, count.get());
+        lifecycle.bind(bar.YValueProperty(), count);
+        return bar;
+    }
+
     // -------------------------
     // Export current month report (with smart fallback)
     // -------------------------
@@ -260,19 +386,9 @@ public class AnalyticsController {
         }
 
         LocalDate now = LocalDate.now();
-        int currentYear = now.getYear();
-        int currentMonth = now.getMonthValue();
-
-        List<Task> monthTasks = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t == null) continue;
-            LocalDate due = t.getDueDate();
-            if (due != null &&
-                    due.getYear() == currentYear &&
-                    due.getMonthValue() == currentMonth) {
-                monthTasks.add(t);
-            }
-        }
+
+        // Range lookup in the due-date index, sorted by due date
+        List<Task> monthTasks = TaskService.getTasksForMonth(YearMonth.from(now));
 
         boolean exportingAll = false;
 
@@ -2,6 +2,7 @@ package frontend.controller;
 
 import frontend.Service.TaskService;
 import frontend.model.Task;
+import frontend.util.ViewLifecycle;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
@@ -35,12 +36,14 @@ public class CalendarController {
     /**
      * Called automatically after the FXML is loaded.
      * <p>
-     * Sets the current month to the current date and renders the calendar.
+     * Sets the current month to the current date. The calendar is drawn
+     * every time the screen is shown, since the screen is cached (see
+     * MainApp) and tasks may have changed in the meantime.
      */
     @FXML
     private void initialize() {
         currentMonth = YearMonth.now();
-        refreshCalendar();
+        ViewLifecycle.whenShown(calendarGrid, lifecycle -> refreshCalendar());
     }
 
     /**
@@ -136,10 +139,8 @@ public class CalendarController {
             dayLabel.setTooltip(new Tooltip("Today"));
         }
 
-        // Find all tasks with a due date equal to this specific day
-        List<Task> tasksForDay = TaskService.getTasks().stream()
-                .filter(t -> t.getDueDate() != null && t.getDueDate().isEqual(date))
-                .collect(Collectors.toList());
+        // Look up the tasks due on this specific day in the due-date index
+        List<Task> tasksForDay = TaskService.getIndex().dueOn(date);
 
         if (!tasksForDay.isEmpty()) {
             Label countLabel = new Label(
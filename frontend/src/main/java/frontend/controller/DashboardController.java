@@ -4,13 +4,14 @@ import frontend.MainApp;
 import frontend.Service.TaskService;
 import frontend.model.Task;
 import frontend.util.NotificationUtil;
+import frontend.util.ViewLifecycle;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextField;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -29,8 +30,9 @@ public class DashboardController {
     /**
      * Called automatically after the FXML is loaded.
      * <p>
-     * Ensures the progress bar starts from a valid state
-     * and shows a reminder alert about tasks that are due or overdue.
+     * Ensures the progress bar starts from a valid state. The screen is
+     * cached (see MainApp), so the reminder alert about tasks that are due
+     * or overdue is shown every time the dashboard is shown, not here.
      */
     @FXML
     private void initialize() {
@@ -38,7 +40,11 @@ public class DashboardController {
             overallProgress.setProgress(0.0);
         }
 
-        checkAndShowTaskAlerts();
+        // Shown once the dashboard is on screen, not in the middle of the switch
+        if (newTaskTitle != null) {
+            ViewLifecycle.whenShown(newTaskTitle,
+                    lifecycle -> Platform.runLater(this::checkAndShowTaskAlerts));
+        }
     }
 
     // -----------------------------
@@ -136,7 +142,10 @@ public class DashboardController {
                 notes
         );
 
-        TaskService.addTask(quickTask);
+        if (!TaskService.addTask(quickTask)) {
+            NotificationUtil.showError("Could not create the task right now. Please try again.");
+            return;
+        }
         newTaskTitle.clear();
 
         // 4) Friendly summary for the user
@@ -205,8 +214,8 @@ public class DashboardController {
     // -----------------------------
 
     /**
-     * Checks all tasks and shows a reminder popup for tasks that are
-     * due today or are already overdue.
+     * Looks up the tasks that are due today or already overdue
+     * (see {@link frontend.Service.TaskIndex}) and shows a reminder popup.
      * <p>
      * This method builds a human-readable summary and displays it
      * in a simple information {@link Alert}.
@@ -215,22 +224,9 @@ public class DashboardController {
     private void checkAndShowTaskAlerts() {
         LocalDate today = LocalDate.now();
 
-        List<Task> dueToday = new ArrayList<>();
-        List<Task> overdue = new ArrayList<>();
-
-        for (Task task : TaskService.getTasks()) {
-            if (task == null || task.getDueDate() == null) {
-                continue;
-            }
-
-            LocalDate due = task.getDueDate();
-
-            if (due.isBefore(today)) {
-                overdue.add(task);
-            } else if (due.isEqual(today)) {
-                dueToday.add(task);
-            }
-        }
+        // Two index lookups instead of a scan over every task
+        List<Task> dueToday = TaskService.getIndex().dueOn(today);
+        List<Task> overdue = TaskService.getIndex().dueBefore(today);
 
         if (dueToday.isEmpty() && overdue.isEmpty()) {
             return;
@@ -2,6 +2,7 @@ package frontend.controller;
 
 import frontend.MainApp;
 import frontend.Service.AuthService;
+import frontend.Service.TaskService;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -71,8 +72,12 @@ public class LoginController {
             return;
         }
 
-        // Credentials are valid → proceed to dashboard
+        // Credentials are valid → start receiving live task updates, then show the dashboard
+        TaskService.startLiveSync();
         MainApp.showDashboard();
+
+        // Load the other screens in the background while the user looks at the dashboard
+        MainApp.preloadMainScreens();
     }
 
     /**
@@ -3,6 +3,7 @@ package frontend.controller;
 import frontend.MainApp;
 import frontend.Service.ThemeManager;
 import frontend.Service.UserSession;
+import frontend.util.ViewLifecycle;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ChoiceBox;
@@ -31,28 +32,33 @@ public class SettingsController {
     /**
      * Called automatically after the FXML is loaded.
      * <p>
-     * Initializes the settings view by:
-     *  - Loading and showing the current profile photo,
-     *  - Loading the saved display name,
-     *  - Setting up the theme choice options and default selection.
+     * Sets up the theme choice options. The screen is cached (see
+     * MainApp), so every time it is shown it:
+     *  - Loads and shows the current profile photo,
+     *  - Loads the saved display name,
+     *  - Selects the current theme.
      */
     @FXML
     private void initialize() {
-        // Load profile photo from session or use placeholder
-        refreshPhoto();
-
-        // Load display name from session
-        String name = UserSession.getDisplayName();
-        if (name == null) name = "";
-        nameField.setText(name);
-
-        // Set up theme options and select current theme
         if (themeChoice != null) {
             themeChoice.getItems().setAll("Light", "Dark");
-            themeChoice.setValue(
-                    ThemeManager.getCurrentTheme() == ThemeManager.Theme.DARK ? "Dark" : "Light"
-            );
         }
+
+        ViewLifecycle.whenShown(nameField, lifecycle -> {
+            // Load profile photo from session or use placeholder
+            refreshPhoto();
+
+            // Load display name from session
+            String name = UserSession.getDisplayName();
+            if (name == null) name = "";
+            nameField.setText(name);
+
+            if (themeChoice != null) {
+                themeChoice.setValue(
+                        ThemeManager.getCurrentTheme() == ThemeManager.Theme.DARK ? "Dark" : "Light"
+                );
+            }
+        });
     }
 
     /**
@@ -158,11 +164,10 @@ public class SettingsController {
     /**
      * Logs out the current user.
      * <p>
-     * Clears the {@link UserSession} and navigates back to the login screen.
+     * Same as the sidebar's logout button (see {@link MainApp#logout()}).
      */
     @FXML
     private void handleLogout() {
-        UserSession.clear();
-        MainApp.showLogin();
+        MainApp.logout();
     }
 }
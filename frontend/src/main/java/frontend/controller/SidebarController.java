@@ -3,6 +3,7 @@ package frontend.controller;
 import frontend.MainApp;
 import frontend.Service.ThemeManager;
 import frontend.Service.UserSession;
+import frontend.util.ViewLifecycle;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -37,31 +38,59 @@ public class SidebarController {
     @FXML private Button darkToggleBtn;   // moon button
     @FXML private Button logoutBtn;
 
+    /**
+     * fx:id of the selected navigation button. Every cached screen has its
+     * own sidebar, so the one being shown copies the selection from here.
+     */
+    private static String selectedButtonId = "homeBtn";
+
     /**
      * Called automatically after the FXML is loaded.
      * <p>
-     * Initializes the profile name and photo, registers listeners so
-     * changes in {@link UserSession} are reflected in the sidebar,
-     * applies the correct background style for the current theme,
-     * and wires the logout button.
+     * Wires the logout button. The sidebar is part of every cached screen
+     * (see MainApp), so every time its screen is shown it refreshes the
+     * profile name and photo, registers listeners so changes in
+     * {@link UserSession} are reflected in the sidebar, applies the
+     * background style for the current theme and selects the current button.
      */
     @FXML
     private void initialize() {
-        // Initial name and photo
+        if (root != null) {
+            ViewLifecycle.whenShown(root, this::onShown);
+        } else {
+            refreshProfileName();
+            refreshProfileImage();
+        }
+
+        // Logout button action
+        if (logoutBtn != null) {
+            logoutBtn.setOnAction(e -> handleLogout());
+        }
+    }
+
+    /**
+     * Refreshes the sidebar when its screen is shown.
+     *
+     * @param lifecycle ends when the screen is left again
+     */
+    private void onShown(ViewLifecycle lifecycle) {
         refreshProfileName();
         refreshProfileImage();
 
         // React when settings screen changes name or photo
-        UserSession.setDisplayNameListener(this::refreshProfileName);
-        UserSession.setProfileImageListener(this::refreshProfileImage);
+        Runnable nameListener = this::refreshProfileName;
+        Runnable imageListener = this::refreshProfileImage;
+        UserSession.setDisplayNameListener(nameListener);
+        UserSession.setProfileImageListener(imageListener);
+
+        // Let go of the listeners when the screen is left
+        lifecycle.onDispose(() -> UserSession.removeDisplayNameListener(nameListener));
+        lifecycle.onDispose(() -> UserSession.removeProfileImageListener(imageListener));
 
         // Apply sidebar style based on current theme
         applySidebarTheme(ThemeManager.getCurrentTheme());
 
-        // Logout button action
-        if (logoutBtn != null) {
-            logoutBtn.setOnAction(e -> handleLogout());
-        }
+        markSelected(selectedButtonId);
     }
 
     /**
@@ -195,23 +224,33 @@ public class SidebarController {
      * @param active the button that should remain selected
      */
     private void selectOnly(ToggleButton active) {
-        if (homeBtn != null)     homeBtn.setSelected(homeBtn == active);
-        if (tasksBtn != null)    tasksBtn.setSelected(tasksBtn == active);
-        if (calendarBtn != null) calendarBtn.setSelected(calendarBtn == active);
-        if (reportsBtn != null)  reportsBtn.setSelected(reportsBtn == active);
-        if (settingsBtn != null) settingsBtn.setSelected(settingsBtn == active);
+        selectedButtonId = active != null ? active.getId() : null;
+        markSelected(selectedButtonId);
+    }
+
+    /**
+     * Selects the button with the given fx:id and clears the rest.
+     */
+    private void markSelected(String buttonId) {
+        for (ToggleButton b : new ToggleButton[] {homeBtn, tasksBtn, calendarBtn, reportsBtn, settingsBtn}) {
+            if (b != null) b.setSelected(b.getId() != null && b.getId().equals(buttonId));
+        }
     }
 
     // -------- logout --------
 
     /**
-     * Logs the user out from the current session and returns to the login screen.
-     * <p>
-     * Also clears the display name and profile image path stored in {@link UserSession}.
+     * Logs the user out from the current session and returns to the login screen
+     * (see {@link MainApp#logout()}).
      */
     private void handleLogout() {
-        UserSession.setDisplayName(null);
-        UserSession.setProfileImagePath(null);
-        MainApp.showLogin();
+        MainApp.logout();
+    }
+
+    /**
+     * Selects the dashboard button again, for the next user after a logout.
+     */
+    public static void resetSelection() {
+        selectedButtonId = "homeBtn";
     }
 }
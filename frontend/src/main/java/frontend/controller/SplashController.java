@@ -1,26 +1,56 @@
 package frontend.controller;
 
+import com.studenttaskmanager.backend.db.FirebaseConfig;
+import com.studenttaskmanager.backend.db.RepositoryConfig;
+import frontend.Service.TaskService;
+import frontend.util.StartupPipeline;
+import frontend.util.StartupPipeline.Step;
+import frontend.util.ViewRegistry;
 import javafx.animation.FadeTransition;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.css.CssParser;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
+import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Controller for the splash screen shown when the app starts.
  * <p>
- * This screen shows a short loading animation with a progress bar
- * and status text, then switches to the Login view with a fade-in effect.
+ * While the splash is shown, the work the app needs before it is usable
+ * runs as a {@link StartupPipeline}, and the progress bar and status text
+ * show how far it really is:
+ *  - reading the Firebase credentials,
+ *  - creating the Firestore client on the shared I/O threads,
+ *  - setting up the backend (Firebase, journal, write queue), which needs
+ *    the credentials,
+ *  - loading the tasks, which needs the backend,
+ *  - loading the login screen, the stylesheets and the icon font, which
+ *    do not need anything and run at the same time as the backend steps.
+ * When everything is done, the app switches to the Login view with a
+ * fade-in effect.
  */
 public class SplashController {
 
+    /**
+     * The splash moves on even if the first task load is still running
+     * after this long; the tasks keep arriving in the background.
+     */
+    private static final long TASK_LOAD_TIMEOUT_SECONDS = 20;
+
     @FXML
     private ProgressBar progressBar;
 
@@ -31,53 +61,102 @@ public class SplashController {
     private ImageView logoImage;
 
     /**
-     * Current progress value for the splash animation, between 0.0 and 1.0.
+     * Login screen loaded by the pipeline (null if that step failed).
      */
-    private double progress = 0.0;
+    private volatile Parent loginRoot;
 
     /**
      * Called automatically after the FXML is loaded.
      * <p>
-     * Creates a {@link Timeline} that updates the progress bar and loading text
-     * every 40 milliseconds for about 2 seconds, then moves to the main view.
+     * Builds the startup pipeline and starts it. Progress updates arrive on
+     * the JavaFX thread; when the last step is done the main view is shown.
      */
     @FXML
     private void initialize() {
-        // Simple loading animation (~2 seconds)
-        Timeline tl = new Timeline(
-                new KeyFrame(Duration.millis(40), e -> {
-                    progress = Math.min(1.0, progress + 0.02);
-                    progressBar.setProgress(progress);
-
-                    if (progress < 0.3) {
-                        loadingLabel.setText("Loading assets…");
-                    } else if (progress < 0.6) {
-                        loadingLabel.setText("Initializing UI…");
-                    } else if (progress < 0.9) {
-                        loadingLabel.setText("Preparing dashboard…");
-                    } else {
-                        loadingLabel.setText("Ready");
-                    }
-                })
-        );
-        tl.setCycleCount(50); // 50 * 40ms ≈ 2 seconds total
-        tl.setOnFinished(e -> goToMainView());
-        tl.play();
+        ExecutorService workers = Executors.newFixedThreadPool(3, new StartupThreadFactory());
+        StartupPipeline startup = new StartupPipeline(workers, Platform::runLater);
+
+        // Backend chain: credentials -> backend -> tasks
+        Step backend;
+        if (RepositoryConfig.BACKEND_FIREBASE.equals(RepositoryConfig.backend())) {
+            Step credentials = startup.step("Reading credentials…", 1,
+                    FirebaseConfig::loadCredentials);
+            Step client = startup.asyncStep("Connecting to Firebase…", 2,
+                    FirebaseConfig::initAsync, credentials);
+            backend = startup.step("Setting up…", 1, TaskService::init, client);
+        } else {
+            backend = startup.step("Opening the database…", 3, TaskService::init);
+        }
+        startup.asyncStep("Loading tasks…", 4, this::loadTasks, backend);
+
+        // UI warm-up, independent of the backend
+        startup.step("Loading screens…", 2,
+                () -> loginRoot = ViewRegistry.loadFxml("/frontend/fxml/Login.fxml").getRoot());
+        startup.step("Loading styles…", 1, this::parseStylesheets);
+        startup.step("Loading icons…", 1, () -> new FontIcon("fas-home"));
+
+        startup.start(this::showProgress).whenComplete((v, error) -> {
+            workers.shutdown();
+            Platform.runLater(this::goToMainView);
+        });
+    }
+
+    /**
+     * Starts the first task load on the JavaFX thread (it fills the shared
+     * task list) and finishes when the last page is in.
+     */
+    private CompletableFuture<?> loadTasks() {
+        CompletableFuture<Integer> loaded = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                TaskService.loadFromBackend().whenComplete((total, error) -> {
+                    if (error != null) loaded.completeExceptionally(error);
+                    else loaded.complete(total);
+                });
+            } catch (RuntimeException | Error e) {
+                loaded.completeExceptionally(e);
+            }
+        });
+        return loaded.orTimeout(TASK_LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Parses the stylesheets once, so the CSS parser classes are loaded and
+     * compiled before the first screen needs them.
+     */
+    private void parseStylesheets() throws Exception {
+        CssParser parser = new CssParser();
+        parser.parse(getClass().getResource("/frontend/css/styles.css"));
+        parser.parse(getClass().getResource("/frontend/css/styles-dark.css"));
+    }
+
+    /**
+     * Shows pipeline progress (runs on the JavaFX thread).
+     */
+    private void showProgress(double progress, String message) {
+        if (progressBar != null) {
+            progressBar.setProgress(progress);
+        }
+        if (loadingLabel != null) {
+            loadingLabel.setText(message);
+        }
     }
 
     /**
-     * Loads and shows the main Login view after the splash finishes.
+     * Shows the main Login view after the startup work is done.
      * <p>
      * This method:
-     *  - Loads Login.fxml,
+     *  - Uses the login screen loaded during startup (or loads it now),
      *  - Applies the global CSS stylesheet,
      *  - Sets up a fade-in transition on the new root node,
      *  - Replaces the splash scene on the same stage.
      */
     private void goToMainView() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/frontend/fxml/Login.fxml"));
-            Scene nextScene = new Scene(loader.load());
+            Parent root = loginRoot != null
+                    ? loginRoot
+                    : ViewRegistry.loadFxml("/frontend/fxml/Login.fxml").getRoot();
+            Scene nextScene = new Scene(root);
 
             // Keep your global CSS
             nextScene.getStylesheets().add(
@@ -101,4 +180,19 @@ public class SplashController {
             }
         }
     }
+
+    /**
+     * Names the threads "startup-N" and makes them daemon threads.
+     */
+    private static class StartupThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "startup-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
 }
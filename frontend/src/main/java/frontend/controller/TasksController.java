@@ -1,9 +1,11 @@
 package frontend.controller;
 
 import frontend.MainApp;
+import frontend.Service.TaskFilterPipeline;
 import frontend.Service.TaskService;
 import frontend.model.Task;
 import frontend.util.NotificationUtil;
+import frontend.util.ViewLifecycle;
 import javafx.collections.FXCollections;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
@@ -11,7 +13,6 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
@@ -22,7 +23,7 @@ import java.time.LocalDate;
  * Controller for the main Tasks screen.
  * <p>
  * This screen shows all tasks in a table and lets the user:
- *  - Search by title or course,
+ *  - Search by title, course or notes,
  *  - Filter by status and priority,
  *  - Create new tasks,
  *  - Edit or delete existing tasks,
@@ -42,7 +43,8 @@ public class TasksController {
     @FXML private TableColumn<Task, String> statusColumn;
 
     /**
-     * Wrapper around the global task list that lets us apply filters.
+     * Filtered view of the global task list (shared, see
+     * {@link TaskService#getFilteredTasks()}).
      */
     private FilteredList<Task> filteredTasks;
 
@@ -50,29 +52,29 @@ public class TasksController {
      * Called automatically after the FXML is loaded.
      * <p>
      * This method:
-     *  - Binds table columns to Task properties,
-     *  - Wraps the shared task list in a {@link FilteredList},
+     *  - Binds table columns to the Task properties,
      *  - Populates the status and priority filter combo boxes,
      *  - Wires the search field to re-apply filters on text change,
-     *  - Applies the initial filter (show all tasks).
+     *  - Every time the screen is shown: puts the shared
+     *    {@link FilteredList} of tasks in the table and applies the filters.
+     * <p>
+     * The screen is cached and may be loaded on a background thread (see
+     * MainApp), so nothing here touches the shared task list directly.
      */
     @FXML
     private void initialize() {
-        // Set up table column bindings
+        // Set up table column bindings. The cells show the task's own
+        // properties (no reflection), so an edit updates just that cell.
         if (titleColumn != null)
-            titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
+            titleColumn.setCellValueFactory(cell -> cell.getValue().titleProperty());
         if (courseColumn != null)
-            courseColumn.setCellValueFactory(new PropertyValueFactory<>("course"));
+            courseColumn.setCellValueFactory(cell -> cell.getValue().courseProperty());
         if (dueColumn != null)
-            dueColumn.setCellValueFactory(new PropertyValueFactory<>("dueDate"));
+            dueColumn.setCellValueFactory(cell -> cell.getValue().dueDateProperty());
         if (priorityColumn != null)
-            priorityColumn.setCellValueFactory(new PropertyValueFactory<>("priority"));
+            priorityColumn.setCellValueFactory(cell -> cell.getValue().priorityProperty());
         if (statusColumn != null)
-            statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
-
-        // Observable list from TaskService, wrapped so we can filter it
-        filteredTasks = new FilteredList<>(TaskService.getTasks(), t -> true);
-        tasksTable.setItems(filteredTasks);
+            statusColumn.setCellValueFactory(cell -> cell.getValue().statusProperty());
 
         // Status filter options
         if (statusFilter != null) {
@@ -95,20 +97,28 @@ public class TasksController {
             searchField.textProperty().addListener((obs, o, n) -> applyFilters());
         }
 
-        applyFilters();
+        // Shared filtered view of the TaskService list. The table lets go of
+        // it while the screen is hidden, so it does not follow every change.
+        ViewLifecycle.whenShown(tasksTable, lifecycle -> {
+            filteredTasks = TaskService.getFilteredTasks();
+            tasksTable.setItems(filteredTasks);
+            lifecycle.onDispose(() -> tasksTable.setItems(null));
+
+            // The shared pipeline may hold another filter; use this screen's
+            applyFilters();
+        });
     }
 
     /**
      * Applies search, status, and priority filters to the table.
      * <p>
      * This method reads the current values of the search field and the
-     * two combo boxes, then updates the predicate of {@link #filteredTasks}.
+     * two combo boxes, then hands them to the {@link TaskFilterPipeline},
+     * which updates {@link #filteredTasks} when the filter is done.
      */
     @FXML
     private void applyFilters() {
-        String searchText = searchField != null && searchField.getText() != null
-                ? searchField.getText().toLowerCase().trim()
-                : "";
+        String searchText = searchField != null ? searchField.getText() : null;
 
         String status = (statusFilter != null && statusFilter.getValue() != null)
                 ? statusFilter.getValue()
@@ -118,36 +128,9 @@ public class TasksController {
                 ? priorityFilter.getValue()
                 : "All";
 
-        filteredTasks.setPredicate(task -> {
-            if (task == null) return false;
-
-            // Search by title or course
-            if (!searchText.isEmpty()) {
-                String title = task.getTitle() != null ? task.getTitle().toLowerCase() : "";
-                String course = task.getCourse() != null ? task.getCourse().toLowerCase() : "";
-                if (!title.contains(searchText) && !course.contains(searchText)) {
-                    return false;
-                }
-            }
-
-            // Status filter
-            if (!"All".equals(status)) {
-                String s = task.getStatus() != null ? task.getStatus() : "";
-                if (!s.equalsIgnoreCase(status)) {
-                    return false;
-                }
-            }
-
-            // Priority filter
-            if (!"All".equals(priority)) {
-                String p = task.getPriority() != null ? task.getPriority() : "";
-                if (!p.equalsIgnoreCase(priority)) {
-                    return false;
-                }
-            }
-
-            return true;
-        });
+        // Filtered in the background after a short pause in typing;
+        // the table updates once the result is ready
+        TaskService.getFilterPipeline().request(searchText, status, priority);
     }
 
     // ---------------- buttons ----------------
@@ -1,20 +1,45 @@
 package frontend.model;
 
+import javafx.beans.Observable;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.ReadOnlyProperty;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.util.Callback;
+
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Simple task model used by the JavaFX UI.
  * id is the Firebase/backend id for this task.
+ * <p>
+ * The fields the user can edit are JavaFX properties, so tables and
+ * bindings see an edit as soon as a setter is called. A list created with
+ * {@link #extractor()} (like the one in TaskService) reports such an edit
+ * as an update of that one task.
+ * <p>
+ * The task also remembers which fields changed since it was loaded or
+ * last saved ({@link #getDirtyFields()}), so saving can send only those
+ * fields, or nothing at all. Like the rest of the model this is meant to
+ * be used on the JavaFX thread.
  */
 public class Task {
 
     private int id;              // backend id (from Firebase)
-    private String title;
-    private String course;
-    private LocalDate dueDate;
-    private String priority;
-    private String status;
-    private String notes;
+    private final StringProperty title = new SimpleStringProperty(this, "title");
+    private final StringProperty course = new SimpleStringProperty(this, "course");
+    private final ObjectProperty<LocalDate> dueDate = new SimpleObjectProperty<>(this, "dueDate");
+    private final StringProperty priority = new SimpleStringProperty(this, "priority");
+    private final StringProperty status = new SimpleStringProperty(this, "status");
+    private final StringProperty notes = new SimpleStringProperty(this, "notes");
+
+    // Names of the properties changed since load / last save (see markClean)
+    private final Set<String> dirty = new LinkedHashSet<>();
 
     // Full constructor with id – used when loading from Firebase
     public Task(int id,
@@ -26,12 +51,24 @@ public class Task {
                 String notes) {
 
         this.id = id;
-        this.title = title;
-        this.course = course;
-        this.dueDate = dueDate;
-        this.priority = priority;
-        this.status = status;
-        this.notes = notes;
+        this.title.set(title);
+        this.course.set(course);
+        this.dueDate.set(dueDate);
+        this.priority.set(priority);
+        this.status.set(status);
+        this.notes.set(notes);
+
+        // Registered after the initial values, so a new task starts clean.
+        // A ChangeListener (not an InvalidationListener) fires on every real
+        // change, and setting the same value again does not count.
+        ChangeListener<Object> tracker = (obs, oldValue, newValue) ->
+                dirty.add(((ReadOnlyProperty<?>) obs).getName());
+        this.title.addListener(tracker);
+        this.course.addListener(tracker);
+        this.dueDate.addListener(tracker);
+        this.priority.addListener(tracker);
+        this.status.addListener(tracker);
+        this.notes.addListener(tracker);
     }
 
     // Old constructor without id – keeps existing UI code working
@@ -45,6 +82,54 @@ public class Task {
         this(0, title, course, dueDate, priority, status, notes);
     }
 
+    /**
+     * Extractor for FXCollections.observableArrayList(...): a list made
+     * with it fires an update change whenever one of these fields changes.
+     */
+    public static Callback<Task, Observable[]> extractor() {
+        return t -> new Observable[] {
+                t.title, t.course, t.dueDate, t.priority, t.status, t.notes
+        };
+    }
+
+    // --- change tracking ---
+
+    /**
+     * Names of the fields changed since the task was loaded or last saved
+     * ("title", "course", "dueDate", "priority", "status", "notes").
+     */
+    public Set<String> getDirtyFields() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(dirty));
+    }
+
+    public boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Forgets the changes, for example after they were queued for saving.
+     */
+    public void markClean() {
+        dirty.clear();
+    }
+
+    /**
+     * Takes over every field of a newer version of this task (for example
+     * one that came from the backend) and marks the task clean, since it
+     * now matches what is stored.
+     *
+     * @param newer task with the same id
+     */
+    public void copyFrom(Task newer) {
+        setTitle(newer.getTitle());
+        setCourse(newer.getCourse());
+        setDueDate(newer.getDueDate());
+        setPriority(newer.getPriority());
+        setStatus(newer.getStatus());
+        setNotes(newer.getNotes());
+        markClean();
+    }
+
     // --- getters ---
 
     public int getId() {
@@ -52,27 +137,27 @@ public class Task {
     }
 
     public String getTitle() {
-        return title;
+        return title.get();
     }
 
     public String getCourse() {
-        return course;
+        return course.get();
     }
 
     public LocalDate getDueDate() {
-        return dueDate;
+        return dueDate.get();
     }
 
     public String getPriority() {
-        return priority;
+        return priority.get();
     }
 
     public String getStatus() {
-        return status;
+        return status.get();
     }
 
     public String getNotes() {
-        return notes;
+        return notes.get();
     }
 
     // --- setters ---
@@ -82,26 +167,52 @@ public class Task {
     }
 
     public void setTitle(String title) {
-        this.title = title;
+        this.title.set(title);
     }
 
     public void setCourse(String course) {
-        this.course = course;
+        this.course.set(course);
     }
 
     public void setDueDate(LocalDate dueDate) {
-        this.dueDate = dueDate;
+        this.dueDate.set(dueDate);
     }
 
     public void setPriority(String priority) {
-        this.priority = priority;
+        this.priority.set(priority);
     }
 
     public void setStatus(String status) {
-        this.status = status;
+        this.status.set(status);
     }
 
     public void setNotes(String notes) {
-        this.notes = notes;
+        this.notes.set(notes);
+    }
+
+    // --- properties (for table columns and bindings) ---
+
+    public StringProperty titleProperty() {
+        return title;
+    }
+
+    public StringProperty courseProperty() {
+        return course;
+    }
+
+    public ObjectProperty<LocalDate> dueDateProperty() {
+        return dueDate;
+    }
+
+    public StringProperty priorityProperty() {
+        return priority;
+    }
+
+    public StringProperty statusProperty() {
+        return status;
+    }
+
+    public StringProperty notesProperty() {
+        return notes;
     }
-}
\ No newline at end of file
+}
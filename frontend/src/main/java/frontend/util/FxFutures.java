@@ -0,0 +1,64 @@
+package frontend.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Hands results of background work over to the JavaFX application thread.
+ * <p>
+ * {@code future.thenApplyAsync(fn, fxThread)} is not enough for that: when
+ * the future fails, fn is skipped and the returned future fails right away
+ * on whatever thread the failure happened, usually an I/O thread. A
+ * controller that then updates a label in its error branch touches the
+ * scene graph off the FX thread.
+ * <p>
+ * The future returned by {@link #applyOn} completes on the given executor
+ * in both cases, so the handlers a controller adds to it (whenComplete,
+ * thenAccept, exceptionally, ...) run on the FX thread, whether the work
+ * succeeded or failed.
+ */
+public final class FxFutures {
+
+    private FxFutures() {
+    }
+
+    /**
+     * Maps the result of a future on the given executor, and completes the
+     * returned future there too, also when the source fails.
+     *
+     * @param executor where fn runs and the result completes (the FX thread)
+     * @param source   background work
+     * @param fn       mapping of the result (runs only on success)
+     * @return future completed on the executor with fn's result, or with the
+     *         failure of source or fn
+     */
+    public static <T, R> CompletableFuture<R> applyOn(Executor executor,
+                                                      CompletableFuture<T> source,
+                                                      Function<? super T, ? extends R> fn) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        source.whenCompleteAsync((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            try {
+                result.complete(fn.apply(value));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, executor);
+        return result;
+    }
+
+    /**
+     * Completes on the given executor with the result or failure of source.
+     *
+     * @param executor where the returned future completes (the FX thread)
+     * @param source   background work
+     * @return future completed on the executor
+     */
+    public static <T> CompletableFuture<T> completeOn(Executor executor, CompletableFuture<T> source) {
+        return applyOn(executor, source, Function.identity());
+    }
+}
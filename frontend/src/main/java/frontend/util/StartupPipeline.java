@@ -0,0 +1,246 @@
+package frontend.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Runs the work needed before the app is usable as a set of steps, and
+ * reports real progress for the splash screen.
+ * <p>
+ * Each step has a name, a weight (its share of the progress bar) and the
+ * steps it has to wait for. Steps that do not wait for each other run at
+ * the same time on the given executor, so the total time is the longest
+ * chain of steps, not the sum of all of them. Every step is timed and
+ * the time is printed, together with the total at the end.
+ * <p>
+ * A step that fails is logged and counted as done; the steps after it
+ * still run and deal with the missing piece themselves (the app already
+ * copes with a backend that cannot be reached). Startup never gets stuck
+ * on the splash screen because of one failing step.
+ * <p>
+ * Typical use:
+ * <pre>
+ *   StartupPipeline startup = new StartupPipeline(workers, Platform::runLater);
+ *   Step keys = startup.step("Reading credentials", 1, FirebaseConfig::loadCredentials);
+ *   startup.step("Connecting", 2, TaskService::init, keys);
+ *   startup.start((progress, message) -&gt; ...).thenRun(...);
+ * </pre>
+ */
+public final class StartupPipeline {
+
+    /**
+     * Receives progress updates on the executor given to the constructor
+     * for UI updates (the JavaFX thread).
+     */
+    public interface ProgressListener {
+        /**
+         * @param progress finished share of the work, 0.0 to 1.0
+         * @param message  name of a step that is still running, or "Ready"
+         */
+        void onProgress(double progress, String message);
+    }
+
+    /**
+     * Work that may throw a checked exception (reading files and so on).
+     */
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    /**
+     * One step of the pipeline. Pass it to later steps to make them wait for it.
+     */
+    public static final class Step {
+        private final String name;
+        private final double weight;
+        private final CompletableFuture<Void> done;
+        private volatile long millis = -1;
+        private volatile boolean failed;
+
+        private Step(String name, double weight, CompletableFuture<Void> done) {
+            this.name = name;
+            this.weight = weight;
+            this.done = done;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * How long the step took, or -1 while it has not finished.
+         */
+        public long getMillis() {
+            return millis;
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+    }
+
+    private final Executor workers;
+    private final Executor uiExecutor;
+
+    // Completed by start(); every step waits for it
+    private final CompletableFuture<Void> started = new CompletableFuture<>();
+    private final List<Step> steps = new ArrayList<>();
+
+    // Guarded by "this"
+    private final Set<String> running = new LinkedHashSet<>();
+    private double finishedWeight = 0;
+
+    private volatile ProgressListener listener = (progress, message) -> { };
+    private long startNanos;
+
+    /**
+     * @param workers    runs the steps (more than one thread, so steps can overlap)
+     * @param uiExecutor runs progress updates (Platform::runLater)
+     */
+    public StartupPipeline(Executor workers, Executor uiExecutor) {
+        this.workers = workers;
+        this.uiExecutor = uiExecutor;
+    }
+
+    /**
+     * Adds a step that does all of its work on a worker thread.
+     *
+     * @param name   shown on the splash screen while the step runs
+     * @param weight share of the progress bar
+     * @param work   the work
+     * @param after  steps that must finish first
+     */
+    public Step step(String name, double weight, Work work, Step... after) {
+        return asyncStep(name, weight, () -> {
+            try {
+                work.run();
+                return CompletableFuture.completedFuture(null);
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }, after);
+    }
+
+    /**
+     * Adds a step that starts work elsewhere and finishes when the returned
+     * future completes (for example loading tasks from the backend).
+     * The supplier itself is called on a worker thread.
+     */
+    public Step asyncStep(String name, double weight,
+                          Supplier<? extends CompletionStage<?>> work, Step... after) {
+        if (started.isDone()) {
+            throw new IllegalStateException("Steps must be added before start()");
+        }
+
+        CompletableFuture<?>[] before = new CompletableFuture<?>[after.length];
+        for (int i = 0; i < after.length; i++) {
+            before[i] = after[i].done;
+        }
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        Step step = new Step(name, weight, done);
+        steps.add(step);
+
+        // Steps never fail their future (see finish), so allOf always completes
+        started.thenCompose(v -> CompletableFuture.allOf(before))
+                .thenRunAsync(() -> run(step, work), workers);
+        return step;
+    }
+
+    /**
+     * Starts every step whose steps before it are done.
+     *
+     * @param progressListener receives progress on the UI executor
+     * @return completes when every step has finished (failed or not)
+     */
+    public CompletableFuture<Void> start(ProgressListener progressListener) {
+        if (progressListener != null) {
+            listener = progressListener;
+        }
+        startNanos = System.nanoTime();
+
+        CompletableFuture<?>[] all = new CompletableFuture<?>[steps.size()];
+        for (int i = 0; i < steps.size(); i++) {
+            all[i] = steps.get(i).done;
+        }
+        CompletableFuture<Void> finished = CompletableFuture.allOf(all).thenRun(this::logTotal);
+
+        started.complete(null);
+        return finished;
+    }
+
+    /**
+     * The steps in the order they were added (timings are filled in as they finish).
+     */
+    public List<Step> getSteps() {
+        return new ArrayList<>(steps);
+    }
+
+    // --------------------
+    // Internal helpers
+    // --------------------
+
+    private void run(Step step, Supplier<? extends CompletionStage<?>> work) {
+        long stepStart = System.nanoTime();
+        synchronized (this) {
+            running.add(step.name);
+        }
+        report();
+
+        CompletionStage<?> stage;
+        try {
+            stage = work.get();
+        } catch (RuntimeException | Error e) {
+            // For example ExceptionInInitializerError from a failing backend setup
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((value, error) -> finish(step, stepStart, error));
+    }
+
+    private void finish(Step step, long stepStart, Throwable error) {
+        step.millis = (System.nanoTime() - stepStart) / 1_000_000;
+        step.failed = error != null;
+
+        if (error != null) {
+            System.out.println("Startup step '" + step.name + "' failed after " + step.millis + " ms");
+            error.printStackTrace();
+        } else {
+            System.out.println("Startup step '" + step.name + "' took " + step.millis + " ms");
+        }
+
+        synchronized (this) {
+            running.remove(step.name);
+            finishedWeight += step.weight;
+        }
+        report();
+        step.done.complete(null);
+    }
+
+    private synchronized void report() {
+        double total = 0;
+        for (Step s : steps) {
+            total += s.weight;
+        }
+        double progress = total > 0 ? Math.min(1.0, finishedWeight / total) : 1.0;
+        String message = running.isEmpty() ? "Ready" : running.iterator().next();
+
+        // Handed over while holding the lock, so updates arrive in order
+        uiExecutor.execute(() -> listener.onProgress(progress, message));
+    }
+
+    private void logTotal() {
+        long total = (System.nanoTime() - startNanos) / 1_000_000;
+        long sum = 0;
+        for (Step s : steps) {
+            sum += Math.max(0, s.millis);
+        }
+        System.out.println("Startup finished in " + total + " ms (steps took "
+                + sum + " ms together)");
+    }
+}
@@ -0,0 +1,212 @@
+package frontend.util;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.Property;
+import javafx.beans.property.StringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Ties a controller's listeners and bindings to the time its view is on screen.
+ * <p>
+ * MainApp loads a fresh FXML view (and controller) on every navigation.
+ * A listener that a controller adds to something long-lived, like the
+ * shared task list in TaskService, keeps that controller and its whole
+ * scene graph alive after the user has left the screen, and it keeps
+ * running on every change. After a long session that is dozens of dead
+ * screens.
+ * <p>
+ * Controllers register such subscriptions here instead. The lifecycle
+ * watches the view's scene: as soon as the view is taken out of the
+ * scene (MainApp swaps the root), every listener is removed, every
+ * binding is undone and every cleanup action runs. Subscriptions made
+ * after that are ignored.
+ * <p>
+ * Typical use in a controller:
+ * <pre>
+ *   ViewLifecycle lifecycle = ViewLifecycle.of(someLabel);
+ *   lifecycle.listen(TaskService.getTasks(), change -&gt; refresh());
+ *   lifecycle.bindText(countLabel.textProperty(), counter);
+ * </pre>
+ * Views kept by the {@link ViewRegistry} are shown again later with the
+ * same controller. They subscribe in {@link #whenShown} instead, which
+ * hands out a fresh lifecycle every time the view is put on screen.
+ * Only use this on the JavaFX application thread.
+ */
+public final class ViewLifecycle {
+
+    // Views that are on screen (or loaded and not yet shown). Used to spot leaks.
+    private static int activeCount = 0;
+
+    private final ObservableValue<?> attachment;
+    private final ChangeListener<Object> attachmentListener = this::onAttachmentChanged;
+    private final List<Runnable> cleanups = new ArrayList<>();
+    private boolean disposed;
+
+    private ViewLifecycle(ObservableValue<?> attachment) {
+        this.attachment = attachment;
+        activeCount++;
+        attachment.addListener(attachmentListener);
+    }
+
+    /**
+     * Lifecycle of the view that contains the given node. Any node of the
+     * view works, since they all leave the scene together.
+     *
+     * @param viewNode a node of the controller's view
+     * @return the lifecycle
+     */
+    public static ViewLifecycle of(Node viewNode) {
+        return attachedTo(viewNode.sceneProperty());
+    }
+
+    /**
+     * Lifecycle that ends when the given value goes from set to null.
+     * {@link #of(Node)} uses the node's scene; tests can pass any property.
+     *
+     * @param attachment value that is non-null while the view is shown
+     * @return the lifecycle
+     */
+    public static ViewLifecycle attachedTo(ObservableValue<?> attachment) {
+        return new ViewLifecycle(attachment);
+    }
+
+    /**
+     * Refresh hook for views that are shown more than once (cached views).
+     * Every time the view is put into the scene, a new lifecycle is
+     * created and passed to {@code onShow}; it ends when the view leaves
+     * the scene again. Subscribe and refresh the view in {@code onShow}.
+     *
+     * @param viewNode a node of the controller's view
+     * @param onShow   called on every show with that show's lifecycle
+     */
+    public static void whenShown(Node viewNode, Consumer<ViewLifecycle> onShow) {
+        whenAttached(viewNode.sceneProperty(), onShow);
+    }
+
+    /**
+     * Same as {@link #whenShown(Node, Consumer)} for any value that is
+     * non-null while the view is shown (used by tests).
+     */
+    public static void whenAttached(ObservableValue<?> attachment, Consumer<ViewLifecycle> onShow) {
+        attachment.addListener((obs, oldValue, newValue) -> {
+            if (oldValue == null && newValue != null) {
+                onShow.accept(new ViewLifecycle(attachment));
+            }
+        });
+        if (attachment.getValue() != null) {
+            onShow.accept(new ViewLifecycle(attachment));
+        }
+    }
+
+    /**
+     * Number of views whose lifecycle has not ended yet.
+     * Stays small however often the user navigates.
+     */
+    public static int activeCount() {
+        return activeCount;
+    }
+
+    // --------------------
+    // Subscriptions
+    // --------------------
+
+    /**
+     * Adds a list listener that is removed when the view goes away.
+     */
+    public <T> void listen(ObservableList<T> list, ListChangeListener<? super T> listener) {
+        if (disposed) return;
+        list.addListener(listener);
+        cleanups.add(() -> list.removeListener(listener));
+    }
+
+    /**
+     * Adds a value listener that is removed when the view goes away.
+     */
+    public <T> void listen(ObservableValue<T> value, ChangeListener<? super T> listener) {
+        if (disposed) return;
+        value.addListener(listener);
+        cleanups.add(() -> value.removeListener(listener));
+    }
+
+    /**
+     * Binds a property that is unbound when the view goes away.
+     */
+    public <T> void bind(Property<T> target, ObservableValue<? extends T> source) {
+        if (disposed) return;
+        target.bind(source);
+        cleanups.add(target::unbind);
+    }
+
+    /**
+     * Shows a value as text. The conversion binding made here is disposed
+     * together with the view, so nothing stays registered on the value.
+     */
+    public void bindText(StringProperty target, ObservableValue<?> value) {
+        if (disposed) return;
+        StringBinding text = Bindings.createStringBinding(
+                () -> String.valueOf(value.getValue()), value);
+        target.bind(text);
+        cleanups.add(() -> {
+            target.unbind();
+            text.dispose();
+        });
+    }
+
+    /**
+     * Runs an action when the view goes away (for example to let go of a
+     * shared list). Runs right away if the view is already gone.
+     */
+    public void onDispose(Runnable cleanup) {
+        if (disposed) {
+            cleanup.run();
+            return;
+        }
+        cleanups.add(cleanup);
+    }
+
+    // --------------------
+    // End of life
+    // --------------------
+
+    /**
+     * Ends the lifecycle now: removes every listener and binding
+     * registered here. Called automatically when the view leaves the scene.
+     */
+    public void dispose() {
+        if (disposed) return;
+        disposed = true;
+        activeCount--;
+        attachment.removeListener(attachmentListener);
+
+        // Undo in reverse order, like closing nested resources
+        for (int i = cleanups.size() - 1; i >= 0; i--) {
+            try {
+                cleanups.get(i).run();
+            } catch (RuntimeException e) {
+                System.out.println("Failed to clean up a view subscription.");
+                e.printStackTrace();
+            }
+        }
+        cleanups.clear();
+    }
+
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    private void onAttachmentChanged(ObservableValue<?> obs, Object oldValue, Object newValue) {
+        // Loaded views start detached; only leaving the scene ends the lifecycle.
+        if (oldValue != null && newValue == null) {
+            dispose();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package frontend.util;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Cache of loaded FXML screens, so navigation does not load them again.
+ * <p>
+ * Loading a screen means parsing its FXML, creating every node, creating
+ * the controller and injecting its fields by reflection, and doing all of
+ * that again for the included sidebar. That took a few hundred
+ * milliseconds on every click in the sidebar. The registry loads each
+ * screen once and hands out the same root and controller afterwards.
+ * <p>
+ * {@link #preload} loads screens on a background thread (MainApp does
+ * this right after login), so even the first visit is fast. Building
+ * nodes off the JavaFX thread is allowed as long as they are not in a
+ * scene yet, which is why controllers of cached screens only set up
+ * their own nodes in initialize(). Everything that reads shared data or
+ * shows dialogs goes into {@link ViewLifecycle#whenShown}, which runs
+ * on the JavaFX thread every time the screen is shown (the refresh hook).
+ * <p>
+ * {@link #get} and {@link #clear} must be called on the JavaFX
+ * application thread.
+ */
+public final class ViewRegistry {
+
+    /**
+     * A loaded screen: its root node and its controller.
+     */
+    public static final class View {
+        private final Parent root;
+        private final Object controller;
+
+        public View(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent getRoot() {
+            return root;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T getController() {
+            return (T) controller;
+        }
+    }
+
+    // FXML path -> loaded (or loading) screen
+    private final Map<String, CompletableFuture<View>> views = new HashMap<>();
+
+    private final Function<String, View> loader;
+    private final Executor background;
+
+    /**
+     * Registry that loads FXML from the classpath and preloads on one
+     * daemon thread.
+     */
+    public ViewRegistry() {
+        this(ViewRegistry::loadFxml, Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "view-preload");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /**
+     * @param loader     loads one screen from its FXML path
+     * @param background runs preloads
+     */
+    public ViewRegistry(Function<String, View> loader, Executor background) {
+        this.loader = loader;
+        this.background = background;
+    }
+
+    /**
+     * Starts loading the given screens in the background. Screens that are
+     * already cached (or loading) are skipped.
+     *
+     * @param fxmlPaths paths inside /resources, like "/frontend/fxml/Tasks.fxml"
+     */
+    public void preload(String... fxmlPaths) {
+        for (String path : fxmlPaths) {
+            synchronized (views) {
+                views.computeIfAbsent(path,
+                        p -> CompletableFuture.supplyAsync(() -> loader.apply(p), background));
+            }
+        }
+    }
+
+    /**
+     * Returns the cached screen, loading it now if needed. If a preload
+     * of this screen is still running, waits for it instead of loading
+     * it a second time. If the preload failed, loads it again here.
+     *
+     * @param fxmlPath path of the FXML file
+     * @return the screen
+     */
+    public View get(String fxmlPath) {
+        CompletableFuture<View> future;
+        synchronized (views) {
+            future = views.get(fxmlPath);
+        }
+
+        if (future != null) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                System.out.println("Preloading " + fxmlPath + " failed, loading it again.");
+                e.printStackTrace();
+            }
+        }
+
+        View view = loader.apply(fxmlPath);
+        synchronized (views) {
+            views.put(fxmlPath, CompletableFuture.completedFuture(view));
+        }
+        return view;
+    }
+
+    /**
+     * True if the screen is loaded (or being loaded).
+     */
+    public boolean contains(String fxmlPath) {
+        synchronized (views) {
+            return views.containsKey(fxmlPath);
+        }
+    }
+
+    /**
+     * Forgets every cached screen, for example on logout, so the next
+     * user starts with fresh screens.
+     */
+    public void clear() {
+        synchronized (views) {
+            views.clear();
+        }
+    }
+
+    /**
+     * Loads an FXML file and its controller from the classpath.
+     */
+    public static View loadFxml(String fxmlPath) {
+        URL url = ViewRegistry.class.getResource(fxmlPath);
+        if (url == null) {
+            throw new IllegalArgumentException("FXML not found: " + fxmlPath);
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(url);
+            Parent root = loader.load();
+            return new View(root, loader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + fxmlPath, e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package frontend;
+
+import com.studenttaskmanager.backend.repository.FaultInjectingStudentRepository;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentCounts;
+import frontend.Service.TaskStatistics;
+import frontend.util.FxFutures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that results of backend calls reach the "FX thread" also when
+ * the backend fails. A named single thread stands in for the JavaFX
+ * application thread, which cannot run in the tests.
+ */
+public class FxFuturesTest {
+
+    private static final String FX_NAME = "fx-stand-in";
+
+    private static final List<String> STATUSES = List.of(
+            TaskStatistics.COMPLETED, TaskStatistics.IN_PROGRESS, TaskStatistics.NOT_STARTED);
+
+    private final ExecutorService fxThread = Executors.newSingleThreadExecutor(r -> new Thread(r, FX_NAME));
+
+    @AfterEach
+    public void tearDown() {
+        fxThread.shutdownNow();
+    }
+
+    @Test
+    public void testFailedCountCompletesOnTheFxThread() throws Exception {
+        // Every call fails, after some latency so the failure happens on an I/O thread
+        FaultInjectingStudentRepository failing = new FaultInjectingStudentRepository(
+                new InMemoryStudentRepository(), 5, 0, 1.0, 1);
+        LocalDate today = LocalDate.of(2025, 3, 1);
+
+        CompletableFuture<String> handledOn = new CompletableFuture<>();
+        FxFutures.applyOn(fxThread,
+                StudentCounts.summary(failing, TaskStatistics.toQuery(TaskStatistics.ALL_TASKS, today), today, STATUSES),
+                TaskStatistics::fromCounts)
+                .whenComplete((stats, error) -> {
+                    // The controller's error branch would update labels here
+                    assertNull(stats);
+                    assertNotNull(error);
+                    handledOn.complete(Thread.currentThread().getName());
+                });
+
+        assertEquals(FX_NAME, handledOn.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testResultIsMappedOnTheFxThread() throws Exception {
+        InMemoryStudentRepository repo = new InMemoryStudentRepository();
+        LocalDate today = LocalDate.of(2025, 3, 1);
+
+        CompletableFuture<String> mappedOn = new CompletableFuture<>();
+        TaskStatistics stats = FxFutures.applyOn(fxThread,
+                StudentCounts.summary(repo, TaskStatistics.toQuery(TaskStatistics.ALL_TASKS, today), today, STATUSES),
+                counts -> {
+                    mappedOn.complete(Thread.currentThread().getName());
+                    return TaskStatistics.fromCounts(counts);
+                }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, stats.getTotal());
+        assertEquals(FX_NAME, mappedOn.get());
+    }
+
+    @Test
+    public void testFailureOfTheMappingIsReported() {
+        CompletableFuture<Integer> done = CompletableFuture.completedFuture(1);
+        CompletableFuture<Integer> mapped = FxFutures.applyOn(fxThread, done, value -> {
+            throw new IllegalStateException("bad value");
+        });
+        CompletionException e = assertThrows(CompletionException.class, mapped::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+}
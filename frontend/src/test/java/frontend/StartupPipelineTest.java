@@ -0,0 +1,96 @@
+package frontend;
+
+import frontend.util.StartupPipeline;
+import frontend.util.StartupPipeline.Step;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the startup steps behind the splash screen.
+ */
+public class StartupPipelineTest {
+
+    @Test
+    public void testIndependentStepsOverlapAndOrderIsKept() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(3);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        // Both steps have to be running at the same time to get past the barrier
+        CyclicBarrier together = new CyclicBarrier(2);
+
+        StartupPipeline startup = new StartupPipeline(workers, Runnable::run);
+        Step credentials = startup.step("credentials", 1, () -> {
+            together.await(5, TimeUnit.SECONDS);
+            order.add("credentials");
+        });
+        Step backend = startup.step("backend", 1, () -> order.add("backend"), credentials);
+        Step icons = startup.step("icons", 1, () -> {
+            together.await(5, TimeUnit.SECONDS);
+            order.add("icons");
+        });
+        CompletableFuture<Integer> remoteLoad = new CompletableFuture<>();
+        startup.asyncStep("tasks", 1, () -> {
+            order.add("tasks started");
+            return remoteLoad;
+        }, backend, icons);
+
+        CompletableFuture<Void> finished = startup.start(null);
+
+        // The async step is only done when its own work completes
+        Thread.sleep(50);
+        assertFalse(finished.isDone());
+        remoteLoad.complete(100);
+        finished.get(5, TimeUnit.SECONDS);
+
+        assertTrue(order.indexOf("credentials") < order.indexOf("backend"));
+        assertTrue(order.indexOf("backend") < order.indexOf("tasks started"));
+        assertTrue(order.indexOf("icons") < order.indexOf("tasks started"));
+        for (Step step : startup.getSteps()) {
+            assertFalse(step.isFailed(), step.getName());
+            assertTrue(step.getMillis() >= 0, step.getName());
+        }
+        workers.shutdown();
+    }
+
+    @Test
+    public void testFailingStepDoesNotBlockStartup() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(2);
+        List<Double> progress = Collections.synchronizedList(new ArrayList<>());
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        boolean[] backendRan = {false};
+
+        StartupPipeline startup = new StartupPipeline(workers, Runnable::run);
+        Step credentials = startup.step("credentials", 1, () -> {
+            throw new IllegalStateException("serviceAccountKey.json not found");
+        });
+        startup.step("backend", 3, () -> backendRan[0] = true, credentials);
+
+        startup.start((value, message) -> {
+            progress.add(value);
+            messages.add(message);
+        }).get(5, TimeUnit.SECONDS);
+
+        assertTrue(backendRan[0]);
+        assertTrue(startup.getSteps().get(0).isFailed());
+        assertFalse(startup.getSteps().get(1).isFailed());
+
+        // Progress only goes up, by the weight of each finished step, and ends at 100 %
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i) >= progress.get(i - 1), progress.toString());
+        }
+        assertTrue(progress.contains(0.25), progress.toString());
+        assertEquals(1.0, progress.get(progress.size() - 1));
+        assertEquals("Ready", messages.get(messages.size() - 1));
+        workers.shutdown();
+    }
+}
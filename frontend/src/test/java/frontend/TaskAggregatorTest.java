@@ -0,0 +1,140 @@
+package frontend;
+
+import com.studenttaskmanager.backend.models.StudentMutation;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentCounts;
+import frontend.Service.TaskAggregator;
+import frontend.Service.TaskMapper;
+import frontend.Service.TaskStatistics;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the incremental analytics counters, and the counts made by
+ * the backend for "count on server", always match a full recount with
+ * TaskStatistics.compute.
+ */
+public class TaskAggregatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 15);
+
+    private static final List<String> FILTERS = List.of(
+            TaskStatistics.ALL_TASKS, TaskStatistics.COMPLETED, TaskStatistics.IN_PROGRESS,
+            TaskStatistics.NOT_STARTED, TaskStatistics.OVERDUE, TaskStatistics.TODAY,
+            TaskStatistics.NEXT_7_DAYS);
+
+    private static final String[] STATUSES = {"Completed", "In progress", "Not started", "Blocked", null};
+
+    private static Task randomTask(Random random, int id) {
+        LocalDate due = random.nextInt(8) == 0 ? null : TODAY.plusDays(random.nextInt(30) - 15);
+        return new Task(id, "Task " + id, "Course " + random.nextInt(4), due,
+                random.nextBoolean() ? "High" : "Low", STATUSES[random.nextInt(STATUSES.length)], "");
+    }
+
+    private static void assertSameAsRecount(TaskAggregator aggregator, List<Task> tasks) {
+        for (String filter : FILTERS) {
+            TaskStatistics expected = TaskStatistics.compute(tasks, filter, aggregator.getToday());
+            TaskStatistics actual = aggregator.statistics(filter);
+            assertEquals(expected.getTotal(), actual.getTotal(), filter);
+            assertEquals(expected.getCompleted(), actual.getCompleted(), filter);
+            assertEquals(expected.getInProgress(), actual.getInProgress(), filter);
+            assertEquals(expected.getNotStarted(), actual.getNotStarted(), filter);
+            assertEquals(expected.getOverdue(), actual.getOverdue(), filter);
+            assertEquals(expected.getDueToday(), actual.getDueToday(), filter);
+            assertEquals(expected.getDueNextWeek(), actual.getDueNextWeek(), filter);
+        }
+    }
+
+    @Test
+    public void testMatchesRecountAfterRandomChanges() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList();
+        TaskAggregator aggregator = new TaskAggregator(tasks, TODAY);
+        Random random = new Random(11);
+
+        int nextId = 1;
+        for (int step = 0; step < 3000; step++) {
+            int op = random.nextInt(10);
+            if (op < 5 || tasks.isEmpty()) {
+                tasks.add(randomTask(random, nextId++));
+            } else if (op < 7) {
+                tasks.remove(random.nextInt(tasks.size()));
+            } else if (op < 9) {
+                tasks.set(random.nextInt(tasks.size()), randomTask(random, nextId++));
+            } else {
+                // Edit in place, like the Add/Edit screen does
+                Task t = tasks.get(random.nextInt(tasks.size()));
+                Task values = randomTask(random, t.getId());
+                t.setStatus(values.getStatus());
+                t.setDueDate(values.getDueDate());
+                aggregator.reindex(t);
+            }
+        }
+
+        assertSameAsRecount(aggregator, tasks);
+
+        aggregator.setToday(TODAY.plusDays(3));
+        assertSameAsRecount(aggregator, tasks);
+    }
+
+    @Test
+    public void testPropertiesFollowFilterAndChanges() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList();
+        TaskAggregator aggregator = new TaskAggregator(tasks, TODAY);
+
+        tasks.addAll(
+                new Task(1, "A", "Math 101", TODAY.minusDays(1), "High", "Completed", ""),
+                new Task(2, "B", "Math 101", TODAY, "Low", "Not started", ""),
+                new Task(3, "C", "Bio 110", TODAY.plusDays(2), "High", "In progress", ""));
+
+        assertEquals(3, aggregator.totalProperty().get());
+        assertEquals(1, aggregator.overdueProperty().get());
+        assertEquals(2, aggregator.countForCourse("MATH 101"));
+        assertEquals(2, aggregator.countWithPriority("high"));
+
+        aggregator.setFilter(TaskStatistics.COMPLETED);
+        assertEquals(1, aggregator.totalProperty().get());
+        assertEquals(0, aggregator.dueTodayProperty().get());
+
+        tasks.remove(0);
+        assertEquals(0, aggregator.totalProperty().get());
+        assertEquals(1, aggregator.countForCourse("Math 101"));
+    }
+
+    @Test
+    public void testServerCountsMatchRecount() {
+        Random random = new Random(5);
+        List<Task> tasks = new ArrayList<>();
+        List<StudentMutation> rows = new ArrayList<>();
+        for (int id = 1; id <= 400; id++) {
+            Task task = randomTask(random, id);
+            tasks.add(task);
+            rows.add(StudentMutation.upsert(TaskMapper.toStudent(task)));
+        }
+        InMemoryStudentRepository repository = new InMemoryStudentRepository();
+        assertTrue(repository.applyBatchAsync(rows).join());
+
+        for (String filter : FILTERS) {
+            TaskStatistics expected = TaskStatistics.compute(tasks, filter, TODAY);
+            TaskStatistics actual = TaskStatistics.fromCounts(StudentCounts.summary(repository,
+                    TaskStatistics.toQuery(filter, TODAY), TODAY,
+                    List.of(TaskStatistics.COMPLETED, TaskStatistics.IN_PROGRESS, TaskStatistics.NOT_STARTED))
+                    .join());
+            assertEquals(expected.getTotal(), actual.getTotal(), filter);
+            assertEquals(expected.getCompleted(), actual.getCompleted(), filter);
+            assertEquals(expected.getInProgress(), actual.getInProgress(), filter);
+            assertEquals(expected.getNotStarted(), actual.getNotStarted(), filter);
+            assertEquals(expected.getOverdue(), actual.getOverdue(), filter);
+            assertEquals(expected.getDueToday(), actual.getDueToday(), filter);
+            assertEquals(expected.getDueNextWeek(), actual.getDueNextWeek(), filter);
+        }
+    }
+}
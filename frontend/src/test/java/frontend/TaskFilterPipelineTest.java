@@ -0,0 +1,87 @@
+package frontend;
+
+import frontend.Service.TaskFilter;
+import frontend.Service.TaskFilterPipeline;
+import frontend.Service.TaskSearchIndex;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the background filter of the Tasks screen. The test thread
+ * plays the JavaFX thread: work handed to it is queued and run by
+ * {@link #runFxWork()}.
+ */
+public class TaskFilterPipelineTest {
+
+    private final BlockingQueue<Runnable> fxQueue = new LinkedBlockingQueue<>();
+
+    private void runFxWork() throws InterruptedException {
+        Runnable work = fxQueue.poll(5, TimeUnit.SECONDS);
+        assertNotNull(work, "filter result was never published");
+        work.run();
+    }
+
+    private static ObservableList<Task> tasks(int count) {
+        ObservableList<Task> tasks = FXCollections.observableArrayList();
+        for (int id = 1; id <= count; id++) {
+            tasks.add(new Task(id, (id % 10 == 0 ? "Essay " : "Homework ") + id, "Math 101",
+                    null, id % 2 == 0 ? "High" : "Low", "Not started", ""));
+        }
+        return tasks;
+    }
+
+    @Test
+    public void testBurstOfKeystrokesIsFilteredOnce() throws InterruptedException {
+        ObservableList<Task> tasks = tasks(20_000);
+        TaskFilterPipeline pipeline = new TaskFilterPipeline(
+                tasks, new TaskSearchIndex(tasks), fxQueue::add, 50);
+
+        List<Integer> publishedSizes = new ArrayList<>();
+        pipeline.getFiltered().addListener((ListChangeListener<Task>) change ->
+                publishedSizes.add(pipeline.getFiltered().size()));
+
+        for (String typed : List.of("e", "es", "ess", "essa", "essay")) {
+            pipeline.request(typed, TaskFilter.ALL, "High");
+        }
+        runFxWork();
+
+        // One update with the result of the last keystroke only
+        assertEquals(List.of(2000), publishedSizes);
+        assertTrue(fxQueue.isEmpty());
+        for (Task t : pipeline.getFiltered()) {
+            assertTrue(t.getTitle().startsWith("Essay"));
+        }
+
+        // Clearing the filter shows everything right away, no background run
+        pipeline.request("", TaskFilter.ALL, TaskFilter.ALL);
+        assertEquals(20_000, pipeline.getFiltered().size());
+        pipeline.shutdown();
+    }
+
+    @Test
+    public void testListChangesAreFilteredAgain() throws InterruptedException {
+        ObservableList<Task> tasks = tasks(100);
+        TaskFilterPipeline pipeline = new TaskFilterPipeline(
+                tasks, new TaskSearchIndex(tasks), fxQueue::add, 10);
+
+        pipeline.request("essay", TaskFilter.ALL, TaskFilter.ALL);
+        runFxWork();
+        assertEquals(10, pipeline.getFiltered().size());
+
+        tasks.add(new Task(500, "Essay draft", "English 101", null, "Low", "Not started", ""));
+        runFxWork();
+        assertEquals(11, pipeline.getFiltered().size());
+        pipeline.shutdown();
+    }
+}
@@ -0,0 +1,126 @@
+package frontend;
+
+import frontend.Service.TaskFilter;
+import frontend.Service.TaskIndex;
+import frontend.Service.TaskSearchIndex;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the task list indexes (no UI needed).
+ */
+public class TaskIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 15);
+
+    private static Task task(int id, LocalDate due, String status, String course) {
+        return new Task(id, "Task " + id, course, due, "Medium", status, "");
+    }
+
+    @Test
+    public void testFollowsAddRemoveAndReplace() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList();
+        Task a = task(1, DAY, "Not started", "Math 101");
+        tasks.add(a);
+        TaskIndex index = new TaskIndex(tasks);
+
+        Task b = task(2, DAY.plusDays(1), "Completed", "Math 101");
+        Task c = task(3, null, "In progress", "Bio 110");
+        tasks.addAll(b, c);
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(a), index.dueOn(DAY));
+        assertEquals(List.of(a, b), index.dueBetween(DAY, DAY.plusDays(5)));
+        assertEquals(List.of(a, b), index.withCourse("MATH 101"));
+        assertEquals(1, index.countWithStatus("completed"));
+
+        Task newerB = task(2, DAY.minusDays(3), "Completed", "Math 101");
+        tasks.set(1, newerB);
+        assertEquals(List.of(newerB), index.dueBefore(DAY));
+        assertTrue(index.dueOn(DAY.plusDays(1)).isEmpty());
+
+        tasks.remove(a);
+        assertTrue(index.dueOn(DAY).isEmpty());
+        assertEquals(List.of(newerB), index.withCourse("Math 101"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testReindexAfterEditInPlace() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList();
+        TaskIndex index = new TaskIndex(tasks);
+        Task t = task(1, DAY, "Not started", "Math 101");
+        tasks.add(t);
+
+        t.setDueDate(DAY.plusDays(10));
+        t.setStatus("Completed");
+        index.reindex(t);
+
+        assertTrue(index.dueOn(DAY).isEmpty());
+        assertEquals(List.of(t), index.dueOn(DAY.plusDays(10)));
+        assertEquals(0, index.countWithStatus("Not started"));
+        assertEquals(List.of(t), index.withStatus("Completed"));
+    }
+
+    @Test
+    public void testExtractorListReportsEditsInPlace() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList(Task.extractor());
+        TaskIndex index = new TaskIndex(tasks);
+        TaskSearchIndex searchIndex = new TaskSearchIndex(tasks);
+        Task t = task(1, DAY, "Not started", "Math 101");
+        tasks.addAll(task(2, DAY, "Not started", "Math 101"), t);
+
+        List<Integer> updated = new ArrayList<>();
+        tasks.addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                if (change.wasUpdated()) {
+                    updated.add(change.getFrom());
+                }
+            }
+        });
+
+        // No reindex() calls: the list reports each edit as an update of that row
+        t.setStatus("Completed");
+        t.setCourse("Bio 110");
+        t.setTitle("Lab report");
+
+        assertEquals(List.of(1, 1, 1), updated);
+        assertEquals(List.of(t), index.withStatus("Completed"));
+        assertEquals(List.of(t), index.withCourse("bio 110"));
+        assertEquals(Set.of(t), searchIndex.search("lab rep"));
+    }
+
+    @Test
+    public void testMonthLookupMatchesLinearScan() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList();
+        TaskIndex index = new TaskIndex(tasks);
+        Random random = new Random(7);
+        for (int id = 1; id <= 2000; id++) {
+            LocalDate due = random.nextInt(10) == 0 ? null : DAY.plusDays(random.nextInt(200) - 100);
+            tasks.add(task(id, due, "Not started", "Course " + random.nextInt(5)));
+        }
+        // Remove some tasks again so the index has to drop them
+        tasks.remove(0, 300);
+
+        YearMonth month = YearMonth.from(DAY);
+        List<Task> expected = TaskFilter.dueInMonth(tasks, month);
+        List<Task> actual = index.dueBetween(month.atDay(1), month.atEndOfMonth());
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+        assertEquals(expected.size(), index.countDueBetween(month.atDay(1), month.atEndOfMonth()));
+    }
+}
@@ -0,0 +1,100 @@
+package frontend;
+
+import frontend.Service.TaskFilter;
+import frontend.Service.TaskSearchIndex;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the trigram search index against the plain text search of TaskFilter.
+ */
+public class TaskSearchIndexTest {
+
+    private static final String[] WORDS = {
+            "Essay", "Lab report", "Homework", "Quiz", "Reading", "Midterm", "Project"
+    };
+
+    private static final List<String> QUERIES = List.of(
+            "essay", "ssay 1", "  LAB ", "report 2", "math", "ma", "h", "1", "12",
+            "course 3", "draft", "raft c", "homework 10", "zzz", "y\u0000m");
+
+    private static Task randomTask(Random random, int id) {
+        return new Task(id,
+                WORDS[random.nextInt(WORDS.length)] + " " + id,
+                random.nextBoolean() ? "Math " + random.nextInt(5) : "Course " + random.nextInt(5),
+                LocalDate.of(2025, 3, 15), "Medium", "Not started",
+                random.nextBoolean() ? "draft copy" : null);
+    }
+
+    private static void assertSameAsScan(TaskSearchIndex index, List<Task> tasks) {
+        for (String query : QUERIES) {
+            TaskFilter scan = TaskFilter.of(query, TaskFilter.ALL, TaskFilter.ALL);
+            Set<Task> found = index.search(query);
+
+            int expected = 0;
+            for (Task t : tasks) {
+                if (scan.test(t)) {
+                    expected++;
+                    assertTrue(found.contains(t), "missing " + t.getTitle() + " for '" + query + "'");
+                }
+            }
+            assertEquals(expected, found.size(), "query '" + query + "'");
+        }
+    }
+
+    @Test
+    public void testMatchesTextScanAcrossChanges() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList();
+        Random random = new Random(3);
+        int nextId = 1;
+        for (; nextId <= 500; nextId++) {
+            tasks.add(randomTask(random, nextId));
+        }
+        TaskSearchIndex index = new TaskSearchIndex(tasks);
+        assertSameAsScan(index, tasks);
+
+        // Enough removals to trigger at least one rebuild of the slots
+        for (int step = 0; step < 6000; step++) {
+            int op = random.nextInt(4);
+            if (op == 0 || tasks.size() < 50) {
+                tasks.add(randomTask(random, nextId++));
+            } else if (op == 1) {
+                tasks.remove(random.nextInt(tasks.size()));
+                tasks.add(randomTask(random, nextId++));
+            } else if (op == 2) {
+                tasks.set(random.nextInt(tasks.size()), randomTask(random, nextId++));
+            } else {
+                Task t = tasks.get(random.nextInt(tasks.size()));
+                t.setTitle(WORDS[random.nextInt(WORDS.length)] + " edited " + t.getId());
+                t.setNotes(random.nextBoolean() ? "final draft" : "");
+                index.reindex(t);
+            }
+        }
+
+        assertEquals(tasks.size(), index.size());
+        assertSameAsScan(index, tasks);
+    }
+
+    @Test
+    public void testFilterUsesIndexResult() {
+        ObservableList<Task> tasks = FXCollections.observableArrayList(
+                new Task(1, "Essay draft", "English 101", null, "High", "Completed", ""),
+                new Task(2, "Lab", "Chem 110", null, "Low", "Completed", "essay questions"),
+                new Task(3, "Essay final", "English 101", null, "High", "Not started", ""));
+        TaskSearchIndex index = new TaskSearchIndex(tasks);
+
+        TaskFilter filter = TaskFilter.of("ESSAY", "Completed", TaskFilter.ALL, index);
+        assertTrue(filter.test(tasks.get(0)));
+        assertTrue(filter.test(tasks.get(1)));   // found through the notes
+        assertFalse(filter.test(tasks.get(2)));  // wrong status
+    }
+}
@@ -0,0 +1,65 @@
+package frontend;
+
+import com.studenttaskmanager.backend.repository.ChangeSubscription;
+import com.studenttaskmanager.backend.repository.InMemoryStudentRepository;
+import com.studenttaskmanager.backend.repository.StudentChangeListener;
+import frontend.Service.TaskSyncEngine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restart of the live listener after an error. The repository only
+ * records registrations; no change reaches the (FX-thread) task list.
+ */
+public class TaskSyncEngineTest {
+
+    /**
+     * Remembers every listener registered with a mark, and how many were removed.
+     */
+    private static class RecordingRepository extends InMemoryStudentRepository {
+        final List<StudentChangeListener> listeners = new CopyOnWriteArrayList<>();
+        final List<String> marks = new CopyOnWriteArrayList<>();
+        final AtomicInteger removed = new AtomicInteger();
+
+        @Override
+        public ChangeSubscription listenForChanges(String since, StudentChangeListener listener) {
+            listeners.add(listener);
+            marks.add(since);
+            return removed::incrementAndGet;
+        }
+    }
+
+    @Test
+    public void testListenerErrorRestartsFromTheSameMark() throws Exception {
+        RecordingRepository repo = new RecordingRepository();
+        TaskSyncEngine engine = new TaskSyncEngine(repo);
+        engine.start("2025-03-01T09:00:00.000Z");
+        assertEquals(1, repo.listeners.size());
+
+        // Firestore stopped the listener
+        repo.listeners.get(0).onError(new IllegalStateException("listener failed"));
+        assertEquals(1, repo.removed.get());
+        assertTrue(engine.isRunning(), "still running while it waits to restart");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (repo.listeners.size() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, repo.listeners.size());
+        assertEquals("2025-03-01T09:00:00.000Z", repo.marks.get(1));
+
+        // A late error of the old listener does not touch the new one
+        repo.listeners.get(0).onError(new IllegalStateException("again"));
+        assertEquals(1, repo.removed.get());
+
+        engine.stop();
+        assertFalse(engine.isRunning());
+        assertEquals(2, repo.removed.get());
+    }
+}
@@ -0,0 +1,68 @@
+package frontend;
+
+import frontend.Service.TaskMapper;
+import frontend.model.Task;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the change tracking in {@link Task} that lets saving send
+ * only the fields that changed, and for taking over a remote version.
+ */
+public class TaskTest {
+
+    @Test
+    public void testDirtyFieldsAreTrackedUntilSaved() {
+        Task task = new Task(1, "Essay", "English 101", LocalDate.of(2025, 3, 15),
+                "High", "Not started", "");
+        assertFalse(task.isDirty());
+
+        // Same value again is not a change
+        task.setStatus("Not started");
+        assertFalse(task.isDirty());
+
+        task.setStatus("Completed");
+        task.statusProperty().set("In progress");
+        task.setPriority("Low");
+        assertEquals(Set.of("status", "priority"), task.getDirtyFields());
+
+        assertEquals(Set.of("status", "priority"), TaskMapper.toStudentFields(task.getDirtyFields()));
+
+        task.markClean();
+        assertFalse(task.isDirty());
+        task.setTitle("Final essay");
+        assertEquals(Set.of("task"), TaskMapper.toStudentFields(task.getDirtyFields()));
+    }
+
+    @Test
+    public void testCopyFromUpdatesTheSameTaskInTheList() {
+        ObservableList<Task> list = FXCollections.observableArrayList(Task.extractor());
+        Task shown = new Task(1, "Essay", "English 101", null, "High", "Not started", "");
+        list.add(shown);
+        List<Boolean> updates = new ArrayList<>();
+        list.addListener((ListChangeListener<Task>) change -> {
+            while (change.next()) {
+                updates.add(change.wasUpdated());
+            }
+        });
+
+        Task remote = new Task(1, "Essay", "English 101", LocalDate.of(2025, 4, 1), "High", "Completed", "");
+        shown.copyFrom(remote);
+
+        assertSame(shown, list.get(0));
+        assertEquals("Completed", shown.getStatus());
+        assertEquals(LocalDate.of(2025, 4, 1), shown.getDueDate());
+        assertFalse(shown.isDirty());
+        assertFalse(updates.isEmpty());
+        assertTrue(updates.stream().allMatch(u -> u));
+    }
+}
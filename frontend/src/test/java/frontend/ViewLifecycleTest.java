@@ -0,0 +1,153 @@
+package frontend;
+
+import frontend.Service.TaskAggregator;
+import frontend.model.Task;
+import frontend.util.ViewLifecycle;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Leak regression test for screen navigation.
+ * <p>
+ * Real views need a running JavaFX toolkit, so each "screen" here is a
+ * small stand-in that subscribes the way the controllers do: a listener
+ * on the shared task list and a label bound to an analytics counter.
+ * Its scene property is switched like Scene.setRoot does it: the new
+ * screen is attached, then the old one is detached.
+ */
+public class ViewLifecycleTest {
+
+    private static final Object SCENE = new Object();
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 15);
+
+    private final ObservableList<Task> tasks = FXCollections.observableArrayList();
+    private final TaskAggregator aggregator = new TaskAggregator(tasks, TODAY);
+    private int listenerCalls = 0;
+
+    /**
+     * Stand-in for a controller and its view.
+     */
+    private final class Screen {
+        final ObjectProperty<Object> scene = new SimpleObjectProperty<>();
+        final StringProperty totalLabel = new SimpleStringProperty();
+        final byte[] sceneGraph = new byte[64 * 1024]; // makes a leak expensive
+
+        Screen() {
+            ViewLifecycle lifecycle = ViewLifecycle.attachedTo(scene);
+            lifecycle.listen(tasks, (ListChangeListener<Task>) change -> listenerCalls++);
+            lifecycle.bindText(totalLabel, aggregator.totalProperty());
+        }
+    }
+
+    private Screen navigate(Screen current) {
+        Screen next = new Screen();
+        next.scene.set(SCENE);
+        if (current != null) {
+            current.scene.set(null);
+        }
+        return next;
+    }
+
+    @Test
+    public void testThousandNavigationsLeaveOneLiveScreen() throws InterruptedException {
+        int before = ViewLifecycle.activeCount();
+
+        Screen current = navigate(null);
+        WeakReference<Screen> first = new WeakReference<>(current);
+        Screen second = navigate(current);
+        current = second;
+        second = null;
+
+        for (int i = 0; i < 1000; i++) {
+            current = navigate(current);
+        }
+
+        assertEquals(before + 1, ViewLifecycle.activeCount());
+
+        // A change reaches only the screen that is shown
+        tasks.add(new Task(1, "Essay", "English 101", TODAY, "High", "Not started", ""));
+        assertEquals(1, listenerCalls);
+        assertEquals("1", current.totalLabel.get());
+
+        // Old screens are no longer reachable from the shared list or counters
+        for (int i = 0; i < 50 && first.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(first.get(), "first screen was not garbage collected");
+    }
+
+    @Test
+    public void testCachedScreenSubscribesOnlyWhileShown() {
+        int before = ViewLifecycle.activeCount();
+        ObjectProperty<Object> scene = new SimpleObjectProperty<>();
+        StringProperty label = new SimpleStringProperty();
+        int[] shows = {0};
+
+        // One controller, shown three times like a cached screen
+        ViewLifecycle.whenAttached(scene, lifecycle -> {
+            shows[0]++;
+            lifecycle.listen(tasks, (ListChangeListener<Task>) change -> listenerCalls++);
+            lifecycle.bindText(label, aggregator.totalProperty());
+        });
+        assertEquals(0, shows[0]);
+
+        for (int visit = 1; visit <= 3; visit++) {
+            scene.set(SCENE);
+            assertEquals(visit, shows[0]);
+            assertEquals(before + 1, ViewLifecycle.activeCount());
+
+            tasks.add(new Task(visit, "Essay", "English 101", TODAY, "High", "Not started", ""));
+            assertEquals(visit, listenerCalls);
+            assertEquals(String.valueOf(visit), label.get());
+
+            scene.set(null);
+            assertEquals(before, ViewLifecycle.activeCount());
+            assertFalse(label.isBound());
+        }
+
+        // Hidden: no longer notified
+        tasks.clear();
+        assertEquals(3, listenerCalls);
+    }
+
+    @Test
+    public void testDisposeUndoesEverything() {
+        ObjectProperty<Object> scene = new SimpleObjectProperty<>(SCENE);
+        ViewLifecycle lifecycle = ViewLifecycle.attachedTo(scene);
+
+        StringProperty label = new SimpleStringProperty();
+        int[] cleanups = {0};
+        lifecycle.listen(tasks, (ListChangeListener<Task>) change -> listenerCalls++);
+        lifecycle.bindText(label, aggregator.totalProperty());
+        lifecycle.onDispose(() -> cleanups[0]++);
+        assertEquals("0", label.get());
+
+        scene.set(null);
+        assertTrue(lifecycle.isDisposed());
+        assertEquals(1, cleanups[0]);
+        assertFalse(label.isBound());
+
+        tasks.add(new Task(1, "Essay", "English 101", TODAY, "High", "Not started", ""));
+        assertEquals(0, listenerCalls);
+        assertEquals("0", label.get());
+
+        // Subscribing after the end is ignored, cleanups run right away
+        lifecycle.listen(tasks, (ListChangeListener<Task>) change -> listenerCalls++);
+        lifecycle.onDispose(() -> cleanups[0]++);
+        tasks.remove(0);
+        assertEquals(0, listenerCalls);
+        assertEquals(2, cleanups[0]);
+    }
+}
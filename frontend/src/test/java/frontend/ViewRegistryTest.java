@@ -0,0 +1,77 @@
+package frontend;
+
+import frontend.util.ViewRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the screen cache. Real FXML needs a running JavaFX toolkit,
+ * so the loader here only creates a controller object per screen.
+ */
+public class ViewRegistryTest {
+
+    private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    private ViewRegistry.View load(String path) {
+        loads.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+        if (path.contains("Broken") && loads.get(path).get() == 1) {
+            throw new IllegalStateException("first load fails");
+        }
+        return new ViewRegistry.View(null, new Object());
+    }
+
+    private int loadsOf(String path) {
+        AtomicInteger count = loads.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    @Test
+    public void testPreloadedScreenIsReused() {
+        // Preloads wait here until the test runs them, like a busy background thread
+        List<Runnable> background = new ArrayList<>();
+        Executor executor = background::add;
+        ViewRegistry registry = new ViewRegistry(this::load, executor);
+
+        registry.preload("/Tasks.fxml", "/Calendar.fxml");
+        registry.preload("/Tasks.fxml"); // already loading, not queued again
+        assertEquals(2, background.size());
+        assertEquals(0, loadsOf("/Tasks.fxml"));
+
+        background.forEach(Runnable::run);
+        ViewRegistry.View tasks = registry.get("/Tasks.fxml");
+        assertSame(tasks, registry.get("/Tasks.fxml"));
+        assertSame(tasks.getController(), registry.get("/Tasks.fxml").getController());
+        assertEquals(1, loadsOf("/Tasks.fxml"));
+
+        // Not preloaded: loaded on first use, then cached
+        ViewRegistry.View settings = registry.get("/Settings.fxml");
+        assertSame(settings, registry.get("/Settings.fxml"));
+        assertEquals(1, loadsOf("/Settings.fxml"));
+
+        // After clear() (logout) screens are loaded fresh
+        registry.clear();
+        assertFalse(registry.contains("/Tasks.fxml"));
+        assertNotSame(tasks, registry.get("/Tasks.fxml"));
+        assertEquals(2, loadsOf("/Tasks.fxml"));
+    }
+
+    @Test
+    public void testFailedPreloadIsLoadedAgain() {
+        ViewRegistry registry = new ViewRegistry(this::load, Runnable::run);
+
+        registry.preload("/Broken.fxml");
+        ViewRegistry.View view = registry.get("/Broken.fxml");
+
+        assertNotNull(view);
+        assertEquals(2, loadsOf("/Broken.fxml"));
+        assertSame(view, registry.get("/Broken.fxml"));
+    }
+}